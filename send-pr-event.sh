@@ -0,0 +1,35 @@
+#!/bin/bash
+
+# Local stand-in for GitHub's pull_request webhook
+# Usage: ./send-pr-event.sh <owner/repo> <pr-number> [head-sha] [action]
+# Signs the payload with GITHUB_WEBHOOK_SECRET like GitHub does; the app rejects unsigned deliveries.
+
+BASE_URL="${BASE_URL:-http://localhost:8081}"
+REPO="$1"
+PR="$2"
+SHA="${3:-$(head -c 20 /dev/urandom | od -An -tx1 | tr -d ' \n')}"
+ACTION="${4:-synchronize}"
+
+if [ -z "$REPO" ] || [ -z "$PR" ]; then
+  echo "Usage: $0 <owner/repo> <pr-number> [head-sha] [action]"
+  exit 1
+fi
+
+PAYLOAD=$(cat <<EOF
+{"action":"$ACTION","number":$PR,"pull_request":{"head":{"sha":"$SHA"}},"repository":{"full_name":"$REPO"}}
+EOF
+)
+
+SIGNATURE_HEADER=()
+if [ -n "$GITHUB_WEBHOOK_SECRET" ]; then
+  SIG=$(printf '%s' "$PAYLOAD" | openssl dgst -sha256 -hmac "$GITHUB_WEBHOOK_SECRET" | sed 's/^.* //')
+  SIGNATURE_HEADER=(-H "X-Hub-Signature-256: sha256=$SIG")
+fi
+
+echo "📬 Sending pull_request/$ACTION for $REPO#$PR at $SHA"
+curl -s -X POST "$BASE_URL/webhook/github" \
+  -H "Content-Type: application/json" \
+  -H "X-GitHub-Event: pull_request" \
+  "${SIGNATURE_HEADER[@]}" \
+  --data-binary "$PAYLOAD"
+echo ""
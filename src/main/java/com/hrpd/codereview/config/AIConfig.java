@@ -1,8 +1,14 @@
 package com.hrpd.codereview.config;
 
+import com.hrpd.codereview.reviewer.ChatCircuitBreaker;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -12,7 +18,8 @@ import java.util.concurrent.Executors;
  * 
  * <p>This configuration class sets up the core AI infrastructure components
  * required for the code review system, including the ChatClient for AI model
- * communication and the virtual thread executor for parallel processing.</p>
+ * communication (behind a circuit breaker reported in actuator health) and the
+ * virtual thread executor for parallel processing.</p>
  * 
  * <p>The configuration emphasizes performance and scalability by using virtual
  * threads for concurrent operations, which provides excellent throughput for
@@ -31,15 +38,70 @@ public class AIConfig {
      * 
      * <p>This bean is used by all reviewer implementations to send code analysis
      * requests to the AI model and receive structured findings in response.</p>
+     * 
+     * <p>Unless {@code review.circuit.enabled} is {@code false}, every call goes through the
+     * {@link ChatCircuitBreaker}, so a degraded provider is answered at once instead of by slow
+     * failing calls.</p>
      *
      * @param builder Spring AI ChatClient builder, auto-configured by Spring AI
+     * @param breaker circuit breaker around the chat model
+     * @param env Spring environment for configuration properties
      * @return configured ChatClient ready for AI model communication
      */
     @Bean
-    public ChatClient chatClient(ChatClient.Builder builder) {
+    public ChatClient chatClient(ChatClient.Builder builder, ChatCircuitBreaker breaker, Environment env) {
+        if (env.getProperty("review.circuit.enabled", Boolean.class, true)) {
+            builder.defaultAdvisors(breaker);
+        }
         return builder.build();
     }
 
+    /**
+     * Creates the circuit breaker around the chat model.
+     * 
+     * <p>With {@code review.circuit.fallback=local} (the default), hunks that cannot be sent to
+     * the model while the circuit is open get a local pattern analysis instead and are listed as
+     * degraded failed hunks; with {@code none} they are only listed as failed.</p>
+     *
+     * @param env Spring environment for configuration properties
+     * @return the circuit breaker
+     */
+    @Bean
+    public ChatCircuitBreaker chatCircuitBreaker(Environment env) {
+        return new ChatCircuitBreaker(
+                env.getProperty("review.circuit.window-size", Integer.class, 20),
+                env.getProperty("review.circuit.minimum-calls", Integer.class, 10),
+                env.getProperty("review.circuit.failure-rate-threshold", Double.class, 0.5),
+                env.getProperty("review.circuit.slow-call-rate-threshold", Double.class, 0.8),
+                env.getProperty("review.circuit.slow-call-duration", Duration.class, Duration.ofSeconds(30)),
+                env.getProperty("review.circuit.open-duration", Duration.class, Duration.ofSeconds(30)),
+                env.getProperty("review.circuit.half-open-calls", Integer.class, 3),
+                "local".equals(env.getProperty("review.circuit.fallback", "local")));
+    }
+
+    /**
+     * Reports the chat model circuit in actuator health as {@code chatModel}.
+     * 
+     * <p>An open circuit is {@code OUT_OF_SERVICE}, which turns the overall health status
+     * (and its HTTP status) unhealthy so a load balancer can shed traffic; half-open counts as
+     * up, so probe traffic keeps arriving.</p>
+     *
+     * @param breaker circuit breaker around the chat model
+     * @return the health indicator
+     */
+    @Bean
+    public HealthIndicator chatModelHealthIndicator(ChatCircuitBreaker breaker) {
+        return () -> {
+            var snapshot = breaker.snapshot();
+            var health = snapshot.state() == ChatCircuitBreaker.State.OPEN ? Health.outOfService() : Health.up();
+            return health.withDetail("circuit", snapshot.state())
+                    .withDetail("calls", snapshot.calls())
+                    .withDetail("failureRate", snapshot.failureRate())
+                    .withDetail("slowCallRate", snapshot.slowCallRate())
+                    .build();
+        };
+    }
+
     /**
      * Creates a virtual thread executor service for high-performance parallel processing.
      * 
@@ -56,10 +118,27 @@ public class AIConfig {
      *   <li>No need for complex thread pool tuning</li>
      * </ul></p>
      *
+     * <p>Its shutdown is left to {@link #parallelExecutorDrain}, which bounds how long in-flight
+     * work may delay a stop.</p>
+     *
      * @return ExecutorService using virtual threads for optimal parallel performance
      */
-    @Bean
+    @Bean(destroyMethod = "")
     public ExecutorService parallelExecutor() {
         return Executors.newVirtualThreadPerTaskExecutor();
     }
+
+    /**
+     * Drains the review executor on shutdown for at most {@code review.shutdown.grace-period}
+     * (30 seconds by default), after open requests were drained by the graceful web shutdown.
+     *
+     * @param parallelExecutor the review executor
+     * @param env Spring environment for configuration properties
+     * @return the shutdown hook
+     */
+    @Bean
+    public ExecutorDrain parallelExecutorDrain(ExecutorService parallelExecutor, Environment env) {
+        return new ExecutorDrain(parallelExecutor,
+                env.getProperty("review.shutdown.grace-period", Duration.class, Duration.ofSeconds(30)));
+    }
 }
@@ -1,11 +1,14 @@
 package com.hrpd.codereview.config;
 
 import com.hrpd.codereview.reviewer.CleanCodeReviewer;
+import com.hrpd.codereview.reviewer.HunkRetry;
 import com.hrpd.codereview.reviewer.PerformanceReviewer;
+import com.hrpd.codereview.reviewer.ReviewOutput;
 import com.hrpd.codereview.reviewer.Reviewer;
 import com.hrpd.codereview.reviewer.SecurityReviewer;
 import com.hrpd.codereview.service.*;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
@@ -37,11 +40,28 @@ public class AppConfig {
     /**
      * Creates the diff service for parsing unified diff patches.
      * 
+     * @param meterRegistry registry for parse metrics
      * @return configured DiffService instance
      */
     @Bean
-    public DiffService diffService() {
-        return new DiffServiceImpl();
+    public DiffService diffService(io.micrometer.core.instrument.MeterRegistry meterRegistry) {
+        return new DiffServiceImpl(meterRegistry);
+    }
+
+    /**
+     * Creates the spool service for large raw or multipart patch uploads.
+     * 
+     * <p>Uploads are written to {@code review.upload.spool-dir} (the system temp
+     * directory by default) and rejected once they exceed {@code review.upload.max-bytes}.</p>
+     * 
+     * @param env Spring environment for reading configuration properties
+     * @return configured PatchSpoolService instance
+     */
+    @Bean
+    public PatchSpoolService patchSpoolService(org.springframework.core.env.Environment env) {
+        String dir = env.getProperty("review.upload.spool-dir", System.getProperty("java.io.tmpdir"));
+        long maxBytes = env.getProperty("review.upload.max-bytes", Long.class, 256L * 1024 * 1024);
+        return new PatchSpoolServiceImpl(java.nio.file.Path.of(dir), maxBytes);
     }
 
     /**
@@ -51,26 +71,59 @@ public class AppConfig {
      * application properties. It can be configured to use a custom GitHub
      * Enterprise instance or personal access token for authentication.</p>
      * 
+     * <p>Unless {@code github.cache.enabled} is false, responses are cached in
+     * {@code github.cache.dir} and revalidated with conditional requests. Timeouts,
+     * retries and the rate limit reserve are read from {@code github.http.*}.</p>
+     * 
      * @param env Spring environment for reading configuration properties
+     * @param meterRegistry registry for cache and fetch metrics
      * @return configured GithubClientService instance
+     * @throws java.io.IOException if the cache directory cannot be created
      */
     @Bean
-    public GithubClientService githubClient(org.springframework.core.env.Environment env) {
+    public GithubClientService githubClient(org.springframework.core.env.Environment env,
+                                            io.micrometer.core.instrument.MeterRegistry meterRegistry) throws java.io.IOException {
         // Read optional base url + token from properties
         String baseUrl = env.getProperty("github.base-url", "https://api.github.com");
         String token = env.getProperty("github.token", "");
-        return new HttpGithubClientService(baseUrl, token);
+        long maxPatchBytes = env.getProperty("github.max-patch-bytes", Long.class, 256L * 1024 * 1024);
+        GithubResponseCache cache = null;
+        if (env.getProperty("github.cache.enabled", Boolean.class, true)) {
+            String dir = env.getProperty("github.cache.dir",
+                    java.nio.file.Path.of(System.getProperty("java.io.tmpdir"), "codereview-github-cache").toString());
+            long maxBytes = env.getProperty("github.cache.max-bytes", Long.class, 512L * 1024 * 1024);
+            cache = new GithubResponseCache(java.nio.file.Path.of(dir), maxBytes, meterRegistry);
+        }
+        GithubClientOptions defaults = GithubClientOptions.defaults();
+        GithubClientOptions options = new GithubClientOptions(
+                env.getProperty("github.http.connect-timeout", java.time.Duration.class, defaults.connectTimeout()),
+                env.getProperty("github.http.request-timeout", java.time.Duration.class, defaults.requestTimeout()),
+                env.getProperty("github.http.max-attempts", Integer.class, defaults.maxAttempts()),
+                env.getProperty("github.http.initial-backoff", java.time.Duration.class, defaults.initialBackoff()),
+                env.getProperty("github.http.max-backoff", java.time.Duration.class, defaults.maxBackoff()),
+                env.getProperty("github.rate-limit.reserve", Integer.class, defaults.rateLimitReserve()),
+                env.getProperty("github.rate-limit.max-wait", java.time.Duration.class, defaults.maxRateLimitWait()));
+        return new HttpGithubClientService(baseUrl, token, maxPatchBytes, cache, options, meterRegistry);
     }
 
     /**
      * Creates the standards retriever service for semantic search of coding standards.
      * 
+     * <p>Category-filtered queries are routed to per-category partial indexes through
+     * JDBC, using the embedding model to vectorize the query.</p>
+     * 
      * @param vectorStore the vector database for storing and retrieving standards
+     * @param embeddingModel embedding model used to vectorize category-routed queries
+     * @param jdbcTemplate JDBC template for category-routed queries
+     * @param meterRegistry registry for retrieval and embedding token metrics
      * @return configured StandardsRetrieverService instance
      */
     @Bean
-    public StandardsRetrieverService standardsRetriever(VectorStore vectorStore) {
-        return new StandardsRetrieverServiceImpl(vectorStore);
+    public StandardsRetrieverService standardsRetriever(VectorStore vectorStore,
+                                                        EmbeddingModel embeddingModel,
+                                                        org.springframework.jdbc.core.JdbcTemplate jdbcTemplate,
+                                                        io.micrometer.core.instrument.MeterRegistry meterRegistry) {
+        return new StandardsRetrieverServiceImpl(vectorStore, embeddingModel, jdbcTemplate, meterRegistry);
     }
 
     /**
@@ -85,6 +138,156 @@ public class AppConfig {
         return new StandardsIngestorServiceImpl(vectorStore, jdbcTemplate);
     }
 
+    /**
+     * Creates the store for per-PR review state used by incremental re-reviews.
+     * 
+     * @param jdbcTemplate JDBC template for the review state tables
+     * @param transactionTemplate transaction template so state is replaced atomically
+     * @return configured ReviewStateService instance
+     */
+    @Bean
+    public ReviewStateService reviewStateService(org.springframework.jdbc.core.JdbcTemplate jdbcTemplate,
+                                                 org.springframework.transaction.support.TransactionTemplate transactionTemplate) {
+        return new ReviewStateServiceImpl(jdbcTemplate, transactionTemplate);
+    }
+
+    /**
+     * Creates the store for checkpoints of reviews in progress.
+     * 
+     * <p>Checkpoints are purged {@code review.checkpoint.ttl} (one day by default) after they
+     * were written.</p>
+     * 
+     * @param jdbcTemplate JDBC template for the checkpoint table
+     * @param env Spring environment for reading configuration properties
+     * @return configured ReviewCheckpointService instance
+     */
+    @Bean
+    public ReviewCheckpointService reviewCheckpointService(org.springframework.jdbc.core.JdbcTemplate jdbcTemplate,
+                                                           org.springframework.core.env.Environment env) {
+        return new ReviewCheckpointServiceImpl(jdbcTemplate,
+                env.getProperty("review.checkpoint.ttl", java.time.Duration.class, java.time.Duration.ofDays(1)));
+    }
+
+    /**
+     * Creates the pull request review service used by the {@code /review/pr} endpoint.
+     * 
+     * <p>With {@code review.streaming.enabled} (the default), parallel PR reviews stream the
+     * diff from GitHub and review hunks while the download continues, buffering at most
+     * {@code review.streaming.queue-capacity} parsed hunks.</p>
+     * 
+     * <p>With {@code review.incremental.enabled} (the default), hunks unchanged since the last
+     * review of the same PR keep their findings and are not reviewed again.</p>
+     * 
+     * <p>With {@code review.checkpoint.enabled} (the default), streaming reviews record each
+     * reviewer call as it completes, so a review of the same head and configuration restarted
+     * after a crash or redeploy only makes the calls still missing.</p>
+     * 
+     * <p>With {@code review.memo.enabled} (the default), concurrent requests for the same PR head
+     * share one review, and up to {@code review.memo.max-entries} results are remembered per head
+     * SHA, reviewer set and model configuration.</p>
+     * 
+     * <p>With {@code github.review.publish}, findings are also posted to the PR as a single
+     * review with inline comments; memoized results are not posted again.</p>
+     * 
+     * @param githubClient client for fetching PR patches and diffs
+     * @param diffService service for splitting patches into hunks
+     * @param workflow workflow that runs the reviewers
+     * @param aggregator service that merges carried and fresh findings
+     * @param reviewState store of previously reviewed hunks
+     * @param checkpoints store of reviews in progress
+     * @param reviewers configured reviewers, part of the memo key and checkpoint id
+     * @param pool executor that runs the streaming parser
+     * @param env Spring environment for reading configuration properties
+     * @param meterRegistry registry for token and queue depth metrics
+     * @return configured PullRequestReviewService instance
+     */
+    @Bean
+    public PullRequestReviewService pullRequestReviewService(GithubClientService githubClient,
+                                                             DiffService diffService,
+                                                             ParallelWorkflowService workflow,
+                                                             AggregatorService aggregator,
+                                                             ReviewStateService reviewState,
+                                                             ReviewCheckpointService checkpoints,
+                                                             List<Reviewer> reviewers,
+                                                             ExecutorService pool,
+                                                             org.springframework.core.env.Environment env,
+                                                             io.micrometer.core.instrument.MeterRegistry meterRegistry) {
+        boolean streaming = env.getProperty("review.streaming.enabled", Boolean.class, true);
+        int queueCapacity = env.getProperty("review.streaming.queue-capacity", Integer.class, 64);
+        boolean incremental = env.getProperty("review.incremental.enabled", Boolean.class, true);
+        String config = reviewers.stream().map(r -> r.type().name()).sorted()
+                .collect(java.util.stream.Collectors.joining(","))
+                + "|" + env.getProperty("spring.ai.openai.chat.options.model", "")
+                + "|" + env.getProperty("spring.ai.openai.chat.options.temperature", "")
+                + "|" + env.getProperty("review.output.format", ReviewOutput.STRUCTURED_FORMAT)
+                + "|" + env.getProperty("review.output.max-tokens", "");
+        PullRequestReviewService service = new PullRequestReviewServiceImpl(githubClient, diffService, workflow,
+                streaming ? pool : null, queueCapacity,
+                aggregator, incremental ? reviewState : null,
+                env.getProperty("review.checkpoint.enabled", Boolean.class, true) ? checkpoints : null, config,
+                meterRegistry);
+        if (env.getProperty("github.review.publish", Boolean.class, false)) {
+            service = new PublishingPullRequestReviewService(service, new ReviewPublisherServiceImpl(githubClient,
+                    diffService, env.getProperty("github.review.max-comments-per-review", Integer.class, 50)));
+        }
+        if (!env.getProperty("review.memo.enabled", Boolean.class, true)) {
+            return service;
+        }
+        return new CoalescingPullRequestReviewService(service, githubClient, config,
+                env.getProperty("review.memo.max-entries", Integer.class, 256));
+    }
+
+    /**
+     * Creates the batch review service used by the {@code /review/batch} endpoint.
+     * 
+     * <p>At most {@code review.batch.max-concurrent-prs} PRs of a batch are in progress at once.</p>
+     * 
+     * @param pullRequestReview service that reviews each PR
+     * @param pool executor that runs the PR reviews
+     * @param env Spring environment for reading configuration properties
+     * @return configured BatchReviewService instance
+     */
+    @Bean
+    public BatchReviewService batchReviewService(PullRequestReviewService pullRequestReview,
+                                                 ExecutorService pool,
+                                                 org.springframework.core.env.Environment env) {
+        return new BatchReviewServiceImpl(pullRequestReview, pool,
+                env.getProperty("review.batch.max-concurrent-prs", Integer.class, 8));
+    }
+
+    /**
+     * Creates the scheduler for reviews triggered by GitHub webhooks.
+     * 
+     * <p>A PR is reviewed once no event for it arrived for {@code review.webhook.debounce}
+     * (10 seconds by default); its diff is prefetched in the meantime.</p>
+     * 
+     * @param pullRequestReview service that performs the reviews
+     * @param githubClient client used for prefetching
+     * @param pool executor for prefetches and reviews
+     * @param env Spring environment for reading configuration properties
+     * @return configured ReviewSchedulerService instance
+     */
+    @Bean
+    public ReviewSchedulerService reviewSchedulerService(PullRequestReviewService pullRequestReview,
+                                                         GithubClientService githubClient,
+                                                         ExecutorService pool,
+                                                         org.springframework.core.env.Environment env) {
+        return new ReviewSchedulerServiceImpl(pullRequestReview, githubClient, pool,
+                env.getProperty("review.webhook.debounce", java.time.Duration.class, java.time.Duration.ofSeconds(10)),
+                env.getProperty("review.webhook.parallel", Boolean.class, true));
+    }
+
+    /**
+     * Creates the verifier for webhook signatures, keyed by {@code github.webhook.secret}.
+     * 
+     * @param env Spring environment for reading configuration properties
+     * @return configured WebhookSignature instance
+     */
+    @Bean
+    public com.hrpd.codereview.utils.WebhookSignature webhookSignature(org.springframework.core.env.Environment env) {
+        return new com.hrpd.codereview.utils.WebhookSignature(env.getProperty("github.webhook.secret", ""));
+    }
+
     /**
      * Command line runner that ingests coding standards at application startup.
      * 
@@ -104,25 +307,66 @@ public class AppConfig {
     /**
      * Creates the aggregator service for merging and deduplicating review results.
      * 
+     * @param meterRegistry registry for aggregation metrics
      * @return configured AggregatorService instance
      */
     @Bean
-    public AggregatorService aggregatorService() {
-        return new AggregatorServiceImpl();
+    public AggregatorService aggregatorService(io.micrometer.core.instrument.MeterRegistry meterRegistry) {
+        return new AggregatorServiceImpl(meterRegistry);
     }
 
     // --- AI-Powered Reviewers (implement the Reviewer interface) ---
 
+    /**
+     * Creates the response format shared by all reviewers.
+     * 
+     * <p>{@code review.output.format} is {@code structured} (the default) or {@code compact};
+     * {@code review.output.max-tokens} caps the completion of every reviewer call.</p>
+     * 
+     * @param env Spring environment for reading configuration properties
+     * @param meterRegistry registry for parse and token metrics
+     * @return configured ReviewOutput instance
+     */
+    @Bean
+    public ReviewOutput reviewOutput(org.springframework.core.env.Environment env, io.micrometer.core.instrument.MeterRegistry meterRegistry) {
+        return ReviewOutput.of(env.getProperty("review.output.format", ReviewOutput.STRUCTURED_FORMAT),
+                env.getProperty("review.output.max-tokens", Integer.class), meterRegistry);
+    }
+
+    /**
+     * Creates the retry policy for per-hunk model calls, shared by all reviewers.
+     * 
+     * <p>Transient failures are retried up to {@code review.retry.max-attempts} times in total with
+     * jittered backoff between {@code review.retry.initial-backoff} and {@code review.retry.max-backoff}.
+     * Retries are limited to {@code review.retry.budget-ratio} per call, with a reserve of
+     * {@code review.retry.budget-reserve} for short bursts.</p>
+     * 
+     * @param env Spring environment for reading configuration properties
+     * @return configured HunkRetry instance
+     */
+    @Bean
+    public HunkRetry hunkRetry(org.springframework.core.env.Environment env) {
+        return new HunkRetry(
+                env.getProperty("review.retry.max-attempts", Integer.class, 3),
+                env.getProperty("review.retry.initial-backoff", java.time.Duration.class, java.time.Duration.ofSeconds(1)),
+                env.getProperty("review.retry.max-backoff", java.time.Duration.class, java.time.Duration.ofSeconds(20)),
+                env.getProperty("review.retry.budget-ratio", Double.class, 0.2),
+                env.getProperty("review.retry.budget-reserve", Integer.class, 20));
+    }
+
     /**
      * Creates the security reviewer for identifying security vulnerabilities.
      * 
      * @param chat ChatClient for AI model communication
      * @param retriever StandardsRetrieverService for accessing security standards
+     * @param output response format of the model calls
+     * @param retry retry policy for each hunk's model call
      * @return configured SecurityReviewer instance
      */
     @Bean
-    public Reviewer securityReviewer(ChatClient chat, StandardsRetrieverService retriever) {
-        return new SecurityReviewer(chat, retriever);
+    public Reviewer securityReviewer(ChatClient chat, StandardsRetrieverService retriever, ReviewOutput output,
+                               HunkRetry retry) {
+        return new SecurityReviewer(chat, retriever, output, retry);
     }
 
     /**
@@ -130,11 +374,14 @@ public class AppConfig {
      * 
      * @param chat ChatClient for AI model communication
      * @param retriever StandardsRetrieverService for accessing performance standards
+     * @param output response format of the model calls
+     * @param retry retry policy for each hunk's model call
      * @return configured PerformanceReviewer instance
      */
     @Bean
-    public Reviewer performanceReviewer(ChatClient chat, StandardsRetrieverService retriever) {
-        return new PerformanceReviewer(chat, retriever);
+    public Reviewer performanceReviewer(ChatClient chat, StandardsRetrieverService retriever, ReviewOutput output,
+                               HunkRetry retry) {
+        return new PerformanceReviewer(chat, retriever, output, retry);
     }
 
     /**
@@ -142,11 +389,14 @@ public class AppConfig {
      * 
      * @param chat ChatClient for AI model communication
      * @param retriever StandardsRetrieverService for accessing clean code standards
+     * @param output response format of the model calls
+     * @param retry retry policy for each hunk's model call
      * @return configured CleanCodeReviewer instance
      */
     @Bean
-    public Reviewer cleanCodeReviewer(ChatClient chat, StandardsRetrieverService retriever) {
-        return new CleanCodeReviewer(chat, retriever);
+    public Reviewer cleanCodeReviewer(ChatClient chat, StandardsRetrieverService retriever, ReviewOutput output,
+                               HunkRetry retry) {
+        return new CleanCodeReviewer(chat, retriever, output, retry);
     }
 
     // --- Parallel Workflow Orchestration ---
@@ -159,20 +409,38 @@ public class AppConfig {
      * Spring's dependency injection, making it easy to add or remove reviewers
      * by simply adding or removing their bean definitions.</p>
      * 
+     * <p>Gate reviews ({@code mode=gate}) stop at the first finding of severity
+     * {@code review.gate.threshold} or worse.</p>
+     * 
+     * <p>Each review may consume at most {@code review.budget.max-tokens} tokens ({@code 0} for no
+     * limit); hunks left once it is used up are analyzed locally.</p>
+     * 
      * @param reviewers list of all configured reviewer beans
      * @param aggregator service for merging and deduplicating results
      * @param pool executor service for parallel execution
+     * @param retry retry policy for each hunk's model call
+     * @param env Spring environment for reading configuration properties
+     * @param meterRegistry registry for run metrics and call slot gauges
      * @return configured ParallelWorkflowService instance
      */
     @Bean
     public ParallelWorkflowService parallelWorkflowService(
             List<Reviewer> reviewers,
             AggregatorService aggregator,
-            ExecutorService pool) {
+            ExecutorService pool,
+            HunkRetry retry,
+            org.springframework.core.env.Environment env,
+            io.micrometer.core.instrument.MeterRegistry meterRegistry) {
         return new ParallelWorkflowServiceImpl(
                 reviewers,
                 aggregator,
-                pool);
+                pool,
+                env.getProperty("review.streaming.max-in-flight", Integer.class, 16),
+                env.getProperty("review.gate.threshold", com.hrpd.codereview.model.Severity.class,
+                        com.hrpd.codereview.model.Severity.HIGH),
+                retry,
+                env.getProperty("review.budget.max-tokens", Long.class, 0L),
+                meterRegistry);
     }
 
 }
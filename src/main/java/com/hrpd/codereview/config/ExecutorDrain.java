@@ -0,0 +1,65 @@
+package com.hrpd.codereview.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shuts the review executor down on application stop, giving in-flight work a bounded grace
+ * period.
+ *
+ * <p>Stops right after the web server's graceful shutdown has drained the open requests, so
+ * what is left is background work such as webhook-triggered reviews. New tasks are refused,
+ * running ones get up to {@code gracePeriod} to finish, and the rest are interrupted. Reviewer
+ * calls that completed in the meantime are already checkpointed (see
+ * {@link com.hrpd.codereview.service.ReviewCheckpoint}), so an interrupted review resumes from
+ * there when it is started again.</p>
+ */
+@Slf4j
+public class ExecutorDrain implements SmartLifecycle {
+
+    private final ExecutorService executor;
+    private final Duration gracePeriod;
+    private volatile boolean running;
+
+    public ExecutorDrain(ExecutorService executor, Duration gracePeriod) {
+        this.executor = executor;
+        this.gracePeriod = gracePeriod;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        executor.shutdown();
+        try {
+            if (executor.awaitTermination(gracePeriod.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.info("🛑 Review executor drained");
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int abandoned = executor.shutdownNow().size();
+        log.warn("🛑 Review executor not drained within {}, interrupted running work ({} queued tasks dropped)",
+                gracePeriod, abandoned);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1;
+    }
+}
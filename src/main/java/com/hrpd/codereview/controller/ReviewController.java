@@ -1,23 +1,41 @@
 package com.hrpd.codereview.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hrpd.codereview.model.BatchReviewItem;
 import com.hrpd.codereview.model.ReviewResult;
 import com.hrpd.codereview.model.request.ReviewDiffRequest;
 import com.hrpd.codereview.model.request.ReviewPRRequest;
+import com.hrpd.codereview.service.BatchReviewService;
 import com.hrpd.codereview.service.DiffService;
-import com.hrpd.codereview.service.GithubClientService;
 import com.hrpd.codereview.service.ParallelWorkflowService;
+import com.hrpd.codereview.service.PatchSpoolService;
+import com.hrpd.codereview.service.PullRequestReviewService;
+import com.hrpd.codereview.service.ReviewCheckpoint;
+import com.hrpd.codereview.service.ReviewCheckpointService;
+import com.hrpd.codereview.service.ReviewTimer;
 import com.hrpd.codereview.service.StandardsIngestorService;
 import com.hrpd.codereview.service.StandardsRetrieverService;
+import com.hrpd.codereview.utils.MappedPatch;
 import org.springframework.ai.chat.client.ChatClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
 
 /**
  * REST controller providing endpoints for AI-powered code review functionality.
@@ -29,8 +47,10 @@ import java.io.IOException;
  * 
  * <p>Available endpoints:
  * <ul>
- *   <li>POST /review/diff - Review a raw unified diff patch</li>
+ *   <li>POST /review/diff - Review a raw unified diff patch, optionally checkpointed under a review id</li>
+ *   <li>POST /review/diff/upload - Review a large patch uploaded as a raw or multipart body</li>
  *   <li>POST /review/pr - Review a GitHub pull request</li>
+ *   <li>POST /review/batch - Review many GitHub pull requests, streaming NDJSON results</li>
  *   <li>POST /review/admin/reingest - Admin endpoint to re-ingest standards</li>
  *   <li>POST /review/debug/ai - Debug endpoint for testing AI model</li>
  * </ul></p>
@@ -39,9 +59,12 @@ import java.io.IOException;
  * clients to choose between faster parallel processing or more predictable sequential
  * execution for debugging purposes.</p>
  * 
+ * <p>Single reviews accept {@code timings=true}, which binds a {@link ReviewTimer} to the request
+ * and returns its phase-by-phase breakdown in the result's {@code timings}.</p>
+ * 
  * @see ParallelWorkflowService
  * @see DiffService
- * @see GithubClientService
+ * @see PullRequestReviewService
  */
 @Slf4j
 @RequiredArgsConstructor
@@ -49,16 +72,14 @@ import java.io.IOException;
 @RequestMapping("/review")
 public class ReviewController {
 
+    private static final String MODE_FULL = "full";
+    private static final String MODE_GATE = "gate";
+
     /**
      * Service for parsing unified diff patches into reviewable hunks.
      */
     private final DiffService diffService;
     
-    /**
-     * Service for fetching pull request patches from GitHub.
-     */
-    private final GithubClientService githubClient;
-    
     /**
      * Service for orchestrating the parallel review workflow.
      */
@@ -79,6 +100,31 @@ public class ReviewController {
      */
     private final ChatClient chatClient;
 
+    /**
+     * Service for spooling large uploaded patches to memory-mapped temporary files.
+     */
+    private final PatchSpoolService patchSpool;
+
+    /**
+     * Service for reviewing GitHub pull requests end to end.
+     */
+    private final PullRequestReviewService pullRequestReview;
+
+    /**
+     * Service for reviewing many pull requests in one request.
+     */
+    private final BatchReviewService batchReview;
+
+    /**
+     * Mapper for writing streamed batch results.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Store of per-call results of reviews in progress.
+     */
+    private final ReviewCheckpointService checkpoints;
+
     /**
      * Reviews a raw unified diff patch and returns comprehensive findings.
      * 
@@ -90,28 +136,122 @@ public class ReviewController {
      * <p>The execution can be configured to run in parallel (faster) or sequential
      * (more predictable) mode based on the request parameter.</p>
      * 
+     * <p>With {@code mode=gate} the review stops at the first finding at or above the configured
+     * gate severity ({@code review.gate.threshold}); see {@link ParallelWorkflowService#runGate}.</p>
+     * 
+     * <p>A full review with a {@code reviewId} is checkpointed: each reviewer call on each hunk is
+     * recorded as it completes, and a retry with the same id (e.g. after a timeout or redeploy)
+     * only calls the reviewers for the pairs still missing.</p>
+     * 
      * @param req the review request containing the diff patch and execution mode
+     * @param mode {@code full} (default) or {@code gate}
+     * @param reviewId client-chosen id under which a full review is checkpointed, optional
+     * @param timings whether to return the timing breakdown of the review
      * @return a comprehensive ReviewResult with all findings and summary
      */
     @PostMapping("/diff")
-    public ReviewResult fromDiff(@RequestBody ReviewDiffRequest req) {
+    public ReviewResult fromDiff(@RequestBody ReviewDiffRequest req,
+                                 @RequestParam(defaultValue = MODE_FULL) String mode,
+                                 @RequestParam(required = false) String reviewId,
+                                 @RequestParam(defaultValue = "false") boolean timings) {
         long startTime = System.currentTimeMillis();
+        ReviewTimer timer = timings ? new ReviewTimer() : ReviewTimer.OFF;
+        boolean gate = isGate(mode);
         log.info("🎯 ===== NEW DIFF REVIEW REQUEST =====");
-        log.info("📋 Request details: parallel={}, patch size={} characters", 
-                req.parallel(), req.patch().length());
+        log.info("📋 Request details: parallel={}, mode={}, reviewId={}, patch size={} characters", 
+                req.parallel(), mode, reviewId, req.patch().length());
         
-        // Parse the unified diff into reviewable hunks
-        var hunks = diffService.parseUnifiedPatch(req.patch());
-        
-        // Execute the review workflow with specified execution mode
-        var result = workflow.run(hunks, req.parallel());
+        ReviewResult result;
+        try (var scope = timer.bind()) {
+            // Parse the unified diff into reviewable hunks
+            var hunks = diffService.parseUnifiedPatch(req.patch());
+
+            // Execute the review workflow with specified execution mode; checkpointed reviews run per (hunk, reviewer)
+            if (gate) {
+                result = workflow.runGate(hunks, List.of());
+            } else if (reviewId != null && !reviewId.isBlank()) {
+                var checkpoint = new ReviewCheckpoint(checkpoints, "diff:" + reviewId);
+                result = workflow.runStreaming(hunks, checkpoint);
+                checkpoint.complete(result);
+            } else {
+                result = workflow.run(hunks, req.parallel());
+            }
+        }
         
         long totalDuration = System.currentTimeMillis() - startTime;
         log.info("🏁 DIFF REVIEW COMPLETE: {} findings in {}ms", result.findings().size(), totalDuration);
         log.info("📊 Summary: {}", result.summary());
         log.info("🎯 ===== END DIFF REVIEW REQUEST =====");
         
-        return result;
+        return withTimings(result, timer);
+    }
+
+    /**
+     * Reviews a large unified diff uploaded as a raw request body.
+     * 
+     * <p>Unlike {@code /review/diff}, the patch is not bound to a JSON string. It is spooled to
+     * a temporary file and memory-mapped, hunks are views over the mapping, and each hunk's text
+     * is only copied onto the heap when a reviewer builds its prompt. Heap usage therefore stays
+     * bounded regardless of patch size.</p>
+     * 
+     * @param body the raw patch bytes (UTF-8)
+     * @param parallel whether to run reviewers in parallel
+     * @param timings whether to return the timing breakdown of the review
+     * @return a comprehensive ReviewResult with all findings and summary
+     * @throws IOException if the upload cannot be spooled
+     */
+    @PostMapping(value = "/diff/upload",
+            consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE, "text/x-diff", "text/x-patch"})
+    public ReviewResult fromUpload(InputStream body,
+                                   @RequestParam(defaultValue = "true") boolean parallel,
+                                   @RequestParam(defaultValue = "false") boolean timings) throws IOException {
+        try (MappedPatch patch = patchSpool.spool(body)) {
+            return reviewMapped(patch, parallel, timings);
+        }
+    }
+
+    /**
+     * Reviews a large unified diff uploaded as the {@code patch} part of a multipart form.
+     * 
+     * @param file the uploaded patch file
+     * @param parallel whether to run reviewers in parallel
+     * @param timings whether to return the timing breakdown of the review
+     * @return a comprehensive ReviewResult with all findings and summary
+     * @throws IOException if the upload cannot be spooled
+     * @see #fromUpload(InputStream, boolean, boolean)
+     */
+    @PostMapping(value = "/diff/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ReviewResult fromMultipartUpload(@RequestPart("patch") MultipartFile file,
+                                            @RequestParam(defaultValue = "true") boolean parallel,
+                                            @RequestParam(defaultValue = "false") boolean timings) throws IOException {
+        try (InputStream in = file.getInputStream(); MappedPatch patch = patchSpool.spool(in)) {
+            return reviewMapped(patch, parallel, timings);
+        }
+    }
+
+    private ReviewResult reviewMapped(MappedPatch patch, boolean parallel, boolean timings) {
+        long startTime = System.currentTimeMillis();
+        ReviewTimer timer = timings ? new ReviewTimer() : ReviewTimer.OFF;
+        log.info("🎯 ===== NEW UPLOAD REVIEW REQUEST =====");
+        log.info("📋 Request details: parallel={}, patch size={} bytes", parallel, patch.length());
+
+        ReviewResult result;
+        try (var scope = timer.bind()) {
+            var hunks = diffService.parseUnifiedPatch(patch);
+            // The parser falls back to one hunk holding the whole input; never send a mapped file as one prompt
+            if (hunks.size() == 1 && hunks.get(0).text() == patch) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No diff hunks found in uploaded patch");
+            }
+
+            result = workflow.run(hunks, parallel);
+        }
+
+        long totalDuration = System.currentTimeMillis() - startTime;
+        log.info("🏁 UPLOAD REVIEW COMPLETE: {} findings in {}ms", result.findings().size(), totalDuration);
+        log.info("📊 Summary: {}", result.summary());
+        log.info("🎯 ===== END UPLOAD REVIEW REQUEST =====");
+
+        return withTimings(result, timer);
     }
 
     /**
@@ -125,38 +265,82 @@ public class ReviewController {
      * <p>The process includes:
      * <ol>
      *   <li>Fetching the pull request patch from GitHub API</li>
+     *   <li>Switching to the net diff when a file is changed by several commits</li>
      *   <li>Parsing the patch into reviewable hunks</li>
      *   <li>Executing the review workflow with all configured reviewers</li>
      *   <li>Returning aggregated and deduplicated results</li>
      * </ol></p>
      * 
      * @param req the PR review request containing repository, PR number, and execution mode
+     * @param mode {@code full} (default) or {@code gate} to stop at the first finding that fails the merge gate
+     * @param timings whether to return the timing breakdown of the review; a result shared with a
+     *                concurrent or earlier request only shows this request's own steps
      * @return a comprehensive ReviewResult with all findings and summary
      * @throws IOException if there's an error communicating with GitHub
      * @throws InterruptedException if the request is interrupted
+     * @see PullRequestReviewService
      */
     @PostMapping("/pr")
-    public ReviewResult fromPr(@RequestBody ReviewPRRequest req) throws IOException, InterruptedException {
+    public ReviewResult fromPr(@RequestBody ReviewPRRequest req,
+                               @RequestParam(defaultValue = MODE_FULL) String mode,
+                               @RequestParam(defaultValue = "false") boolean timings) throws IOException, InterruptedException {
         long startTime = System.currentTimeMillis();
+        ReviewTimer timer = timings ? new ReviewTimer() : ReviewTimer.OFF;
+        boolean gate = isGate(mode);
         log.info("🎯 ===== NEW PR REVIEW REQUEST =====");
-        log.info("📋 Request details: repo={}, pr={}, parallel={}", 
-                req.repo(), req.prNumber(), req.parallel());
-        
-        // Fetch the pull request patch from GitHub
-        var patch = githubClient.fetchPrPatch(req.repo(), req.prNumber());
+        log.info("📋 Request details: repo={}, pr={}, parallel={}, mode={}", 
+                req.repo(), req.prNumber(), req.parallel(), mode);
         
-        // Parse the patch into reviewable hunks
-        var hunks = diffService.parseUnifiedPatch(patch);
-        
-        // Execute the review workflow with specified execution mode
-        var result = workflow.run(hunks, req.parallel());
+        // Fetch, hunk (net per file) and review the pull request
+        ReviewResult result;
+        try (var scope = timer.bind()) {
+            result = gate
+                    ? pullRequestReview.gate(req.repo(), req.prNumber())
+                    : pullRequestReview.review(req.repo(), req.prNumber(), req.parallel());
+        }
         
         long totalDuration = System.currentTimeMillis() - startTime;
         log.info("🏁 PR REVIEW COMPLETE: {} findings in {}ms", result.findings().size(), totalDuration);
         log.info("📊 Summary: {}", result.summary());
         log.info("🎯 ===== END PR REVIEW REQUEST =====");
         
-        return result;
+        return withTimings(result, timer);
+    }
+
+    /**
+     * Reviews a list of GitHub pull requests, streaming one JSON line per PR as it finishes.
+     * 
+     * <p>The PRs are reviewed concurrently and share the GitHub rate budget and the reviewer
+     * call limit, so a batch finishes as fast as the model quota allows. Each line is a
+     * {@link BatchReviewItem}; a failed PR is reported with its error and does not stop
+     * the batch.</p>
+     * 
+     * @param prs the pull requests to review
+     * @return a streaming body of newline-delimited JSON results
+     */
+    @PostMapping(value = "/batch", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> batch(@RequestBody List<ReviewPRRequest> prs) {
+        if (prs == null || prs.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No pull requests given");
+        }
+        log.info("📦 Batch review request for {} PRs", prs.size());
+        StreamingResponseBody body = out -> {
+            try {
+                batchReview.reviewAll(prs, item -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(item));
+                        out.write('\n');
+                        out.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Batch review interrupted", e);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
     }
 
     /**
@@ -175,6 +359,9 @@ public class ReviewController {
      *   <li>Storing the processed content in the vector database</li>
      * </ol></p>
      * 
+     * <p>Remembered PR review results and review checkpoints are dropped afterwards, since they
+     * were grounded in the previous standards.</p>
+     * 
      * @return a ResponseEntity with success or error message
      */
     @PostMapping("/admin/reingest")
@@ -182,6 +369,7 @@ public class ReviewController {
         try {
             log.info("🔄 Manual re-ingestion requested via admin endpoint");
             standardsIngestor.reingestAll();
+            pullRequestReview.invalidateCachedResults();
             return ResponseEntity.ok("Standards re-ingestion completed successfully");
         } catch (Exception e) {
             log.error("❌ Failed to re-ingest standards: {}", e.getMessage(), e);
@@ -225,4 +413,18 @@ public class ReviewController {
             return ResponseEntity.internalServerError().body("AI test failed: " + e.getMessage());
         }
     }
+
+    private static ReviewResult withTimings(ReviewResult result, ReviewTimer timer) {
+        return timer.enabled() ? result.withTimings(timer.timings()) : result;
+    }
+
+    private static boolean isGate(String mode) {
+        if (MODE_GATE.equalsIgnoreCase(mode)) {
+            return true;
+        }
+        if (MODE_FULL.equalsIgnoreCase(mode)) {
+            return false;
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown mode '" + mode + "', expected full or gate");
+    }
 }
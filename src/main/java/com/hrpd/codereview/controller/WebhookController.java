@@ -0,0 +1,122 @@
+package com.hrpd.codereview.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hrpd.codereview.model.ReviewResult;
+import com.hrpd.codereview.model.request.PullRequestEvent;
+import com.hrpd.codereview.service.ReviewSchedulerService;
+import com.hrpd.codereview.utils.WebhookSignature;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Receives GitHub webhook deliveries and schedules PR reviews in the background.
+ *
+ * <p>Available endpoints:
+ * <ul>
+ *   <li>POST /webhook/github - GitHub webhook receiver ({@code pull_request} and {@code ping} events)</li>
+ *   <li>GET /webhook/github/reviews - Latest background review result of a PR</li>
+ * </ul></p>
+ *
+ * <p>Deliveries are acknowledged with {@code 202 Accepted} right away; reviews are debounced per
+ * PR by the {@link ReviewSchedulerService}.</p>
+ */
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/webhook")
+public class WebhookController {
+
+    /**
+     * Actions that change the code under review.
+     */
+    private static final Set<String> REVIEW_ACTIONS = Set.of("opened", "reopened", "synchronize", "ready_for_review");
+
+    /**
+     * Scheduler for debounced background reviews.
+     */
+    private final ReviewSchedulerService scheduler;
+
+    /**
+     * Verifier for the delivery signature.
+     */
+    private final WebhookSignature signature;
+
+    /**
+     * Mapper for the raw payload, which has to be read as bytes for signature verification.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Handles a webhook delivery.
+     *
+     * @param event the {@code X-GitHub-Event} header
+     * @param signatureHeader the {@code X-Hub-Signature-256} header
+     * @param body the raw payload
+     * @return {@code 202} if a review was scheduled or cancelled, {@code 200} if the event was ignored;
+     *         {@code 503} while no {@code github.webhook.secret} is configured
+     */
+    @PostMapping("/github")
+    public ResponseEntity<String> github(@RequestHeader("X-GitHub-Event") String event,
+                                         @RequestHeader(value = "X-Hub-Signature-256", required = false) String signatureHeader,
+                                         @RequestBody byte[] body) {
+        if (!signature.isEnabled()) {
+            log.warn("🚫 Rejected webhook delivery: github.webhook.secret is not configured");
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Webhook secret not configured");
+        }
+        if (!signature.matches(body, signatureHeader)) {
+            log.warn("🚫 Rejected webhook delivery with invalid signature");
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid signature");
+        }
+        if (!"pull_request".equals(event)) {
+            log.debug("Ignoring webhook event {}", event);
+            return ResponseEntity.ok("ignored");
+        }
+
+        PullRequestEvent pr;
+        try {
+            pr = objectMapper.readValue(body, PullRequestEvent.class);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed pull_request payload", e);
+        }
+        if (pr.repo() == null || pr.number() <= 0 || pr.headSha() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "pull_request payload lacks repository, number or head");
+        }
+
+        log.info("📬 Webhook pull_request {} for {}#{} at {}", pr.action(), pr.repo(), pr.number(), pr.headSha());
+        if ("closed".equals(pr.action())) {
+            scheduler.cancel(pr.repo(), pr.number());
+            return ResponseEntity.accepted().body("cancelled");
+        }
+        if (!REVIEW_ACTIONS.contains(pr.action())) {
+            return ResponseEntity.ok("ignored");
+        }
+        scheduler.schedule(pr.repo(), pr.number(), pr.headSha());
+        return ResponseEntity.accepted().body("scheduled");
+    }
+
+    /**
+     * Returns the last completed background review of a PR.
+     *
+     * @param repo the repository as {@code owner/name}
+     * @param prNumber the pull request number
+     * @return the review result, or {@code 404} if none has completed yet
+     */
+    @GetMapping("/github/reviews")
+    public ReviewResult latest(@RequestParam String repo, @RequestParam int prNumber) {
+        return scheduler.latest(repo, prNumber)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No completed review for " + repo + "#" + prNumber));
+    }
+}
@@ -0,0 +1,67 @@
+package com.hrpd.codereview.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for merging reviewer results, or taking the final snapshot of a
+ * streaming review's findings.
+ */
+@Name(AggregationEvent.NAME)
+@Label("Aggregation")
+@Description("Findings merged and deduplicated into a review result")
+@Category({"Code Review"})
+@StackTrace(false)
+public final class AggregationEvent extends Event {
+
+    public static final String NAME = "com.hrpd.codereview.Aggregation";
+
+    @Label("Review Id")
+    @Description("Id of the review, 0 outside a review")
+    long reviewId;
+
+    @Label("Mode")
+    @Description("merge or snapshot")
+    String mode;
+
+    @Label("Findings Received")
+    long received;
+
+    @Label("Unique Findings")
+    int unique;
+
+    /**
+     * Starts the event of an aggregation.
+     *
+     * @param reviewId the review's id, or {@code 0}
+     * @param mode {@code merge} or {@code snapshot}
+     */
+    public static AggregationEvent start(long reviewId, String mode) {
+        AggregationEvent event = new AggregationEvent();
+        if (event.isEnabled()) {
+            event.reviewId = reviewId;
+            event.mode = mode;
+            event.begin();
+        }
+        return event;
+    }
+
+    /**
+     * Ends and commits the event if it is enabled.
+     *
+     * @param received the findings fed in, duplicates included
+     * @param unique the findings left after deduplication
+     */
+    public void finish(long received, int unique) {
+        if (!shouldCommit()) {
+            return;
+        }
+        this.received = received;
+        this.unique = unique;
+        commit();
+    }
+}
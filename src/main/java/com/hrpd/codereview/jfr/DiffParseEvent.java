@@ -0,0 +1,59 @@
+package com.hrpd.codereview.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for one diff parse.
+ *
+ * <p>Diffs are parsed before their review starts (or, for streamed PRs, alongside it on the
+ * producer thread), so this event carries no review id; it is matched to its review by thread
+ * and time.</p>
+ */
+@Name(DiffParseEvent.NAME)
+@Label("Diff Parse")
+@Description("A unified diff split into hunks")
+@Category({"Code Review"})
+@StackTrace(false)
+public final class DiffParseEvent extends Event {
+
+    public static final String NAME = "com.hrpd.codereview.DiffParse";
+
+    @Label("Mode")
+    @Description("buffered or streaming")
+    String mode;
+
+    @Label("Hunks")
+    int hunks;
+
+    /**
+     * Starts the event of a parse.
+     *
+     * @param mode {@code buffered} or {@code streaming}
+     */
+    public static DiffParseEvent start(String mode) {
+        DiffParseEvent event = new DiffParseEvent();
+        if (event.isEnabled()) {
+            event.mode = mode;
+            event.begin();
+        }
+        return event;
+    }
+
+    /**
+     * Ends and commits the event if it is enabled.
+     *
+     * @param hunks the number of hunks parsed
+     */
+    public void finish(int hunks) {
+        if (!shouldCommit()) {
+            return;
+        }
+        this.hunks = hunks;
+        commit();
+    }
+}
@@ -0,0 +1,103 @@
+package com.hrpd.codereview.jfr;
+
+import com.hrpd.codereview.model.DiffHunk;
+import com.hrpd.codereview.model.ReviewerType;
+import com.hrpd.codereview.model.TokenUsage;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for one reviewer's chat model call on one hunk; its duration is the
+ * call's latency.
+ *
+ * <p>The event is committed on the thread that made the call, typically a virtual thread, so
+ * JMC shows it next to that thread's allocation samples and scheduling events.</p>
+ */
+@Name(ModelCallEvent.NAME)
+@Label("Model Call")
+@Description("A reviewer's chat model call on one hunk")
+@Category({"Code Review"})
+@StackTrace(false)
+public final class ModelCallEvent extends Event {
+
+    public static final String NAME = "com.hrpd.codereview.ModelCall";
+
+    @Label("Review Id")
+    @Description("Id of the review, 0 outside a review")
+    long reviewId;
+
+    @Label("Reviewer")
+    String reviewer;
+
+    @Label("Format")
+    String format;
+
+    @Label("File")
+    String file;
+
+    @Label("First Line")
+    int lineStart;
+
+    @Label("Last Line")
+    int lineEnd;
+
+    @Label("Hunk Characters")
+    int hunkChars;
+
+    @Label("Prompt Tokens")
+    long promptTokens;
+
+    @Label("Completion Tokens")
+    long completionTokens;
+
+    @Label("Cached Tokens")
+    long cachedTokens;
+
+    @Label("Outcome")
+    @Description("success, empty or error")
+    String outcome;
+
+    /**
+     * Starts the event of a call.
+     *
+     * @param reviewId the review's id, or {@code 0}
+     * @param reviewer the reviewer making the call
+     * @param format the output format
+     * @param hunk the reviewed hunk
+     */
+    public static ModelCallEvent start(long reviewId, ReviewerType reviewer, String format, DiffHunk hunk) {
+        ModelCallEvent event = new ModelCallEvent();
+        if (event.isEnabled()) {
+            event.reviewId = reviewId;
+            event.reviewer = reviewer.name();
+            event.format = format;
+            event.file = hunk.filePath();
+            event.lineStart = hunk.start();
+            event.lineEnd = hunk.end();
+            event.hunkChars = hunk.text().length();
+            event.begin();
+        }
+        return event;
+    }
+
+    /**
+     * Ends and commits the event if it is enabled.
+     *
+     * @param outcome {@code success}, {@code empty} or {@code error}
+     * @param tokens the call's usage
+     */
+    public void finish(String outcome, TokenUsage tokens) {
+        if (!shouldCommit()) {
+            return;
+        }
+        this.outcome = outcome;
+        this.promptTokens = tokens.promptTokens();
+        this.completionTokens = tokens.completionTokens();
+        this.cachedTokens = tokens.cachedTokens();
+        commit();
+    }
+}
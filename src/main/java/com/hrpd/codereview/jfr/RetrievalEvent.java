@@ -0,0 +1,70 @@
+package com.hrpd.codereview.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for one standards retrieval, including the query embedding.
+ */
+@Name(RetrievalEvent.NAME)
+@Label("Standards Retrieval")
+@Description("A top-K search of the coding standards")
+@Category({"Code Review"})
+@StackTrace(false)
+public final class RetrievalEvent extends Event {
+
+    public static final String NAME = "com.hrpd.codereview.Retrieval";
+
+    @Label("Review Id")
+    @Description("Id of the review, 0 outside a review")
+    long reviewId;
+
+    @Label("Category")
+    String category;
+
+    @Label("Top K")
+    int topK;
+
+    @Label("Documents")
+    int documents;
+
+    @Label("Context Characters")
+    int contextChars;
+
+    /**
+     * Starts the event of a retrieval.
+     *
+     * @param reviewId the review's id, or {@code 0}
+     * @param category the category filter, or {@code null}
+     * @param topK the number of documents asked for
+     */
+    public static RetrievalEvent start(long reviewId, String category, int topK) {
+        RetrievalEvent event = new RetrievalEvent();
+        if (event.isEnabled()) {
+            event.reviewId = reviewId;
+            event.category = category;
+            event.topK = topK;
+            event.begin();
+        }
+        return event;
+    }
+
+    /**
+     * Ends and commits the event if it is enabled.
+     *
+     * @param documents the number of documents found
+     * @param contextChars the length of the grounding built from them
+     */
+    public void finish(int documents, int contextChars) {
+        if (!shouldCommit()) {
+            return;
+        }
+        this.documents = documents;
+        this.contextChars = contextChars;
+        commit();
+    }
+}
@@ -0,0 +1,101 @@
+package com.hrpd.codereview.jfr;
+
+import com.hrpd.codereview.model.ReviewResult;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning one workflow run, from its start to its result.
+ *
+ * <p>The other events of the run carry the same {@code reviewId}, so in JMC a review's model
+ * calls, retrievals and aggregation can be selected together, and its time range lined up with
+ * allocation, GC and virtual thread events.</p>
+ *
+ * @see ModelCallEvent
+ */
+@Name(ReviewEvent.NAME)
+@Label("Review")
+@Description("A code review run from start to result")
+@Category({"Code Review"})
+@StackTrace(false)
+public final class ReviewEvent extends Event {
+
+    public static final String NAME = "com.hrpd.codereview.Review";
+
+    @Label("Review Id")
+    long reviewId;
+
+    @Label("Mode")
+    @Description("sequential, parallel, streaming or gate")
+    String mode;
+
+    @Label("Verdict")
+    @Description("Gate verdict, or none for full reviews")
+    String verdict;
+
+    @Label("Hunks")
+    @Description("Hunks in the run's diff")
+    int hunks;
+
+    @Label("Hunks Scheduled")
+    @Description("Hunks sent to the reviewers; fewer than Hunks when a gate stops early")
+    int hunksScheduled;
+
+    @Label("Findings")
+    int findings;
+
+    @Label("Failed Hunks")
+    int failedHunks;
+
+    @Label("Prompt Tokens")
+    long promptTokens;
+
+    @Label("Completion Tokens")
+    long completionTokens;
+
+    @Label("Cached Tokens")
+    long cachedTokens;
+
+    /**
+     * Starts the event of a run.
+     *
+     * @param reviewId the run's id, see {@link com.hrpd.codereview.reviewer.TokenMeter#id()}
+     */
+    public static ReviewEvent start(long reviewId) {
+        ReviewEvent event = new ReviewEvent();
+        if (event.isEnabled()) {
+            event.reviewId = reviewId;
+            event.begin();
+        }
+        return event;
+    }
+
+    /**
+     * Ends and commits the event if it is enabled.
+     *
+     * @param mode the workflow mode
+     * @param verdict the gate verdict, or {@code none}
+     * @param hunks the number of hunks in the diff
+     * @param hunksScheduled the number of hunks sent to the reviewers
+     * @param result the run's result
+     */
+    public void finish(String mode, String verdict, int hunks, int hunksScheduled, ReviewResult result) {
+        if (!shouldCommit()) {
+            return;
+        }
+        this.mode = mode;
+        this.verdict = verdict;
+        this.hunks = hunks;
+        this.hunksScheduled = hunksScheduled;
+        this.findings = result.findings().size();
+        this.failedHunks = result.failedHunks().size();
+        this.promptTokens = result.usage().promptTokens();
+        this.completionTokens = result.usage().completionTokens();
+        this.cachedTokens = result.usage().cachedTokens();
+        commit();
+    }
+}
@@ -0,0 +1,12 @@
+package com.hrpd.codereview.model;
+
+/**
+ * Outcome of one pull request in a batch review, emitted as soon as that PR is done.
+ *
+ * @param repo the repository in format "owner/repo"
+ * @param prNumber the pull request number
+ * @param result the review result, or {@code null} if the review failed
+ * @param error the failure message, or {@code null} on success
+ * @param durationMs time from the start of the batch until this PR finished
+ */
+public record BatchReviewItem(String repo, int prNumber, ReviewResult result, String error, long durationMs) {}
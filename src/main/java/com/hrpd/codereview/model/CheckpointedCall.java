@@ -0,0 +1,13 @@
+package com.hrpd.codereview.model;
+
+import java.util.List;
+
+/**
+ * The recorded outcome of one reviewer call on one hunk of a review in progress.
+ * 
+ * @param reviewer the reviewer that made the call
+ * @param hunkHash content hash of the hunk (file path and body, without the {@code @@} header)
+ * @param lineStart first new-file line of the hunk
+ * @param findings findings the call returned
+ */
+public record CheckpointedCall(ReviewerType reviewer, String hunkHash, int lineStart, List<Finding> findings) {}
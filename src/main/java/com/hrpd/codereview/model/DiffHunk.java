@@ -11,10 +11,23 @@ package com.hrpd.codereview.model;
  * <p>The patch content follows the standard unified diff format with lines
  * prefixed by '+' (additions), '-' (deletions), or ' ' (context lines).</p>
  * 
+ * <p>The content is held as a {@link CharSequence} so that parsers can hand out
+ * views over the original patch instead of copies. {@link #patch()} materializes
+ * it as a String; callers should do that only when building a prompt.</p>
+ * 
  * @param filePath the relative path to the file being modified
- * @param start the starting line number in the original file (1-based)
- * @param end the ending line number in the original file (1-based)
- * @param patch the unified diff patch content showing the actual changes
+ * @param start the first line of the hunk in the new file (1-based, 0 when unknown)
+ * @param end the last line of the hunk in the new file (1-based, 0 when unknown)
+ * @param text the unified diff content of the hunk, starting at its {@code @@} header
  */
-public record DiffHunk(String filePath, int start, int end, String patch) {}
+public record DiffHunk(String filePath, int start, int end, CharSequence text) {
 
+    /**
+     * Returns the hunk content as a String, copying it out of the underlying patch if needed.
+     *
+     * @return the unified diff patch content showing the actual changes
+     */
+    public String patch() {
+        return text.toString();
+    }
+}
@@ -0,0 +1,39 @@
+package com.hrpd.codereview.model;
+
+/**
+ * A hunk that one reviewer could not review, even after retries.
+ * 
+ * <p>Its findings for that reviewer are missing from the result; the hunk is reviewed again
+ * next time instead of being treated as clean.</p>
+ * 
+ * @param filePath the file the hunk belongs to
+ * @param start first new-file line of the hunk
+ * @param end last new-file line of the hunk
+ * @param reviewer the reviewer that failed
+ * @param error the last failure message
+ * @param degraded whether the hunk was analyzed locally instead, without the AI model
+ * 
+ * @see ReviewResult
+ */
+public record FailedHunk(String filePath, int start, int end, ReviewerType reviewer, String error, boolean degraded) {
+
+    public FailedHunk(String filePath, int start, int end, ReviewerType reviewer, String error) {
+        this(filePath, start, end, reviewer, error, false);
+    }
+
+    /**
+     * Describes the failure of {@code reviewer} on {@code hunk}.
+     */
+    public static FailedHunk of(DiffHunk hunk, ReviewerType reviewer, Throwable error) {
+        String message = error.getMessage();
+        return new FailedHunk(hunk.filePath(), hunk.start(), hunk.end(), reviewer,
+                message == null ? error.getClass().getSimpleName() : message);
+    }
+
+    /**
+     * Returns {@code true} if this failure is about {@code hunk}.
+     */
+    public boolean matches(DiffHunk hunk) {
+        return filePath.equals(hunk.filePath()) && start == hunk.start() && end == hunk.end();
+    }
+}
@@ -0,0 +1,11 @@
+package com.hrpd.codereview.model;
+
+import java.util.Map;
+
+/**
+ * The last completed review of a pull request.
+ * 
+ * @param headSha the head commit that was reviewed, or {@code null} if unknown
+ * @param hunks reviewed hunks keyed by {@link ReviewedHunk#hash()}
+ */
+public record PrReviewState(String headSha, Map<String, ReviewedHunk> hunks) {}
@@ -1,5 +1,7 @@
 package com.hrpd.codereview.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
 /**
@@ -14,12 +16,73 @@ import java.util.List;
  * a high-level overview of the review results, typically including counts by
  * severity level.</p>
  * 
+ * <p>Hunks a reviewer failed on are listed in {@code failedHunks}, so a partial result is
+ * never mistaken for a clean one.</p>
+ * 
+ * <p>{@code usage} totals the tokens of every model call the review made, retrieval embeddings
+ * included. {@code timings} is only present when the client asked for a timing breakdown.</p>
+ * 
  * @param findings the list of all findings discovered during the review
  * @param summary a brief summary of the review results and statistics
+ * @param failedHunks hunks that could not be reviewed, per reviewer
+ * @param usage tokens consumed by the review
+ * @param timings phase-by-phase timing of the review, or {@code null}
  * 
  * @see Finding
+ * @see FailedHunk
+ * @see TokenUsage
+ * @see ReviewTimings
  */
-public record ReviewResult(List<Finding> findings, String summary) {
+public record ReviewResult(List<Finding> findings, String summary, List<FailedHunk> failedHunks, TokenUsage usage,
+                           @JsonInclude(JsonInclude.Include.NON_NULL) ReviewTimings timings) {
+
+    public ReviewResult {
+        failedHunks = failedHunks == null ? List.of() : failedHunks;
+        usage = usage == null ? TokenUsage.NONE : usage;
+    }
+
+    /**
+     * Creates a result without a timing breakdown.
+     * 
+     * @param findings the list of all findings discovered during the review
+     * @param summary a brief summary of the review results and statistics
+     * @param failedHunks hunks that could not be reviewed, per reviewer
+     * @param usage tokens consumed by the review
+     */
+    public ReviewResult(List<Finding> findings, String summary, List<FailedHunk> failedHunks, TokenUsage usage) {
+        this(findings, summary, failedHunks, usage, null);
+    }
+
+    /**
+     * Returns this result with {@code timings} attached.
+     * 
+     * @param timings the timing breakdown of the review
+     * @return a copy of this result with the timings
+     */
+    public ReviewResult withTimings(ReviewTimings timings) {
+        return new ReviewResult(findings, summary, failedHunks, usage, timings);
+    }
+
+    /**
+     * Creates a result without token usage, e.g. of a single reviewer; the workflow fills it in.
+     * 
+     * @param findings the list of all findings discovered during the review
+     * @param summary a brief summary of the review results and statistics
+     * @param failedHunks hunks that could not be reviewed, per reviewer
+     */
+    public ReviewResult(List<Finding> findings, String summary, List<FailedHunk> failedHunks) {
+        this(findings, summary, failedHunks, TokenUsage.NONE);
+    }
+
+    /**
+     * Creates a result in which every hunk was reviewed.
+     * 
+     * @param findings the list of all findings discovered during the review
+     * @param summary a brief summary of the review results and statistics
+     */
+    public ReviewResult(List<Finding> findings, String summary) {
+        this(findings, summary, List.of());
+    }
     
     /**
      * Creates an empty ReviewResult with no findings and an empty summary.
@@ -0,0 +1,19 @@
+package com.hrpd.codereview.model;
+
+import java.util.List;
+
+/**
+ * Phase-by-phase timing breakdown of one review, returned when a client asks for it.
+ * 
+ * <p>Phases are ordered by start time. Those marked critical form the chain of steps, each
+ * starting after the previous one ended, that ends last; shortening any other phase would not
+ * have made the review finish sooner.</p>
+ * 
+ * @param totalMs wall time of the review
+ * @param phases the timed steps
+ * 
+ * @see TimedPhase
+ * @see ReviewResult
+ */
+public record ReviewTimings(double totalMs, List<TimedPhase> phases) {
+}
@@ -0,0 +1,15 @@
+package com.hrpd.codereview.model;
+
+import java.util.List;
+
+/**
+ * A hunk of a completed pull request review, with the findings reported inside it.
+ * 
+ * @param hash content hash of the hunk (file path and body, without the {@code @@} header)
+ * @param filePath the file the hunk belongs to
+ * @param lineStart first new-file line of the hunk when it was reviewed
+ * @param findings findings located in the hunk
+ * 
+ * @see PrReviewState
+ */
+public record ReviewedHunk(String hash, String filePath, int lineStart, List<Finding> findings) {}
@@ -0,0 +1,32 @@
+package com.hrpd.codereview.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One timed step of a review, e.g. the GitHub fetch or one reviewer's call on one hunk.
+ * 
+ * <p>Times are in milliseconds relative to the start of the review. {@code queuedMs} is how long
+ * the step waited (for a call permit or an executor thread) before {@code startMs}; it is zero for
+ * steps that are not queued.</p>
+ * 
+ * @param phase {@code fetch}, {@code parse}, {@code retrieval}, {@code review}, {@code call} or {@code aggregation}
+ * @param reviewer the reviewer the step belongs to, or {@code null}
+ * @param target what the step worked on, e.g. {@code File.java:10-20} for a hunk, or {@code null}
+ * @param startMs when the step started executing
+ * @param queuedMs how long it waited before that
+ * @param durationMs how long it executed
+ * @param critical whether the step is on the critical path, i.e. delayed the end of the review
+ * 
+ * @see ReviewTimings
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TimedPhase(String phase, ReviewerType reviewer, String target, double startMs, double queuedMs,
+                         double durationMs, boolean critical) {
+
+    /**
+     * When the step finished, relative to the start of the review.
+     */
+    public double endMs() {
+        return startMs + durationMs;
+    }
+}
@@ -0,0 +1,36 @@
+package com.hrpd.codereview.model;
+
+/**
+ * Tokens consumed by model calls, as reported by the provider.
+ * 
+ * <p>{@code cachedTokens} is the part of {@code promptTokens} served from the provider's prompt
+ * cache; it is included in {@code promptTokens}, not added to it.</p>
+ * 
+ * @param promptTokens input tokens of chat and embedding calls
+ * @param completionTokens output tokens of chat calls
+ * @param cachedTokens prompt tokens read from the prompt cache
+ * 
+ * @see ReviewResult
+ */
+public record TokenUsage(long promptTokens, long completionTokens, long cachedTokens) {
+
+    /**
+     * No tokens, e.g. for a review answered entirely from earlier results.
+     */
+    public static final TokenUsage NONE = new TokenUsage(0, 0, 0);
+
+    /**
+     * Prompt and completion tokens together.
+     */
+    public long totalTokens() {
+        return promptTokens + completionTokens;
+    }
+
+    /**
+     * Returns the sum of this and {@code other}.
+     */
+    public TokenUsage plus(TokenUsage other) {
+        return new TokenUsage(promptTokens + other.promptTokens, completionTokens + other.completionTokens,
+                cachedTokens + other.cachedTokens);
+    }
+}
@@ -0,0 +1,36 @@
+package com.hrpd.codereview.model.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * The parts of a GitHub {@code pull_request} webhook payload used to schedule a review.
+ *
+ * @param action event action, e.g. {@code opened}, {@code synchronize} or {@code closed}
+ * @param number the pull request number
+ * @param pullRequest the pull request, carrying the head commit
+ * @param repository the repository the pull request belongs to
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record PullRequestEvent(String action,
+                               int number,
+                               @JsonProperty("pull_request") PullRequest pullRequest,
+                               Repository repository) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record PullRequest(Head head) {}
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Head(String sha) {}
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Repository(@JsonProperty("full_name") String fullName) {}
+
+    public String repo() {
+        return repository == null ? null : repository.fullName();
+    }
+
+    public String headSha() {
+        return pullRequest == null || pullRequest.head() == null ? null : pullRequest.head().sha();
+    }
+}
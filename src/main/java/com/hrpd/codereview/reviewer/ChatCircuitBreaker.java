@@ -0,0 +1,202 @@
+package com.hrpd.codereview.reviewer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker around the chat model, installed as an advisor on the reviewers' ChatClient.
+ *
+ * <p>The outcomes of the last {@code windowSize} calls are kept in a ring. Once at least
+ * {@code minimumCalls} are recorded and the share of failed calls (timeouts, I/O errors,
+ * {@code 429}, {@code 5xx}; see {@link HunkRetry#isTransient}) or of calls slower than
+ * {@code slowCallDuration} reaches its threshold, the circuit opens: calls fail at once with a
+ * {@link ChatUnavailableException} instead of tying up a thread on a degraded provider. After
+ * {@code openDuration} the circuit is half-open and lets {@code halfOpenCalls} probes through; if
+ * all of them succeed in time it closes again, otherwise it reopens.</p>
+ *
+ * <p>Calls that were started before a state change report to the state they started in and are
+ * otherwise ignored, so a slow call finishing late cannot reopen a circuit that already recovered.</p>
+ */
+@Slf4j
+public final class ChatCircuitBreaker implements CallAdvisor {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /**
+     * Point-in-time view of the breaker, e.g. for health checks.
+     *
+     * @param state the current state
+     * @param calls calls in the window
+     * @param failureRate share of failed calls in the window
+     * @param slowCallRate share of slow calls in the window
+     */
+    public record Snapshot(State state, int calls, double failureRate, double slowCallRate) {
+    }
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final boolean localFallback;
+    private final LongSupplier nanoClock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Outcome flags of the last calls, oldest overwritten first. */
+    private final byte[] window;
+    private int next;
+    private int size;
+    private int failures;
+    private int slow;
+    private State state = State.CLOSED;
+    /** Incremented on every transition, so late results of earlier states are ignored. */
+    private long generation;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    public ChatCircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                              double slowCallRateThreshold, Duration slowCallDuration, Duration openDuration,
+                              int halfOpenCalls, boolean localFallback) {
+        this(windowSize, minimumCalls, failureRateThreshold, slowCallRateThreshold, slowCallDuration, openDuration,
+                halfOpenCalls, localFallback, System::nanoTime);
+    }
+
+    ChatCircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                       double slowCallRateThreshold, Duration slowCallDuration, Duration openDuration,
+                       int halfOpenCalls, boolean localFallback, LongSupplier nanoClock) {
+        this.window = new byte[Math.max(1, windowSize)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, window.length));
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = slowCallDuration.toNanos();
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.localFallback = localFallback;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest request, CallAdvisorChain chain) {
+        long permit = acquire();
+        long start = nanoClock.getAsLong();
+        ChatClientResponse response;
+        try {
+            response = chain.nextCall(request);
+        } catch (RuntimeException e) {
+            record(permit, HunkRetry.isTransient(e), nanoClock.getAsLong() - start);
+            throw e;
+        }
+        record(permit, false, nanoClock.getAsLong() - start);
+        return response;
+    }
+
+    @Override
+    public String getName() {
+        return "chatCircuitBreaker";
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    /**
+     * Admits a call, or throws if the circuit is open or all half-open probes are taken.
+     *
+     * @return the generation the call was admitted in
+     * @throws ChatUnavailableException if the call is not permitted
+     */
+    long acquire() {
+        lock.lock();
+        try {
+            if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openNanos) {
+                transition(State.HALF_OPEN);
+            }
+            if (state == State.OPEN || (state == State.HALF_OPEN && probesStarted >= halfOpenCalls)) {
+                throw new ChatUnavailableException("Chat model circuit " + state, localFallback);
+            }
+            if (state == State.HALF_OPEN) {
+                probesStarted++;
+            }
+            return generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records the outcome of a call admitted in generation {@code permit}.
+     */
+    void record(long permit, boolean failed, long nanos) {
+        boolean slowCall = nanos >= slowCallNanos;
+        lock.lock();
+        try {
+            if (permit != generation) {
+                return;
+            }
+            if (state == State.HALF_OPEN) {
+                if (failed || slowCall) {
+                    transition(State.OPEN);
+                } else if (++probesSucceeded >= halfOpenCalls) {
+                    transition(State.CLOSED);
+                }
+                return;
+            }
+            if (size == window.length) {
+                byte evicted = window[next];
+                failures -= evicted & FAILED;
+                slow -= (evicted & SLOW) >> 1;
+            } else {
+                size++;
+            }
+            window[next] = (byte) ((failed ? FAILED : 0) | (slowCall ? SLOW : 0));
+            next = (next + 1) % window.length;
+            failures += failed ? 1 : 0;
+            slow += slowCall ? 1 : 0;
+            if (size >= minimumCalls
+                    && ((double) failures / size >= failureRateThreshold || (double) slow / size >= slowCallRateThreshold)) {
+                transition(State.OPEN);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Snapshot snapshot() {
+        lock.lock();
+        try {
+            return new Snapshot(state, size, size == 0 ? 0 : (double) failures / size, size == 0 ? 0 : (double) slow / size);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void transition(State to) {
+        log.warn("{} Chat model circuit {} -> {} ({} failed, {} slow of {} calls)",
+                to == State.CLOSED ? "✅" : "🔌", state, to, failures, slow, size);
+        state = to;
+        generation++;
+        probesStarted = 0;
+        probesSucceeded = 0;
+        if (to == State.OPEN) {
+            openedAt = nanoClock.getAsLong();
+        }
+        if (to != State.HALF_OPEN) {
+            // Both a fresh open period and a recovered circuit start from an empty window
+            size = next = failures = slow = 0;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.hrpd.codereview.reviewer;
+
+/**
+ * Thrown instead of calling the chat model while its circuit breaker is open.
+ *
+ * @see ChatCircuitBreaker
+ */
+public class ChatUnavailableException extends RuntimeException {
+
+    private final boolean localFallback;
+
+    public ChatUnavailableException(String message, boolean localFallback) {
+        super(message);
+        this.localFallback = localFallback;
+    }
+
+    /**
+     * Whether the hunk should be analyzed locally instead, see {@link LocalAnalysis}.
+     */
+    public boolean localFallback() {
+        return localFallback;
+    }
+}
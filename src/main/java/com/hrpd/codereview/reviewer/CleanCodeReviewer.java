@@ -5,12 +5,10 @@ import com.hrpd.codereview.model.Finding;
 import com.hrpd.codereview.model.ReviewResult;
 import com.hrpd.codereview.model.ReviewerType;
 import com.hrpd.codereview.service.StandardsRetrieverService;
-import com.hrpd.codereview.utils.JsonUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -52,6 +50,26 @@ public class CleanCodeReviewer implements Reviewer {
      */
     private final StandardsRetrieverService retriever;
 
+    /**
+     * Response format and completion limit of the model calls.
+     */
+    private final ReviewOutput output;
+
+    /**
+     * Retry policy for the model call of each hunk.
+     */
+    private final HunkRetry retry;
+
+    /**
+     * Creates a reviewer that asks for {@link ReviewOutput#STRUCTURED} output and does not retry.
+     *
+     * @param chat chat client for communicating with the AI model
+     * @param retriever service for retrieving relevant standards
+     */
+    public CleanCodeReviewer(ChatClient chat, StandardsRetrieverService retriever) {
+        this(chat, retriever, ReviewOutput.STRUCTURED, HunkRetry.NONE);
+    }
+
     /**
      * Returns the type of this reviewer.
      * 
@@ -80,21 +98,37 @@ public class CleanCodeReviewer implements Reviewer {
     @Override
     public ReviewResult review(List<DiffHunk> hunks) {
         log.info("🧹 Starting CLEAN CODE review for {} hunks", hunks.size());
-        var findings = new ArrayList<Finding>();
-        
-        // Retrieve relevant clean code standards to ground the AI analysis
+        var result = reviewHunks(hunks, retry, "Clean code review (grounded) complete");
+        log.info("🧹 CLEAN CODE review complete: {} total findings, {} failed hunks",
+                result.findings().size(), result.failedHunks().size());
+        return result;
+    }
+
+    /**
+     * Retrieves the clean code standards used to ground every hunk prompt of one review.
+     * 
+     * @return the retrieved standards, one bullet per document
+     */
+    @Override
+    public String retrieveGrounding() {
         log.debug("🔍 Retrieving clean code standards context...");
         String grounding = retriever.retrieveContext(
                 "java clean code; naming; complexity; duplication; comments; exceptions; logging", 6, "general");
         log.debug("📚 Retrieved {} characters of clean code standards", grounding.length());
+        return grounding;
+    }
 
-        // Analyze each diff hunk individually for clean code issues
-        for (int i = 0; i < hunks.size(); i++) {
-            var h = hunks.get(i);
-            log.debug("🔍 Analyzing clean code hunk {}/{}: {}", i + 1, hunks.size(), h.filePath());
-            
-            // Construct a detailed prompt that includes standards and specific clean code criteria
-            String prompt = """
+    /**
+     * Reviews a single hunk for clean code issues.
+     * 
+     * @param hunk the diff hunk to analyze
+     * @param grounding standards returned by {@link #retrieveGrounding()}
+     * @return the findings for this hunk
+     */
+    @Override
+    public List<Finding> reviewHunk(DiffHunk hunk, String grounding) {
+        // Construct a detailed prompt that includes standards and specific clean code criteria
+        String prompt = """
         You are a senior Java CLEAN CODE reviewer. Your job is to identify code quality issues and violations.
         INTERNAL STANDARDS:
         %s
@@ -109,39 +143,21 @@ public class CleanCodeReviewer implements Reviewer {
         - Unused methods or dead code
         - Complex conditional statements that should be extracted
 
-        IMPORTANT: Return ONLY valid JSON. Do not include any explanatory text before or after the JSON.
-
-        Return JSON with findings:
-        {"findings":[
-           {"title":"","rationale":"","suggestion":"",
-            "severity":"BLOCKER|HIGH|MEDIUM|LOW|INFO",
-            "filePath":"","lineStart":0,"lineEnd":0}
-         ],
-         "summary":""}
-
         - Be thorough and identify ALL code quality issues
         - Cite relevant internal standards in rationale when applicable
         - Use HIGH severity for major code quality violations
-        - If no issues found, return empty findings array
-        - Return ONLY the JSON object, no other text
+        - If no issues found, return no findings
 
         ```diff
         %s
         ```
-        """.formatted(grounding, h.patch());
+        """.formatted(grounding, hunk.patch());
 
-            // Call the AI model to analyze the code for clean code issues
-            log.debug("🤖 Calling AI model for clean code analysis...");
-            String json = chat.prompt().user(prompt).call().content();
-            
-            // Parse the AI response and extract findings
-            var hunkFindings = JsonUtils.parseFindings(json, ReviewerType.CLEAN_CODE, h.filePath());
-            findings.addAll(hunkFindings);
-            log.debug("✅ Clean code analysis complete for hunk {}/{}: {} findings", 
-                    i + 1, hunks.size(), hunkFindings.size());
-        }
-        // Return the aggregated results from all hunks
-        log.info("🧹 CLEAN CODE review complete: {} total findings", findings.size());
-        return new ReviewResult(findings, "Clean code review (grounded) complete");
+        // Call the AI model to analyze the code for clean code issues
+        log.debug("🤖 Calling AI model for clean code analysis...");
+        String json = output.call(chat, prompt, ReviewerType.CLEAN_CODE, hunk);
+        
+        // Parse the AI response and extract findings
+        return output.parse(json, ReviewerType.CLEAN_CODE, hunk.filePath());
     }
 }
@@ -0,0 +1,139 @@
+package com.hrpd.codereview.reviewer;
+
+import com.hrpd.codereview.model.DiffHunk;
+import com.hrpd.codereview.model.ReviewerType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Retries a single hunk review on transient model failures.
+ *
+ * <p>Timeouts, I/O errors, {@code 429} and {@code 5xx} responses are retried with full-jitter
+ * exponential backoff, like GitHub requests in
+ * {@link com.hrpd.codereview.service.HttpGithubClientService}. Anything else (a bad request, a
+ * response that cannot be handled) fails at once.</p>
+ *
+ * <p>Retries are drawn from a budget shared by all calls: every first attempt earns
+ * {@code budgetRatio} of a retry, and at most {@code budgetReserve} retries can be saved up. A
+ * short blip is absorbed by the reserve, while during an outage retries add at most
+ * {@code budgetRatio} to the load instead of multiplying it by the attempt count.</p>
+ */
+@Slf4j
+public final class HunkRetry {
+
+    /**
+     * Makes every call exactly once.
+     */
+    public static final HunkRetry NONE = new HunkRetry(1, Duration.ZERO, Duration.ZERO, 0, 0);
+
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final double budgetRatio;
+    private final double budgetReserve;
+
+    /** Retries currently available; guarded by {@code this}. */
+    private double budget;
+
+    public HunkRetry(int maxAttempts, Duration initialBackoff, Duration maxBackoff,
+                     double budgetRatio, int budgetReserve) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.budgetRatio = budgetRatio;
+        this.budgetReserve = budgetReserve;
+        this.budget = budgetReserve;
+    }
+
+    /**
+     * Runs {@code call}, retrying transient failures while attempts and budget last.
+     *
+     * @param type the reviewer making the call, for logging
+     * @param hunk the hunk under review, for logging
+     * @param call the model call
+     * @return the call's result
+     * @throws RuntimeException the last failure, once it is not retried
+     */
+    public <T> T call(ReviewerType type, DiffHunk hunk, Supplier<T> call) {
+        deposit();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call.get();
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts || !isTransient(e)) {
+                    throw e;
+                }
+                if (!withdraw()) {
+                    log.warn("💸 Retry budget exhausted, giving up on {} for {}: {}", type, hunk.filePath(), e.getMessage());
+                    throw e;
+                }
+                long delay = backoff(attempt);
+                log.warn("🔁 {} failed on {} ({}), retry {}/{} in {}ms",
+                        type, hunk.filePath(), e.getMessage(), attempt, maxAttempts - 1, delay);
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Timeouts, I/O errors, rate limiting and server errors anywhere in the cause chain are
+     * transient. Spring AI reports {@code 429} as a non-transient client error, so it is
+     * recognized by its status.
+     */
+    static boolean isTransient(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof TransientAiException || t instanceof ResourceAccessException
+                    || t instanceof IOException || t instanceof TimeoutException) {
+                return true;
+            }
+            if (t instanceof HttpStatusCodeException http) {
+                return http.getStatusCode().value() == 429 || http.getStatusCode().is5xxServerError();
+            }
+            if (t instanceof NonTransientAiException) {
+                return String.valueOf(t.getMessage()).startsWith("HTTP 429");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Full-jitter exponential backoff.
+     */
+    long backoff(int attempt) {
+        long cap = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    /**
+     * Retries currently available.
+     */
+    synchronized double budget() {
+        return budget;
+    }
+
+    private synchronized void deposit() {
+        budget = Math.min(budgetReserve, budget + budgetRatio);
+    }
+
+    private synchronized boolean withdraw() {
+        if (budget < 1) {
+            return false;
+        }
+        budget--;
+        return true;
+    }
+}
@@ -0,0 +1,110 @@
+package com.hrpd.codereview.reviewer;
+
+import com.hrpd.codereview.model.DiffHunk;
+import com.hrpd.codereview.model.FailedHunk;
+import com.hrpd.codereview.model.Finding;
+import com.hrpd.codereview.model.ReviewerType;
+import com.hrpd.codereview.model.Severity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Pattern-based review of added lines, used in place of the model while its circuit is open or
+ * once the review's token budget is used up.
+ *
+ * <p>Only a handful of unambiguous patterns per reviewer are checked, so the result is a floor,
+ * not a review: hunks analyzed this way are still reported as failed (and marked degraded) so
+ * they are reviewed by the model next time.</p>
+ */
+public final class LocalAnalysis {
+
+    private record Rule(ReviewerType reviewer, Pattern pattern, Severity severity, String title, String suggestion) {
+    }
+
+    private static final String RATIONALE = "Found by local pattern analysis without the AI model.";
+
+    private static final List<Rule> RULES = List.of(
+            new Rule(ReviewerType.SECURITY,
+                    Pattern.compile("(?i)(password|passwd|secret|api[_-]?key|token)\\w*\\s*=\\s*\"[^\"]{4,}\""),
+                    Severity.HIGH, "Hardcoded secret", "Load the value from configuration or a secret store"),
+            new Rule(ReviewerType.SECURITY,
+                    Pattern.compile("(?i)\"\\s*(select|insert|update|delete)\\b[^\"]*\"\\s*\\+"),
+                    Severity.HIGH, "SQL built by string concatenation", "Use a PreparedStatement with bound parameters"),
+            new Rule(ReviewerType.SECURITY,
+                    Pattern.compile("(?i)(log\\.\\w+|System\\.out\\.print\\w*)\\(.*(password|secret|token)"),
+                    Severity.MEDIUM, "Sensitive value logged", "Do not log credentials or tokens"),
+            new Rule(ReviewerType.SECURITY,
+                    Pattern.compile("MessageDigest\\.getInstance\\(\"(MD5|SHA-?1)\"\\)"),
+                    Severity.MEDIUM, "Weak hash algorithm", "Use SHA-256 or a password hashing function"),
+            new Rule(ReviewerType.PERFORMANCE,
+                    Pattern.compile("System\\.gc\\(\\)"),
+                    Severity.MEDIUM, "Explicit garbage collection", "Remove the System.gc() call"),
+            new Rule(ReviewerType.PERFORMANCE,
+                    Pattern.compile("Thread\\.sleep\\("),
+                    Severity.LOW, "Blocking sleep", "Use a scheduler or wait on the actual condition"),
+            new Rule(ReviewerType.PERFORMANCE,
+                    Pattern.compile("new Thread\\("),
+                    Severity.LOW, "Unmanaged thread", "Submit the work to a shared executor"),
+            new Rule(ReviewerType.CLEAN_CODE,
+                    Pattern.compile("catch\\s*\\([^)]*\\)\\s*\\{\\s*}"),
+                    Severity.MEDIUM, "Empty catch block", "Handle the exception or rethrow it"),
+            new Rule(ReviewerType.CLEAN_CODE,
+                    Pattern.compile("\\.printStackTrace\\(\\)|System\\.(out|err)\\.print"),
+                    Severity.LOW, "Console output instead of logging", "Use the logger"),
+            new Rule(ReviewerType.CLEAN_CODE,
+                    Pattern.compile("\\b(TODO|FIXME)\\b"),
+                    Severity.INFO, "Unresolved TODO", "Resolve it or track it in an issue"));
+
+    private LocalAnalysis() {
+    }
+
+    /**
+     * Checks the added lines of {@code hunk} against the rules of {@code reviewer}.
+     *
+     * @return one finding per matching line and rule
+     */
+    public static List<Finding> analyze(DiffHunk hunk, ReviewerType reviewer) {
+        List<Finding> out = new ArrayList<>();
+        int line = hunk.start();
+        for (String text : hunk.patch().split("\n")) {
+            if (text.startsWith("@@") || text.startsWith("\\") || text.startsWith("-")) {
+                continue;
+            }
+            if (text.startsWith("+")) {
+                for (Rule rule : RULES) {
+                    if (rule.reviewer() == reviewer && rule.pattern().matcher(text).find()) {
+                        out.add(new Finding(hunk.filePath(), line, line, rule.title(), RATIONALE, rule.suggestion(),
+                                rule.severity(), reviewer));
+                    }
+                }
+            }
+            line++;
+        }
+        return out;
+    }
+
+    /**
+     * Describes a failed hunk review. If the failure is an open circuit with local fallback or an
+     * exhausted token budget, the hunk is analyzed locally, its findings are passed to
+     * {@code findings} and the failure is marked degraded.
+     *
+     * @param hunk the hunk that could not be reviewed
+     * @param reviewer the reviewer that failed
+     * @param error the failure
+     * @param findings receives the local findings, if any
+     * @return the failed hunk to report
+     */
+    public static FailedHunk onFailure(DiffHunk hunk, ReviewerType reviewer, Throwable error,
+                                       Consumer<List<Finding>> findings) {
+        if ((error instanceof ChatUnavailableException e && e.localFallback())
+                || error instanceof TokenBudgetExceededException) {
+            findings.accept(analyze(hunk, reviewer));
+            return new FailedHunk(hunk.filePath(), hunk.start(), hunk.end(), reviewer,
+                    error.getMessage() + "; local analysis only", true);
+        }
+        return FailedHunk.of(hunk, reviewer, error);
+    }
+}
@@ -5,12 +5,10 @@ import com.hrpd.codereview.model.Finding;
 import com.hrpd.codereview.model.ReviewResult;
 import com.hrpd.codereview.model.ReviewerType;
 import com.hrpd.codereview.service.StandardsRetrieverService;
-import com.hrpd.codereview.utils.JsonUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -50,6 +48,26 @@ public class PerformanceReviewer implements Reviewer {
      */
     private final StandardsRetrieverService retriever;
 
+    /**
+     * Response format and completion limit of the model calls.
+     */
+    private final ReviewOutput output;
+
+    /**
+     * Retry policy for the model call of each hunk.
+     */
+    private final HunkRetry retry;
+
+    /**
+     * Creates a reviewer that asks for {@link ReviewOutput#STRUCTURED} output and does not retry.
+     *
+     * @param chat chat client for communicating with the AI model
+     * @param retriever service for retrieving relevant standards
+     */
+    public PerformanceReviewer(ChatClient chat, StandardsRetrieverService retriever) {
+        this(chat, retriever, ReviewOutput.STRUCTURED, HunkRetry.NONE);
+    }
+
     /**
      * Returns the type of this reviewer.
      * 
@@ -78,33 +96,39 @@ public class PerformanceReviewer implements Reviewer {
     @Override
     public ReviewResult review(List<DiffHunk> hunks) {
         log.info("⚡ Starting PERFORMANCE review for {} hunks", hunks.size());
-        var findings = new ArrayList<Finding>();
-        
-        // Retrieve relevant performance standards to ground the AI analysis
+        var result = reviewHunks(hunks, retry, "Performance review (grounded) complete");
+        log.info("⚡ PERFORMANCE review complete: {} total findings, {} failed hunks",
+                result.findings().size(), result.failedHunks().size());
+        return result;
+    }
+
+    /**
+     * Retrieves the performance standards used to ground every hunk prompt of one review.
+     * 
+     * @return the retrieved standards, one bullet per document
+     */
+    @Override
+    public String retrieveGrounding() {
         log.debug("🔍 Retrieving performance standards context...");
         String grounding = retriever.retrieveContext(
                 "java performance; allocations; GC pressure; streams; SQL N+1; caching; pagination", 6, "performance");
         log.debug("📚 Retrieved {} characters of performance standards", grounding.length());
+        return grounding;
+    }
 
-        // Analyze each diff hunk individually for performance issues
-        for (int i = 0; i < hunks.size(); i++) {
-            var h = hunks.get(i);
-            log.debug("🔍 Analyzing performance hunk {}/{}: {}", i + 1, hunks.size(), h.filePath());
-            
-            // Construct a performance-focused prompt with specific optimization criteria
-            String prompt = """
+    /**
+     * Reviews a single hunk for performance issues.
+     * 
+     * @param hunk the diff hunk to analyze
+     * @param grounding standards returned by {@link #retrieveGrounding()}
+     * @return the findings for this hunk
+     */
+    @Override
+    public List<Finding> reviewHunk(DiffHunk hunk, String grounding) {
+        // Construct a performance-focused prompt with specific optimization criteria
+        String prompt = """
         You are a senior Java PERFORMANCE reviewer. Look for performance issues.
         
-        IMPORTANT: Return ONLY valid JSON. Do not include any explanatory text before or after the JSON.
-        
-        Analyze this code diff and return EXACTLY this JSON format:
-        
-        {"findings":[
-           {"title":"Issue Title","rationale":"Why this is a problem","suggestion":"How to fix it",
-            "severity":"HIGH","filePath":"","lineStart":1,"lineEnd":1}
-         ],
-         "summary":"Brief summary"}
-        
         Look specifically for:
         1. Memory leaks and inefficient allocations
         2. N+1 database queries
@@ -113,29 +137,19 @@ public class PerformanceReviewer implements Reviewer {
         5. Large object creation in hot paths
         6. Missing caching opportunities
         
-        IMPORTANT: 
-        - If you find performance issues, return them in the findings array
-        - If no issues, return empty findings array
-        - Return ONLY the JSON object, no other text
+        Report each performance issue as a finding; if there are none, return no findings.
         
         Code to analyze:
         ```diff
         %s
         ```
-        """.formatted(h.patch());
+        """.formatted(hunk.patch());
 
-            // Call the AI model to analyze the code for performance issues
-            log.debug("🤖 Calling AI model for performance analysis...");
-            String json = chat.prompt().user(prompt).call().content();
-            
-            // Parse the AI response and extract performance findings
-            var hunkFindings = JsonUtils.parseFindings(json, ReviewerType.PERFORMANCE, h.filePath());
-            findings.addAll(hunkFindings);
-            log.debug("✅ Performance analysis complete for hunk {}/{}: {} findings", 
-                    i + 1, hunks.size(), hunkFindings.size());
-        }
-        // Return the aggregated performance findings from all hunks
-        log.info("⚡ PERFORMANCE review complete: {} total findings", findings.size());
-        return new ReviewResult(findings, "Performance review (grounded) complete");
+        // Call the AI model to analyze the code for performance issues
+        log.debug("🤖 Calling AI model for performance analysis...");
+        String json = output.call(chat, prompt, ReviewerType.PERFORMANCE, hunk);
+        
+        // Parse the AI response and extract performance findings
+        return output.parse(json, ReviewerType.PERFORMANCE, hunk.filePath());
     }
 }
@@ -0,0 +1,227 @@
+package com.hrpd.codereview.reviewer;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import com.hrpd.codereview.jfr.ModelCallEvent;
+import com.hrpd.codereview.model.DiffHunk;
+import com.hrpd.codereview.model.Finding;
+import com.hrpd.codereview.model.ReviewerType;
+import com.hrpd.codereview.model.Severity;
+import com.hrpd.codereview.model.TokenUsage;
+import com.hrpd.codereview.utils.JsonUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.converter.BeanOutputConverter;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.ResponseFormat;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How reviewer calls ask the model for findings and read them back.
+ *
+ * <p>Calls use OpenAI structured outputs: the request carries a strict JSON schema as its
+ * {@code response_format}, so the model can only answer with a {@code {"findings": [...],
+ * "summary": ...}} object and prompts no longer need to spell the format out. The schema is
+ * generated by Spring AI's {@link BeanOutputConverter} from {@link WireReview}, the model-facing
+ * mirror of {@link com.hrpd.codereview.model.ReviewResult} and {@link Finding} (without the
+ * reviewer, which the caller knows).</p>
+ *
+ * <p>The opt-in {@code compact} format ({@link CompactReview}) asks for the same findings with
+ * one-letter keys, severity initials, an empty path for the reviewed file and no summary, which
+ * roughly halves the completion tokens of a typical finding. Both formats can cap the completion
+ * with {@code max_tokens}.</p>
+ *
+ * <p>Responses are bound by the streaming parsers in {@link JsonUtils}, which find the JSON at
+ * offset 0 for schema-constrained output, keep the complete findings of a response cut off at
+ * the token limit, and count parse outcomes. Each call is timed in {@value #CALL_METRIC} (failed
+ * calls too, by outcome) and its completion tokens are recorded in {@value #TOKENS_METRIC}, both
+ * tagged with the format and reviewer, so the averages of the two formats can be compared. The
+ * call's prompt, completion and cached tokens are charged to the review's {@link TokenMeter},
+ * and no call is made once its budget is exhausted. Every call made is also a
+ * {@link ModelCallEvent} for the flight recorder.</p>
+ */
+public final class ReviewOutput {
+
+    /**
+     * Findings as the model returns them.
+     */
+    record WireFinding(
+            @JsonProperty(required = true) String title,
+            @JsonProperty(required = true) @JsonPropertyDescription("Why this is a problem") String rationale,
+            @JsonProperty(required = true) @JsonPropertyDescription("How to fix it") String suggestion,
+            @JsonProperty(required = true) Severity severity,
+            @JsonProperty(required = true) @JsonPropertyDescription("Path of the reviewed file") String filePath,
+            @JsonProperty(required = true) @JsonPropertyDescription("First affected line in the new file") int lineStart,
+            @JsonProperty(required = true) @JsonPropertyDescription("Last affected line in the new file") int lineEnd) {
+    }
+
+    /**
+     * Review of one hunk as the model returns it; an empty findings array means no issues.
+     */
+    record WireReview(
+            @JsonProperty(required = true) List<WireFinding> findings,
+            @JsonProperty(required = true) String summary) {
+    }
+
+    /**
+     * Compact finding: title, rationale, suggestion, severity initial, path, first and last line.
+     */
+    record CompactFinding(
+            @JsonProperty(required = true) String t,
+            @JsonProperty(required = true) @JsonPropertyDescription("Why this is a problem") String r,
+            @JsonProperty(required = true) @JsonPropertyDescription("How to fix it") String s,
+            @JsonProperty(required = true) @JsonPropertyDescription("Severity: Blocker, High, Medium, Low or Info") Level v,
+            @JsonProperty(required = true) @JsonPropertyDescription("File path; empty for the reviewed file") String p,
+            @JsonProperty(required = true) @JsonPropertyDescription("First affected line in the new file") int l,
+            @JsonProperty(required = true) @JsonPropertyDescription("Last affected line in the new file") int e) {
+    }
+
+    /**
+     * Compact review of one hunk: just the findings, under {@code f}.
+     */
+    record CompactReview(@JsonProperty(required = true) List<CompactFinding> f) {
+    }
+
+    /**
+     * Severity initials of the compact format.
+     */
+    enum Level { B, H, M, L, I }
+
+    /**
+     * Name of the model call timer.
+     */
+    public static final String CALL_METRIC = "codereview.reviewer.call";
+
+    /**
+     * Name of the completion token distribution.
+     */
+    public static final String TOKENS_METRIC = "codereview.reviewer.completion.tokens";
+
+    public static final String STRUCTURED_FORMAT = "structured";
+    public static final String COMPACT_FORMAT = "compact";
+
+    /**
+     * Schema-constrained output with the model's default completion limit, keeping its metrics in
+     * a registry of its own, e.g. for tests.
+     */
+    public static final ReviewOutput STRUCTURED =
+            new ReviewOutput(STRUCTURED_FORMAT, WireReview.class, null, new SimpleMeterRegistry());
+
+    private final String format;
+    private final String schema;
+    private final OpenAiChatOptions options;
+    private final MeterRegistry registry;
+
+    private ReviewOutput(String format, Class<?> wireType, Integer maxTokens, MeterRegistry registry) {
+        this.format = format;
+        this.registry = registry;
+        this.schema = new BeanOutputConverter<>(wireType).getJsonSchema();
+        this.options = OpenAiChatOptions.builder()
+                .responseFormat(ResponseFormat.builder()
+                        .type(ResponseFormat.Type.JSON_SCHEMA)
+                        .jsonSchema(schema)
+                        .build())
+                .maxTokens(maxTokens)
+                .build();
+    }
+
+    /**
+     * Creates the output for a configured format.
+     *
+     * @param format {@code structured} or {@code compact}
+     * @param maxTokens completion limit per call, or {@code null} for the model default
+     * @param registry registry for the call, token and parse metrics
+     * @return the output settings
+     * @throws IllegalArgumentException if the format is unknown
+     */
+    public static ReviewOutput of(String format, Integer maxTokens, MeterRegistry registry) {
+        return switch (format) {
+            case STRUCTURED_FORMAT -> new ReviewOutput(STRUCTURED_FORMAT, WireReview.class, maxTokens, registry);
+            case COMPACT_FORMAT -> new ReviewOutput(COMPACT_FORMAT, CompactReview.class, maxTokens, registry);
+            default -> throw new IllegalArgumentException("Unknown review output format: " + format);
+        };
+    }
+
+    /**
+     * The format name, {@code structured} or {@code compact}.
+     */
+    public String format() {
+        return format;
+    }
+
+    /**
+     * Per-call options selecting the response format and completion limit; merged over the
+     * configured chat defaults.
+     */
+    public ChatOptions options() {
+        return options;
+    }
+
+    /**
+     * The JSON schema sent with every call.
+     */
+    public String schema() {
+        return schema;
+    }
+
+    /**
+     * Sends one reviewer prompt and returns the response text, recording the call's latency
+     * (tagged {@code success} or {@code error}) and token usage.
+     *
+     * @param chat the chat client
+     * @param prompt the user prompt
+     * @param type the reviewer making the call
+     * @param hunk the hunk the prompt reviews
+     * @return the response text, or {@code null} if the model returned none
+     * @throws TokenBudgetExceededException if the review's token budget is already used up
+     */
+    public String call(ChatClient chat, String prompt, ReviewerType type, DiffHunk hunk) {
+        TokenMeter.checkBudget();
+        var event = ModelCallEvent.start(TokenMeter.currentId(), type, format, hunk);
+        long start = System.nanoTime();
+        ChatResponse response;
+        try {
+            response = chat.prompt().user(prompt).options(options).call().chatResponse();
+        } catch (RuntimeException e) {
+            registry.timer(CALL_METRIC, "format", format, "reviewer", type.name(), "outcome", "error")
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.finish("error", TokenUsage.NONE);
+            throw e;
+        }
+        registry.timer(CALL_METRIC, "format", format, "reviewer", type.name(), "outcome", "success")
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (response == null) {
+            event.finish("empty", TokenUsage.NONE);
+            return null;
+        }
+        Usage usage = response.getMetadata() == null ? null : response.getMetadata().getUsage();
+        TokenUsage tokens = TokenMeter.record(type.name(), usage, registry);
+        if (usage != null && usage.getCompletionTokens() != null) {
+            registry.summary(TOKENS_METRIC, "format", format, "reviewer", type.name())
+                    .record(usage.getCompletionTokens());
+        }
+        String text = response.getResult() == null ? null : response.getResult().getOutput().getText();
+        event.finish(text == null ? "empty" : "success", tokens);
+        return text;
+    }
+
+    /**
+     * Reads the findings of one model response.
+     *
+     * @param content the model's response text
+     * @param type the reviewer that made the call
+     * @param filePath path of the reviewed hunk, used when the model leaves it empty
+     * @return the findings, possibly empty
+     */
+    public List<Finding> parse(String content, ReviewerType type, String filePath) {
+        return COMPACT_FORMAT.equals(format)
+                ? JsonUtils.parseCompactFindings(content, type, filePath, registry)
+                : JsonUtils.parseFindings(content, type, filePath, registry);
+    }
+}
@@ -1,9 +1,15 @@
 package com.hrpd.codereview.reviewer;
 
 import com.hrpd.codereview.model.DiffHunk;
+import com.hrpd.codereview.model.FailedHunk;
+import com.hrpd.codereview.model.Finding;
 import com.hrpd.codereview.model.ReviewResult;
 import com.hrpd.codereview.model.ReviewerType;
+import com.hrpd.codereview.service.ReviewTimer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -52,4 +58,73 @@ public interface Reviewer {
      * @return a ReviewResult containing all findings and a summary
      */
     ReviewResult review(List<DiffHunk> hunks);
+
+    /**
+     * Retrieves the standards context that grounds this reviewer's prompts.
+     * 
+     * <p>Streaming reviews call this once and then {@link #reviewHunk(DiffHunk, String)}
+     * for each hunk as it arrives, instead of waiting for the complete hunk list.</p>
+     * 
+     * @return the standards context, possibly empty
+     */
+    String retrieveGrounding();
+
+    /**
+     * Reviews a single diff hunk against previously retrieved standards.
+     * 
+     * @param hunk the diff hunk to review
+     * @param grounding the context returned by {@link #retrieveGrounding()}
+     * @return the findings for this hunk
+     */
+    List<Finding> reviewHunk(DiffHunk hunk, String grounding);
+
+    /**
+     * Reviews the hunks one at a time, grounded once by {@link #retrieveGrounding()}; the
+     * shared body of {@link #review(List)}.
+     * 
+     * <p>Each {@link #reviewHunk(DiffHunk, String)} call is retried by {@code retry}. A hunk
+     * that still fails is listed in the result's failed hunks, after local analysis if the model
+     * is unavailable, and the other hunks' findings are kept. With a bound {@link ReviewTimer},
+     * every call is recorded as a {@code call} step.</p>
+     * 
+     * <p>If the thread is interrupted, e.g. because a newer head superseded the review, no
+     * further hunk is started and an {@link IllegalStateException} is thrown.</p>
+     * 
+     * @param hunks the diff hunks to review
+     * @param retry retry policy for each hunk's model call
+     * @param summary summary of the result
+     * @return the findings and failed hunks of all hunks
+     */
+    default ReviewResult reviewHunks(List<DiffHunk> hunks, HunkRetry retry, String summary) {
+        Logger log = LoggerFactory.getLogger(getClass());
+        ReviewerType type = type();
+        var findings = new ArrayList<Finding>();
+        var failed = new ArrayList<FailedHunk>();
+        String grounding = retrieveGrounding();
+        var timer = ReviewTimer.current();
+
+        for (int i = 0; i < hunks.size(); i++) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IllegalStateException(
+                        type + " review interrupted after " + i + " of " + hunks.size() + " hunks");
+            }
+            var h = hunks.get(i);
+            log.debug("🔍 Analyzing {} hunk {}/{}: {}", type, i + 1, hunks.size(), h.filePath());
+            long start = System.nanoTime();
+            try {
+                var hunkFindings = retry.call(type, h, () -> reviewHunk(h, grounding));
+                findings.addAll(hunkFindings);
+                log.debug("✅ {} analysis complete for hunk {}/{}: {} findings",
+                        type, i + 1, hunks.size(), hunkFindings.size());
+            } catch (RuntimeException e) {
+                log.error("❌ {} analysis failed for hunk {}/{}: {}", type, i + 1, hunks.size(), h.filePath(), e);
+                failed.add(LocalAnalysis.onFailure(h, type, e, findings::addAll));
+            } finally {
+                if (timer.enabled()) {
+                    timer.record("call", type, ReviewTimer.target(h), start, start, System.nanoTime());
+                }
+            }
+        }
+        return new ReviewResult(findings, summary, failed);
+    }
 }
@@ -5,12 +5,10 @@ import com.hrpd.codereview.model.Finding;
 import com.hrpd.codereview.model.ReviewResult;
 import com.hrpd.codereview.model.ReviewerType;
 import com.hrpd.codereview.service.StandardsRetrieverService;
-import com.hrpd.codereview.utils.JsonUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -49,6 +47,26 @@ public class SecurityReviewer implements Reviewer {
      */
     private final StandardsRetrieverService retriever;
 
+    /**
+     * Response format and completion limit of the model calls.
+     */
+    private final ReviewOutput output;
+
+    /**
+     * Retry policy for the model call of each hunk.
+     */
+    private final HunkRetry retry;
+
+    /**
+     * Creates a reviewer that asks for {@link ReviewOutput#STRUCTURED} output and does not retry.
+     *
+     * @param chat chat client for communicating with the AI model
+     * @param retriever service for retrieving relevant standards
+     */
+    public SecurityReviewer(ChatClient chat, StandardsRetrieverService retriever) {
+        this(chat, retriever, ReviewOutput.STRUCTURED, HunkRetry.NONE);
+    }
+
     /**
      * Returns the type of this reviewer.
      * 
@@ -77,65 +95,60 @@ public class SecurityReviewer implements Reviewer {
     @Override
     public ReviewResult review(List<DiffHunk> hunks) {
         log.info("🔒 Starting SECURITY review for {} hunks", hunks.size());
-        var findings = new ArrayList<Finding>();
-        
-        // Retrieve relevant security standards to ground the AI analysis
+        var result = reviewHunks(hunks, retry, "Security review (grounded) complete");
+        log.info("🔒 SECURITY review complete: {} total findings, {} failed hunks",
+                result.findings().size(), result.failedHunks().size());
+        return result;
+    }
+
+    /**
+     * Retrieves the security standards used to ground every hunk prompt of one review.
+     * 
+     * @return the retrieved standards, one bullet per document
+     */
+    @Override
+    public String retrieveGrounding() {
         log.debug("🔍 Retrieving security standards context...");
         String grounding = retriever.retrieveContext(
                 "java security review; injection; SSRF; XXE; secrets; crypto; authz; PII logging", 6, "security");
         log.info("📚 Retrieved {} characters of security standards", grounding.length());
         log.info("📚 SECURITY STANDARDS: {}", grounding);
+        return grounding;
+    }
 
-        // Analyze each diff hunk individually for security vulnerabilities
-        for (int i = 0; i < hunks.size(); i++) {
-            var h = hunks.get(i);
-            log.debug("🔍 Analyzing security hunk {}/{}: {}", i + 1, hunks.size(), h.filePath());
-            
-            // Construct a security-focused prompt with specific vulnerability patterns
-            String prompt = """
-            You are a security expert reviewing Java code. Look for security vulnerabilities.
-            
-            IMPORTANT: Return ONLY valid JSON. Do not include any explanatory text before or after the JSON.
-            
-            Analyze this code diff and return EXACTLY this JSON format:
-            
-            {"findings":[
-               {"title":"Issue Title","rationale":"Why this is a problem","suggestion":"How to fix it",
-                "severity":"HIGH","filePath":"","lineStart":1,"lineEnd":1}
-             ],
-             "summary":"Brief summary"}
-            
-            Look specifically for:
-            1. Hardcoded API keys, passwords, or secrets
-            2. SQL injection vulnerabilities 
-            3. Logging sensitive information
-            4. Missing authentication
-            
-            IMPORTANT: 
-            - If you find security issues, return them in the findings array
-            - If no issues, return empty findings array
-            - Return ONLY the JSON object, no other text
-            
-            Code to analyze:
-            ```diff
-            %s
-            ```
-            """.formatted(h.patch());
+    /**
+     * Reviews a single hunk for security issues.
+     * 
+     * @param hunk the diff hunk to analyze
+     * @param grounding standards returned by {@link #retrieveGrounding()}
+     * @return the findings for this hunk
+     */
+    @Override
+    public List<Finding> reviewHunk(DiffHunk hunk, String grounding) {
+        // Construct a security-focused prompt with specific vulnerability patterns
+        String prompt = """
+        You are a security expert reviewing Java code. Look for security vulnerabilities.
+        
+        Look specifically for:
+        1. Hardcoded API keys, passwords, or secrets
+        2. SQL injection vulnerabilities 
+        3. Logging sensitive information
+        4. Missing authentication
+        
+        Report each security issue as a finding; if there are none, return no findings.
+        
+        Code to analyze:
+        ```diff
+        %s
+        ```
+        """.formatted(hunk.patch());
 
-            // Call the AI model to analyze the code for security vulnerabilities
-            log.debug("🤖 Calling AI model for security analysis...");
-            String json = chat.prompt().user(prompt).call().content();
-            log.info("🔍 RAW AI RESPONSE: {}", json);
-            
-            // Parse the AI response and extract security findings
-            var hunkFindings = JsonUtils.parseFindings(json, ReviewerType.SECURITY, h.filePath());
-            log.info("🔍 PARSED FINDINGS: {}", hunkFindings.size());
-            findings.addAll(hunkFindings);
-            log.debug("✅ Security analysis complete for hunk {}/{}: {} findings", 
-                    i + 1, hunks.size(), hunkFindings.size());
-        }
-        // Return the aggregated security findings from all hunks
-        log.info("🔒 SECURITY review complete: {} total findings", findings.size());
-        return new ReviewResult(findings, "Security review (grounded) complete");
+        // Call the AI model to analyze the code for security vulnerabilities
+        log.debug("🤖 Calling AI model for security analysis...");
+        String json = output.call(chat, prompt, ReviewerType.SECURITY, hunk);
+        log.info("🔍 RAW AI RESPONSE: {}", json);
+        
+        // Parse the AI response and extract security findings
+        return output.parse(json, ReviewerType.SECURITY, hunk.filePath());
     }
 }
@@ -0,0 +1,13 @@
+package com.hrpd.codereview.reviewer;
+
+/**
+ * Thrown instead of calling the model once the review's token budget is used up.
+ *
+ * @see TokenMeter
+ */
+public class TokenBudgetExceededException extends RuntimeException {
+
+    public TokenBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,161 @@
+package com.hrpd.codereview.reviewer;
+
+import com.hrpd.codereview.model.TokenUsage;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.openai.api.OpenAiApi;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Token accounting of one review.
+ *
+ * <p>The workflow opens a meter per review and runs every reviewer task through {@link #call},
+ * which binds the meter to the executing thread. {@link ReviewOutput#call} and the standards
+ * retriever report the usage of each model call with {@link #record}, which counts it in
+ * {@value #TOKENS_METRIC} (by source and token type) and charges it to the bound meter. Calls
+ * made outside a review are only counted.</p>
+ *
+ * <p>A meter with a budget is exhausted once its total tokens reach the budget; from then on
+ * {@link #checkBudget()} throws {@link TokenBudgetExceededException} instead of letting another
+ * call start, and the hunk is analyzed locally (see {@link LocalAnalysis}). Calls already in
+ * flight still complete, so a review can overshoot its budget by the calls it has in flight.</p>
+ *
+ * <p>Each meter has a process-unique {@link #id()}, which the review's flight recorder events
+ * carry (see {@link com.hrpd.codereview.jfr.ReviewEvent}).</p>
+ */
+public final class TokenMeter {
+
+    /**
+     * Name of the counter of consumed tokens.
+     */
+    public static final String TOKENS_METRIC = "codereview.tokens";
+
+    private static final ThreadLocal<TokenMeter> CURRENT = new ThreadLocal<>();
+
+    private static final AtomicLong IDS = new AtomicLong();
+
+    private final long id = IDS.incrementAndGet();
+    private final long budget;
+    private final LongAdder prompt = new LongAdder();
+    private final LongAdder completion = new LongAdder();
+    private final LongAdder cached = new LongAdder();
+
+    /**
+     * @param budget most tokens the review may consume; {@code 0} or less for no limit
+     */
+    public TokenMeter(long budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Id of the review this meter accounts for.
+     */
+    public long id() {
+        return id;
+    }
+
+    /**
+     * Id of the meter bound to the current thread, or {@code 0} outside a review.
+     */
+    public static long currentId() {
+        TokenMeter meter = CURRENT.get();
+        return meter == null ? 0 : meter.id;
+    }
+
+    /**
+     * Runs {@code task} with this meter bound to the current thread.
+     */
+    public <T> T call(Supplier<T> task) {
+        TokenMeter previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Fails if the meter bound to the current thread has used up its budget.
+     *
+     * @throws TokenBudgetExceededException if it has
+     */
+    public static void checkBudget() {
+        TokenMeter meter = CURRENT.get();
+        if (meter != null && meter.exhausted()) {
+            throw meter.budgetExceeded();
+        }
+    }
+
+    /**
+     * The failure reported for calls not made because the budget is used up.
+     */
+    public TokenBudgetExceededException budgetExceeded() {
+        return new TokenBudgetExceededException("Token budget of " + budget + " exhausted");
+    }
+
+    /**
+     * Counts the usage of one model call and charges it to the meter bound to the current thread.
+     *
+     * @param source the caller, e.g. a reviewer type or {@code EMBEDDING}
+     * @param usage the usage reported by the provider, possibly {@code null}
+     * @param registry registry of the token counter
+     * @return the tokens counted
+     */
+    public static TokenUsage record(String source, Usage usage, MeterRegistry registry) {
+        TokenUsage tokens = of(usage);
+        if (tokens.equals(TokenUsage.NONE)) {
+            return tokens;
+        }
+        registry.counter(TOKENS_METRIC, "source", source, "type", "prompt").increment(tokens.promptTokens());
+        registry.counter(TOKENS_METRIC, "source", source, "type", "completion").increment(tokens.completionTokens());
+        registry.counter(TOKENS_METRIC, "source", source, "type", "cached").increment(tokens.cachedTokens());
+        TokenMeter meter = CURRENT.get();
+        if (meter != null) {
+            meter.prompt.add(tokens.promptTokens());
+            meter.completion.add(tokens.completionTokens());
+            meter.cached.add(tokens.cachedTokens());
+        }
+        return tokens;
+    }
+
+    /**
+     * Whether the budget is used up.
+     */
+    public boolean exhausted() {
+        return budget > 0 && prompt.sum() + completion.sum() >= budget;
+    }
+
+    /**
+     * Tokens charged so far.
+     */
+    public TokenUsage usage() {
+        return new TokenUsage(prompt.sum(), completion.sum(), cached.sum());
+    }
+
+    /**
+     * Reads provider usage; cached prompt tokens are only reported by OpenAI.
+     */
+    static TokenUsage of(Usage usage) {
+        if (usage == null) {
+            return TokenUsage.NONE;
+        }
+        long cachedTokens = 0;
+        if (usage.getNativeUsage() instanceof OpenAiApi.Usage openAi && openAi.promptTokensDetails() != null
+                && openAi.promptTokensDetails().cachedTokens() != null) {
+            cachedTokens = openAi.promptTokensDetails().cachedTokens();
+        }
+        return new TokenUsage(orZero(usage.getPromptTokens()), orZero(usage.getCompletionTokens()), cachedTokens);
+    }
+
+    private static long orZero(Integer tokens) {
+        return tokens == null ? 0 : tokens;
+    }
+}
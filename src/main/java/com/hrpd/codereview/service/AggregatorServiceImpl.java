@@ -1,14 +1,17 @@
 package com.hrpd.codereview.service;
 
+import com.hrpd.codereview.jfr.AggregationEvent;
+import com.hrpd.codereview.model.FailedHunk;
 import com.hrpd.codereview.model.Finding;
 import com.hrpd.codereview.model.ReviewResult;
-import com.hrpd.codereview.model.Severity;
+import com.hrpd.codereview.model.TokenUsage;
+import com.hrpd.codereview.reviewer.TokenMeter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implementation of the aggregator service that merges and deduplicates findings from multiple reviewers.
@@ -28,7 +31,17 @@ import java.util.Map;
  * 
  * <p>Deduplication is performed using a composite key based on file path, line range,
  * and normalized title content. When duplicates are found, the finding with higher
- * severity is retained.</p>
+ * severity is retained. Findings on overlapping lines of the same file whose titles or
+ * rationales read alike are merged the same way, e.g. two reviewers' takes on one injection
+ * flaw. The work is done by a {@link FindingAccumulator}, which streaming reviews also fill
+ * directly as results arrive.</p>
+ * 
+ * <p>Failed hunks of all parts are passed through, so the merged result still shows what was
+ * not reviewed.</p>
+ * 
+ * <p>Merges are timed in {@value #AGGREGATE_METRIC} with {@code mode=merge}; streaming reviews
+ * record their final snapshot there with {@code mode=snapshot}. Both are {@code aggregation} steps
+ * of the current {@link ReviewTimer} and {@link AggregationEvent}s.</p>
  * 
  * @see AggregatorService
  * @see Finding
@@ -37,6 +50,27 @@ import java.util.Map;
 @Slf4j
 public class AggregatorServiceImpl implements AggregatorService {
 
+    /**
+     * Name of the aggregation timer.
+     */
+    public static final String AGGREGATE_METRIC = "codereview.aggregate";
+
+    private final MeterRegistry registry;
+
+    /**
+     * Creates an aggregator that keeps its metrics in a registry of its own, e.g. for tests.
+     */
+    public AggregatorServiceImpl() {
+        this(new SimpleMeterRegistry());
+    }
+
+    /**
+     * @param registry registry for the aggregation timer
+     */
+    public AggregatorServiceImpl(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
     /**
      * Merges multiple review results into a single, deduplicated result.
      * 
@@ -57,102 +91,41 @@ public class AggregatorServiceImpl implements AggregatorService {
             log.debug("📊 Reviewer {}: {} findings - {}", i + 1, part.findings().size(), part.summary());
         }
         
-        // Flatten all findings from all reviewers into a single list
-        var all = parts.stream().flatMap(r -> r.findings().stream()).toList();
-        log.info("📋 Total findings before deduplication: {}", all.size());
-        
-        // Remove duplicate findings and resolve conflicts
-        var deduped = dedupe(all);
-        log.info("🔄 Deduplication complete: {} unique findings (removed {} duplicates)", 
-                deduped.size(), all.size() - deduped.size());
-        
-        // Generate comprehensive summary with statistics
-        var summary = summarize(deduped);
-        log.info("📈 Final aggregated result: {} findings - {}", deduped.size(), summary);
-        
-        return new ReviewResult(deduped, summary);
-    }
-
-    /**
-     * Removes duplicate findings and resolves conflicts by preferring higher severity.
-     * 
-     * <p>Deduplication is performed using a composite key that includes:
-     * <ul>
-     *   <li>File path</li>
-     *   <li>Line range (start-end)</li>
-     *   <li>Normalized title content</li>
-     * </ul></p>
-     * 
-     * <p>When duplicate findings are identified, the one with higher severity is retained.
-     * This ensures that critical issues are not lost during the deduplication process.</p>
-     * 
-     * @param in the list of findings to deduplicate
-     * @return a deduplicated list of findings
-     */
-    private List<Finding> dedupe(List<Finding> in) {
-        log.debug("🔍 Starting deduplication of {} findings", in.size());
-        Map<String, Finding> byKey = new HashMap<>();
-        int duplicatesFound = 0;
-        
-        for (var f : in) {
-            // Create composite key for deduplication
-            var key = f.filePath() + "#" + f.lineStart() + "-" + f.lineEnd() + "#" + normalize(f.title());
-            var existing = byKey.get(key);
-            if (existing != null) {
-                duplicatesFound++;
-                log.debug("🔄 Found duplicate finding: {} - keeping higher severity", f.title());
-            }
-            // Merge findings, preferring the one with higher severity
-            byKey.merge(key, f, this::preferHigherSeverity);
-        }
-        
-        log.debug("✅ Deduplication complete: {} duplicates found and resolved", duplicatesFound);
-        return new ArrayList<>(byKey.values());
-    }
-
-    /**
-     * Compares two findings and returns the one with higher severity.
-     * 
-     * <p>This method is used during deduplication to resolve conflicts when
-     * multiple reviewers identify the same issue. The severity order is:
-     * BLOCKER > HIGH > MEDIUM > LOW > INFO.</p>
-     * 
-     * @param a the first finding to compare
-     * @param b the second finding to compare
-     * @return the finding with higher severity, or the first one if equal
-     */
-    private Finding preferHigherSeverity(Finding a, Finding b) {
-        var order = List.of(Severity.BLOCKER, Severity.HIGH, Severity.MEDIUM, Severity.LOW, Severity.INFO);
-        return order.indexOf(a.severity()) <= order.indexOf(b.severity()) ? a : b;
-    }
+        // Feed every finding through an accumulator, which dedupes and counts in one pass
+        var event = AggregationEvent.start(TokenMeter.currentId(), "merge");
+        long start = System.nanoTime();
+        var accumulator = new FindingAccumulator();
+        parts.forEach(part -> accumulator.addAll(part.findings()));
+        var merged = accumulator.snapshot();
+        var usage = parts.stream().map(ReviewResult::usage).reduce(TokenUsage.NONE, TokenUsage::plus);
+        var result = withFailures(new ReviewResult(merged.findings(), merged.summary(), List.of(), usage),
+                parts.stream().flatMap(part -> part.failedHunks().stream()).toList());
+        long end = System.nanoTime();
+        ReviewTimer.current().record("aggregation", "merge", start, end);
+        registry.timer(AGGREGATE_METRIC, "mode", "merge").record(end - start, TimeUnit.NANOSECONDS);
+        event.finish(accumulator.received(), result.findings().size());
+        log.info("🔄 Deduplication complete: {} unique findings (removed {} duplicates)",
+                result.findings().size(), accumulator.received() - result.findings().size());
+        log.info("📈 Final aggregated result: {} findings - {}", result.findings().size(), result.summary());
 
-    /**
-     * Normalizes a string for comparison purposes during deduplication.
-     * 
-     * <p>This method converts the string to lowercase and collapses multiple
-     * whitespace characters into single spaces. This helps identify findings
-     * that are essentially the same but may have minor formatting differences.</p>
-     * 
-     * @param s the string to normalize
-     * @return the normalized string, or empty string if input is null
-     */
-    private String normalize(String s) { 
-        return s == null ? "" : s.toLowerCase().replaceAll("\\s+", " "); 
+        return result;
     }
 
     /**
-     * Generates a summary string with statistics about the findings.
+     * Attaches the hunks that could not be reviewed, noting their number (and how many of them were
+     * analyzed locally instead) in the summary.
      * 
-     * <p>This method creates a concise summary that includes the total number
-     * of findings and counts for the most critical severity levels (BLOCKER and HIGH).
-     * This provides quick insight into the overall quality and urgency of issues found.</p>
-     * 
-     * @param fs the list of findings to summarize
-     * @return a summary string with finding counts by severity
+     * @param result merged findings and summary
+     * @param failed failed hunks of all parts
+     * @return the result with its failed hunks
      */
-    private String summarize(List<Finding> fs) {
-        long blockers = fs.stream().filter(f -> f.severity() == Severity.BLOCKER).count();
-        long highs = fs.stream().filter(f -> f.severity() == Severity.HIGH).count();
-        return "Findings: " + fs.size() + " (BLOCKER=" + blockers + ", HIGH=" + highs + ")";
+    static ReviewResult withFailures(ReviewResult result, List<FailedHunk> failed) {
+        if (failed.isEmpty()) {
+            return result;
+        }
+        long degraded = failed.stream().filter(FailedHunk::degraded).count();
+        String note = failed.size() + " hunk reviews failed"
+                + (degraded == 0 ? "" : " (" + degraded + " degraded to local analysis)");
+        return new ReviewResult(result.findings(), result.summary() + "; " + note, failed, result.usage());
     }
 }
@@ -0,0 +1,19 @@
+package com.hrpd.codereview.service;
+
+import com.hrpd.codereview.model.BatchReviewItem;
+import com.hrpd.codereview.model.request.ReviewPRRequest;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reviews many pull requests concurrently and reports each one as it finishes.
+ */
+public interface BatchReviewService {
+
+    /**
+     * Reviews all PRs, calling {@code sink} once per PR in completion order. Calls to the sink
+     * are serialized. A failed PR is reported with its error and does not stop the batch.
+     */
+    void reviewAll(List<ReviewPRRequest> prs, Consumer<BatchReviewItem> sink) throws InterruptedException;
+}
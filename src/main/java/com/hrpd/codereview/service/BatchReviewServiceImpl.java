@@ -0,0 +1,93 @@
+package com.hrpd.codereview.service;
+
+import com.hrpd.codereview.model.BatchReviewItem;
+import com.hrpd.codereview.model.ReviewResult;
+import com.hrpd.codereview.model.request.ReviewPRRequest;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Runs the PRs of a batch as independent reviews on the executor.
+ *
+ * <p>Up to {@code maxConcurrentPrs} PRs are fetched and reviewed at once. Their GitHub calls
+ * share the client's rate budget and their model calls share the workflow's fair call limit, so
+ * the batch runs as fast as the model quota allows while every PR keeps making progress.</p>
+ *
+ * <p>If the sink fails (usually because the client disconnected), no further PRs are started
+ * and the failure is rethrown once the running ones are done.</p>
+ */
+@Slf4j
+public class BatchReviewServiceImpl implements BatchReviewService {
+
+    private final PullRequestReviewService reviews;
+    private final ExecutorService executor;
+    private final int maxConcurrentPrs;
+
+    public BatchReviewServiceImpl(PullRequestReviewService reviews, ExecutorService executor, int maxConcurrentPrs) {
+        this.reviews = reviews;
+        this.executor = executor;
+        this.maxConcurrentPrs = maxConcurrentPrs;
+    }
+
+    @Override
+    public void reviewAll(List<ReviewPRRequest> prs, Consumer<BatchReviewItem> sink) throws InterruptedException {
+        long startTime = System.currentTimeMillis();
+        log.info("📦 Starting batch review of {} PRs, {} at a time", prs.size(), maxConcurrentPrs);
+        Semaphore slots = new Semaphore(maxConcurrentPrs);
+        AtomicReference<RuntimeException> sinkFailure = new AtomicReference<>();
+        List<Future<?>> running = new ArrayList<>(prs.size());
+        try {
+            for (ReviewPRRequest pr : prs) {
+                slots.acquire();
+                if (sinkFailure.get() != null) {
+                    slots.release();
+                    break;
+                }
+                running.add(executor.submit(() -> {
+                    try {
+                        BatchReviewItem item = reviewOne(pr, startTime);
+                        synchronized (sink) {
+                            sink.accept(item);
+                        }
+                    } catch (RuntimeException e) {
+                        sinkFailure.compareAndSet(null, e);
+                    } finally {
+                        slots.release();
+                    }
+                }));
+            }
+            slots.acquire(maxConcurrentPrs);
+        } catch (InterruptedException e) {
+            running.forEach(f -> f.cancel(true));
+            throw e;
+        }
+        if (sinkFailure.get() != null) {
+            // Typically the client went away; the remaining results have nowhere to go
+            log.warn("⚠️ Batch review aborted: {}", sinkFailure.get().getMessage());
+            throw sinkFailure.get();
+        }
+        log.info("📦 Batch review of {} PRs completed in {}ms", prs.size(), System.currentTimeMillis() - startTime);
+    }
+
+    private BatchReviewItem reviewOne(ReviewPRRequest pr, long batchStart) {
+        try {
+            ReviewResult result = reviews.review(pr.repo(), pr.prNumber(), pr.parallel());
+            log.info("✅ Batch: {}#{} done - {}", pr.repo(), pr.prNumber(), result.summary());
+            return new BatchReviewItem(pr.repo(), pr.prNumber(), result, null, System.currentTimeMillis() - batchStart);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new BatchReviewItem(pr.repo(), pr.prNumber(), null, "interrupted", System.currentTimeMillis() - batchStart);
+        } catch (IOException | RuntimeException e) {
+            log.error("❌ Batch: {}#{} failed: {}", pr.repo(), pr.prNumber(), e.getMessage());
+            return new BatchReviewItem(pr.repo(), pr.prNumber(), null, e.getMessage(), System.currentTimeMillis() - batchStart);
+        }
+    }
+}
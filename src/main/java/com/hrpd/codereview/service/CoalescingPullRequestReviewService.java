@@ -0,0 +1,166 @@
+package com.hrpd.codereview.service;
+
+import com.hrpd.codereview.model.ReviewResult;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Decorator that runs at most one review per PR head at a time and remembers completed results.
+ *
+ * <p>Requests are keyed by repo, PR number, head SHA and a fingerprint of the reviewer set and
+ * model configuration. Concurrent requests with the same key join the review already running;
+ * later requests are answered from a bounded LRU memo. Sequential and parallel runs produce
+ * the same findings, so the execution mode is not part of the key.</p>
+ *
+ * <p>If the head SHA cannot be fetched the request goes straight to the delegate. The memo is
+ * dropped by {@link #invalidateCachedResults()} (which also invalidates the delegate's own
+ * caches), e.g. after standards were re-ingested; reviews
+ * that are running at that moment do not repopulate it. Results with failed hunks are not
+ * memoized.</p>
+ *
+ * <p>The delegate fetches the diff separately from the head SHA the key was built with, so a push
+ * in between could make it review a newer head. The head is therefore fetched again (usually a
+ * revalidation of the cached response) once the review is done, and the result is only memoized
+ * if the head has not moved.</p>
+ */
+@Slf4j
+public class CoalescingPullRequestReviewService implements PullRequestReviewService {
+
+    record Key(String repo, int prNumber, String headSha, String config) {}
+
+    private final PullRequestReviewService delegate;
+    private final GithubClientService githubClient;
+    private final String config;
+    private final Map<Key, CompletableFuture<ReviewResult>> inFlight = new ConcurrentHashMap<>();
+    private final Map<Key, ReviewResult> memo;
+    /** Bumped on invalidation, so reviews started before it are not memoized. */
+    private volatile long generation;
+
+    /**
+     * @param delegate service that performs the actual review
+     * @param githubClient client used to resolve the current head SHA
+     * @param config fingerprint of reviewer set and model settings
+     * @param maxEntries number of results kept in the memo
+     */
+    public CoalescingPullRequestReviewService(PullRequestReviewService delegate, GithubClientService githubClient,
+                                              String config, int maxEntries) {
+        this.delegate = delegate;
+        this.githubClient = githubClient;
+        this.config = config;
+        this.memo = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, ReviewResult> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public ReviewResult review(String repo, int prNumber, boolean parallel) throws IOException, InterruptedException {
+        String headSha;
+        try {
+            headSha = githubClient.fetchPrHeadSha(repo, prNumber);
+        } catch (IOException e) {
+            log.warn("⚠️ Could not resolve head of {}/{}, reviewing without coalescing: {}", repo, prNumber, e.getMessage());
+            return delegate.review(repo, prNumber, parallel);
+        }
+        Key key = new Key(repo, prNumber, headSha, config);
+
+        ReviewResult done;
+        synchronized (memo) {
+            done = memo.get(key);
+        }
+        if (done != null) {
+            log.info("💾 Returning memoized review of {}/{} at {}", repo, prNumber, headSha);
+            return done;
+        }
+
+        CompletableFuture<ReviewResult> mine = new CompletableFuture<>();
+        CompletableFuture<ReviewResult> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            log.info("🤝 Joining in-flight review of {}/{} at {}", repo, prNumber, headSha);
+            return join(running);
+        }
+
+        long startedIn = generation;
+        try {
+            ReviewResult result = delegate.review(repo, prNumber, parallel);
+            boolean sameHead = stillAt(repo, prNumber, headSha);
+            synchronized (memo) {
+                // A partial result is shared with joined requests but not remembered, so a retry reviews again
+                if (startedIn == generation && sameHead && result.failedHunks().isEmpty()) {
+                    memo.put(key, result);
+                }
+            }
+            mine.complete(result);
+            return result;
+        } catch (Throwable t) {
+            mine.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Gate reviews are cheap and partial, so they are neither coalesced nor memoized.
+     */
+    @Override
+    public ReviewResult gate(String repo, int prNumber) throws IOException, InterruptedException {
+        return delegate.gate(repo, prNumber);
+    }
+
+    @Override
+    public void invalidateCachedResults() {
+        synchronized (memo) {
+            generation++;
+            log.info("🧹 Dropping {} memoized PR reviews", memo.size());
+            memo.clear();
+        }
+        delegate.invalidateCachedResults();
+    }
+
+    /**
+     * Whether the PR is still at {@code headSha}; {@code false} if that cannot be told.
+     */
+    private boolean stillAt(String repo, int prNumber, String headSha) throws InterruptedException {
+        try {
+            String now = githubClient.fetchPrHeadSha(repo, prNumber);
+            if (headSha.equals(now)) {
+                return true;
+            }
+            log.info("🔀 {}/{} moved from {} to {} during its review, not memoizing", repo, prNumber, headSha, now);
+        } catch (IOException e) {
+            log.warn("⚠️ Could not re-check head of {}/{}, not memoizing: {}", repo, prNumber, e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Waits for a review started by another request. Interrupting the waiting caller does not
+     * affect the running review.
+     */
+    private static ReviewResult join(CompletableFuture<ReviewResult> running) throws IOException, InterruptedException {
+        try {
+            return running.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            if (cause instanceof Error err) {
+                throw err;
+            }
+            throw new IOException("Joined review failed: " + cause, cause);
+        }
+    }
+}
@@ -2,16 +2,35 @@ package com.hrpd.codereview.service;
 
 import com.hrpd.codereview.model.DiffHunk;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface DiffService {
 
     /**
      * Splits a unified patch into focused hunks to keep prompts concise.
      *
+     * <p>Hunks are views over {@code patch}; their text is only copied when
+     * {@link DiffHunk#patch()} is called.</p>
+     *
      * @param patch unified diff text.
      * @return list of {@link DiffHunk}s.
      */
-    List<DiffHunk> parseUnifiedPatch(String patch);
+    List<DiffHunk> parseUnifiedPatch(CharSequence patch);
+
+    /**
+     * Streams a unified patch, handing each hunk to {@code sink} as soon as it is complete.
+     *
+     * <p>Unlike {@link #parseUnifiedPatch(CharSequence)} there is no whole-patch fallback hunk
+     * when nothing could be parsed, since the input is not retained.</p>
+     *
+     * @param reader unified diff text.
+     * @param sink receives {@link DiffHunk}s in patch order.
+     * @return number of hunks emitted.
+     * @throws IOException if reading fails.
+     */
+    int streamUnifiedPatch(Reader reader, Consumer<DiffHunk> sink) throws IOException;
 
 }
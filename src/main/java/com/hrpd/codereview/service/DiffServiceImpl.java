@@ -1,70 +1,116 @@
 package com.hrpd.codereview.service;
 
+import com.hrpd.codereview.jfr.DiffParseEvent;
 import com.hrpd.codereview.model.DiffHunk;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
- * Regex-based unified diff splitter (good for demos).
+ * Single-pass unified diff splitter.
+ *
+ * <p>Delegates to {@link UnifiedDiffParser}, which classifies every line once and records
+ * hunks as offsets into the source rather than copying per-file and per-hunk substrings.
+ * Hunks carry their real new-file line range.</p>
+ *
+ * <p>Parses are timed in {@value #PARSE_METRIC} and their hunk counts recorded in
+ * {@value #HUNKS_METRIC}, both tagged {@code buffered} or {@code streaming}. A streaming parse
+ * includes the time spent waiting for the download and for room in the consumer's queue. Each
+ * parse is also a {@code parse} step of the current {@link ReviewTimer} and a {@link DiffParseEvent}.</p>
  */
 @Slf4j
 public class DiffServiceImpl implements DiffService {
 
-    private static final Pattern FILE_HEADER =
-            Pattern.compile("^\\+\\+\\+\\s+b/(.+)$", Pattern.MULTILINE);
-    private static final Pattern HUNK_HEADER =
-            Pattern.compile("^@@\\s+\\-(\\d+),(\\d+)\\s+\\+(\\d+),(\\d+)\\s+@@.*$", Pattern.MULTILINE);
+    /**
+     * Name of the diff parse timer.
+     */
+    public static final String PARSE_METRIC = "codereview.diff.parse";
 
-    @Override
-    public List<DiffHunk> parseUnifiedPatch(String patch) {
-        log.info("📄 Starting diff parsing - patch size: {} characters", patch.length());
-        List<DiffHunk> hunks = new ArrayList<>();
+    /**
+     * Name of the hunks-per-diff distribution.
+     */
+    public static final String HUNKS_METRIC = "codereview.diff.hunks";
 
-        Matcher fileM = FILE_HEADER.matcher(patch);
-        List<int[]> fileSpans = new ArrayList<>();
-        while (fileM.find()) fileSpans.add(new int[]{fileM.start(), fileM.end()});
-        
-        log.info("📁 Found {} files in diff", fileSpans.size());
+    private final MeterRegistry registry;
 
-        for (int i = 0; i < fileSpans.size(); i++) {
-            int start = fileSpans.get(i)[0];
-            int end = (i + 1 < fileSpans.size()) ? fileSpans.get(i + 1)[0] : patch.length();
-            String fileBlock = patch.substring(start, end);
-
-            Matcher fileNameM = FILE_HEADER.matcher(fileBlock);
-            String fileName = fileNameM.find() ? fileNameM.group(1) : "unknown";
-            log.debug("📄 Processing file: {}", fileName);
+    /**
+     * Creates a parser that keeps its metrics in a registry of its own, e.g. for tests.
+     */
+    public DiffServiceImpl() {
+        this(new SimpleMeterRegistry());
+    }
 
-            Matcher hunksM = HUNK_HEADER.matcher(fileBlock);
-            List<int[]> hSpans = new ArrayList<>();
-            while (hunksM.find()) hSpans.add(new int[]{hunksM.start(), hunksM.end()});
+    /**
+     * @param registry registry for the parse metrics
+     */
+    public DiffServiceImpl(MeterRegistry registry) {
+        this.registry = registry;
+    }
 
-            if (hSpans.isEmpty()) {
-                log.debug("⚠️ No hunks found in file: {}", fileName);
-                continue;
-            }
-            
-            log.debug("🔍 Found {} hunks in file: {}", hSpans.size(), fileName);
+    @Override
+    public List<DiffHunk> parseUnifiedPatch(CharSequence patch) {
+        log.info("📄 Starting diff parsing - patch size: {} characters", patch.length());
+        var event = DiffParseEvent.start("buffered");
+        long start = System.nanoTime();
+        List<DiffHunk> hunks = new ArrayList<>();
 
-            for (int j = 0; j < hSpans.size(); j++) {
-                int hs = hSpans.get(j)[0];
-                int he = (j + 1 < hSpans.size()) ? hSpans.get(j + 1)[0] : fileBlock.length();
-                String hunkText = fileBlock.substring(hs, he);
-                hunks.add(new DiffHunk(fileName, 0, 0, hunkText));
-                log.debug("✅ Added hunk {}/{} for file: {}", j + 1, hSpans.size(), fileName);
-            }
-        }
+        new UnifiedDiffParser().parse(patch, h -> {
+            hunks.add(h);
+            log.debug("✅ Added hunk {} for file: {} (lines {}-{})", hunks.size(), h.filePath(), h.start(), h.end());
+        });
+        record("buffered", hunks.size(), start, event);
 
         if (hunks.isEmpty()) {
             log.warn("⚠️ No hunks parsed, creating fallback hunk");
             hunks.add(new DiffHunk("all", 0, 0, patch));
+            return hunks;
         }
-        
-        log.info("✅ Diff parsing complete: {} hunks from {} files", hunks.size(), fileSpans.size());
+
+        log.info("✅ Diff parsing complete: {} hunks from {} files", hunks.size(), countFiles(hunks));
         return hunks;
     }
+
+    @Override
+    public int streamUnifiedPatch(Reader reader, Consumer<DiffHunk> sink) throws IOException {
+        log.info("📄 Starting streaming diff parsing");
+        var event = DiffParseEvent.start("streaming");
+        long start = System.nanoTime();
+        int count = new UnifiedDiffParser().parse(reader, h -> {
+            log.debug("✅ Streamed hunk for file: {} (lines {}-{})", h.filePath(), h.start(), h.end());
+            sink.accept(h);
+        });
+        record("streaming", count, start, event);
+        log.info("✅ Streaming diff parsing complete: {} hunks", count);
+        return count;
+    }
+
+    private void record(String mode, int hunks, long startNanos, DiffParseEvent event) {
+        long end = System.nanoTime();
+        event.finish(hunks);
+        ReviewTimer.current().record("parse", mode, startNanos, end);
+        registry.timer(PARSE_METRIC, "mode", mode).record(end - startNanos, TimeUnit.NANOSECONDS);
+        registry.summary(HUNKS_METRIC, "mode", mode).record(hunks);
+    }
+
+    /**
+     * Counts files by path changes; hunks of one file are always contiguous in a patch.
+     */
+    private static int countFiles(List<DiffHunk> hunks) {
+        int files = 0;
+        String last = null;
+        for (DiffHunk h : hunks) {
+            if (!h.filePath().equals(last)) {
+                files++;
+                last = h.filePath();
+            }
+        }
+        return files;
+    }
 }
@@ -0,0 +1,141 @@
+package com.hrpd.codereview.service;
+
+import com.hrpd.codereview.model.Finding;
+import com.hrpd.codereview.model.ReviewResult;
+import com.hrpd.codereview.model.ReviewerType;
+import com.hrpd.codereview.model.Severity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Incrementally merged review findings, fed from any number of threads as results arrive.
+ *
+ * <p>Findings are deduplicated on insert by file path, line range and normalized title; of two
+ * duplicates the one with the higher severity is kept. Counts per severity and reviewer are kept
+ * up to date, so the summary never needs another pass over the findings.</p>
+ *
+ * <p>Adds run concurrently with each other; {@link #snapshot()} briefly excludes them, so the
+ * findings and counts it returns always belong together. The snapshot further merges findings
+ * that overlap in range and read alike (see {@link FindingClusters}), so its counts can be lower
+ * than the running ones.</p>
+ */
+public final class FindingAccumulator {
+
+    private final Map<String, Finding> byKey = new ConcurrentHashMap<>();
+    private final EnumMap<Severity, LongAdder> bySeverity = new EnumMap<>(Severity.class);
+    private final EnumMap<ReviewerType, LongAdder> byReviewer = new EnumMap<>(ReviewerType.class);
+    /** Read lock for adds (shared), write lock for snapshots (exclusive). */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongAdder received = new LongAdder();
+
+    public FindingAccumulator() {
+        for (Severity s : Severity.values()) {
+            bySeverity.put(s, new LongAdder());
+        }
+        for (ReviewerType r : ReviewerType.values()) {
+            byReviewer.put(r, new LongAdder());
+        }
+    }
+
+    /**
+     * Adds a finding, replacing a lower-severity duplicate or being dropped for a higher one.
+     */
+    public void add(Finding finding) {
+        lock.readLock().lock();
+        try {
+            received.increment();
+            byKey.compute(key(finding), (_, existing) -> {
+                Finding kept = existing == null ? finding : preferHigherSeverity(existing, finding);
+                if (kept != existing) {
+                    if (existing != null) {
+                        count(existing, -1);
+                    }
+                    count(kept, 1);
+                }
+                return kept;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void addAll(Collection<Finding> findings) {
+        findings.forEach(this::add);
+    }
+
+    /**
+     * Number of findings offered so far, including duplicates.
+     */
+    public long received() {
+        return received.sum();
+    }
+
+    /**
+     * Current number of distinct findings of the given severity.
+     */
+    public long count(Severity severity) {
+        return bySeverity.get(severity).sum();
+    }
+
+    /**
+     * Current number of distinct findings reported by the given reviewer.
+     */
+    public long count(ReviewerType reviewer) {
+        return byReviewer.get(reviewer).sum();
+    }
+
+    /**
+     * Returns the distinct findings so far, with overlapping similar ones clustered, and a summary
+     * in the format of {@link AggregatorServiceImpl}.
+     */
+    public ReviewResult snapshot() {
+        List<Finding> distinct;
+        lock.writeLock().lock();
+        try {
+            distinct = new ArrayList<>(byKey.values());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<Finding> findings = FindingClusters.cluster(distinct);
+        long blockers = findings.stream().filter(f -> f.severity() == Severity.BLOCKER).count();
+        long high = findings.stream().filter(f -> f.severity() == Severity.HIGH).count();
+        return new ReviewResult(findings, "Findings: " + findings.size()
+                + " (BLOCKER=" + blockers + ", HIGH=" + high + ")");
+    }
+
+    private void count(Finding f, int delta) {
+        if (f.severity() != null) {
+            bySeverity.get(f.severity()).add(delta);
+        }
+        if (f.reviewer() != null) {
+            byReviewer.get(f.reviewer()).add(delta);
+        }
+    }
+
+    static String key(Finding f) {
+        return f.filePath() + "#" + f.lineStart() + "-" + f.lineEnd() + "#" + normalize(f.title());
+    }
+
+    /**
+     * BLOCKER > HIGH > MEDIUM > LOW > INFO; on a tie the first finding is kept.
+     */
+    static Finding preferHigherSeverity(Finding a, Finding b) {
+        return rank(a.severity()) <= rank(b.severity()) ? a : b;
+    }
+
+    private static int rank(Severity s) {
+        return s == null ? -1 : s.ordinal();
+    }
+
+    private static String normalize(String s) {
+        return s == null ? "" : s.toLowerCase().replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,231 @@
+package com.hrpd.codereview.service;
+
+import com.hrpd.codereview.model.Finding;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Clusters findings that overlap in range and say roughly the same thing.
+ *
+ * <p>Two reviewers rarely report an issue on exactly the same lines with the same wording, e.g.
+ * "SQL injection in query" on lines 10-12 and "Possible SQL injection" on 11-12. Findings in the
+ * same file whose line ranges overlap are compared on their titles and rationales. Titles are
+ * compared word by word, ignoring hedges like "possible" and filler like "in", because a title
+ * is mostly its subject: "Hardcoded password" and "Hardcoded URL" share most of their characters
+ * but not their issue. Rationales are longer and worded more freely, so they are compared on
+ * character 3-shingles. Both are scored by Jaccard similarity. Similar findings form one cluster,
+ * which keeps its highest-severity finding.</p>
+ *
+ * <p>Findings are sorted by file and start line and swept once per file. Clusters whose range
+ * ends before the current start line leave the open set through a min-heap on their end line,
+ * and a finding is compared with at most {@link #MAX_CANDIDATES} open clusters, so the whole
+ * pass is O(n log n) even with thousands of findings stacked on one file.</p>
+ */
+final class FindingClusters {
+
+    /**
+     * Minimum title word Jaccard similarity for overlapping findings to merge.
+     */
+    static final double TITLE_SIMILARITY = 0.6;
+
+    /**
+     * Minimum rationale shingle Jaccard similarity for overlapping findings to merge.
+     */
+    static final double RATIONALE_SIMILARITY = 0.6;
+
+    /**
+     * Open clusters a finding is compared with, most recently opened first.
+     */
+    static final int MAX_CANDIDATES = 32;
+
+    /**
+     * Title words that do not tell one issue from another.
+     */
+    private static final Set<String> TITLE_NOISE = Set.of(
+            "a", "an", "the", "in", "of", "on", "at", "for", "to", "from", "with", "is", "are", "be",
+            "possible", "potential", "potentially", "likely", "may", "might", "could", "issue");
+
+    private static final Comparator<Finding> BY_POSITION = Comparator
+            .comparing(Finding::filePath, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparingInt(Finding::lineStart)
+            .thenComparingInt(Finding::lineEnd);
+
+    private FindingClusters() {
+    }
+
+    /**
+     * Returns one finding per cluster, ordered by file and start line.
+     */
+    static List<Finding> cluster(Collection<Finding> findings) {
+        List<Finding> sorted = new ArrayList<>(findings);
+        sorted.sort(BY_POSITION);
+        List<Finding> out = new ArrayList<>(sorted.size());
+        int from = 0;
+        while (from < sorted.size()) {
+            String path = sorted.get(from).filePath();
+            int to = from + 1;
+            while (to < sorted.size() && Objects.equals(path, sorted.get(to).filePath())) {
+                to++;
+            }
+            clusterFile(sorted.subList(from, to), out);
+            from = to;
+        }
+        return out;
+    }
+
+    private static void clusterFile(List<Finding> byStart, List<Finding> out) {
+        List<Cluster> clusters = new ArrayList<>();
+        // Open clusters in the order they were opened; closed ones are dropped in batches
+        List<Cluster> open = new ArrayList<>();
+        // Entries go stale when a cluster grows; those are skipped when they come up
+        PriorityQueue<Expiry> expiries = new PriorityQueue<>(Comparator.comparingInt(Expiry::end));
+        int closed = 0;
+
+        for (Finding f : byStart) {
+            while (!expiries.isEmpty() && expiries.peek().end() < f.lineStart()) {
+                Expiry e = expiries.poll();
+                if (e.cluster().open && e.end() == e.cluster().end) {
+                    e.cluster().open = false;
+                    closed++;
+                }
+            }
+            if (closed * 2 > open.size()) {
+                open.removeIf(c -> !c.open);
+                closed = 0;
+            }
+
+            Shingled candidate = new Shingled(f);
+            Cluster match = null;
+            double best = 0;
+            int compared = 0;
+            for (int i = open.size() - 1; i >= 0 && compared < MAX_CANDIDATES; i--) {
+                Cluster c = open.get(i);
+                if (!c.open) {
+                    continue;
+                }
+                compared++;
+                double similarity = c.anchor.similarity(candidate);
+                if (similarity > best) {
+                    match = c;
+                    best = similarity;
+                }
+            }
+
+            int end = Math.max(f.lineStart(), f.lineEnd());
+            if (match == null) {
+                Cluster c = new Cluster(candidate, f, end);
+                clusters.add(c);
+                open.add(c);
+                expiries.add(new Expiry(end, c));
+            } else {
+                match.kept = FindingAccumulator.preferHigherSeverity(match.kept, f);
+                if (end > match.end) {
+                    match.end = end;
+                    expiries.add(new Expiry(end, match));
+                }
+            }
+        }
+        clusters.forEach(c -> out.add(c.kept));
+    }
+
+    /**
+     * Character 3-shingles of lower-cased, punctuation-free text, padded so short words count.
+     */
+    static Set<String> shingles(String s) {
+        String norm = s == null ? "" : s.toLowerCase().replaceAll("[^\\p{L}\\p{N}]+", " ").strip();
+        Set<String> out = new HashSet<>();
+        if (norm.isEmpty()) {
+            return out;
+        }
+        String padded = " " + norm + " ";
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            out.add(padded.substring(i, i + 3));
+        }
+        return out;
+    }
+
+    /**
+     * Lower-cased title words without {@link #TITLE_NOISE}; hyphens and apostrophes are dropped
+     * first, so "hard-coded" and "hardcoded" are the same word.
+     */
+    static Set<String> titleWords(String s) {
+        Set<String> out = new HashSet<>();
+        if (s == null) {
+            return out;
+        }
+        for (String word : s.toLowerCase().replaceAll("[-'’]", "").split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty() && !TITLE_NOISE.contains(word)) {
+                out.add(word);
+            }
+        }
+        return out;
+    }
+
+    static double jaccard(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        int shared = shared(a, b);
+        return (double) shared / (a.size() + b.size() - shared);
+    }
+
+    private static int shared(Set<String> a, Set<String> b) {
+        Set<String> small = a.size() <= b.size() ? a : b;
+        Set<String> large = small == a ? b : a;
+        int shared = 0;
+        for (String s : small) {
+            if (large.contains(s)) {
+                shared++;
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * A finding with its title words and rationale shingles, computed once.
+     */
+    private record Shingled(String titleKey, Set<String> title, Set<String> rationale) {
+
+        Shingled(Finding f) {
+            this(f.title() == null ? "" : f.title().toLowerCase().replaceAll("\\s+", " "),
+                    titleWords(f.title()), shingles(f.rationale()));
+        }
+
+        /**
+         * How well the two match, or 0 if they are not similar enough to merge.
+         */
+        double similarity(Shingled other) {
+            if (!titleKey.isEmpty() && titleKey.equals(other.titleKey)) {
+                return 1;
+            }
+            double byTitle = jaccard(title, other.title);
+            double byRationale = jaccard(rationale, other.rationale);
+            return Math.max(byTitle >= TITLE_SIMILARITY ? byTitle : 0,
+                    byRationale >= RATIONALE_SIMILARITY ? byRationale : 0);
+        }
+    }
+
+    private static final class Cluster {
+        /** The finding that opened the cluster; later findings are compared with it. */
+        final Shingled anchor;
+        Finding kept;
+        int end;
+        boolean open = true;
+
+        Cluster(Shingled anchor, Finding kept, int end) {
+            this.anchor = anchor;
+            this.kept = kept;
+            this.end = end;
+        }
+    }
+
+    private record Expiry(int end, Cluster cluster) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.hrpd.codereview.service;
+
+import java.time.Duration;
+
+/**
+ * Transport settings for {@link HttpGithubClientService}.
+ *
+ * @param connectTimeout TCP/TLS connect timeout
+ * @param requestTimeout time until response headers arrive; a streamed body is not bounded by it
+ * @param maxAttempts attempts per request, including the first
+ * @param initialBackoff backoff cap of the first retry; doubled per attempt, with full jitter
+ * @param maxBackoff upper bound of any single backoff
+ * @param rateLimitReserve requests kept in reserve; below it, callers wait for the limit to reset
+ * @param maxRateLimitWait longest a caller waits for the budget before failing instead
+ */
+public record GithubClientOptions(Duration connectTimeout,
+                                  Duration requestTimeout,
+                                  int maxAttempts,
+                                  Duration initialBackoff,
+                                  Duration maxBackoff,
+                                  int rateLimitReserve,
+                                  Duration maxRateLimitWait) {
+
+    public static GithubClientOptions defaults() {
+        return new GithubClientOptions(Duration.ofSeconds(5), Duration.ofSeconds(30), 4,
+                Duration.ofMillis(500), Duration.ofSeconds(30), 50, Duration.ofMinutes(5));
+    }
+}
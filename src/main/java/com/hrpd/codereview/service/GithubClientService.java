@@ -1,11 +1,32 @@
 package com.hrpd.codereview.service;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 
 /**
- * Fetches PR patches/diffs from GitHub REST.
+ * Fetches PR patches/diffs from GitHub REST and posts PR reviews.
  */
 public interface GithubClientService {
     String fetchPrPatch(String repo, int prNumber) throws IOException, InterruptedException;
     String fetchPrDiff(String repo, int prNumber) throws IOException, InterruptedException;
+    String fetchPrHeadSha(String repo, int prNumber) throws IOException, InterruptedException;
+
+    /**
+     * Opens the PR diff as a stream that is read while it downloads. The caller must close it.
+     * Reading past the configured maximum patch size fails with
+     * {@link com.hrpd.codereview.utils.PatchTooLargeException}.
+     */
+    InputStream streamPrDiff(String repo, int prNumber) throws IOException, InterruptedException;
+
+    /**
+     * Returns the bodies of all review comments and reviews already posted on the PR.
+     */
+    List<String> fetchReviewBodies(String repo, int prNumber) throws IOException, InterruptedException;
+
+    /**
+     * Creates a pull request review from a JSON payload as accepted by
+     * {@code POST /repos/{owner}/{repo}/pulls/{pull_number}/reviews}.
+     */
+    void submitReview(String repo, int prNumber, String reviewJson) throws IOException, InterruptedException;
 }
@@ -0,0 +1,97 @@
+package com.hrpd.codereview.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Request budget shared by all calls of one GitHub client, fed by response headers.
+ *
+ * <p>{@code X-RateLimit-Remaining} and {@code X-RateLimit-Reset} refill the bucket after every
+ * response, and each request takes one token locally so that concurrent callers do not overrun
+ * the last reported value. Once the bucket is down to the reserve, callers wait for the reset
+ * instead of spending the rest of the quota (and risking a lockout). {@code Retry-After} on a
+ * secondary rate limit pauses every caller for the given time.</p>
+ */
+@Slf4j
+class GithubRateBudget {
+
+    private final int reserve;
+    private final Duration maxWait;
+    private final LongSupplier clock;
+
+    /** Last known remaining requests, or -1 before the first response. */
+    private long remaining = -1;
+    private long resetAtMillis;
+    private long pausedUntilMillis;
+
+    GithubRateBudget(int reserve, Duration maxWait) {
+        this(reserve, maxWait, System::currentTimeMillis);
+    }
+
+    GithubRateBudget(int reserve, Duration maxWait, LongSupplier clock) {
+        this.reserve = reserve;
+        this.maxWait = maxWait;
+        this.clock = clock;
+    }
+
+    /**
+     * Takes one request from the budget, waiting if it is exhausted or paused.
+     *
+     * @throws IOException if the wait would exceed the configured maximum
+     */
+    void acquire() throws IOException, InterruptedException {
+        long wait = reserve();
+        if (wait <= 0) {
+            return;
+        }
+        if (wait > maxWait.toMillis()) {
+            throw new IOException("GitHub rate limit exhausted for another " + wait / 1000 + "s");
+        }
+        log.warn("⏳ GitHub rate budget low, delaying request by {}ms", wait);
+        Thread.sleep(wait);
+    }
+
+    /**
+     * Returns how long the caller must wait, and takes a token.
+     */
+    synchronized long reserve() {
+        long now = clock.getAsLong();
+        long wait = Math.max(0, pausedUntilMillis - now);
+        if (remaining >= 0 && resetAtMillis <= now) {
+            remaining = -1; // the window has rolled over; the next response reports the new one
+        }
+        if (remaining >= 0 && remaining <= reserve) {
+            wait = Math.max(wait, resetAtMillis - now);
+        } else if (remaining > 0) {
+            remaining--;
+        }
+        return wait;
+    }
+
+    /**
+     * Refills the budget from a response.
+     *
+     * @param status HTTP status of the response
+     * @param headers response headers
+     */
+    synchronized void update(int status, HttpHeaders headers) {
+        long now = clock.getAsLong();
+        long reset = headers.firstValueAsLong("X-RateLimit-Reset").orElse(-1L);
+        long left = headers.firstValueAsLong("X-RateLimit-Remaining").orElse(-1L);
+        if (left >= 0 && reset > 0) {
+            long resetAt = reset * 1000;
+            // Responses of concurrent requests arrive out of order: within a window keep the lowest count
+            remaining = resetAt != resetAtMillis || remaining < 0 ? left : Math.min(remaining, left);
+            resetAtMillis = resetAt;
+        }
+        long retryAfter = headers.firstValueAsLong("Retry-After").orElse(-1L);
+        if (retryAfter >= 0 && (status == 403 || status == 429)) {
+            pausedUntilMillis = Math.max(pausedUntilMillis, now + retryAfter * 1000);
+            log.warn("🚦 GitHub secondary rate limit, pausing requests for {}s", retryAfter);
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.hrpd.codereview.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Disk-backed cache of GitHub PR responses for conditional requests.
+ *
+ * <p>Each entry is keyed by repository, PR number and media type, and stored as two files:
+ * {@code <key>.body} with the response body and {@code <key>.meta} with its {@code ETag} and
+ * {@code Last-Modified} validators. The client revalidates with {@code If-None-Match} /
+ * {@code If-Modified-Since}; a {@code 304} carries no body and does not count against the rate
+ * limit, so the body is served from disk.</p>
+ *
+ * <p>The total body size is bounded; least recently used entries are evicted first. The index is
+ * rebuilt from the directory at startup, ordered by file modification time. Metrics:
+ * {@code codereview.github.cache.requests} (tag {@code result}: hit, miss, uncached),
+ * {@code codereview.github.cache.size} (bytes) and {@code codereview.github.cache.entries}.</p>
+ */
+@Slf4j
+public class GithubResponseCache {
+
+    private static final String BODY = ".body";
+    private static final String META = ".meta";
+
+    /**
+     * Validators and body location of one cached response.
+     */
+    public record Entry(String key, String etag, String lastModified, Path body) {}
+
+    private final Path dir;
+    private final long maxBytes;
+    /** Key to body size, in access order. Guarded by {@code this}. */
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter uncached;
+
+    public GithubResponseCache(Path dir, long maxBytes, MeterRegistry registry) throws IOException {
+        this.dir = Files.createDirectories(dir);
+        this.maxBytes = maxBytes;
+        load();
+        hits = Counter.builder("codereview.github.cache.requests").tag("result", "hit")
+                .description("GitHub responses served from disk after a 304").register(registry);
+        misses = Counter.builder("codereview.github.cache.requests").tag("result", "miss")
+                .description("GitHub responses downloaded and stored").register(registry);
+        uncached = Counter.builder("codereview.github.cache.requests").tag("result", "uncached")
+                .description("GitHub responses without validators, not stored").register(registry);
+        Gauge.builder("codereview.github.cache.size", this, GithubResponseCache::sizeBytes)
+                .baseUnit("bytes").description("Bytes of cached GitHub response bodies").register(registry);
+        Gauge.builder("codereview.github.cache.entries", this, GithubResponseCache::entries)
+                .description("Number of cached GitHub responses").register(registry);
+    }
+
+    /**
+     * Derives the cache key for a request.
+     */
+    public static String key(String repo, int prNumber, String accept) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((repo + "|" + prNumber + "|" + accept).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Returns the cached entry for {@code key}, or {@code null} if there is none.
+     */
+    public Entry lookup(String key) {
+        synchronized (this) {
+            if (!index.containsKey(key)) {
+                return null;
+            }
+        }
+        Properties meta = new Properties();
+        try (Reader r = Files.newBufferedReader(dir.resolve(key + META), StandardCharsets.UTF_8)) {
+            meta.load(r);
+        } catch (IOException e) {
+            log.warn("⚠️ Dropping unreadable GitHub cache entry {}: {}", key, e.getMessage());
+            remove(key);
+            return null;
+        }
+        return new Entry(key, meta.getProperty("etag"), meta.getProperty("lastModified"), dir.resolve(key + BODY));
+    }
+
+    /**
+     * Reads a cached body after a {@code 304} and counts the hit.
+     *
+     * @return the body, or {@code null} if another request evicted the entry since it was looked
+     *         up; the request must then be repeated without validators
+     */
+    public String readHit(Entry entry) throws IOException {
+        String body;
+        try {
+            body = Files.readString(entry.body(), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            dropEvicted(entry);
+            return null;
+        }
+        touch(entry.key());
+        hits.increment();
+        return body;
+    }
+
+    /**
+     * Opens a cached body as a stream after a {@code 304} and counts the hit.
+     *
+     * @return the body, or {@code null} if another request evicted the entry since it was looked
+     *         up; the request must then be repeated without validators
+     */
+    public InputStream openHit(Entry entry) throws IOException {
+        InputStream in;
+        try {
+            in = Files.newInputStream(entry.body());
+        } catch (NoSuchFileException e) {
+            dropEvicted(entry);
+            return null;
+        }
+        touch(entry.key());
+        hits.increment();
+        return in;
+    }
+
+    /**
+     * Stores a {@code 200} response. Responses without validators cannot be revalidated and are
+     * not stored.
+     */
+    public void store(String key, String etag, String lastModified, String body) {
+        if (etag == null && lastModified == null) {
+            uncached.increment();
+            return;
+        }
+        misses.increment();
+        try {
+            Path tmp = Files.createTempFile(dir, key, ".tmp");
+            Files.writeString(tmp, body, StandardCharsets.UTF_8);
+            commit(key, etag, lastModified, tmp);
+        } catch (IOException e) {
+            log.warn("⚠️ Could not cache GitHub response {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Wraps a streamed {@code 200} body so that it is written to the cache while it is read.
+     * The entry is only committed if the stream is read to the end; a partially read or failed
+     * stream leaves the previous entry untouched.
+     */
+    public InputStream storeWhileReading(String key, String etag, String lastModified, InputStream in) {
+        if (etag == null && lastModified == null) {
+            uncached.increment();
+            return in;
+        }
+        misses.increment();
+        final Path tmp;
+        final OutputStream out;
+        try {
+            tmp = Files.createTempFile(dir, key, ".tmp");
+            out = Files.newOutputStream(tmp);
+        } catch (IOException e) {
+            log.warn("⚠️ Could not cache GitHub response {}: {}", key, e.getMessage());
+            return in;
+        }
+        return new FilterInputStream(in) {
+            private boolean eof;
+
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b < 0) {
+                    eof = true;
+                } else {
+                    out.write(b);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = super.read(b, off, len);
+                if (n < 0) {
+                    eof = true;
+                } else {
+                    out.write(b, off, n);
+                }
+                return n;
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    out.close();
+                    if (eof) {
+                        commit(key, etag, lastModified, tmp);
+                    } else {
+                        Files.deleteIfExists(tmp);
+                    }
+                }
+            }
+        };
+    }
+
+    public synchronized long sizeBytes() {
+        return totalBytes;
+    }
+
+    public synchronized int entries() {
+        return index.size();
+    }
+
+    private void commit(String key, String etag, String lastModified, Path tmpBody) throws IOException {
+        Properties meta = new Properties();
+        if (etag != null) {
+            meta.setProperty("etag", etag);
+        }
+        if (lastModified != null) {
+            meta.setProperty("lastModified", lastModified);
+        }
+        long size = Files.size(tmpBody);
+        synchronized (this) {
+            Files.move(tmpBody, dir.resolve(key + BODY), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            try (Writer w = Files.newBufferedWriter(dir.resolve(key + META), StandardCharsets.UTF_8)) {
+                meta.store(w, null);
+            }
+            Long previous = index.put(key, size);
+            totalBytes += size - (previous == null ? 0 : previous);
+            evict();
+        }
+        log.debug("💾 Cached GitHub response {} ({} bytes)", key, size);
+    }
+
+    private void touch(String key) {
+        synchronized (this) {
+            index.get(key); // access order
+        }
+        try {
+            Files.setLastModifiedTime(dir.resolve(key + BODY), FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            log.debug("Could not touch cache entry {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Drops what is left of an entry whose body was deleted under a reader, unless the key has
+     * been stored again meanwhile.
+     */
+    private synchronized void dropEvicted(Entry entry) {
+        log.debug("💾 GitHub cache entry {} was evicted before its 304 arrived", entry.key());
+        if (Files.notExists(entry.body())) {
+            remove(entry.key());
+        }
+    }
+
+    private synchronized void remove(String key) {
+        Long size = index.remove(key);
+        if (size != null) {
+            totalBytes -= size;
+        }
+        deleteFiles(key);
+    }
+
+    /** Evicts least recently used entries while over budget, always keeping the newest one. */
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> it = index.entrySet().iterator();
+        while (totalBytes > maxBytes && index.size() > 1 && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            it.remove();
+            totalBytes -= eldest.getValue();
+            deleteFiles(eldest.getKey());
+            log.debug("🧹 Evicted GitHub cache entry {}", eldest.getKey());
+        }
+    }
+
+    private void deleteFiles(String key) {
+        try {
+            Files.deleteIfExists(dir.resolve(key + BODY));
+            Files.deleteIfExists(dir.resolve(key + META));
+        } catch (IOException e) {
+            log.debug("Could not delete cache entry {}: {}", key, e.getMessage());
+        }
+    }
+
+    private void load() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            // Bodies of downloads interrupted by a crash or restart
+            for (Path tmp : files.filter(p -> p.getFileName().toString().endsWith(".tmp")).toList()) {
+                Files.deleteIfExists(tmp);
+            }
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(p -> p.getFileName().toString().endsWith(BODY))
+                    .filter(p -> Files.exists(Path.of(p.toString().replace(BODY, META))))
+                    .sorted((a, b) -> Long.compare(a.toFile().lastModified(), b.toFile().lastModified()))
+                    .forEach(p -> {
+                        String name = p.getFileName().toString();
+                        long size = p.toFile().length();
+                        index.put(name.substring(0, name.length() - BODY.length()), size);
+                        totalBytes += size;
+                    });
+        }
+        evict();
+        log.info("💾 GitHub response cache at {}: {} entries, {} bytes", dir, index.size(), totalBytes);
+    }
+}
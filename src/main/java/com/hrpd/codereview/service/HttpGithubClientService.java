@@ -1,29 +1,96 @@
 package com.hrpd.codereview.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hrpd.codereview.utils.PatchTooLargeException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
  * GitHub REST client using Java 21 HttpClient.
+ *
+ * <p>With a {@link GithubResponseCache}, every request is made conditional on the cached
+ * validators and a {@code 304} is answered from disk.</p>
+ *
+ * <p>Requests have connect and header timeouts, and are retried with jittered exponential
+ * backoff on I/O errors, {@code 5xx}, {@code 429} and secondary rate limit {@code 403}s, honouring
+ * {@code Retry-After}. All requests share one {@link GithubRateBudget}, so a nearly exhausted
+ * quota delays callers until the window resets rather than failing them.</p>
+ *
+ * <p>PR fetches are timed in {@value #FETCH_METRIC}, tagged with the media type and final HTTP
+ * status, including retries and rate limit waits; streamed diffs are timed until the headers
+ * arrive. They are also recorded as {@code fetch} steps of the current {@link ReviewTimer}.</p>
  */
 @Slf4j
 public class HttpGithubClientService implements GithubClientService {
 
-    private final HttpClient http = HttpClient.newBuilder()
-            .followRedirects(HttpClient.Redirect.NORMAL)
-            .build();
+    /**
+     * Default upper bound for a streamed PR diff.
+     */
+    static final long DEFAULT_MAX_PATCH_BYTES = 256L * 1024 * 1024;
+
+    /**
+     * Name of the PR fetch timer.
+     */
+    public static final String FETCH_METRIC = "codereview.github.fetch";
+
+    private static final String DIFF = "application/vnd.github.v3.diff";
+    private static final String JSON = "application/vnd.github+json";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient http;
+    private final GithubClientOptions options;
+    private final GithubRateBudget budget;
     private final String baseApi;
     private final String token;
+    private final long maxPatchBytes;
+    private final GithubResponseCache cache;
+    private final MeterRegistry registry;
 
     public HttpGithubClientService(String baseApi, String token) {
+        this(baseApi, token, DEFAULT_MAX_PATCH_BYTES);
+    }
+
+    public HttpGithubClientService(String baseApi, String token, long maxPatchBytes) {
+        this(baseApi, token, maxPatchBytes, null);
+    }
+
+    public HttpGithubClientService(String baseApi, String token, long maxPatchBytes, GithubResponseCache cache) {
+        this(baseApi, token, maxPatchBytes, cache, GithubClientOptions.defaults());
+    }
+
+    public HttpGithubClientService(String baseApi, String token, long maxPatchBytes, GithubResponseCache cache,
+                                   GithubClientOptions options) {
+        this(baseApi, token, maxPatchBytes, cache, options, new SimpleMeterRegistry());
+    }
+
+    public HttpGithubClientService(String baseApi, String token, long maxPatchBytes, GithubResponseCache cache,
+                                   GithubClientOptions options, MeterRegistry registry) {
+        this.http = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(options.connectTimeout())
+                .build();
+        this.options = options;
+        this.budget = new GithubRateBudget(options.rateLimitReserve(), options.maxRateLimitWait());
         this.baseApi = baseApi.endsWith("/") ? baseApi.substring(0, baseApi.length() - 1) : baseApi;
         this.token = token == null ? "" : token.trim();
+        this.maxPatchBytes = maxPatchBytes;
+        this.cache = cache;
+        this.registry = registry;
     }
 
     @Override
@@ -35,18 +102,281 @@ public class HttpGithubClientService implements GithubClientService {
     @Override
     public String fetchPrDiff(String repo, int prNumber) throws IOException, InterruptedException {
         log.info("🔗 Fetching PR diff from GitHub: {}/{}", repo, prNumber);
-        return fetchWithAccept(repo, prNumber, "application/vnd.github.v3.diff");
+        return fetchWithAccept(repo, prNumber, DIFF);
+    }
+
+    @Override
+    public String fetchPrHeadSha(String repo, int prNumber) throws IOException, InterruptedException {
+        log.debug("🔗 Fetching PR head SHA from GitHub: {}/{}", repo, prNumber);
+        String json = fetchWithAccept(repo, prNumber, JSON);
+        String sha = MAPPER.readTree(json).path("head").path("sha").asText(null);
+        if (sha == null) {
+            throw new IOException("GitHub PR response for " + repo + "#" + prNumber + " has no head.sha");
+        }
+        return sha;
+    }
+
+    @Override
+    public InputStream streamPrDiff(String repo, int prNumber) throws IOException, InterruptedException {
+        log.info("🔗 Streaming PR diff from GitHub: {}/{}", repo, prNumber);
+        return streamPrDiff(repo, prNumber, true);
+    }
+
+    /**
+     * Streams the diff, revalidating a cached copy if {@code revalidate} is set.
+     */
+    private InputStream streamPrDiff(String repo, int prNumber, boolean revalidate)
+            throws IOException, InterruptedException {
+        String key = GithubResponseCache.key(repo, prNumber, DIFF);
+        GithubResponseCache.Entry cached = cache == null || !revalidate ? null : cache.lookup(key);
+        HttpRequest req = request(URI.create(pullUri(repo, prNumber)), DIFF, cached).GET().build();
+
+        long startTime = System.nanoTime();
+        HttpResponse<InputStream> resp = send(req, HttpResponse.BodyHandlers.ofInputStream());
+        long duration = recordFetch("diff-stream", resp.statusCode(), startTime);
+        log.info("📡 GitHub API response: {} in {}ms, streaming body", resp.statusCode(), duration);
+
+        if (resp.statusCode() == 304 && cached != null) {
+            resp.body().close();
+            InputStream hit = cache.openHit(cached);
+            if (hit != null) {
+                log.info("💾 PR diff unchanged, streaming cached copy");
+                return hit;
+            }
+            log.info("💾 Cached PR diff was evicted meanwhile, fetching it again");
+            return streamPrDiff(repo, prNumber, false);
+        }
+
+        if (resp.statusCode() != 200) {
+            String body;
+            try (InputStream in = resp.body()) {
+                body = new String(in.readNBytes(64 * 1024), StandardCharsets.UTF_8);
+            }
+            log.error("❌ GitHub API error: {} - {}", resp.statusCode(), body);
+            throw new IOException("GitHub API " + resp.statusCode() + " for " + req.uri() + "\n" + body);
+        }
+
+        // Fail fast when GitHub announces the size; otherwise the stream enforces it while reading
+        long announced = resp.headers().firstValueAsLong("Content-Length").orElse(-1L);
+        if (announced > maxPatchBytes) {
+            resp.body().close();
+            throw new PatchTooLargeException(maxPatchBytes);
+        }
+        InputStream body = new LimitedInputStream(resp.body(), maxPatchBytes);
+        if (cache == null) {
+            return body;
+        }
+        return cache.storeWhileReading(key, resp.headers().firstValue("ETag").orElse(null),
+                resp.headers().firstValue("Last-Modified").orElse(null), body);
+    }
+
+    @Override
+    public List<String> fetchReviewBodies(String repo, int prNumber) throws IOException, InterruptedException {
+        List<String> bodies = new ArrayList<>();
+        for (String kind : List.of("comments", "reviews")) {
+            String next = pullUri(repo, prNumber) + "/" + kind + "?per_page=100";
+            while (next != null) {
+                HttpRequest req = request(URI.create(next), JSON, null).GET().build();
+                HttpResponse<String> resp = send(req, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+                if (resp.statusCode() != 200) {
+                    log.error("❌ GitHub API error: {} - {}", resp.statusCode(), resp.body());
+                    throw new IOException("GitHub API " + resp.statusCode() + " for " + req.uri() + "\n" + resp.body());
+                }
+                for (JsonNode item : MAPPER.readTree(resp.body())) {
+                    String body = item.path("body").asText("");
+                    if (!body.isEmpty()) {
+                        bodies.add(body);
+                    }
+                }
+                next = nextLink(resp.headers().firstValue("Link").orElse(null));
+            }
+        }
+        log.debug("🔗 Found {} posted review bodies on {}/{}", bodies.size(), repo, prNumber);
+        return bodies;
+    }
+
+    @Override
+    public void submitReview(String repo, int prNumber, String reviewJson) throws IOException, InterruptedException {
+        HttpRequest req = request(URI.create(pullUri(repo, prNumber) + "/reviews"), JSON, null)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(reviewJson, StandardCharsets.UTF_8))
+                .build();
+        HttpResponse<String> resp = send(req, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        if (resp.statusCode() / 100 != 2) {
+            log.error("❌ GitHub API error: {} - {}", resp.statusCode(), resp.body());
+            throw new IOException("GitHub API " + resp.statusCode() + " for " + req.uri() + "\n" + resp.body());
+        }
+        log.info("📝 Submitted review on {}/{}", repo, prNumber);
+    }
+
+    /**
+     * Returns the {@code rel="next"} target of a {@code Link} header, or {@code null}.
+     */
+    static String nextLink(String link) {
+        if (link == null) {
+            return null;
+        }
+        for (String part : link.split(",")) {
+            int open = part.indexOf('<');
+            int close = part.indexOf('>');
+            if (open >= 0 && close > open && part.substring(close).contains("rel=\"next\"")) {
+                return part.substring(open + 1, close);
+            }
+        }
+        return null;
     }
 
     private String fetchWithAccept(String repo, int prNumber, String accept) throws IOException, InterruptedException {
+        return fetchWithAccept(repo, prNumber, accept, true);
+    }
+
+    /**
+     * Fetches a PR representation, revalidating a cached copy if {@code revalidate} is set.
+     */
+    private String fetchWithAccept(String repo, int prNumber, String accept, boolean revalidate)
+            throws IOException, InterruptedException {
+        String key = GithubResponseCache.key(repo, prNumber, accept);
+        GithubResponseCache.Entry cached = cache == null || !revalidate ? null : cache.lookup(key);
+        HttpRequest req = request(URI.create(pullUri(repo, prNumber)), accept, cached).GET().build();
+
+        long startTime = System.nanoTime();
+        HttpResponse<String> resp = send(req,
+                HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        long duration = recordFetch(media(accept), resp.statusCode(), startTime);
+
+        log.info("📡 GitHub API response: {} in {}ms, body size: {} characters",
+                resp.statusCode(), duration, resp.body().length());
+
+        if (resp.statusCode() == 304 && cached != null) {
+            String hit = cache.readHit(cached);
+            if (hit != null) {
+                log.info("💾 PR data unchanged, serving cached copy");
+                return hit;
+            }
+            log.info("💾 Cached PR data was evicted meanwhile, fetching it again");
+            return fetchWithAccept(repo, prNumber, accept, false);
+        }
+
+        if (resp.statusCode() == 200) {
+            log.info("✅ Successfully fetched PR data from GitHub");
+            if (cache != null) {
+                cache.store(key, resp.headers().firstValue("ETag").orElse(null),
+                        resp.headers().firstValue("Last-Modified").orElse(null), resp.body());
+            }
+            return resp.body();
+        }
+
+        // Handle redirects
+        if (resp.statusCode() == 301 || resp.statusCode() == 302) {
+            String location = resp.headers().firstValue("Location").orElse(null);
+            log.warn("🔄 GitHub API redirect {} to: {}", resp.statusCode(), location);
+            throw new IOException("GitHub API redirect " + resp.statusCode() + " to " + location +
+                    ". Please check the repository URL format: " + repo);
+        }
+
+        log.error("❌ GitHub API error: {} - {}", resp.statusCode(), resp.body());
+        throw new IOException("GitHub API " + resp.statusCode() + " for " + req.uri() + "\n" + resp.body());
+    }
+
+    /**
+     * Records a fetch that started at {@code startNanos}.
+     *
+     * @return its duration in milliseconds, for logging
+     */
+    private long recordFetch(String media, int status, long startNanos) {
+        long end = System.nanoTime();
+        long nanos = end - startNanos;
+        ReviewTimer.current().record("fetch", media, startNanos, end);
+        registry.timer(FETCH_METRIC, "media", media, "status", String.valueOf(status))
+                .record(nanos, TimeUnit.NANOSECONDS);
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static String media(String accept) {
+        if (accept.equals(DIFF)) {
+            return "diff";
+        }
+        return accept.equals(JSON) ? "json" : "patch";
+    }
+
+    /**
+     * Sends a request within the rate budget, retrying transient failures. The last response is
+     * returned as-is once attempts are exhausted, so callers report the real status.
+     *
+     * <p>Only {@code GET}s are retried. Any other request is sent once: GitHub may have acted on
+     * it before the error or dropped connection, and sending it again would, for example, post
+     * a review twice.</p>
+     */
+    private <T> HttpResponse<T> send(HttpRequest req, HttpResponse.BodyHandler<T> handler)
+            throws IOException, InterruptedException {
+        int maxAttempts = "GET".equals(req.method()) ? options.maxAttempts() : 1;
+        for (int attempt = 1; ; attempt++) {
+            budget.acquire();
+            HttpResponse<T> resp;
+            try {
+                resp = http.send(req, handler);
+            } catch (IOException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                long delay = backoff(attempt, -1);
+                log.warn("🔁 GitHub request failed ({}), retry {}/{} in {}ms",
+                        e.getMessage(), attempt, maxAttempts - 1, delay);
+                Thread.sleep(delay);
+                continue;
+            }
+            budget.update(resp.statusCode(), resp.headers());
+            if (!isRetryable(resp) || attempt >= maxAttempts) {
+                return resp;
+            }
+            long delay = backoff(attempt, resp.headers().firstValueAsLong("Retry-After").orElse(-1L));
+            if (delay > options.maxRateLimitWait().toMillis()) {
+                return resp;
+            }
+            if (resp.body() instanceof InputStream in) {
+                in.close();
+            }
+            log.warn("🔁 GitHub API {} for {}, retry {}/{} in {}ms",
+                    resp.statusCode(), req.uri(), attempt, maxAttempts - 1, delay);
+            Thread.sleep(delay);
+        }
+    }
+
+    /**
+     * Server errors, {@code 429}, and {@code 403}s that carry rate limit signals are transient;
+     * a plain {@code 403} (permissions) is not.
+     */
+    static boolean isRetryable(HttpResponse<?> resp) {
+        int status = resp.statusCode();
+        if (status >= 500 || status == 429) {
+            return true;
+        }
+        return status == 403
+                && (resp.headers().firstValue("Retry-After").isPresent()
+                || resp.headers().firstValueAsLong("X-RateLimit-Remaining").orElse(-1L) == 0);
+    }
+
+    /**
+     * Full-jitter exponential backoff, never shorter than {@code Retry-After} (seconds) if given.
+     */
+    long backoff(int attempt, long retryAfterSeconds) {
+        long cap = Math.min(options.maxBackoff().toMillis(), options.initialBackoff().toMillis() << Math.min(attempt - 1, 20));
+        long delay = ThreadLocalRandom.current().nextLong(cap + 1);
+        return retryAfterSeconds >= 0 ? Math.max(delay, retryAfterSeconds * 1000) : delay;
+    }
+
+    private String pullUri(String repo, int prNumber) {
         if (repo == null || !repo.contains("/")) {
             throw new IllegalArgumentException("repo must be 'owner/name', got: " + repo);
         }
-        URI uri = URI.create(baseApi + "/repos/" + repo + "/pulls/" + prNumber);
+        return baseApi + "/repos/" + repo + "/pulls/" + prNumber;
+    }
+
+    private HttpRequest.Builder request(URI uri, String accept, GithubResponseCache.Entry cached) {
         log.debug("🌐 Making GitHub API request to: {}", uri);
 
         HttpRequest.Builder req = HttpRequest.newBuilder(uri)
-                .GET()
+                .timeout(options.requestTimeout())
                 .header("Accept", accept)
                 .header("User-Agent", "pr-code-reviewer");
 
@@ -57,28 +387,54 @@ public class HttpGithubClientService implements GithubClientService {
             log.debug("🔓 No authentication token provided");
         }
 
-        long startTime = System.currentTimeMillis();
-        HttpResponse<String> resp = http.send(req.build(),
-                HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
-        long duration = System.currentTimeMillis() - startTime;
+        if (cached != null) {
+            if (cached.etag() != null) {
+                req.header("If-None-Match", cached.etag());
+            }
+            if (cached.lastModified() != null) {
+                req.header("If-Modified-Since", cached.lastModified());
+            }
+            log.debug("💾 Revalidating cached response (etag={})", cached.etag());
+        }
+        return req;
+    }
 
-        log.info("📡 GitHub API response: {} in {}ms, body size: {} characters", 
-                resp.statusCode(), duration, resp.body().length());
+    /**
+     * Fails with {@link PatchTooLargeException} once more than {@code limit} bytes were read.
+     */
+    static final class LimitedInputStream extends FilterInputStream {
 
-        if (resp.statusCode() == 200) {
-            log.info("✅ Successfully fetched PR data from GitHub");
-            return resp.body();
+        private final long limit;
+        private long count;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
         }
-        
-        // Handle redirects
-        if (resp.statusCode() == 301 || resp.statusCode() == 302) {
-            String location = resp.headers().firstValue("Location").orElse(null);
-            log.warn("🔄 GitHub API redirect {} to: {}", resp.statusCode(), location);
-            throw new IOException("GitHub API redirect " + resp.statusCode() + " to " + location + 
-                    ". Please check the repository URL format: " + repo);
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws PatchTooLargeException {
+            count += n;
+            if (count > limit) {
+                throw new PatchTooLargeException(limit);
+            }
         }
-        
-        log.error("❌ GitHub API error: {} - {}", resp.statusCode(), resp.body());
-        throw new IOException("GitHub API " + resp.statusCode() + " for " + uri + "\n" + resp.body());
     }
 }
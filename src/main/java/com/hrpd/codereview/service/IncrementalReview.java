@@ -0,0 +1,129 @@
+package com.hrpd.codereview.service;
+
+import com.hrpd.codereview.model.DiffHunk;
+import com.hrpd.codereview.model.FailedHunk;
+import com.hrpd.codereview.model.Finding;
+import com.hrpd.codereview.model.PrReviewState;
+import com.hrpd.codereview.model.ReviewedHunk;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * One incremental re-review: splits the current hunks into those already reviewed and those
+ * that need a reviewer, and builds the state to save afterwards.
+ *
+ * <p>A hunk is identified by a hash of its file path and body without the {@code @@} header, so
+ * a hunk that only moved (because lines were added above it) still matches; its findings are
+ * carried forward with line numbers shifted by the distance it moved.</p>
+ *
+ * <p>{@link #carry(DiffHunk)} may be called from a producer thread; the other methods must be
+ * called after all hunks were offered and the hand-off to the caller has happened.</p>
+ */
+final class IncrementalReview {
+
+    private final Map<String, ReviewedHunk> prior;
+    /** Every current hunk by hash, in patch order. */
+    private final Map<String, DiffHunk> current = new LinkedHashMap<>();
+    private final List<Finding> carried = new ArrayList<>();
+    private int carriedHunks;
+
+    IncrementalReview(PrReviewState prior) {
+        this.prior = prior == null ? Map.of() : prior.hunks();
+    }
+
+    /**
+     * Records a current hunk and, if it was reviewed before, carries its findings forward.
+     *
+     * @return {@code true} if the hunk was carried and needs no review
+     */
+    boolean carry(DiffHunk hunk) {
+        String hash = hash(hunk);
+        current.putIfAbsent(hash, hunk);
+        ReviewedHunk before = prior.get(hash);
+        if (before == null) {
+            return false;
+        }
+        int shift = hunk.start() - before.lineStart();
+        for (Finding f : before.findings()) {
+            carried.add(new Finding(hunk.filePath(), f.lineStart() + shift, f.lineEnd() + shift,
+                    f.title(), f.rationale(), f.suggestion(), f.severity(), f.reviewer()));
+        }
+        carriedHunks++;
+        return true;
+    }
+
+    List<Finding> carriedFindings() {
+        return carried;
+    }
+
+    int carriedHunks() {
+        return carriedHunks;
+    }
+
+    /**
+     * Assigns the final findings to the current hunks they fall into. A finding outside every
+     * hunk range of its file goes to the file's first hunk, so it is still carried next time.
+     * Hunks that a reviewer failed on are left out, so the next review sends them to every
+     * reviewer again instead of carrying their incomplete findings.
+     */
+    List<ReviewedHunk> toState(List<Finding> findings, List<FailedHunk> failed) {
+        Map<String, List<Finding>> byHash = new LinkedHashMap<>();
+        current.keySet().forEach(h -> byHash.put(h, new ArrayList<>()));
+        for (Finding f : findings) {
+            String target = null;
+            for (Entry<String, DiffHunk> e : current.entrySet()) {
+                DiffHunk h = e.getValue();
+                if (!h.filePath().equals(f.filePath())) {
+                    continue;
+                }
+                if (target == null) {
+                    target = e.getKey();
+                }
+                if (f.lineStart() >= h.start() && f.lineStart() <= h.end()) {
+                    target = e.getKey();
+                    break;
+                }
+            }
+            if (target != null) {
+                byHash.get(target).add(f);
+            }
+        }
+        List<ReviewedHunk> out = new ArrayList<>(byHash.size());
+        byHash.forEach((hash, fs) -> {
+            DiffHunk h = current.get(hash);
+            if (failed.stream().noneMatch(f -> f.matches(h))) {
+                out.add(new ReviewedHunk(hash, h.filePath(), h.start(), fs));
+            }
+        });
+        return out;
+    }
+
+    /**
+     * SHA-256 of the file path and the hunk body after its header line.
+     */
+    static String hash(DiffHunk hunk) {
+        CharSequence text = hunk.text();
+        int body = 0;
+        while (body < text.length() && text.charAt(body) != '\n') {
+            body++;
+        }
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(hunk.filePath().getBytes(StandardCharsets.UTF_8));
+            md.update((byte) 0);
+            md.update(text.subSequence(Math.min(body + 1, text.length()), text.length()).toString()
+                    .getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(md.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.hrpd.codereview.service;
 
 import com.hrpd.codereview.model.DiffHunk;
+import com.hrpd.codereview.model.Finding;
 import com.hrpd.codereview.model.ReviewResult;
 
 import java.util.List;
@@ -10,4 +11,27 @@ import java.util.List;
  */
 public interface ParallelWorkflowService {
     ReviewResult run(List<DiffHunk> hunks, boolean parallel);
+
+    /**
+     * Reviews hunks as they arrive, e.g. while a large diff is still downloading.
+     * Each (hunk, reviewer) pair is scheduled as soon as the hunk is available; the source
+     * is only drained while the number of calls in flight is below the configured bound.
+     */
+    default ReviewResult runStreaming(Iterable<DiffHunk> hunks) {
+        return runStreaming(hunks, null);
+    }
+
+    /**
+     * Like {@link #runStreaming(Iterable)}, but (reviewer, hunk) pairs already recorded in
+     * {@code checkpoint} are not called again, and each call is recorded there as it completes.
+     * A {@code null} checkpoint reviews everything.
+     */
+    ReviewResult runStreaming(Iterable<DiffHunk> hunks, ReviewCheckpoint checkpoint);
+
+    /**
+     * Reviews hunks, riskiest first, only until a finding reaches the configured gate severity,
+     * then cancels the remaining calls. Meant for merge gates that only need a pass/fail answer.
+     * Findings in {@code known} count towards the gate and are part of the result.
+     */
+    ReviewResult runGate(List<DiffHunk> hunks, List<Finding> known);
 }
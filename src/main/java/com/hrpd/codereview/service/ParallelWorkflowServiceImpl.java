@@ -1,14 +1,37 @@
 package com.hrpd.codereview.service;
 
+import com.hrpd.codereview.jfr.AggregationEvent;
+import com.hrpd.codereview.jfr.ReviewEvent;
 import com.hrpd.codereview.model.DiffHunk;
+import com.hrpd.codereview.model.FailedHunk;
+import com.hrpd.codereview.model.Finding;
 import com.hrpd.codereview.model.ReviewResult;
+import com.hrpd.codereview.model.Severity;
+import com.hrpd.codereview.reviewer.HunkRetry;
+import com.hrpd.codereview.reviewer.LocalAnalysis;
 import com.hrpd.codereview.reviewer.Reviewer;
-import lombok.RequiredArgsConstructor;
+import com.hrpd.codereview.reviewer.TokenMeter;
+import com.hrpd.codereview.utils.FairPermits;
+import com.hrpd.codereview.utils.HunkRisk;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 /**
  * Implementation of the parallel workflow service that orchestrates code reviews using virtual threads.
@@ -33,14 +56,83 @@ import java.util.concurrent.ExecutorService;
  *   <li>Improved throughput for large code reviews</li>
  * </ul></p>
  * 
+ * <p>{@link #runStreaming(Iterable)} schedules every (hunk, reviewer) pair as soon as the hunk
+ * arrives. A {@link FairPermits} limit shared by all concurrent streaming runs caps the calls in
+ * flight and serves the runs round-robin, so one large PR does not starve the others. While no
+ * permit is free the hunk source is not drained, which propagates backpressure to the producer.</p>
+ * 
+ * <p>{@link #runGate(List, List)} only answers whether any finding reaches the gate threshold:
+ * it reviews the riskiest hunks first under the same limit and cancels the remaining calls as
+ * soon as one does.</p>
+ * 
+ * <p>Each (hunk, reviewer) call of these two modes is retried on transient failures by a
+ * {@link HunkRetry}; a call that still fails is listed in the result's failed hunks, and so is
+ * every hunk of a reviewer that fails as a whole in {@link #run}.</p>
+ * 
+ * <p>Streaming runs can be given a {@link ReviewCheckpoint}: completed calls are recorded in it
+ * as they finish, and calls it already holds are not made again, so a review cut short by a
+ * crash or redeploy resumes where it stopped.</p>
+ * 
+ * <p>Each run opens a {@link TokenMeter} that every reviewer task is bound to, and returns the
+ * tokens it consumed in the result's usage. With a token budget, hunks still unreviewed once it
+ * is used up are analyzed locally and listed as degraded failed hunks instead of being sent to
+ * the model.</p>
+ * 
+ * <p>When the caller has bound a {@link ReviewTimer}, it is carried over to every task, and each
+ * (hunk, reviewer) call is recorded with its queue wait and execution time; in {@link #run} the
+ * reviewers record their calls themselves, inside a step for the whole reviewer run.</p>
+ * 
+ * <p>Every run is a {@link ReviewEvent} for the flight recorder, with the meter's id as review id
+ * so the run's model calls, retrievals and aggregation events can be told apart.</p>
+ * 
+ * <p>Every run is timed in {@value #REVIEW_METRIC} by mode ({@code sequential}, {@code parallel},
+ * {@code streaming} or {@code gate}); the findings of full reviews are counted by severity and
+ * reviewer in {@value #FINDINGS_METRIC}, and (hunk, reviewer) pairs not sent to the model in
+ * {@value #SKIPPED_METRIC} by reason. The shared call limit is reported by the
+ * {@value #IN_FLIGHT_METRIC} and {@value #WAITING_METRIC} gauges.</p>
+ * 
  * @see ParallelWorkflowService
  * @see Reviewer
  * @see AggregatorService
  */
 @Slf4j
-@RequiredArgsConstructor
 public class ParallelWorkflowServiceImpl implements ParallelWorkflowService {
 
+    /**
+     * Default bound on concurrent reviewer calls in streaming mode.
+     */
+    static final int DEFAULT_MAX_IN_FLIGHT = 16;
+
+    /**
+     * Default lowest severity that fails a gate review.
+     */
+    static final Severity DEFAULT_GATE_THRESHOLD = Severity.HIGH;
+
+    /**
+     * Name of the review run timer.
+     */
+    public static final String REVIEW_METRIC = "codereview.review";
+
+    /**
+     * Name of the counter of reported findings.
+     */
+    public static final String FINDINGS_METRIC = "codereview.findings";
+
+    /**
+     * Name of the counter of hunks (or hunk and reviewer pairs) not sent to the model.
+     */
+    public static final String SKIPPED_METRIC = "codereview.hunks.skipped";
+
+    /**
+     * Name of the gauge of reviewer calls holding a permit.
+     */
+    public static final String IN_FLIGHT_METRIC = "codereview.reviewer.calls.in.flight";
+
+    /**
+     * Name of the gauge of runs waiting for a permit.
+     */
+    public static final String WAITING_METRIC = "codereview.reviewer.calls.waiting";
+
     /**
      * List of all configured reviewers to execute during the review process.
      */
@@ -56,6 +148,80 @@ public class ParallelWorkflowServiceImpl implements ParallelWorkflowService {
      */
     private final ExecutorService executorService;
 
+    /**
+     * Maximum number of concurrent reviewer calls in streaming mode, across all runs.
+     */
+    private final int maxInFlight;
+
+    /**
+     * Call slots shared by all streaming runs, one lane per run.
+     */
+    private final FairPermits inFlight;
+
+    /**
+     * Lowest severity that fails a gate review.
+     */
+    private final Severity gateThreshold;
+
+    /**
+     * Retry policy for the per-hunk calls of streaming and gate runs.
+     */
+    private final HunkRetry retry;
+
+    /**
+     * Most tokens a single run may consume; {@code 0} for no limit.
+     */
+    private final long tokenBudget;
+
+    /**
+     * Registry of the run metrics and the call slot gauges.
+     */
+    private final MeterRegistry registry;
+
+    public ParallelWorkflowServiceImpl(List<Reviewer> reviewers, AggregatorService aggregator,
+                                       ExecutorService executorService) {
+        this(reviewers, aggregator, executorService, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    public ParallelWorkflowServiceImpl(List<Reviewer> reviewers, AggregatorService aggregator,
+                                       ExecutorService executorService, int maxInFlight) {
+        this(reviewers, aggregator, executorService, maxInFlight, DEFAULT_GATE_THRESHOLD);
+    }
+
+    public ParallelWorkflowServiceImpl(List<Reviewer> reviewers, AggregatorService aggregator,
+                                       ExecutorService executorService, int maxInFlight, Severity gateThreshold) {
+        this(reviewers, aggregator, executorService, maxInFlight, gateThreshold, HunkRetry.NONE);
+    }
+
+    public ParallelWorkflowServiceImpl(List<Reviewer> reviewers, AggregatorService aggregator,
+                                       ExecutorService executorService, int maxInFlight, Severity gateThreshold,
+                                       HunkRetry retry) {
+        this(reviewers, aggregator, executorService, maxInFlight, gateThreshold, retry, 0);
+    }
+
+    public ParallelWorkflowServiceImpl(List<Reviewer> reviewers, AggregatorService aggregator,
+                                       ExecutorService executorService, int maxInFlight, Severity gateThreshold,
+                                       HunkRetry retry, long tokenBudget) {
+        this(reviewers, aggregator, executorService, maxInFlight, gateThreshold, retry, tokenBudget,
+                new SimpleMeterRegistry());
+    }
+
+    public ParallelWorkflowServiceImpl(List<Reviewer> reviewers, AggregatorService aggregator,
+                                       ExecutorService executorService, int maxInFlight, Severity gateThreshold,
+                                       HunkRetry retry, long tokenBudget, MeterRegistry registry) {
+        this.reviewers = reviewers;
+        this.aggregator = aggregator;
+        this.executorService = executorService;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new FairPermits(maxInFlight);
+        this.registry = registry;
+        Gauge.builder(IN_FLIGHT_METRIC, inFlight, FairPermits::inUse).register(registry);
+        Gauge.builder(WAITING_METRIC, inFlight, FairPermits::waitingLanes).register(registry);
+        this.gateThreshold = gateThreshold;
+        this.retry = retry;
+        this.tokenBudget = tokenBudget;
+    }
+
     /**
      * Executes the code review workflow with the specified execution mode.
      * 
@@ -72,6 +238,9 @@ public class ParallelWorkflowServiceImpl implements ParallelWorkflowService {
      * execution runs reviewers one after another, which may be preferred for
      * debugging or when resource constraints require it.</p>
      * 
+     * <p>If the calling thread is interrupted, the reviewers stop before their next hunk and
+     * the review is abandoned with an {@link IllegalStateException}.</p>
+     * 
      * @param hunks the list of diff hunks to review
      * @param parallel true to run reviewers in parallel, false for sequential execution
      * @return a comprehensive ReviewResult containing all findings and summary
@@ -80,6 +249,9 @@ public class ParallelWorkflowServiceImpl implements ParallelWorkflowService {
     public ReviewResult run(List<DiffHunk> hunks, boolean parallel) {
         long startTime = System.currentTimeMillis();
         log.info("🚀 Starting code review workflow - {} hunks, parallel execution: {}", hunks.size(), parallel);
+        var meter = new TokenMeter(tokenBudget);
+        var event = ReviewEvent.start(meter.id());
+        var timer = ReviewTimer.current();
         
         if (!parallel) {
             // Execute reviewers sequentially for debugging or resource-constrained scenarios
@@ -91,7 +263,7 @@ public class ParallelWorkflowServiceImpl implements ParallelWorkflowService {
                     .map(r -> {
                         log.debug("🔄 Starting {} review (sequential)", r.type());
                         long reviewerStart = System.currentTimeMillis();
-                        var result = r.review(hunks);
+                        var result = timed(timer, meter, "review", r, null, System.nanoTime(), () -> r.review(hunks));
                         long reviewerDuration = System.currentTimeMillis() - reviewerStart;
                         log.info("✅ {} review completed in {}ms - {} findings", 
                                 r.type(), reviewerDuration, result.findings().size());
@@ -103,49 +275,461 @@ public class ParallelWorkflowServiceImpl implements ParallelWorkflowService {
             log.info("📊 Sequential execution completed in {}ms", sequentialDuration);
             
             // Aggregate all reviewer results and return final result
-            var finalResult = aggregator.merge(parts);
+            var finalResult = withUsage(meter.call(() -> aggregator.merge(parts)), meter);
             long totalDuration = System.currentTimeMillis() - startTime;
             log.info("🎯 Total sequential workflow completed in {}ms", totalDuration);
-            return finalResult;
+            return recorded("sequential", totalDuration, finalResult, event, hunks.size());
         }
 
         // Execute reviewers in parallel using virtual threads for maximum performance
         log.info("⚡ Executing PARALLEL workflow with {} reviewers using virtual threads", reviewers.size());
         long parallelStart = System.currentTimeMillis();
         
-        // Create CompletableFuture for each reviewer to run concurrently
-        var futures = reviewers.stream()
-                .map(reviewer -> CompletableFuture.supplyAsync(() -> {
+        // Submit each reviewer to run concurrently; cancelling its future interrupts its hunk loop
+        long submitted = System.nanoTime();
+        List<Future<ReviewResult>> futures = reviewers.stream()
+                .map(reviewer -> executorService.submit(() -> {
                     log.debug("🔄 Starting {} review (parallel)", reviewer.type());
                     long reviewerStart = System.currentTimeMillis();
-                    var result = reviewer.review(hunks);
+                    var result = timed(timer, meter, "review", reviewer, null, submitted, () -> reviewer.review(hunks));
                     long reviewerDuration = System.currentTimeMillis() - reviewerStart;
                     log.info("✅ {} review completed in {}ms - {} findings", 
                             reviewer.type(), reviewerDuration, result.findings().size());
                     return result;
-                }, executorService))
+                }))
                 .toList();
 
         // Wait for all parallel reviewers to complete and handle any failures gracefully
         log.info("⏳ Waiting for all {} parallel reviewers to complete...", futures.size());
-        var parts = futures.stream()
-                .map(f -> f.handle((reviewResult, ex) -> {
-                    if (ex != null) {
-                        log.error("❌ Reviewer failed with exception", ex);
-                        return ReviewResult.empty();
-                    }
-                    return reviewResult;
-                }))
-                .map(CompletableFuture::join)
-                .toList();
+        List<ReviewResult> parts = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            Reviewer reviewer = reviewers.get(i);
+            try {
+                parts.add(futures.get(i).get());
+            } catch (ExecutionException e) {
+                // Failed as a whole (e.g. grounding); every hunk is unreviewed by this reviewer
+                log.error("❌ Reviewer failed with exception", e.getCause());
+                parts.add(new ReviewResult(List.of(), "",
+                        hunks.stream().map(h -> FailedHunk.of(h, reviewer.type(), e.getCause())).toList()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                throw new IllegalStateException("Interrupted while waiting for reviewers", e);
+            }
+        }
 
         long parallelDuration = System.currentTimeMillis() - parallelStart;
         log.info("📊 Parallel execution completed in {}ms", parallelDuration);
         
         // Aggregate all reviewer results and return final result
-        var finalResult = aggregator.merge(parts);
+        var finalResult = withUsage(meter.call(() -> aggregator.merge(parts)), meter);
         long totalDuration = System.currentTimeMillis() - startTime;
         log.info("🎯 Total parallel workflow completed in {}ms", totalDuration);
-        return finalResult;
+        return recorded("parallel", totalDuration, finalResult, event, hunks.size());
+    }
+
+    /**
+     * Reviews hunks as they are produced.
+     * 
+     * <p>Grounding is retrieved once per reviewer, concurrently with the first hunks arriving.
+     * Each hunk is then fanned out to all reviewers on the executor. A (hunk, reviewer) call that
+     * fails after retries is logged and listed as a failed hunk; the other calls' findings are kept.
+     * Findings are merged into a {@link FindingAccumulator} as each call completes, so no
+     * aggregation pass is left once the last call returns.</p>
+     * 
+     * <p>With a checkpoint, pairs it already holds take their findings from it without a call or
+     * a permit, and every successful call is recorded in it; failed calls are not, so a resumed
+     * review tries them again.</p>
+     * 
+     * <p>Once the run's token budget is used up, the remaining pairs are analyzed locally
+     * instead of being called.</p>
+     * 
+     * <p>If the calling thread is interrupted, e.g. because a newer head superseded the review,
+     * the calls in flight are interrupted and the review is abandoned with an
+     * {@link IllegalStateException}. Each call keeps its permit until it has exited, so other
+     * runs sharing the limit never exceed it.</p>
+     * 
+     * @param hunks the hunk source, typically a {@link com.hrpd.codereview.utils.HunkQueue}
+     * @param checkpoint the review's checkpoint, or {@code null}
+     * @return a comprehensive ReviewResult containing all findings and summary
+     */
+    @Override
+    public ReviewResult runStreaming(Iterable<DiffHunk> hunks, ReviewCheckpoint checkpoint) {
+        long startTime = System.currentTimeMillis();
+        log.info("🚀 Starting STREAMING review workflow with {} reviewers, max {} calls in flight shared with {} waiting runs",
+                reviewers.size(), maxInFlight, inFlight.waitingLanes());
+
+        var meter = new TokenMeter(tokenBudget);
+        var event = ReviewEvent.start(meter.id());
+        var timer = ReviewTimer.current();
+        var groundings = reviewers.stream()
+                .map(r -> CompletableFuture.supplyAsync(() -> timer.call(() -> meter.call(r::retrieveGrounding)),
+                        executorService))
+                .toList();
+        var findings = new FindingAccumulator();
+        var failed = new ConcurrentLinkedQueue<FailedHunk>();
+
+        Object lane = new Object();
+        List<Call> calls = new ArrayList<>();
+        int count = 0;
+        try {
+            for (DiffHunk hunk : hunks) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                count++;
+                if (count == 1) {
+                    log.info("⏱️ First hunk ready after {}ms: {}", System.currentTimeMillis() - startTime, hunk.filePath());
+                }
+                for (int i = 0; i < reviewers.size(); i++) {
+                    Reviewer reviewer = reviewers.get(i);
+                    List<Finding> restored = checkpoint == null ? null : checkpoint.restore(reviewer.type(), hunk);
+                    if (restored != null) {
+                        findings.addAll(restored);
+                        continue;
+                    }
+                    long queuedAt = System.nanoTime();
+                    inFlight.acquire(lane);
+                    // Checked with the permit held, so calls that were in flight have been charged
+                    if (meter.exhausted()) {
+                        inFlight.release();
+                        failed.add(overBudget(meter, reviewer, hunk, findings));
+                        continue;
+                    }
+                    var grounding = groundings.get(i);
+                    calls.add(new Call(() -> {
+                        String g = grounding.get();
+                        return timed(timer, meter, "call", reviewer, hunk, queuedAt, () -> reviewHunk(reviewer, hunk, g));
+                    }, (found, ex) -> {
+                        if (ex == null && checkpoint != null) {
+                            checkpoint.record(reviewer.type(), hunk, found);
+                        }
+                        if (ex != null) {
+                            log.error("❌ {} failed on hunk {}", reviewer.type(), hunk.filePath(), ex);
+                            failed.add(LocalAnalysis.onFailure(hunk, reviewer.type(), ex, findings::addAll));
+                        } else {
+                            findings.addAll(found);
+                        }
+                    }));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            calls.forEach(c -> c.cancel(true));
+            throw new IllegalStateException("Interrupted while scheduling hunk reviews", e);
+        } catch (RuntimeException e) {
+            // The hunk source failed; results would be partial, so stop the calls already scheduled
+            calls.forEach(c -> c.cancel(true));
+            throw e;
+        }
+
+        await(CompletableFuture.allOf(calls.stream().map(Call::exited).toArray(CompletableFuture[]::new)), calls);
+        log.info("📊 Streaming execution reviewed {} hunks in {}ms", count, System.currentTimeMillis() - startTime);
+
+        var finalResult = withUsage(AggregatorServiceImpl.withFailures(snapshot(findings, meter), List.copyOf(failed)),
+                meter);
+        if (checkpoint != null && checkpoint.restoredCalls() > 0) {
+            registry.counter(SKIPPED_METRIC, "reason", "checkpoint").increment(checkpoint.restoredCalls());
+            log.info("💾 Resumed review {}: {} reviewer calls taken from its checkpoint",
+                    checkpoint.reviewId(), checkpoint.restoredCalls());
+            finalResult = new ReviewResult(finalResult.findings(), finalResult.summary() + "; resumed "
+                    + checkpoint.restoredCalls() + " reviewer calls from checkpoint", finalResult.failedHunks(),
+                    finalResult.usage());
+        }
+        log.info("🔄 Merged {} findings into {} unique as they arrived", findings.received(), finalResult.findings().size());
+        long totalDuration = System.currentTimeMillis() - startTime;
+        log.info("🎯 Total streaming workflow completed in {}ms", totalDuration);
+        return recorded("streaming", totalDuration, finalResult, event, count);
+    }
+
+    /**
+     * Reviews hunks until a finding at or above the gate threshold turns up.
+     * 
+     * <p>Hunks are scheduled riskiest first (see {@link HunkRisk}) under the shared call limit.
+     * Each result is checked before its permit is returned, so once the threshold is met no
+     * further call is started. The remaining calls are then cancelled: queued ones never start,
+     * and those already talking to the model are interrupted and keep their permit until they
+     * have exited. The result holds what was found so far.</p>
+     * 
+     * <p>A gate only passes if every scheduled (hunk, reviewer) pair was reviewed by the model.
+     * If a call failed, or a hunk was left to local analysis because the model was unavailable or
+     * the token budget was used up, the verdict is inconclusive instead, so an outage does not
+     * wave every change through.</p>
+     * 
+     * @param hunks the hunks to review
+     * @param known findings already established, e.g. carried over from an earlier review;
+     *              if one of them meets the threshold, no reviewer is called at all
+     * @return the findings so far, with the gate verdict appended to the summary
+     */
+    @Override
+    public ReviewResult runGate(List<DiffHunk> hunks, List<Finding> known) {
+        long startTime = System.currentTimeMillis();
+        var findings = new FindingAccumulator();
+        var failedHunks = new ConcurrentLinkedQueue<FailedHunk>();
+        findings.addAll(known);
+        var tripped = new CompletableFuture<Void>();
+        var meter = new TokenMeter(tokenBudget);
+        var event = ReviewEvent.start(meter.id());
+        var timer = ReviewTimer.current();
+        if (meetsGate(findings)) {
+            log.info("🚦 Gate already failed by {} known findings, skipping {} hunks", known.size(), hunks.size());
+            return gateResult(findings, List.of(), 0, hunks.size(), true, startTime, meter, event);
+        }
+
+        List<DiffHunk> ordered = HunkRisk.riskiestFirst(hunks);
+        log.info("🚦 Starting GATE review of {} hunks with {} reviewers, threshold {}",
+                hunks.size(), reviewers.size(), gateThreshold);
+        var groundings = reviewers.stream()
+                .map(r -> CompletableFuture.supplyAsync(() -> timer.call(() -> meter.call(r::retrieveGrounding)),
+                        executorService))
+                .toList();
+
+        Object lane = new Object();
+        List<Call> calls = new ArrayList<>();
+        int scheduled = 0;
+        try {
+            schedule:
+            for (DiffHunk hunk : ordered) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                for (int i = 0; i < reviewers.size(); i++) {
+                    Reviewer reviewer = reviewers.get(i);
+                    long queuedAt = System.nanoTime();
+                    inFlight.acquire(lane);
+                    if (tripped.isDone()) {
+                        inFlight.release();
+                        break schedule;
+                    }
+                    if (meter.exhausted()) {
+                        inFlight.release();
+                        failedHunks.add(overBudget(meter, reviewer, hunk, findings));
+                        if (meetsGate(findings)) {
+                            tripped.complete(null);
+                        }
+                        continue;
+                    }
+                    var grounding = groundings.get(i);
+                    calls.add(new Call(() -> {
+                        String g = grounding.get();
+                        return timed(timer, meter, "call", reviewer, hunk, queuedAt, () -> reviewHunk(reviewer, hunk, g));
+                    }, (found, ex) -> {
+                        if (tripped.isDone()) {
+                            // Finished after the gate tripped; the result is already decided
+                        } else if (ex == null) {
+                            findings.addAll(found);
+                            if (meetsGate(findings)) {
+                                tripped.complete(null);
+                            }
+                        } else {
+                            log.error("❌ {} failed on hunk {}", reviewer.type(), hunk.filePath(), ex);
+                            failedHunks.add(LocalAnalysis.onFailure(hunk, reviewer.type(), ex, findings::addAll));
+                            if (meetsGate(findings)) {
+                                tripped.complete(null);
+                            }
+                        }
+                    }));
+                }
+                scheduled++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            calls.forEach(c -> c.cancel(true));
+            throw new IllegalStateException("Interrupted while scheduling hunk reviews", e);
+        }
+
+        await(CompletableFuture.anyOf(tripped, CompletableFuture.allOf(calls.stream().map(Call::exited)
+                .toArray(CompletableFuture[]::new))), calls);
+        boolean failed = tripped.isDone();
+        if (failed) {
+            calls.forEach(c -> c.cancel(true));
+        }
+        log.info("🚦 Gate {} after {}ms, {} of {} hunks scheduled, {} failed hunk reviews",
+                failed ? "FAILED" : failedHunks.isEmpty() ? "passed" : "INCONCLUSIVE",
+                System.currentTimeMillis() - startTime, scheduled, hunks.size(), failedHunks.size());
+        return gateResult(findings, List.copyOf(failedHunks), scheduled, hunks.size(), failed, startTime, meter,
+                event);
+    }
+
+    /**
+     * Waits for the scheduled calls. If the waiting thread is interrupted, e.g. because a newer
+     * head superseded the review, the review is abandoned: every call is cancelled, which keeps
+     * queued calls from starting and interrupts those already talking to the model.
+     */
+    private static void await(CompletableFuture<?> all, List<? extends Future<?>> calls) {
+        try {
+            all.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            calls.forEach(c -> c.cancel(true));
+            throw new IllegalStateException("Interrupted while waiting for hunk reviews", e);
+        } catch (ExecutionException e) {
+            // The handlers complete normally, so this is a bug rather than a failed call
+            throw new IllegalStateException("Hunk review handler failed", e.getCause());
+        }
+    }
+
+    /**
+     * A (hunk, reviewer) call holding a permit of the shared call limit, submitted on creation.
+     *
+     * <p>Cancelling the call interrupts the thread running it, so it stops talking to the model.
+     * Its permit is returned once the call has exited, or at once if it never started, so the
+     * limit and the {@value #IN_FLIGHT_METRIC} gauge always count the calls actually running.</p>
+     *
+     * <p>The outcome handler runs before the permit is returned, and is not run for a cancelled
+     * call.</p>
+     */
+    private final class Call extends FutureTask<List<Finding>> {
+
+        private final BiConsumer<List<Finding>, Throwable> handler;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CompletableFuture<Void> exited = new CompletableFuture<>();
+
+        Call(Callable<List<Finding>> work, BiConsumer<List<Finding>, Throwable> handler) {
+            super(work);
+            this.handler = handler;
+            try {
+                executorService.execute(this);
+            } catch (RejectedExecutionException e) {
+                setException(e);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                super.run();
+            } finally {
+                inFlight.release();
+                exited.complete(null);
+            }
+        }
+
+        @Override
+        protected void done() {
+            try {
+                switch (state()) {
+                    case SUCCESS -> handler.accept(resultNow(), null);
+                    case FAILED -> handler.accept(null, exceptionNow() instanceof ExecutionException e
+                            ? e.getCause() : exceptionNow());
+                    default -> {
+                        // Cancelled; the run is abandoned or already decided
+                    }
+                }
+            } finally {
+                if (claimed.compareAndSet(false, true)) {
+                    // Never started
+                    inFlight.release();
+                    exited.complete(null);
+                }
+            }
+        }
+
+        /**
+         * Completes once the call has exited and returned its permit, or was cancelled before
+         * it started.
+         */
+        CompletableFuture<Void> exited() {
+            return exited;
+        }
+    }
+
+    private List<Finding> reviewHunk(Reviewer reviewer, DiffHunk hunk, String grounding) {
+        return retry.call(reviewer.type(), hunk, () -> reviewer.reviewHunk(hunk, grounding));
+    }
+
+    /**
+     * Runs a reviewer task with the run's token meter and timer bound, recording it as a
+     * {@code phase} step that was scheduled at {@code queuedAt}.
+     */
+    private static <T> T timed(ReviewTimer timer, TokenMeter meter, String phase, Reviewer reviewer, DiffHunk hunk,
+                               long queuedAt, Supplier<T> task) {
+        if (!timer.enabled()) {
+            return meter.call(task);
+        }
+        long start = System.nanoTime();
+        try {
+            return timer.call(() -> meter.call(task));
+        } finally {
+            timer.record(phase, reviewer.type(), hunk == null ? null : ReviewTimer.target(hunk), queuedAt, start,
+                    System.nanoTime());
+        }
+    }
+
+    /**
+     * Analyzes a pair locally because the run's token budget is used up.
+     */
+    private FailedHunk overBudget(TokenMeter meter, Reviewer reviewer, DiffHunk hunk,
+                                         FindingAccumulator findings) {
+        registry.counter(SKIPPED_METRIC, "reason", "budget").increment();
+        return LocalAnalysis.onFailure(hunk, reviewer.type(), meter.budgetExceeded(), findings::addAll);
+    }
+
+    private boolean meetsGate(FindingAccumulator findings) {
+        for (Severity s : Severity.values()) {
+            if (s.ordinal() <= gateThreshold.ordinal() && findings.count(s) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ReviewResult gateResult(FindingAccumulator findings, List<FailedHunk> failedHunks,
+                                    int scheduled, int total, boolean failed, long startTime, TokenMeter meter,
+                                    ReviewEvent event) {
+        var result = withUsage(AggregatorServiceImpl.withFailures(snapshot(findings, meter), failedHunks), meter);
+        String outcome = failed ? "failed" : failedHunks.isEmpty() ? "passed" : "inconclusive";
+        String verdict = switch (outcome) {
+            case "failed" -> "gate FAILED at " + gateThreshold + " after scheduling " + scheduled + " of " + total
+                    + " hunks";
+            case "inconclusive" -> "gate INCONCLUSIVE";
+            default -> "gate passed";
+        };
+        if (total > scheduled) {
+            registry.counter(SKIPPED_METRIC, "reason", "gate").increment(total - scheduled);
+        }
+        registry.timer(REVIEW_METRIC, "mode", "gate", "verdict", outcome)
+                .record(System.currentTimeMillis() - startTime, TimeUnit.MILLISECONDS);
+        event.finish("gate", outcome, total, scheduled, result);
+        return new ReviewResult(result.findings(), result.summary() + "; " + verdict, result.failedHunks(),
+                result.usage());
+    }
+
+    /**
+     * Attaches the tokens the run consumed, noting an exhausted budget in the summary.
+     */
+    private static ReviewResult withUsage(ReviewResult result, TokenMeter meter) {
+        String summary = meter.exhausted() ? result.summary() + "; token budget exhausted" : result.summary();
+        return new ReviewResult(result.findings(), summary, result.failedHunks(), meter.usage());
+    }
+
+    private ReviewResult snapshot(FindingAccumulator findings, TokenMeter meter) {
+        var event = AggregationEvent.start(meter.id(), "snapshot");
+        long start = System.nanoTime();
+        ReviewResult result = findings.snapshot();
+        long end = System.nanoTime();
+        ReviewTimer.current().record("aggregation", "snapshot", start, end);
+        registry.timer(AggregatorServiceImpl.AGGREGATE_METRIC, "mode", "snapshot")
+                .record(end - start, TimeUnit.NANOSECONDS);
+        event.finish(findings.received(), result.findings().size());
+        return result;
+    }
+
+    /**
+     * Records a completed full review: its duration, its findings by severity and reviewer, and
+     * its flight recorder event.
+     */
+    private ReviewResult recorded(String mode, long millis, ReviewResult result, ReviewEvent event,
+                                         int hunks) {
+        registry.timer(REVIEW_METRIC, "mode", mode, "verdict", "none").record(millis, TimeUnit.MILLISECONDS);
+        event.finish(mode, "none", hunks, hunks, result);
+        for (Finding f : result.findings()) {
+            registry.counter(FINDINGS_METRIC, "severity", String.valueOf(f.severity()),
+                    "reviewer", String.valueOf(f.reviewer())).increment();
+        }
+        return result;
     }
 }
@@ -0,0 +1,22 @@
+package com.hrpd.codereview.service;
+
+import com.hrpd.codereview.utils.MappedPatch;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Spools uploaded patches to disk and memory-maps them, keeping large patches off the heap.
+ */
+public interface PatchSpoolService {
+
+    /**
+     * Spools {@code in} to a temporary file and maps it.
+     *
+     * @param in uploaded patch bytes, UTF-8 encoded.
+     * @return the mapped patch; close it to delete the temporary file.
+     * @throws com.hrpd.codereview.utils.PatchTooLargeException if the patch exceeds the configured limit.
+     * @throws IOException if spooling fails.
+     */
+    MappedPatch spool(InputStream in) throws IOException;
+}
@@ -0,0 +1,28 @@
+package com.hrpd.codereview.service;
+
+import com.hrpd.codereview.utils.MappedPatch;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Spools patches into a configurable directory with an upper size bound.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class PatchSpoolServiceImpl implements PatchSpoolService {
+
+    private final Path spoolDir;
+    private final long maxBytes;
+
+    @Override
+    public MappedPatch spool(InputStream in) throws IOException {
+        long start = System.currentTimeMillis();
+        MappedPatch patch = MappedPatch.spool(in, spoolDir, maxBytes);
+        log.info("📥 Spooled uploaded patch: {} bytes in {}ms", patch.length(), System.currentTimeMillis() - start);
+        return patch;
+    }
+}
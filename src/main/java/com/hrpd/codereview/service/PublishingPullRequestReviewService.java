@@ -0,0 +1,48 @@
+package com.hrpd.codereview.service;
+
+import com.hrpd.codereview.model.ReviewResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+
+/**
+ * Decorator that posts every completed PR review back to GitHub.
+ *
+ * <p>Publishing is best effort: if it fails the review result is still returned, with the
+ * failure noted in the summary. Gate reviews are passed through unposted.</p>
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class PublishingPullRequestReviewService implements PullRequestReviewService {
+
+    private final PullRequestReviewService delegate;
+    private final ReviewPublisherService publisher;
+
+    @Override
+    public ReviewResult review(String repo, int prNumber, boolean parallel) throws IOException, InterruptedException {
+        ReviewResult result = delegate.review(repo, prNumber, parallel);
+        try {
+            int posted = publisher.publish(repo, prNumber, result);
+            return new ReviewResult(result.findings(), result.summary() + "; posted " + posted + " findings to GitHub",
+                    result.failedHunks(), result.usage());
+        } catch (IOException | RuntimeException e) {
+            log.error("❌ Could not post review to {}/{}: {}", repo, prNumber, e.getMessage());
+            return new ReviewResult(result.findings(), result.summary() + "; posting to GitHub failed",
+                    result.failedHunks(), result.usage());
+        }
+    }
+
+    /**
+     * Gate results are partial, so they are not posted.
+     */
+    @Override
+    public ReviewResult gate(String repo, int prNumber) throws IOException, InterruptedException {
+        return delegate.gate(repo, prNumber);
+    }
+
+    @Override
+    public void invalidateCachedResults() {
+        delegate.invalidateCachedResults();
+    }
+}
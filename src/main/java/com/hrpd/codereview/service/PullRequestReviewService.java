@@ -0,0 +1,26 @@
+package com.hrpd.codereview.service;
+
+import com.hrpd.codereview.model.ReviewResult;
+
+import java.io.IOException;
+
+/**
+ * Reviews a GitHub pull request end to end: fetch, hunk, review, aggregate.
+ */
+public interface PullRequestReviewService {
+    ReviewResult review(String repo, int prNumber, boolean parallel) throws IOException, InterruptedException;
+
+    /**
+     * Reviews a PR only as far as needed to tell whether it passes the merge gate.
+     * The result is partial when the gate fails and is neither remembered nor published.
+     *
+     * @see ParallelWorkflowService#runGate
+     */
+    ReviewResult gate(String repo, int prNumber) throws IOException, InterruptedException;
+
+    /**
+     * Forgets any remembered review results, e.g. because the standards they were grounded in changed.
+     */
+    default void invalidateCachedResults() {
+    }
+}
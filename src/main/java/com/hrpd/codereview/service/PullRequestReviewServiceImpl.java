@@ -0,0 +1,323 @@
+package com.hrpd.codereview.service;
+
+import com.hrpd.codereview.model.DiffHunk;
+import com.hrpd.codereview.model.ReviewResult;
+import com.hrpd.codereview.utils.HunkQueue;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Reviews the net change of a pull request, one diff per file.
+ *
+ * <p>The {@code .patch} media type is a per-commit mbox, so a file touched by several commits
+ * appears once per commit, including intermediate states that no longer exist at the head. The
+ * patch is fetched first because single-commit PRs (the common case) are already net. When any
+ * file shows up in more than one commit, the {@code .diff} media type (base...head, one block per
+ * file) is fetched and reviewed instead, and the number of hunks avoided is logged and appended
+ * to the summary.</p>
+ *
+ * <p>When an executor is configured, parallel reviews are pipelined instead: the {@code .diff}
+ * is streamed from GitHub, parsed on the executor as it downloads, and each completed hunk is
+ * handed through a bounded {@link HunkQueue} to {@link ParallelWorkflowService#runStreaming}.
+ * Reviews of the first files start while the rest is still in transit, and a full queue stops
+ * the download until the reviewers catch up. Sequential reviews keep the buffered path.</p>
+ *
+ * <p>With a {@link ReviewStateService}, reviews are incremental: hunks already reviewed at an
+ * earlier head (matched by content hash, see {@link IncrementalReview}) keep their findings and
+ * are not sent to the reviewers, so the cost of a re-review follows the size of the push. The
+ * head SHA and per-hunk findings are saved after every completed review; hunks a reviewer failed
+ * on are not saved, so they are reviewed again next time.</p>
+ *
+ * <p>With a {@link ReviewCheckpointService}, streaming reviews are checkpointed under the id
+ * {@code owner/repo#number@headSha|config}, where {@code config} fingerprints the reviewer set and
+ * model settings: each reviewer call is recorded as it completes, so when a review of the same
+ * head and configuration is started again after a crash, redeploy or client retry, only the
+ * missing (reviewer, hunk) pairs are sent to the model. The checkpoint is dropped once the review
+ * completes, and all checkpoints are dropped by {@link #invalidateCachedResults()}.</p>
+ *
+ * <p>{@link #gate} answers pass/fail for merge gates via {@link ParallelWorkflowService#runGate}.</p>
+ *
+ * <p>The tokens of every review are recorded per repository in {@value #TOKENS_METRIC}, tagged
+ * {@code prompt}, {@code completion} or {@code cached}.</p>
+ */
+@Slf4j
+public class PullRequestReviewServiceImpl implements PullRequestReviewService {
+
+    /**
+     * Name of the distribution of tokens per PR review.
+     */
+    public static final String TOKENS_METRIC = "codereview.review.tokens";
+
+    private final GithubClientService githubClient;
+    private final DiffService diffService;
+    private final ParallelWorkflowService workflow;
+    private final ExecutorService executor;
+    private final int queueCapacity;
+    private final AggregatorService aggregator;
+    private final ReviewStateService reviewState;
+    private final ReviewCheckpointService checkpoints;
+    private final String config;
+    private final MeterRegistry registry;
+
+    public PullRequestReviewServiceImpl(GithubClientService githubClient, DiffService diffService,
+                                        ParallelWorkflowService workflow) {
+        this(githubClient, diffService, workflow, null, 0);
+    }
+
+    public PullRequestReviewServiceImpl(GithubClientService githubClient, DiffService diffService,
+                                        ParallelWorkflowService workflow, ExecutorService executor, int queueCapacity) {
+        this(githubClient, diffService, workflow, executor, queueCapacity, null, null);
+    }
+
+    public PullRequestReviewServiceImpl(GithubClientService githubClient, DiffService diffService,
+                                        ParallelWorkflowService workflow, ExecutorService executor, int queueCapacity,
+                                        AggregatorService aggregator, ReviewStateService reviewState) {
+        this(githubClient, diffService, workflow, executor, queueCapacity, aggregator, reviewState, null);
+    }
+
+    public PullRequestReviewServiceImpl(GithubClientService githubClient, DiffService diffService,
+                                        ParallelWorkflowService workflow, ExecutorService executor, int queueCapacity,
+                                        AggregatorService aggregator, ReviewStateService reviewState,
+                                        ReviewCheckpointService checkpoints) {
+        this(githubClient, diffService, workflow, executor, queueCapacity, aggregator, reviewState, checkpoints, "");
+    }
+
+    /**
+     * @param config fingerprint of reviewer set and model settings, part of the checkpoint id
+     */
+    public PullRequestReviewServiceImpl(GithubClientService githubClient, DiffService diffService,
+                                        ParallelWorkflowService workflow, ExecutorService executor, int queueCapacity,
+                                        AggregatorService aggregator, ReviewStateService reviewState,
+                                        ReviewCheckpointService checkpoints, String config) {
+        this(githubClient, diffService, workflow, executor, queueCapacity, aggregator, reviewState, checkpoints, config,
+                new SimpleMeterRegistry());
+    }
+
+    /**
+     * @param config fingerprint of reviewer set and model settings, part of the checkpoint id
+     * @param registry registry for the per-repo token and streaming queue metrics
+     */
+    public PullRequestReviewServiceImpl(GithubClientService githubClient, DiffService diffService,
+                                        ParallelWorkflowService workflow, ExecutorService executor, int queueCapacity,
+                                        AggregatorService aggregator, ReviewStateService reviewState,
+                                        ReviewCheckpointService checkpoints, String config, MeterRegistry registry) {
+        this.githubClient = githubClient;
+        this.diffService = diffService;
+        this.workflow = workflow;
+        this.executor = executor;
+        this.queueCapacity = queueCapacity;
+        this.aggregator = aggregator;
+        this.reviewState = reviewState;
+        this.checkpoints = checkpoints;
+        this.config = config;
+        this.registry = registry;
+    }
+
+    @Override
+    public ReviewResult review(String repo, int prNumber, boolean parallel) throws IOException, InterruptedException {
+        boolean streaming = parallel && executor != null;
+        IncrementalReview incremental = null;
+        String headSha = null;
+        if (reviewState != null || (streaming && checkpoints != null)) {
+            headSha = headShaOrNull(repo, prNumber);
+        }
+        if (reviewState != null) {
+            incremental = new IncrementalReview(reviewState.load(repo, prNumber).orElse(null));
+        }
+
+        List<String> notes = new ArrayList<>();
+        ReviewCheckpoint checkpoint = streaming ? checkpoint(repo, prNumber, headSha) : null;
+        ReviewResult result = streaming
+                ? reviewStreaming(repo, prNumber, incremental, checkpoint)
+                : reviewBuffered(repo, prNumber, parallel, incremental, notes);
+        if (checkpoint != null) {
+            checkpoint.complete(result);
+        }
+
+        if (incremental != null) {
+            if (incremental.carriedHunks() > 0) {
+                result = aggregator.merge(List.of(result,
+                        new ReviewResult(incremental.carriedFindings(), "Carried forward")));
+                notes.add("carried forward " + incremental.carriedFindings().size() + " findings from "
+                        + incremental.carriedHunks() + " unchanged hunks");
+                log.info("♻️ Incremental review of {}/{}: {} unchanged hunks skipped",
+                        repo, prNumber, incremental.carriedHunks());
+            }
+            reviewState.save(repo, prNumber, headSha, incremental.toState(result.findings(), result.failedHunks()));
+        }
+        recordUsage(repo, result);
+        if (notes.isEmpty()) {
+            return result;
+        }
+        return new ReviewResult(result.findings(), result.summary() + "; " + String.join("; ", notes),
+                result.failedHunks(), result.usage());
+    }
+
+    /**
+     * Gates on the net diff. Unchanged hunks are skipped as in incremental reviews, and their
+     * findings count towards the gate, so a PR whose known findings already fail it costs no
+     * model call. The review state is not updated, since the result may be partial.
+     */
+    @Override
+    public ReviewResult gate(String repo, int prNumber) throws IOException, InterruptedException {
+        List<DiffHunk> hunks = diffService.parseUnifiedPatch(githubClient.fetchPrDiff(repo, prNumber));
+        if (reviewState == null) {
+            return recordUsage(repo, workflow.runGate(hunks, List.of()));
+        }
+        IncrementalReview incremental = new IncrementalReview(reviewState.load(repo, prNumber).orElse(null));
+        hunks = hunks.stream().filter(h -> !incremental.carry(h)).toList();
+        return recordUsage(repo, workflow.runGate(hunks, incremental.carriedFindings()));
+    }
+
+    private ReviewResult recordUsage(String repo, ReviewResult result) {
+        registry.summary(TOKENS_METRIC, "repo", repo, "type", "prompt").record(result.usage().promptTokens());
+        registry.summary(TOKENS_METRIC, "repo", repo, "type", "completion").record(result.usage().completionTokens());
+        registry.summary(TOKENS_METRIC, "repo", repo, "type", "cached").record(result.usage().cachedTokens());
+        log.info("🪙 Review of {} used {} prompt ({} cached) and {} completion tokens", repo,
+                result.usage().promptTokens(), result.usage().cachedTokens(), result.usage().completionTokens());
+        return result;
+    }
+
+    private ReviewResult reviewBuffered(String repo, int prNumber, boolean parallel,
+                                        IncrementalReview incremental, List<String> notes)
+            throws IOException, InterruptedException {
+        String patch = githubClient.fetchPrPatch(repo, prNumber);
+        List<DiffHunk> hunks = diffService.parseUnifiedPatch(patch);
+        if (touchesFileRepeatedly(patch)) {
+            int perCommit = hunks.size();
+            hunks = diffService.parseUnifiedPatch(githubClient.fetchPrDiff(repo, prNumber));
+            int avoided = Math.max(0, perCommit - hunks.size());
+            log.info("🧮 Squashed multi-commit patch for {}/{}: {} per-commit hunks -> {} net hunks ({} avoided)",
+                    repo, prNumber, perCommit, hunks.size(), avoided);
+            if (avoided > 0) {
+                notes.add("net diff avoided " + avoided + " redundant hunks");
+            }
+        }
+        if (incremental != null) {
+            hunks = hunks.stream().filter(h -> !incremental.carry(h)).toList();
+            if (hunks.isEmpty()) {
+                return ReviewResult.empty();
+            }
+        }
+        return workflow.run(hunks, parallel);
+    }
+
+    /**
+     * Streams the net diff through parser and reviewers concurrently. The producer is cancelled
+     * if the consumer fails, so it never stays blocked on a full queue.
+     */
+    private ReviewResult reviewStreaming(String repo, int prNumber, IncrementalReview incremental,
+                                         ReviewCheckpoint checkpoint) throws IOException, InterruptedException {
+        InputStream body = githubClient.streamPrDiff(repo, prNumber);
+        HunkQueue queue = new HunkQueue(queueCapacity, registry);
+        Consumer<DiffHunk> sink = incremental == null ? queue : h -> {
+            if (!incremental.carry(h)) {
+                queue.accept(h);
+            }
+        };
+        ReviewTimer timer = ReviewTimer.current();
+        Future<?> producer = executor.submit(() -> {
+            try (var scope = timer.bind(); var reader = new InputStreamReader(body, StandardCharsets.UTF_8)) {
+                int n = diffService.streamUnifiedPatch(reader, sink);
+                log.info("📥 Finished streaming {} hunks for {}/{}", n, repo, prNumber);
+                queue.complete();
+            } catch (IOException | RuntimeException e) {
+                queue.fail(e);
+            }
+        });
+        try {
+            return checkpoint == null ? workflow.runStreaming(queue) : workflow.runStreaming(queue, checkpoint);
+        } catch (IllegalStateException e) {
+            // Surface download failures (including PatchTooLargeException) with their own type
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw e;
+        } finally {
+            producer.cancel(true);
+        }
+    }
+
+    /**
+     * Drops all checkpoints: their findings were grounded in the standards being replaced.
+     */
+    @Override
+    public void invalidateCachedResults() {
+        if (checkpoints != null) {
+            checkpoints.deleteAll();
+        }
+    }
+
+    /**
+     * Opens the checkpoint of this head and configuration, or returns {@code null} without a
+     * store or head SHA.
+     */
+    private ReviewCheckpoint checkpoint(String repo, int prNumber, String headSha) {
+        if (checkpoints == null || headSha == null) {
+            return null;
+        }
+        return new ReviewCheckpoint(checkpoints, repo + "#" + prNumber + "@" + headSha + "|" + config);
+    }
+
+    /**
+     * The head SHA is only recorded for reference and names the checkpoint; a failure to fetch it
+     * must not fail the review (it is then not checkpointed).
+     */
+    private String headShaOrNull(String repo, int prNumber) throws InterruptedException {
+        try {
+            return githubClient.fetchPrHeadSha(repo, prNumber);
+        } catch (IOException e) {
+            log.warn("⚠️ Could not fetch head SHA of {}/{}: {}", repo, prNumber, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Returns {@code true} if a file is changed by more than one commit of an mbox patch. Commits
+     * start at {@code From <40-hex sha> } lines and files at {@code diff --git} lines; diff body
+     * lines always carry a prefix, so neither can be confused with hunk content.
+     */
+    static boolean touchesFileRepeatedly(String patch) {
+        Set<String> earlierCommits = new HashSet<>();
+        Set<String> thisCommit = new HashSet<>();
+        for (String line : patch.split("\n")) {
+            if (isCommitHeader(line)) {
+                earlierCommits.addAll(thisCommit);
+                thisCommit.clear();
+            } else if (line.startsWith("diff --git ")) {
+                int b = line.lastIndexOf(" b/");
+                String path = b < 0 ? line : line.substring(b + 3);
+                if (earlierCommits.contains(path)) {
+                    return true;
+                }
+                thisCommit.add(path);
+            }
+        }
+        return false;
+    }
+
+    private static boolean isCommitHeader(String line) {
+        if (!line.startsWith("From ") || line.length() < 46 || line.charAt(45) != ' ') {
+            return false;
+        }
+        for (int i = 5; i < 45; i++) {
+            if (Character.digit(line.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
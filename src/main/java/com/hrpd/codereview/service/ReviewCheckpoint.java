@@ -0,0 +1,88 @@
+package com.hrpd.codereview.service;
+
+import com.hrpd.codereview.model.CheckpointedCall;
+import com.hrpd.codereview.model.DiffHunk;
+import com.hrpd.codereview.model.Finding;
+import com.hrpd.codereview.model.ReviewResult;
+import com.hrpd.codereview.model.ReviewerType;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The checkpoint of one review: the reviewer calls already completed under its review id, and
+ * the sink for calls completing now.
+ *
+ * <p>Calls are matched by reviewer, hunk content hash (see {@link IncrementalReview#hash}) and
+ * start line, so a resumed review of the same diff skips exactly the (reviewer, hunk) pairs that
+ * finished before, while a changed hunk is reviewed again. A review that completes without failed
+ * calls drops its checkpoint; one with failed calls keeps it, so a retry only repeats those.</p>
+ *
+ * <p>{@link #restore} must be called from a single thread (the scheduler); {@link #record} may
+ * be called concurrently.</p>
+ */
+public final class ReviewCheckpoint {
+
+    private final ReviewCheckpointService store;
+    private final String reviewId;
+    private final Map<String, List<Finding>> completed = new HashMap<>();
+    private int restored;
+
+    /**
+     * Opens the checkpoint of {@code reviewId}, loading the calls recorded so far.
+     */
+    public ReviewCheckpoint(ReviewCheckpointService store, String reviewId) {
+        this.store = store;
+        this.reviewId = reviewId;
+        for (CheckpointedCall call : store.load(reviewId)) {
+            completed.put(key(call.reviewer(), call.hunkHash(), call.lineStart()), call.findings());
+        }
+    }
+
+    public String reviewId() {
+        return reviewId;
+    }
+
+    /**
+     * Returns the recorded findings of {@code reviewer} on {@code hunk}, or {@code null} if that
+     * call has not completed yet.
+     */
+    List<Finding> restore(ReviewerType reviewer, DiffHunk hunk) {
+        List<Finding> findings = completed.get(key(reviewer, IncrementalReview.hash(hunk), hunk.start()));
+        if (findings != null) {
+            restored++;
+        }
+        return findings;
+    }
+
+    /**
+     * Records the findings of a completed call.
+     */
+    void record(ReviewerType reviewer, DiffHunk hunk, List<Finding> findings) {
+        store.save(reviewId, new CheckpointedCall(reviewer, IncrementalReview.hash(hunk), hunk.start(), findings));
+    }
+
+    /**
+     * Drops the checkpoint once the review has completed without failed calls; a later review
+     * of the same id then calls the model again instead of replaying these results.
+     *
+     * @param result the completed review
+     */
+    public void complete(ReviewResult result) {
+        if (result.failedHunks().isEmpty()) {
+            store.delete(reviewId);
+        }
+    }
+
+    /**
+     * Number of calls answered from the checkpoint so far.
+     */
+    int restoredCalls() {
+        return restored;
+    }
+
+    private static String key(ReviewerType reviewer, String hash, int lineStart) {
+        return reviewer + "/" + hash + "/" + lineStart;
+    }
+}
@@ -0,0 +1,25 @@
+package com.hrpd.codereview.service;
+
+import com.hrpd.codereview.model.CheckpointedCall;
+
+import java.util.List;
+
+/**
+ * Persists per-call results of reviews in progress, so an interrupted review can resume.
+ *
+ * @see ReviewCheckpoint
+ */
+public interface ReviewCheckpointService {
+    List<CheckpointedCall> load(String reviewId);
+    void save(String reviewId, CheckpointedCall call);
+
+    /**
+     * Drops the checkpoint of a review that completed, so a later review of the same id starts afresh.
+     */
+    void delete(String reviewId);
+
+    /**
+     * Drops all checkpoints, e.g. because the standards their findings were grounded in changed.
+     */
+    void deleteAll();
+}
@@ -0,0 +1,110 @@
+package com.hrpd.codereview.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hrpd.codereview.model.CheckpointedCall;
+import com.hrpd.codereview.model.Finding;
+import com.hrpd.codereview.model.ReviewerType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores review checkpoints in {@code review_checkpoint} (see {@code V6__review_checkpoint.sql}),
+ * one row per completed reviewer call with its findings as JSONB.
+ *
+ * <p>A checkpoint is deleted once its review completes. Rows left behind by reviews that never
+ * completed are purged {@code ttl} after they were written, whenever a checkpoint is loaded. Failures are logged
+ * and treated as "nothing recorded": checkpoints only save work and must never fail a review.</p>
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ReviewCheckpointServiceImpl implements ReviewCheckpointService {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<List<Finding>> FINDINGS = new TypeReference<>() {};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+
+    @Override
+    public List<CheckpointedCall> load(String reviewId) {
+        try {
+            int purged = jdbcTemplate.update("DELETE FROM review_checkpoint WHERE created_at < now() - ? * interval '1 second'",
+                    ttl.toSeconds());
+            if (purged > 0) {
+                log.debug("🧹 Purged {} expired review checkpoints", purged);
+            }
+            List<CheckpointedCall> calls = new ArrayList<>();
+            jdbcTemplate.query(
+                    "SELECT reviewer, hunk_hash, line_start, findings::text FROM review_checkpoint WHERE review_id = ?",
+                    rs -> {
+                        // An unreadable row is skipped, so its call runs again
+                        List<Finding> findings = readFindings(rs.getString(4));
+                        if (findings != null) {
+                            calls.add(new CheckpointedCall(ReviewerType.valueOf(rs.getString(1)), rs.getString(2),
+                                    rs.getInt(3), findings));
+                        }
+                    },
+                    reviewId);
+            if (!calls.isEmpty()) {
+                log.info("💾 Loaded checkpoint of review {}: {} completed calls", reviewId, calls.size());
+            }
+            return calls;
+        } catch (DataAccessException | IllegalArgumentException e) {
+            log.warn("⚠️ Could not load checkpoint of review {}: {}", reviewId, e.getMessage());
+            return List.of();
+        }
+    }
+
+    @Override
+    public void save(String reviewId, CheckpointedCall call) {
+        try {
+            jdbcTemplate.update("""
+                    INSERT INTO review_checkpoint (review_id, reviewer, hunk_hash, line_start, findings)
+                    VALUES (?, ?, ?, ?, ?::jsonb)
+                    ON CONFLICT (review_id, reviewer, hunk_hash, line_start)
+                    DO UPDATE SET findings = EXCLUDED.findings, created_at = now()""",
+                    reviewId, call.reviewer().name(), call.hunkHash(), call.lineStart(),
+                    MAPPER.writeValueAsString(call.findings()));
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("⚠️ Could not checkpoint {} on {} of review {}: {}",
+                    call.reviewer(), call.hunkHash(), reviewId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void delete(String reviewId) {
+        try {
+            int deleted = jdbcTemplate.update("DELETE FROM review_checkpoint WHERE review_id = ?", reviewId);
+            log.debug("🧹 Deleted checkpoint of completed review {} ({} calls)", reviewId, deleted);
+        } catch (DataAccessException e) {
+            log.warn("⚠️ Could not delete checkpoint of review {}: {}", reviewId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        try {
+            int deleted = jdbcTemplate.update("DELETE FROM review_checkpoint");
+            log.info("🧹 Dropped {} checkpointed reviewer calls", deleted);
+        } catch (DataAccessException e) {
+            log.warn("⚠️ Could not drop review checkpoints: {}", e.getMessage());
+        }
+    }
+
+    private static List<Finding> readFindings(String json) {
+        try {
+            return MAPPER.readValue(json, FINDINGS);
+        } catch (JsonProcessingException e) {
+            log.warn("⚠️ Ignoring unreadable checkpointed findings: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.hrpd.codereview.service;
+
+import com.hrpd.codereview.model.ReviewResult;
+
+import java.io.IOException;
+
+/**
+ * Posts review findings back to the pull request they belong to.
+ */
+public interface ReviewPublisherService {
+
+    /**
+     * Publishes the findings not posted before.
+     *
+     * @return the number of findings posted by this call
+     */
+    int publish(String repo, int prNumber, ReviewResult result) throws IOException, InterruptedException;
+}
@@ -0,0 +1,195 @@
+package com.hrpd.codereview.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.hrpd.codereview.model.DiffHunk;
+import com.hrpd.codereview.model.Finding;
+import com.hrpd.codereview.model.ReviewResult;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Publishes findings as a single GitHub pull request review with inline comments.
+ *
+ * <p>A finding becomes an inline comment if its lines fall into a hunk of the current PR diff
+ * (new-file side); other findings are listed in the review body. Only when there are more
+ * comments than {@code maxCommentsPerReview} is the review split into several.</p>
+ *
+ * <p>Every comment carries a hidden fingerprint of file, reviewer, title and occurrence, i.e. how
+ * many findings with the same file, reviewer and title come before it in the file. Findings whose
+ * fingerprint is already on the PR are skipped, so repeated runs and moved lines do not post
+ * duplicates, while the same issue on two different lines is posted twice.</p>
+ */
+@Slf4j
+public class ReviewPublisherServiceImpl implements ReviewPublisherService {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Pattern FINGERPRINT = Pattern.compile("<!-- codereview:fp=([0-9a-f]{16}) -->");
+    /** GitHub rejects bodies over 65536 characters. */
+    private static final int MAX_BODY_CHARS = 60_000;
+
+    private final GithubClientService githubClient;
+    private final DiffService diffService;
+    private final int maxCommentsPerReview;
+
+    public ReviewPublisherServiceImpl(GithubClientService githubClient, DiffService diffService,
+                                      int maxCommentsPerReview) {
+        this.githubClient = githubClient;
+        this.diffService = diffService;
+        this.maxCommentsPerReview = maxCommentsPerReview;
+    }
+
+    @Override
+    public int publish(String repo, int prNumber, ReviewResult result) throws IOException, InterruptedException {
+        Set<String> posted = new HashSet<>();
+        for (String body : githubClient.fetchReviewBodies(repo, prNumber)) {
+            Matcher m = FINGERPRINT.matcher(body);
+            while (m.find()) {
+                posted.add(m.group(1));
+            }
+        }
+
+        List<DiffHunk> hunks = diffService.parseUnifiedPatch(githubClient.fetchPrDiff(repo, prNumber));
+        ArrayNode comments = MAPPER.createArrayNode();
+        List<String> outside = new ArrayList<>();
+        int skipped = 0;
+        List<Finding> byLine = new ArrayList<>(result.findings());
+        byLine.sort(Comparator.comparingInt(Finding::lineStart));
+        Map<String, Integer> occurrences = new HashMap<>();
+        for (Finding f : byLine) {
+            String first = fingerprint(f);
+            int occurrence = occurrences.merge(first, 1, Integer::sum) - 1;
+            String fp = occurrence == 0 ? first : fingerprint(f, occurrence);
+            if (!posted.add(fp)) {
+                skipped++;
+                continue;
+            }
+            DiffHunk hunk = hunkFor(hunks, f);
+            if (hunk == null) {
+                outside.add("- `" + f.filePath() + ":" + f.lineStart() + "` " + text(f, fp).replace("\n", "\n  "));
+            } else {
+                comments.add(comment(f, hunk, fp));
+            }
+        }
+        int toPost = comments.size() + outside.size();
+        if (toPost == 0) {
+            log.info("📝 Nothing new to post on {}/{} ({} findings already posted)", repo, prNumber, skipped);
+            return 0;
+        }
+
+        String headSha = githubClient.fetchPrHeadSha(repo, prNumber);
+        int reviews = Math.max(1, (comments.size() + maxCommentsPerReview - 1) / maxCommentsPerReview);
+        for (int i = 0; i < reviews; i++) {
+            ObjectNode review = MAPPER.createObjectNode();
+            review.put("commit_id", headSha);
+            review.put("event", "COMMENT");
+            review.put("body", i == 0 ? body(result, outside) : "Automated review (continued, part " + (i + 1) + " of " + reviews + ")");
+            ArrayNode chunk = review.putArray("comments");
+            for (int c = i * maxCommentsPerReview; c < Math.min(comments.size(), (i + 1) * maxCommentsPerReview); c++) {
+                chunk.add(comments.get(c));
+            }
+            githubClient.submitReview(repo, prNumber, MAPPER.writeValueAsString(review));
+        }
+        log.info("📝 Posted {} findings to {}/{} in {} review(s), {} inline; skipped {} already posted",
+                toPost, repo, prNumber, reviews, comments.size(), skipped);
+        return toPost;
+    }
+
+    /**
+     * The hunk whose new-file range contains the start of the finding, if any.
+     */
+    static DiffHunk hunkFor(List<DiffHunk> hunks, Finding f) {
+        for (DiffHunk h : hunks) {
+            if (h.filePath().equals(f.filePath()) && f.lineStart() >= h.start() && f.lineStart() <= h.end()) {
+                return h;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Fingerprint of the first finding with this file, reviewer and title.
+     */
+    static String fingerprint(Finding f) {
+        return fingerprint(f, 0);
+    }
+
+    /**
+     * Stable across runs and line shifts: file, reviewer, normalized title and the number of
+     * earlier findings in the file with the same three. The first occurrence leaves the number
+     * out, so it matches comments posted before occurrences were counted.
+     */
+    static String fingerprint(Finding f, int occurrence) {
+        String title = f.title() == null ? "" : f.title().toLowerCase().replaceAll("\\s+", " ").trim();
+        String key = f.filePath() + "\0" + f.reviewer() + "\0" + title + (occurrence == 0 ? "" : "\0" + occurrence);
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(md.digest(), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static ObjectNode comment(Finding f, DiffHunk hunk, String fp) {
+        ObjectNode c = MAPPER.createObjectNode();
+        c.put("path", f.filePath());
+        c.put("side", "RIGHT");
+        int end = Math.min(Math.max(f.lineEnd(), f.lineStart()), hunk.end());
+        if (end > f.lineStart()) {
+            c.put("start_line", f.lineStart());
+            c.put("start_side", "RIGHT");
+        }
+        c.put("line", end);
+        c.put("body", truncate(text(f, fp)));
+        return c;
+    }
+
+    private static String text(Finding f, String fp) {
+        // The fingerprint goes first so that truncation never drops it
+        StringBuilder sb = new StringBuilder("<!-- codereview:fp=").append(fp).append(" -->\n")
+                .append("**[").append(f.severity()).append("] ").append(f.title()).append("** _(")
+                .append(f.reviewer()).append(")_");
+        if (f.rationale() != null && !f.rationale().isBlank()) {
+            sb.append("\n\n").append(f.rationale());
+        }
+        if (f.suggestion() != null && !f.suggestion().isBlank()) {
+            sb.append("\n\nSuggestion: ").append(f.suggestion());
+        }
+        return sb.toString();
+    }
+
+    private static String body(ReviewResult result, List<String> outside) {
+        StringBuilder sb = new StringBuilder("Automated review: ").append(result.summary());
+        if (!outside.isEmpty()) {
+            sb.append("\n\nFindings outside the changed lines:\n");
+            for (String line : outside) {
+                if (sb.length() + line.length() > MAX_BODY_CHARS) {
+                    sb.append("\n…");
+                    break;
+                }
+                sb.append('\n').append(line);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String truncate(String s) {
+        return s.length() <= MAX_BODY_CHARS ? s : s.substring(0, MAX_BODY_CHARS) + "…";
+    }
+}
@@ -0,0 +1,27 @@
+package com.hrpd.codereview.service;
+
+import com.hrpd.codereview.model.ReviewResult;
+
+import java.util.Optional;
+
+/**
+ * Schedules PR reviews in the background, e.g. from webhook events.
+ */
+public interface ReviewSchedulerService {
+
+    /**
+     * Schedules a review of the PR at {@code headSha} after the debounce delay. A pending review
+     * of the same PR is replaced, and a running review of an older head is cancelled.
+     */
+    void schedule(String repo, int prNumber, String headSha);
+
+    /**
+     * Drops the pending review of a PR and cancels the running one, e.g. when the PR was closed.
+     */
+    void cancel(String repo, int prNumber);
+
+    /**
+     * Returns the result of the last completed background review of a PR.
+     */
+    Optional<ReviewResult> latest(String repo, int prNumber);
+}
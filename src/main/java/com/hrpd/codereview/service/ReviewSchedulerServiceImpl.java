@@ -0,0 +1,205 @@
+package com.hrpd.codereview.service;
+
+import com.hrpd.codereview.model.ReviewResult;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Debounces and coalesces background PR reviews.
+ *
+ * <p>Each event (re)starts a per-PR timer, so a burst of pushes results in one review of the
+ * last head. While the timer runs, the diff and PR metadata are prefetched into the GitHub
+ * response cache, so the review itself mostly revalidates. A review still running for an older
+ * head is interrupted when a newer head arrives.</p>
+ */
+@Slf4j
+public class ReviewSchedulerServiceImpl implements ReviewSchedulerService, AutoCloseable {
+
+    private static final int MAX_RESULTS = 1024;
+
+    /** Per-PR scheduling state, guarded by {@code slots}. */
+    private static final class Slot {
+        long seq;
+        String headSha;
+        ScheduledFuture<?> pending;
+        FutureTask<?> running;
+        String runningSha;
+    }
+
+    private final PullRequestReviewService reviews;
+    private final GithubClientService githubClient;
+    private final ExecutorService executor;
+    private final Duration debounce;
+    private final boolean parallel;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("review-debounce").daemon().factory());
+    private final Map<String, Slot> slots = new HashMap<>();
+    private final Map<String, ReviewResult> results = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ReviewResult> eldest) {
+            return size() > MAX_RESULTS;
+        }
+    };
+
+    /**
+     * @param reviews service that performs the review
+     * @param githubClient client used to prefetch the PR while the event is debounced
+     * @param executor executor for prefetches and reviews
+     * @param debounce quiet period after the last event of a PR before it is reviewed
+     * @param parallel whether scheduled reviews run the reviewers in parallel
+     */
+    public ReviewSchedulerServiceImpl(PullRequestReviewService reviews, GithubClientService githubClient,
+                                      ExecutorService executor, Duration debounce, boolean parallel) {
+        this.reviews = reviews;
+        this.githubClient = githubClient;
+        this.executor = executor;
+        this.debounce = debounce;
+        this.parallel = parallel;
+    }
+
+    @Override
+    public void schedule(String repo, int prNumber, String headSha) {
+        String key = repo + "#" + prNumber;
+        synchronized (slots) {
+            Slot slot = slots.computeIfAbsent(key, _ -> new Slot());
+            long seq = ++slot.seq;
+            if (slot.pending != null) {
+                slot.pending.cancel(false);
+                log.info("⏱️ Debounced review of {} superseded by {}", key, headSha);
+            }
+            if (slot.running != null && !slot.runningSha.equals(headSha)) {
+                slot.running.cancel(true);
+                log.info("🛑 Cancelling review of {} at {}, superseded by {}", key, slot.runningSha, headSha);
+            }
+            slot.headSha = headSha;
+            slot.pending = timer.schedule(() -> start(key, repo, prNumber, seq),
+                    debounce.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        executor.execute(() -> prefetch(repo, prNumber));
+    }
+
+    @Override
+    public void cancel(String repo, int prNumber) {
+        String key = repo + "#" + prNumber;
+        synchronized (slots) {
+            Slot slot = slots.remove(key);
+            if (slot == null) {
+                return;
+            }
+            if (slot.pending != null) {
+                slot.pending.cancel(false);
+            }
+            if (slot.running != null) {
+                slot.running.cancel(true);
+            }
+            log.info("🛑 Cancelled scheduled review of {}", key);
+        }
+    }
+
+    @Override
+    public Optional<ReviewResult> latest(String repo, int prNumber) {
+        synchronized (results) {
+            return Optional.ofNullable(results.get(repo + "#" + prNumber));
+        }
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * Starts the review once the debounce period of the latest event has passed. Skipped if a
+     * newer event arrived meanwhile; a review of the same head that is still running is not
+     * started twice.
+     */
+    private void start(String key, String repo, int prNumber, long seq) {
+        synchronized (slots) {
+            Slot slot = slots.get(key);
+            if (slot == null || slot.seq != seq) {
+                return;
+            }
+            slot.pending = null;
+            if (slot.running != null) {
+                if (slot.runningSha.equals(slot.headSha)) {
+                    return;
+                }
+                slot.running.cancel(true);
+            }
+            String headSha = slot.headSha;
+            FutureTask<Void> task = new FutureTask<>(() -> run(key, repo, prNumber, headSha), null);
+            slot.running = task;
+            slot.runningSha = headSha;
+            executor.execute(() -> {
+                task.run();
+                finish(key, task);
+            });
+        }
+    }
+
+    private void run(String key, String repo, int prNumber, String headSha) {
+        log.info("🚀 Starting scheduled review of {} at {}", key, headSha);
+        try {
+            ReviewResult result = reviews.review(repo, prNumber, parallel);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            synchronized (results) {
+                results.put(key, result);
+            }
+            log.info("🏁 Scheduled review of {} at {} complete: {}", key, headSha, result.summary());
+        } catch (InterruptedException e) {
+            log.info("🛑 Scheduled review of {} at {} was cancelled", key, headSha);
+        } catch (IOException | RuntimeException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                // The workflow abandons an interrupted review with an exception
+                log.info("🛑 Scheduled review of {} at {} was cancelled", key, headSha);
+                return;
+            }
+            log.error("❌ Scheduled review of {} at {} failed: {}", key, headSha, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Clears the running review and forgets the PR once nothing else is scheduled for it.
+     */
+    private void finish(String key, FutureTask<?> task) {
+        synchronized (slots) {
+            Slot slot = slots.get(key);
+            if (slot == null || slot.running != task) {
+                return;
+            }
+            slot.running = null;
+            slot.runningSha = null;
+            if (slot.pending == null) {
+                slots.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Warms the response cache; a failure only means the review fetches the data itself.
+     */
+    private void prefetch(String repo, int prNumber) {
+        try {
+            githubClient.fetchPrHeadSha(repo, prNumber);
+            githubClient.fetchPrDiff(repo, prNumber);
+        } catch (IOException e) {
+            log.debug("Prefetch of {}/{} failed: {}", repo, prNumber, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
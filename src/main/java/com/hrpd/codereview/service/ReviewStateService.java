@@ -0,0 +1,15 @@
+package com.hrpd.codereview.service;
+
+import com.hrpd.codereview.model.PrReviewState;
+import com.hrpd.codereview.model.ReviewedHunk;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Persists the outcome of pull request reviews for incremental re-reviews.
+ */
+public interface ReviewStateService {
+    Optional<PrReviewState> load(String repo, int prNumber);
+    void save(String repo, int prNumber, String headSha, Collection<ReviewedHunk> hunks);
+}
@@ -0,0 +1,95 @@
+package com.hrpd.codereview.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hrpd.codereview.model.Finding;
+import com.hrpd.codereview.model.PrReviewState;
+import com.hrpd.codereview.model.ReviewedHunk;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Stores review state in {@code pr_review_state} / {@code pr_review_hunk} (see
+ * {@code V5__pr_review_state.sql}). Findings are kept as JSONB per hunk.
+ *
+ * <p>Failures are logged and treated as "no prior review": incremental review is an
+ * optimization and must never fail a review.</p>
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ReviewStateServiceImpl implements ReviewStateService {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<List<Finding>> FINDINGS = new TypeReference<>() {};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+
+    @Override
+    public Optional<PrReviewState> load(String repo, int prNumber) {
+        try {
+            List<String> head = jdbcTemplate.queryForList(
+                    "SELECT head_sha FROM pr_review_state WHERE repo = ? AND pr_number = ?",
+                    String.class, repo, prNumber);
+            if (head.isEmpty()) {
+                return Optional.empty();
+            }
+            Map<String, ReviewedHunk> hunks = new HashMap<>();
+            jdbcTemplate.query(
+                    "SELECT hunk_hash, file_path, line_start, findings::text FROM pr_review_hunk WHERE repo = ? AND pr_number = ?",
+                    rs -> {
+                        String hash = rs.getString(1);
+                        hunks.put(hash, new ReviewedHunk(hash, rs.getString(2), rs.getInt(3), readFindings(rs.getString(4))));
+                    },
+                    repo, prNumber);
+            log.debug("🗂️ Loaded prior review of {}/{}: head={}, {} hunks", repo, prNumber, head.get(0), hunks.size());
+            return Optional.of(new PrReviewState(head.get(0), hunks));
+        } catch (DataAccessException e) {
+            log.warn("⚠️ Could not load review state for {}/{}: {}", repo, prNumber, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void save(String repo, int prNumber, String headSha, Collection<ReviewedHunk> hunks) {
+        try {
+            List<Object[]> rows = new ArrayList<>(hunks.size());
+            for (ReviewedHunk h : hunks) {
+                rows.add(new Object[]{repo, prNumber, h.hash(), h.filePath(), h.lineStart(), MAPPER.writeValueAsString(h.findings())});
+            }
+            tx.executeWithoutResult(_ -> {
+                jdbcTemplate.update("""
+                        INSERT INTO pr_review_state (repo, pr_number, head_sha, reviewed_at) VALUES (?, ?, ?, now())
+                        ON CONFLICT (repo, pr_number) DO UPDATE SET head_sha = EXCLUDED.head_sha, reviewed_at = now()""",
+                        repo, prNumber, headSha);
+                jdbcTemplate.update("DELETE FROM pr_review_hunk WHERE repo = ? AND pr_number = ?", repo, prNumber);
+                jdbcTemplate.batchUpdate("""
+                        INSERT INTO pr_review_hunk (repo, pr_number, hunk_hash, file_path, line_start, findings)
+                        VALUES (?, ?, ?, ?, ?, ?::jsonb) ON CONFLICT DO NOTHING""", rows);
+            });
+            log.info("🗂️ Saved review state for {}/{}: head={}, {} hunks", repo, prNumber, headSha, hunks.size());
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("⚠️ Could not save review state for {}/{}: {}", repo, prNumber, e.getMessage());
+        }
+    }
+
+    private static List<Finding> readFindings(String json) {
+        try {
+            return MAPPER.readValue(json, FINDINGS);
+        } catch (JsonProcessingException e) {
+            log.warn("⚠️ Ignoring unreadable stored findings: {}", e.getMessage());
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.hrpd.codereview.service;
+
+import com.hrpd.codereview.model.DiffHunk;
+import com.hrpd.codereview.model.ReviewTimings;
+import com.hrpd.codereview.model.ReviewerType;
+import com.hrpd.codereview.model.TimedPhase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Collects the {@link ReviewTimings} of one review.
+ *
+ * <p>The caller opens a timer for a review that asked for timings and binds it to its thread;
+ * the workflow and the PR pipeline carry it over to the tasks they start. Services record their
+ * steps on {@link #current()} with {@link System#nanoTime()} timestamps they already take for
+ * their metrics. Without a bound timer {@link #current()} is {@link #OFF}, which records nothing,
+ * so a review that did not ask for timings pays one thread-local lookup per step.</p>
+ *
+ * <p>{@link #record} may be called concurrently.</p>
+ */
+public final class ReviewTimer {
+
+    /**
+     * Records nothing.
+     */
+    public static final ReviewTimer OFF = new ReviewTimer(false);
+
+    private static final ThreadLocal<ReviewTimer> CURRENT = new ThreadLocal<>();
+
+    /**
+     * A binding of a timer to the current thread; closing it restores the previous one.
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private record Span(String phase, ReviewerType reviewer, String target, long queuedAt, long startedAt,
+                        long endedAt) {
+    }
+
+    private final boolean enabled;
+    private final long origin = System.nanoTime();
+    private final Queue<Span> spans = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Opens a timer; the review starts now.
+     */
+    public ReviewTimer() {
+        this(true);
+    }
+
+    private ReviewTimer(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * The timer bound to the current thread, or {@link #OFF}.
+     */
+    public static ReviewTimer current() {
+        ReviewTimer timer = CURRENT.get();
+        return timer == null ? OFF : timer;
+    }
+
+    /**
+     * Whether steps are recorded, i.e. this is not {@link #OFF}.
+     */
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Binds this timer to the current thread until the scope is closed.
+     */
+    public Scope bind() {
+        ReviewTimer previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Runs {@code task} with this timer bound to the current thread.
+     */
+    public <T> T call(Supplier<T> task) {
+        if (!enabled) {
+            return task.get();
+        }
+        try (Scope ignored = bind()) {
+            return task.get();
+        }
+    }
+
+    /**
+     * Records a step that was not queued.
+     *
+     * @param phase the phase name, see {@link TimedPhase#phase()}
+     * @param target what the step worked on, or {@code null}
+     * @param startedAt {@link System#nanoTime()} when it started
+     * @param endedAt {@link System#nanoTime()} when it ended
+     */
+    public void record(String phase, String target, long startedAt, long endedAt) {
+        record(phase, null, target, startedAt, startedAt, endedAt);
+    }
+
+    /**
+     * Records a step.
+     *
+     * @param phase the phase name, see {@link TimedPhase#phase()}
+     * @param reviewer the reviewer it belongs to, or {@code null}
+     * @param target what the step worked on, or {@code null}
+     * @param queuedAt {@link System#nanoTime()} when it was scheduled
+     * @param startedAt {@link System#nanoTime()} when it started executing
+     * @param endedAt {@link System#nanoTime()} when it ended
+     */
+    public void record(String phase, ReviewerType reviewer, String target, long queuedAt, long startedAt,
+                       long endedAt) {
+        if (enabled) {
+            spans.add(new Span(phase, reviewer, target, queuedAt, startedAt, endedAt));
+        }
+    }
+
+    /**
+     * Describes a hunk as a step target, e.g. {@code src/App.java:10-20}.
+     */
+    public static String target(DiffHunk hunk) {
+        return hunk.filePath() + ":" + hunk.start() + "-" + hunk.end();
+    }
+
+    /**
+     * Returns the steps recorded so far, with the critical path marked.
+     */
+    public ReviewTimings timings() {
+        long now = System.nanoTime();
+        List<Span> recorded = new ArrayList<>(spans);
+        Set<Span> critical = criticalPath(recorded);
+        recorded.sort(Comparator.comparingLong(Span::startedAt));
+        List<TimedPhase> phases = new ArrayList<>(recorded.size());
+        for (Span s : recorded) {
+            phases.add(new TimedPhase(s.phase(), s.reviewer(), s.target(), millis(s.startedAt() - origin),
+                    millis(s.startedAt() - s.queuedAt()), millis(s.endedAt() - s.startedAt()), critical.contains(s)));
+        }
+        return new ReviewTimings(millis(now - origin), phases);
+    }
+
+    /**
+     * Walks back from the step that ended last, each time to the latest step that ended before the
+     * current one started executing. Starts only move back along the path, so one pass over the
+     * steps by descending end suffices.
+     */
+    private static Set<Span> criticalPath(List<Span> spans) {
+        Set<Span> path = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Span> byEnd = new ArrayList<>(spans);
+        byEnd.sort(Comparator.comparingLong(Span::endedAt).reversed());
+        Span step = null;
+        for (Span s : byEnd) {
+            if (step == null || s.endedAt() <= step.startedAt()) {
+                path.add(s);
+                step = s;
+            }
+        }
+        return path;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
@@ -1,44 +1,217 @@
 package com.hrpd.codereview.service;
 
-import lombok.RequiredArgsConstructor;
+import com.hrpd.codereview.jfr.RetrievalEvent;
+import com.hrpd.codereview.reviewer.TokenMeter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
  * Top-K semantic search with optional metadata filter by category.
+ *
+ * <p>When an {@link EmbeddingModel} and {@link JdbcTemplate} are supplied, category-filtered
+ * queries bypass the generic vector store filter and are routed to the partial HNSW index of
+ * that category (see {@code V4__category_partial_indexes.sql}). Categories without a dedicated
+ * index fall back to an iterative scan over the global index, so selective filters still return
+ * topK rows. Without those collaborators the service uses the plain vector store filter.</p>
+ *
+ * <p>Retrievals, including the query embedding, are timed in {@value #RETRIEVE_METRIC}, tagged
+ * with the category hint ({@code none} without one), and recorded as {@code retrieval} steps of
+ * the current {@link ReviewTimer} and {@link RetrievalEvent}s. The tokens of the query embedding are
+ * charged to the review's {@link TokenMeter}; the vector store path embeds internally and does not
+ * report them.</p>
  */
 @Slf4j
-@RequiredArgsConstructor
 public class StandardsRetrieverServiceImpl implements StandardsRetrieverService {
 
+    /**
+     * Categories that have a partial HNSW index. Must match the V4 migration predicates.
+     */
+    static final Set<String> INDEXED_CATEGORIES =
+            Set.of("security", "performance", "testing", "concurrency", "general");
+
+    /**
+     * Name of the retrieval timer.
+     */
+    public static final String RETRIEVE_METRIC = "codereview.standards.retrieve";
+
     private final VectorStore vectorStore;
+    private final EmbeddingModel embeddingModel;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry registry;
+
+    public StandardsRetrieverServiceImpl(VectorStore vectorStore) {
+        this(vectorStore, null, null);
+    }
+
+    /**
+     * Creates a retriever that keeps its metrics in a registry of its own, e.g. for tests.
+     */
+    public StandardsRetrieverServiceImpl(VectorStore vectorStore, EmbeddingModel embeddingModel, JdbcTemplate jdbcTemplate) {
+        this(vectorStore, embeddingModel, jdbcTemplate, new SimpleMeterRegistry());
+    }
+
+    public StandardsRetrieverServiceImpl(VectorStore vectorStore, EmbeddingModel embeddingModel, JdbcTemplate jdbcTemplate,
+                                         MeterRegistry registry) {
+        this.vectorStore = vectorStore;
+        this.embeddingModel = embeddingModel;
+        this.jdbcTemplate = jdbcTemplate;
+        this.registry = registry;
+    }
 
     @Override
     public String retrieveContext(String query, int topK, String categoryHint) {
         log.debug("🔍 Retrieving context: query='{}', topK={}, category='{}'", query, topK, categoryHint);
-        
-        SearchRequest req = SearchRequest.builder()
-                .query(query)
-                .topK(topK)
-                .build();
-        if (categoryHint != null && !categoryHint.isBlank()) {
-            req = SearchRequest.builder()
-                    .query(query)
-                    .topK(topK)
-                    .filterExpression("metadata.category == '" + categoryHint + "'")
-                    .build();
-            log.debug("🎯 Using category filter: {}", categoryHint);
+        boolean filtered = categoryHint != null && !categoryHint.isBlank();
+        var event = RetrievalEvent.start(TokenMeter.currentId(), filtered ? categoryHint : null, topK);
+        long start = System.nanoTime();
+
+        List<String> texts = null;
+        if (filtered && embeddingModel != null && jdbcTemplate != null) {
+            texts = searchCategory(query, topK, categoryHint);
+        }
+        if (texts == null) {
+            texts = searchVectorStore(query, topK, filtered ? categoryHint : null);
         }
-        
-        List<Document> docs = vectorStore.similaritySearch(req);
-        String context = docs.stream().map(d -> "- " + d.getText()).collect(Collectors.joining("\n"));
-        
-        log.debug("📚 Retrieved {} documents, context length: {} characters", docs.size(), context.length());
+
+        String context = texts.stream().map(t -> "- " + t).collect(Collectors.joining("\n"));
+        long end = System.nanoTime();
+        ReviewTimer.current().record("retrieval", filtered ? categoryHint : null, start, end);
+        registry.timer(RETRIEVE_METRIC, "category", filtered ? categoryHint : "none")
+                .record(end - start, TimeUnit.NANOSECONDS);
+        event.finish(texts.size(), context.length());
+        log.debug("📚 Retrieved {} documents, context length: {} characters", texts.size(), context.length());
         return context;
     }
+
+    /**
+     * Generic path through the vector store, with the category as a metadata filter expression.
+     */
+    private List<String> searchVectorStore(String query, int topK, String category) {
+        SearchRequest.Builder req = SearchRequest.builder()
+                .query(query)
+                .topK(topK);
+        if (category != null) {
+            req.filterExpression("metadata.category == '" + category + "'");
+            log.debug("🎯 Using category filter: {}", category);
+        }
+        List<Document> docs = vectorStore.similaritySearch(req.build());
+        return docs.stream().map(Document::getText).toList();
+    }
+
+    /**
+     * Category-aware search. Returns {@code null} when the database path fails so the caller
+     * can fall back to the vector store.
+     */
+    private List<String> searchCategory(String query, int topK, String category) {
+        try {
+            String vector = toVectorLiteral(embed(query));
+            if (INDEXED_CATEGORIES.contains(category)) {
+                log.debug("🎯 Routing category '{}' to its partial index", category);
+                return jdbcTemplate.queryForList(partialIndexSql(category), String.class, vector, topK);
+            }
+            log.debug("🎯 No partial index for category '{}', using iterative scan", category);
+            return jdbcTemplate.execute(iterativeScan(vector, category, topK));
+        } catch (DataAccessException e) {
+            log.warn("⚠️ Category search failed for '{}', falling back to vector store filter: {}",
+                    category, e.getMessage());
+            return null;
+        }
+    }
+
+    private float[] embed(String query) {
+        EmbeddingResponse response = embeddingModel.call(new EmbeddingRequest(List.of(query), null));
+        TokenMeter.record("EMBEDDING", response.getMetadata() == null ? null : response.getMetadata().getUsage(),
+                registry);
+        return response.getResult().getOutput();
+    }
+
+    /**
+     * Builds the query for an indexed category. The category is inlined as a literal (it comes
+     * from {@link #INDEXED_CATEGORIES}, never from user input) because the planner only matches a
+     * partial index when it can prove the predicate at plan time, which a bind parameter prevents
+     * once the driver switches to a generic prepared plan.
+     */
+    static String partialIndexSql(String category) {
+        return "SELECT content FROM ai_documents"
+                + " WHERE (metadata->>'category') = '" + category + "'"
+                + " ORDER BY embedding <=> ?::vector LIMIT ?";
+    }
+
+    /**
+     * Runs the filtered query on the global index with {@code hnsw.iterative_scan} enabled, so the
+     * index keeps scanning until enough rows pass the filter. Relaxed ordering can return rows
+     * slightly out of order, hence the materialized re-sort. {@code SET LOCAL} needs a transaction,
+     * which is opened on the borrowed connection and always ended before it is returned.
+     */
+    private static ConnectionCallback<List<String>> iterativeScan(String vector, String category, int topK) {
+        return con -> {
+            boolean autoCommit = con.getAutoCommit();
+            con.setAutoCommit(false);
+            try {
+                try (Statement st = con.createStatement()) {
+                    st.execute("SET LOCAL hnsw.iterative_scan = relaxed_order");
+                }
+                List<String> out = new ArrayList<>();
+                try (PreparedStatement ps = con.prepareStatement("""
+                        WITH relaxed AS MATERIALIZED (
+                          SELECT content, embedding <=> ?::vector AS distance
+                          FROM ai_documents
+                          WHERE (metadata->>'category') = ?
+                          ORDER BY distance
+                          LIMIT ?
+                        )
+                        SELECT content FROM relaxed ORDER BY distance""")) {
+                    ps.setString(1, vector);
+                    ps.setString(2, category);
+                    ps.setInt(3, topK);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            out.add(rs.getString(1));
+                        }
+                    }
+                }
+                con.commit();
+                return out;
+            } catch (SQLException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(autoCommit);
+            }
+        };
+    }
+
+    /**
+     * Formats an embedding as a pgvector text literal, e.g. {@code [0.1,0.2]}.
+     */
+    static String toVectorLiteral(float[] embedding) {
+        StringBuilder sb = new StringBuilder(embedding.length * 12).append('[');
+        for (int i = 0; i < embedding.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(embedding[i]);
+        }
+        return sb.append(']').toString();
+    }
 }
@@ -0,0 +1,338 @@
+package com.hrpd.codereview.service;
+
+import com.hrpd.codereview.model.DiffHunk;
+import com.hrpd.codereview.utils.CharSlice;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Consumer;
+
+/**
+ * Single-pass, line-oriented unified diff parser.
+ *
+ * <p>Each line is classified once by a small state machine; no regular expressions and no
+ * intermediate per-file copies are involved. Two drivers share the state machine:
+ * <ul>
+ *   <li>{@link #parse(CharSequence, Consumer)} walks an in-memory patch by offset and emits
+ *       hunks as {@link CharSlice} views into it.</li>
+ *   <li>{@link #parse(Reader, Consumer)} reads line by line and emits each hunk as soon as the
+ *       next header (or the end of input) shows it is complete, buffering only that hunk.</li>
+ * </ul></p>
+ *
+ * <p>Hunk headers may omit counts ({@code @@ -1 +1 @@}). The old/new counts are tracked so that
+ * body lines starting with {@code ---} or {@code +++} are not mistaken for file headers, while
+ * headers with wrong counts are still tolerated. Paths come from {@code +++ b/...}, falling back
+ * to {@code --- a/...} for deletions ({@code +++ /dev/null}), then to {@code rename to} and the
+ * {@code diff --git} line. Git mbox output ({@code .patch}) is supported: the {@code -- }
+ * signature and the next {@code From <sha>} line end the last hunk of a commit.</p>
+ *
+ * <p>Instances are stateful and must not be shared between threads or reused across patches.</p>
+ */
+final class UnifiedDiffParser {
+
+    /**
+     * How a line relates to hunk boundaries.
+     */
+    enum Line {
+        /** The line is a valid {@code @@} header and starts a new hunk. */
+        HUNK_START,
+        /** The line belongs to the current hunk. */
+        BODY,
+        /** The line is a file or commit header and ends the current hunk, if any. */
+        BOUNDARY,
+        /** The line is outside any hunk and carries no hunk content. */
+        SKIP
+    }
+
+    private static final String DEV_NULL = "/dev/null";
+
+    private String gitPath;
+    private String oldPath;
+    private String newPath;
+    private String renamePath;
+    private boolean inHunk;
+    private int oldLeft;
+    private int newLeft;
+    private int hunkStart;
+    private int hunkEnd;
+    private int hunkCount;
+
+    /**
+     * Parses an in-memory patch, emitting hunks as views over {@code src}.
+     *
+     * @param src the unified diff text
+     * @param sink receives each hunk in patch order
+     * @return the number of hunks emitted
+     */
+    int parse(CharSequence src, Consumer<DiffHunk> sink) {
+        int n = src.length();
+        int pos = 0;
+        int open = -1;
+        String path = null;
+        int start = 0;
+        int end = 0;
+        while (pos < n) {
+            int eol = indexOfNewline(src, pos, n);
+            int next = eol < 0 ? n : eol + 1;
+            int lineEnd = eol < 0 ? n : eol;
+            if (lineEnd > pos && src.charAt(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            Line kind = accept(src, pos, lineEnd);
+            if (kind == Line.HUNK_START || kind == Line.BOUNDARY) {
+                if (open >= 0) {
+                    sink.accept(new DiffHunk(path, start, end, new CharSlice(src, open, pos)));
+                    open = -1;
+                }
+                if (kind == Line.HUNK_START) {
+                    open = pos;
+                    path = currentPath();
+                    start = hunkStart;
+                    end = hunkEnd;
+                }
+            }
+            pos = next;
+        }
+        if (open >= 0) {
+            sink.accept(new DiffHunk(path, start, end, new CharSlice(src, open, n)));
+        }
+        return hunkCount;
+    }
+
+    /**
+     * Parses a patch from a reader, emitting each hunk as soon as it is complete.
+     * Line terminators are normalized to {@code \n}.
+     *
+     * @param reader the unified diff text
+     * @param sink receives each hunk in patch order
+     * @return the number of hunks emitted
+     * @throws IOException if reading fails
+     */
+    int parse(Reader reader, Consumer<DiffHunk> sink) throws IOException {
+        BufferedReader in = reader instanceof BufferedReader br ? br : new BufferedReader(reader, 64 * 1024);
+        StringBuilder buf = new StringBuilder();
+        boolean open = false;
+        String path = null;
+        int start = 0;
+        int end = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            Line kind = accept(line, 0, line.length());
+            if (kind == Line.HUNK_START || kind == Line.BOUNDARY) {
+                if (open) {
+                    sink.accept(new DiffHunk(path, start, end, buf.toString()));
+                    buf.setLength(0);
+                    open = false;
+                }
+                if (kind == Line.HUNK_START) {
+                    open = true;
+                    path = currentPath();
+                    start = hunkStart;
+                    end = hunkEnd;
+                }
+            }
+            if (open) {
+                buf.append(line).append('\n');
+            }
+        }
+        if (open) {
+            sink.accept(new DiffHunk(path, start, end, buf.toString()));
+        }
+        return hunkCount;
+    }
+
+    /**
+     * Classifies one line and updates the parser state.
+     *
+     * @param s the text containing the line
+     * @param from line start offset, inclusive
+     * @param to line end offset, exclusive, without the terminator
+     * @return how the line relates to hunk boundaries
+     */
+    Line accept(CharSequence s, int from, int to) {
+        if (inHunk) {
+            char c = from == to ? ' ' : s.charAt(from);
+            if (c == '\\') {
+                return Line.BODY; // "\ No newline at end of file"
+            }
+            if (oldLeft > 0 || newLeft > 0) {
+                switch (c) {
+                    case ' ' -> { oldLeft--; newLeft--; return Line.BODY; }
+                    case '-' -> { oldLeft--; return Line.BODY; }
+                    case '+' -> { newLeft--; return Line.BODY; }
+                    default -> { }
+                }
+            }
+        }
+        if (startsWith(s, from, to, "@@ ")) {
+            if (parseHunkHeader(s, from, to)) {
+                inHunk = true;
+                hunkCount++;
+                return Line.HUNK_START;
+            }
+            return inHunk ? Line.BODY : Line.SKIP;
+        }
+        if (startsWith(s, from, to, "diff --git ")) {
+            inHunk = false;
+            oldPath = null;
+            newPath = null;
+            renamePath = null;
+            int b = lastIndexOf(s, from, to, " b/");
+            gitPath = b < 0 ? null : s.subSequence(b + 3, to).toString();
+            return Line.BOUNDARY;
+        }
+        if (startsWith(s, from, to, "--- ")) {
+            inHunk = false;
+            oldPath = headerPath(s, from + 4, to, 'a');
+            newPath = null;
+            return Line.BOUNDARY;
+        }
+        if (startsWith(s, from, to, "+++ ")) {
+            inHunk = false;
+            newPath = headerPath(s, from + 4, to, 'b');
+            return Line.BOUNDARY;
+        }
+        if (inHunk) {
+            // Counts are exhausted: an mbox signature or the next commit ends the hunk
+            if ((to - from == 3 && startsWith(s, from, to, "-- ")) || startsWith(s, from, to, "From ")) {
+                inHunk = false;
+                return Line.BOUNDARY;
+            }
+            // Lenient: keep stray lines of hunks whose headers under-count their body
+            return Line.BODY;
+        }
+        if (startsWith(s, from, to, "rename to ")) {
+            renamePath = s.subSequence(from + 10, to).toString();
+        }
+        return Line.SKIP;
+    }
+
+    /**
+     * Parses {@code @@ -a[,b] +c[,d] @@...} and sets the new-file range and remaining counts.
+     */
+    private boolean parseHunkHeader(CharSequence s, int from, int to) {
+        int i = from + 3;
+        if (i >= to || s.charAt(i) != '-') {
+            return false;
+        }
+        int[] cursor = {i + 1};
+        long oldStart = number(s, cursor, to);
+        long oldCount = 1;
+        if (oldStart < 0) {
+            return false;
+        }
+        if (cursor[0] < to && s.charAt(cursor[0]) == ',') {
+            cursor[0]++;
+            oldCount = number(s, cursor, to);
+        }
+        i = cursor[0];
+        if (oldCount < 0 || i + 1 >= to || s.charAt(i) != ' ' || s.charAt(i + 1) != '+') {
+            return false;
+        }
+        cursor[0] = i + 2;
+        long newStart = number(s, cursor, to);
+        long newCount = 1;
+        if (newStart < 0) {
+            return false;
+        }
+        if (cursor[0] < to && s.charAt(cursor[0]) == ',') {
+            cursor[0]++;
+            newCount = number(s, cursor, to);
+        }
+        if (newCount < 0 || !startsWith(s, cursor[0], to, " @@")) {
+            return false;
+        }
+        oldLeft = (int) oldCount;
+        newLeft = (int) newCount;
+        hunkStart = (int) newStart;
+        hunkEnd = newCount == 0 ? (int) newStart : (int) (newStart + newCount - 1);
+        return true;
+    }
+
+    /**
+     * Reads a non-negative decimal at {@code cursor[0]}, advancing it. Returns -1 if there is none.
+     */
+    private static long number(CharSequence s, int[] cursor, int to) {
+        int i = cursor[0];
+        long v = 0;
+        while (i < to && i - cursor[0] < 10) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            v = v * 10 + (c - '0');
+            i++;
+        }
+        if (i == cursor[0]) {
+            return -1;
+        }
+        cursor[0] = i;
+        return v;
+    }
+
+    /**
+     * Extracts the path from a {@code ---}/{@code +++} header, dropping the {@code a/}/{@code b/}
+     * prefix and any tab-separated timestamp. Returns {@code null} for {@code /dev/null}.
+     */
+    private static String headerPath(CharSequence s, int from, int to, char prefix) {
+        int end = from;
+        while (end < to && s.charAt(end) != '\t') {
+            end++;
+        }
+        if (end - from == DEV_NULL.length() && startsWith(s, from, end, DEV_NULL)) {
+            return null;
+        }
+        if (end - from > 2 && s.charAt(from) == prefix && s.charAt(from + 1) == '/') {
+            from += 2;
+        }
+        return s.subSequence(from, end).toString();
+    }
+
+    private String currentPath() {
+        if (newPath != null) {
+            return newPath;
+        }
+        if (renamePath != null) {
+            return renamePath;
+        }
+        if (oldPath != null) {
+            return oldPath;
+        }
+        return gitPath != null ? gitPath : "unknown";
+    }
+
+    private static boolean startsWith(CharSequence s, int from, int to, String prefix) {
+        int len = prefix.length();
+        if (to - from < len) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            if (s.charAt(from + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int lastIndexOf(CharSequence s, int from, int to, String needle) {
+        for (int i = to - needle.length(); i >= from; i--) {
+            if (startsWith(s, i, to, needle)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOfNewline(CharSequence s, int from, int to) {
+        if (s instanceof String str) {
+            return str.indexOf('\n', from);
+        }
+        for (int i = from; i < to; i++) {
+            if (s.charAt(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,69 @@
+package com.hrpd.codereview.utils;
+
+import java.util.Objects;
+
+/**
+ * Read-only {@link CharSequence} view over a range of another character sequence.
+ *
+ * <p>Used by the diff parser to expose hunks as offsets into the original patch
+ * instead of substring copies. Nothing is copied until {@link #toString()} is called,
+ * which delegates to the source so that sources with their own decoding (for example
+ * memory-mapped patches) materialize the text themselves.</p>
+ *
+ * <p>Equality is identity-based, as for most {@code CharSequence} implementations;
+ * compare content with {@link CharSequence#compare(CharSequence, CharSequence)}.</p>
+ */
+public final class CharSlice implements CharSequence {
+
+    private final CharSequence source;
+    private final int from;
+    private final int to;
+
+    /**
+     * @param source the sequence to view
+     * @param from start offset in {@code source}, inclusive
+     * @param to end offset in {@code source}, exclusive
+     */
+    public CharSlice(CharSequence source, int from, int to) {
+        this.source = Objects.requireNonNull(source, "source");
+        Objects.checkFromToIndex(from, to, source.length());
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * @return start offset of this view in its source
+     */
+    public int from() {
+        return from;
+    }
+
+    /**
+     * @return end offset (exclusive) of this view in its source
+     */
+    public int to() {
+        return to;
+    }
+
+    @Override
+    public int length() {
+        return to - from;
+    }
+
+    @Override
+    public char charAt(int index) {
+        Objects.checkIndex(index, to - from);
+        return source.charAt(from + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        Objects.checkFromToIndex(start, end, to - from);
+        return new CharSlice(source, from + start, from + end);
+    }
+
+    @Override
+    public String toString() {
+        return source.subSequence(from, to).toString();
+    }
+}
@@ -0,0 +1,126 @@
+package com.hrpd.codereview.utils;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A counting semaphore shared by several callers ("lanes", e.g. one per PR under review) that
+ * hands out freed permits round-robin across the lanes with waiters.
+ *
+ * <p>With a plain semaphore a PR with thousands of hunks would queue all its calls ahead of a
+ * small PR submitted a moment later; here the small PR gets every other permit and finishes
+ * early, while the total number of calls in flight stays bounded.</p>
+ */
+public final class FairPermits {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Object, ArrayDeque<CountDownLatch>> waiting = new HashMap<>();
+    /** Lanes with waiters, in the order they are served next. */
+    private final ArrayDeque<Object> ring = new ArrayDeque<>();
+    private final int permits;
+    private int available;
+
+    public FairPermits(int permits) {
+        this.permits = permits;
+        this.available = permits;
+    }
+
+    /**
+     * Takes a permit for {@code lane}, waiting for its turn if none is free.
+     */
+    public void acquire(Object lane) throws InterruptedException {
+        CountDownLatch ticket;
+        lock.lock();
+        try {
+            if (available > 0 && ring.isEmpty()) {
+                available--;
+                return;
+            }
+            ticket = new CountDownLatch(1);
+            ArrayDeque<CountDownLatch> queue = waiting.computeIfAbsent(lane, _ -> new ArrayDeque<>());
+            if (queue.isEmpty()) {
+                ring.addLast(lane);
+            }
+            queue.addLast(ticket);
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            ticket.await();
+        } catch (InterruptedException e) {
+            lock.lock();
+            try {
+                if (ticket.getCount() == 0) {
+                    // Granted while being interrupted: pass the permit on
+                    handOver();
+                } else {
+                    ArrayDeque<CountDownLatch> queue = waiting.get(lane);
+                    queue.remove(ticket);
+                    if (queue.isEmpty()) {
+                        waiting.remove(lane);
+                        ring.remove(lane);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a permit, granting it to the next lane in turn.
+     */
+    public void release() {
+        lock.lock();
+        try {
+            handOver();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Permits currently taken.
+     */
+    public int inUse() {
+        lock.lock();
+        try {
+            return permits - available;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lanes currently waiting for a permit.
+     */
+    public int waitingLanes() {
+        lock.lock();
+        try {
+            return ring.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void handOver() {
+        Object lane = ring.pollFirst();
+        if (lane == null) {
+            available++;
+            return;
+        }
+        ArrayDeque<CountDownLatch> queue = waiting.get(lane);
+        CountDownLatch next = queue.pollFirst();
+        if (queue.isEmpty()) {
+            waiting.remove(lane);
+        } else {
+            ring.addLast(lane);
+        }
+        next.countDown();
+    }
+}
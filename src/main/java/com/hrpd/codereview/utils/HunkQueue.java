@@ -0,0 +1,144 @@
+package com.hrpd.codereview.utils;
+
+import com.hrpd.codereview.model.DiffHunk;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Bounded hand-off of diff hunks from one producer (a parser reading a download) to one consumer
+ * (the review scheduler).
+ *
+ * <p>{@link #accept(DiffHunk)} blocks while the queue is full, so a slow consumer stops the
+ * producer from reading further, which in turn stops the socket from being drained. The producer
+ * ends the stream with {@link #complete()} or {@link #fail(Throwable)}; the consumer iterates until
+ * the end and sees a producer failure rethrown from {@link Iterator#hasNext()}.</p>
+ *
+ * <p>The hunks waiting are reported by the {@value #DEPTH_METRIC} gauge of the registry a queue
+ * was created with, summed over the queues of that registry only.</p>
+ */
+public final class HunkQueue implements Consumer<DiffHunk>, Iterable<DiffHunk> {
+
+    /**
+     * Name of the gauge of hunks waiting in the queues of a registry.
+     */
+    public static final String DEPTH_METRIC = "codereview.streaming.queue.depth";
+
+    private static final DiffHunk END = new DiffHunk("", 0, 0, "");
+
+    /** Queues not yet garbage collected, by the registry whose depth gauge sums them. */
+    private static final Map<MeterRegistry, Set<HunkQueue>> QUEUES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final BlockingQueue<DiffHunk> queue;
+    private volatile Throwable failure;
+
+    /**
+     * @param capacity hunks the queue holds before the producer blocks
+     * @param registry registry of the depth gauge
+     */
+    public HunkQueue(int capacity, MeterRegistry registry) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        QUEUES.computeIfAbsent(registry, r -> {
+            Set<HunkQueue> queues = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+            Gauge.builder(DEPTH_METRIC, queues, HunkQueue::depth).register(r);
+            return queues;
+        }).add(this);
+    }
+
+    /**
+     * Enqueues a hunk, blocking while the queue is full.
+     *
+     * @throws IllegalStateException if the producer is interrupted while waiting
+     */
+    @Override
+    public void accept(DiffHunk hunk) {
+        put(hunk);
+    }
+
+    /**
+     * Marks the end of the stream.
+     */
+    public void complete() {
+        put(END);
+    }
+
+    /**
+     * Marks the end of the stream with a producer failure, rethrown to the consumer.
+     *
+     * @param error why the producer stopped
+     */
+    public void fail(Throwable error) {
+        failure = error;
+        put(END);
+    }
+
+    /**
+     * Returns the single consuming iterator. Iterating more than once is not supported.
+     */
+    @Override
+    public Iterator<DiffHunk> iterator() {
+        return new Iterator<>() {
+            private DiffHunk next;
+            private boolean done;
+
+            @Override
+            public boolean hasNext() {
+                if (next != null) {
+                    return true;
+                }
+                if (done) {
+                    return false;
+                }
+                try {
+                    DiffHunk h = queue.take();
+                    if (h == END) {
+                        done = true;
+                        if (failure != null) {
+                            throw new IllegalStateException("Hunk producer failed: " + failure.getMessage(), failure);
+                        }
+                        return false;
+                    }
+                    next = h;
+                    return true;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for hunks", e);
+                }
+            }
+
+            @Override
+            public DiffHunk next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                DiffHunk h = next;
+                next = null;
+                return h;
+            }
+        };
+    }
+
+    private static double depth(Set<HunkQueue> queues) {
+        synchronized (queues) {
+            return queues.stream().mapToLong(q -> q.queue.stream().filter(h -> h != END).count()).sum();
+        }
+    }
+
+    private void put(DiffHunk hunk) {
+        try {
+            queue.put(hunk);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing hunks", e);
+        }
+    }
+}
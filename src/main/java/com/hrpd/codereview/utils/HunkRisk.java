@@ -0,0 +1,78 @@
+package com.hrpd.codereview.utils;
+
+import com.hrpd.codereview.model.DiffHunk;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cheap estimate of how likely a hunk is to contain a serious finding, used to review the
+ * riskiest hunks first when only the worst finding matters (gate mode).
+ *
+ * <p>The score is the number of added lines plus a bonus for each added line touching
+ * security-sensitive APIs or data, scaled down for tests and documentation. It only orders the
+ * work; every hunk is still reviewed unless the gate trips.</p>
+ */
+public final class HunkRisk {
+
+    private static final Pattern SENSITIVE = Pattern.compile(
+            "password|passwd|secret|token|credential|auth|permission|admin|sql|query|exec|runtime|process"
+                    + "|crypt|cipher|hash|random|deserializ|readobject|eval|script|redirect|upload|path|file"
+                    + "|sanitiz|escape|html|cookie|session|lock|synchronized|thread");
+
+    /**
+     * Test sources: files under a test directory, or named by a common test convention
+     * ({@code FooTest.java}, {@code foo_test.go}, {@code test_foo.py}, {@code foo.spec.ts}, ...).
+     * Matched by segment and suffix, so {@code latest.java} or {@code contest.py} are not tests.
+     */
+    private static final Pattern TEST_PATH = Pattern.compile(
+            "(^|/)(tests?|__tests__|spec)/"
+                    + "|(Tests?|_test|_spec|\\.test|\\.spec)\\.[^/.]+$"
+                    + "|(^|/)(test_|Test[A-Z])[^/]*$");
+
+    private static final int SENSITIVE_BONUS = 10;
+
+    private HunkRisk() {
+    }
+
+    public static int score(DiffHunk hunk) {
+        int added = 0;
+        int sensitive = 0;
+        for (String line : hunk.patch().split("\n")) {
+            if (line.startsWith("+") && !line.startsWith("+++")) {
+                added++;
+                Matcher m = SENSITIVE.matcher(line.toLowerCase(Locale.ROOT));
+                if (m.find()) {
+                    sensitive++;
+                }
+            }
+        }
+        int score = added + SENSITIVE_BONUS * sensitive;
+        String file = hunk.filePath() == null ? "" : hunk.filePath();
+        String path = file.toLowerCase(Locale.ROOT);
+        if (path.endsWith(".md") || path.endsWith(".txt") || path.endsWith(".adoc")) {
+            return score / 10;
+        }
+        if (TEST_PATH.matcher(file).find()) {
+            return score / 4;
+        }
+        return score;
+    }
+
+    /**
+     * Returns the hunks ordered by descending {@link #score}, keeping diff order among equals.
+     */
+    public static List<DiffHunk> riskiestFirst(Collection<DiffHunk> hunks) {
+        record Scored(DiffHunk hunk, int score) {
+        }
+        return hunks.stream()
+                .map(h -> new Scored(h, score(h)))
+                .sorted(Comparator.comparingInt(Scored::score).reversed())
+                .map(Scored::hunk)
+                .toList();
+    }
+}
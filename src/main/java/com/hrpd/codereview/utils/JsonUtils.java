@@ -1,21 +1,28 @@
 package com.hrpd.codereview.utils;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.hrpd.codereview.model.Finding;
 import com.hrpd.codereview.model.ReviewerType;
 import com.hrpd.codereview.model.Severity;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Utility class for parsing JSON responses from AI models into structured Finding objects.
- * 
+ *
  * <p>This class handles the complex task of extracting valid JSON from AI responses
  * that may contain explanatory text, markdown formatting, or other non-JSON content.
  * It provides robust parsing with fallback mechanisms for common AI response formats.</p>
- * 
+ *
  * <p>The parser is designed to handle various response formats including:
  * <ul>
  *   <li>Pure JSON responses</li>
@@ -23,209 +30,368 @@ import java.util.List;
  *   <li>Mixed content with JSON embedded in explanatory text</li>
  *   <li>Responses with multiple code blocks</li>
  * </ul></p>
+ *
+ * <p>Responses are read in a single pass with Jackson's streaming {@link JsonParser}: once the
+ * start of the JSON is located, each element of the {@code findings} array is bound straight to
+ * a {@link Finding} and the parser stops at the end of the array, so no tree is built and text
+ * after the JSON is never read. Parses given a {@link MeterRegistry} are counted there in
+ * {@code codereview.findings.parse}, tagged with the reviewer and one of the outcomes {@code ok},
+ * {@code no_findings}, {@code truncated} or {@code invalid}, and timed per reviewer in
+ * {@code codereview.findings.parse.duration}.</p>
  */
+@Slf4j
 public class JsonUtils {
-    
+
+    /**
+     * Name of the parse outcome counter.
+     */
+    static final String PARSE_METRIC = "codereview.findings.parse";
+
+    /**
+     * Name of the parse duration timer.
+     */
+    static final String PARSE_TIME_METRIC = "codereview.findings.parse.duration";
+
     /**
-     * Jackson ObjectMapper instance for JSON parsing.
-     * Configured with default settings suitable for AI response parsing.
+     * Jackson factory for streaming parsers, configured with default settings.
      */
-    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final JsonFactory FACTORY = new JsonFactory();
 
     /**
-     * Extracts valid JSON content from AI responses that may contain explanatory text.
-     * 
-     * <p>This method handles various response formats commonly produced by AI models:
+     * Finds where the JSON starts in an AI response that may contain explanatory text.
+     *
+     * <p>The candidates are tried in this order:
      * <ul>
-     *   <li>JSON wrapped in markdown code blocks (```json ... ```)</li>
-     *   <li>JSON in generic code blocks (``` ... ```)</li>
-     *   <li>JSON embedded within explanatory text</li>
-     *   <li>Pure JSON responses</li>
+     *   <li>The body of a {@code ```json} code block, even without a closing fence</li>
+     *   <li>The body of the first generic {@code ```} code block, if it starts with { or [</li>
+     *   <li>The first { or [ in the response</li>
      * </ul></p>
-     * 
-     * <p>The extraction process uses a state machine to properly handle nested
-     * JSON structures, string escaping, and bracket matching to ensure only
-     * complete, valid JSON is extracted.</p>
-     * 
+     *
+     * <p>Only the start is located; the streaming parser finds the end of the JSON itself, which
+     * also lets it read as much as possible of a response that was cut off.</p>
+     *
      * @param response the raw AI response that may contain JSON
-     * @return the extracted JSON string, or the original response if no JSON is found
+     * @return the offset of the JSON, or -1 if the response contains none
      */
-    private static String extractJsonFromResponse(String response) {
-        String cleaned = response.trim();
-        
-        // First, try to find JSON within markdown code blocks (```json ... ```)
-        if (cleaned.contains("```json")) {
-            int start = cleaned.indexOf("```json") + 7;
-            int end = cleaned.indexOf("```", start);
-            if (end > start) {
-                return cleaned.substring(start, end).trim();
-            }
-        }
-        
-        // Try generic code blocks (``` ... ```) that might contain JSON
-        if (cleaned.contains("```")) {
-            int start = cleaned.indexOf("```") + 3;
-            int end = cleaned.indexOf("```", start);
-            if (end > start) {
-                String content = cleaned.substring(start, end).trim();
-                // Check if this looks like JSON (starts with { or [)
-                if (content.startsWith("{") || content.startsWith("[")) {
-                    return content;
-                }
-            }
+    static int findJsonStart(String response) {
+        int fence = response.indexOf("```json");
+        if (fence >= 0) {
+            return fence + 7;
         }
-        
-        // Try to find JSON object/array embedded in the response text
-        int jsonStart = -1;
-        int jsonEnd = -1;
-        
-        // Look for the start of a JSON object or array
-        for (int i = 0; i < cleaned.length(); i++) {
-            char c = cleaned.charAt(i);
-            if (c == '{' || c == '[') {
-                jsonStart = i;
-                break;
+        fence = response.indexOf("```");
+        if (fence >= 0) {
+            int body = skipWhitespace(response, fence + 3);
+            if (body < response.length() && isJsonOpener(response.charAt(body))
+                    && response.indexOf("```", body) > body) {
+                return body;
             }
         }
-        
-        if (jsonStart >= 0) {
-            // Find the matching closing brace/bracket using a state machine
-            // This properly handles nested JSON structures and string escaping
-            int braceCount = 0;
-            boolean inString = false;
-            boolean escaped = false;
-            
-            for (int i = jsonStart; i < cleaned.length(); i++) {
-                char c = cleaned.charAt(i);
-                
-                // Handle escaped characters in strings
-                if (escaped) {
-                    escaped = false;
-                    continue;
-                }
-                
-                // Detect escape character
-                if (c == '\\') {
-                    escaped = true;
-                    continue;
-                }
-                
-                // Toggle string state on unescaped quotes
-                if (c == '"' && !escaped) {
-                    inString = !inString;
-                    continue;
-                }
-                
-                // Only count braces/brackets when not inside a string
-                if (!inString) {
-                    if (c == '{' || c == '[') {
-                        braceCount++;
-                    } else if (c == '}' || c == ']') {
-                        braceCount--;
-                        if (braceCount == 0) {
-                            jsonEnd = i + 1;
-                            break;
-                        }
-                    }
-                }
-            }
-            
-            if (jsonEnd > jsonStart) {
-                return cleaned.substring(jsonStart, jsonEnd).trim();
+        for (int i = 0; i < response.length(); i++) {
+            if (isJsonOpener(response.charAt(i))) {
+                return i;
             }
         }
-        
-        // If no JSON found, return the original cleaned string
-        // This allows the parser to attempt parsing the entire response
-        return cleaned;
+        return -1;
     }
 
     /**
      * Parses a JSON response from an AI model into a list of Finding objects.
-     * 
+     *
      * <p>This method handles the complete parsing pipeline:
      * <ol>
-     *   <li>Extracts valid JSON from potentially mixed-content AI responses</li>
-     *   <li>Parses the JSON structure to find the "findings" array</li>
-     *   <li>Converts each finding object to a Finding record</li>
+     *   <li>Locates the JSON in potentially mixed-content AI responses</li>
+     *   <li>Streams to the "findings" array (a bare array of findings is accepted too)</li>
+     *   <li>Binds each finding object to a Finding record as it is read</li>
      *   <li>Handles missing or invalid data with sensible defaults</li>
      *   <li>Provides filePath fallback when AI responses are incomplete</li>
      * </ol></p>
-     * 
+     *
      * <p>The method is robust against various AI response formats and will
-     * return an empty list rather than throwing exceptions for malformed JSON.</p>
-     * 
+     * return an empty list rather than throwing exceptions for malformed JSON.
+     * If the response breaks off or turns malformed part way, the findings that
+     * were complete up to that point are returned.</p>
+     *
      * @param json the JSON response from the AI model
      * @param type the type of reviewer that generated this response
      * @param filePath fallback file path to use when AI response doesn't include one
+     * @param registry registry for the parse metrics
      * @return a list of Finding objects, or an empty list if parsing fails
      */
+    public static List<Finding> parseFindings(String json, ReviewerType type, String filePath,
+                                              MeterRegistry registry) {
+        return parse(json, type, filePath, "findings", JsonUtils::readFinding, registry);
+    }
+
+    /**
+     * Parses findings like {@link #parseFindings(String, ReviewerType, String, MeterRegistry)},
+     * without recording metrics.
+     */
     public static List<Finding> parseFindings(String json, ReviewerType type, String filePath) {
+        return parse(json, type, filePath, "findings", JsonUtils::readFinding, null);
+    }
+
+    /**
+     * Parses a response in the compact wire format into Finding objects.
+     *
+     * <p>The compact format exists to cut completion tokens: findings are listed under
+     * {@code "f"}, each with one-letter keys ({@code t} title, {@code r} rationale,
+     * {@code s} suggestion, {@code v} severity, {@code p} file path, {@code l} first line,
+     * {@code e} last line). The severity is its initial ({@code B}, {@code H}, {@code M},
+     * {@code L} or {@code I}) and an empty or missing path means the reviewed file.
+     * Extraction, truncation handling and parse metrics are the same as for
+     * {@link #parseFindings(String, ReviewerType, String, MeterRegistry)}.</p>
+     *
+     * @param json the compact JSON response from the AI model
+     * @param type the type of reviewer that generated this response
+     * @param filePath path of the reviewed file, used when a finding has no path
+     * @param registry registry for the parse metrics
+     * @return a list of Finding objects, or an empty list if parsing fails
+     */
+    public static List<Finding> parseCompactFindings(String json, ReviewerType type, String filePath,
+                                                     MeterRegistry registry) {
+        return parse(json, type, filePath, "f", JsonUtils::readCompactFinding, registry);
+    }
+
+    /**
+     * Parses compact findings like
+     * {@link #parseCompactFindings(String, ReviewerType, String, MeterRegistry)}, without recording
+     * metrics.
+     */
+    public static List<Finding> parseCompactFindings(String json, ReviewerType type, String filePath) {
+        return parse(json, type, filePath, "f", JsonUtils::readCompactFinding, null);
+    }
+
+    /**
+     * Binds one finding object; the parser stands on its START_OBJECT and is left on its END_OBJECT.
+     */
+    @FunctionalInterface
+    private interface FindingReader {
+        Finding read(JsonParser p, ReviewerType type, String fallbackFilePath) throws IOException;
+    }
+
+    private static List<Finding> parse(String json, ReviewerType type, String filePath,
+                                       String arrayField, FindingReader reader, MeterRegistry registry) {
+        long start = System.nanoTime();
         try {
-            // Clean the JSON string by removing markdown code blocks and extracting JSON from mixed content
-            String cleanedJson = extractJsonFromResponse(json);
-            
-            // Parse the JSON and extract the findings array
-            JsonNode root = MAPPER.readTree(cleanedJson);
-            JsonNode arr = root.path("findings");
-            if (!arr.isArray()) {
-                System.err.println("No findings array found in JSON: " + cleanedJson);
-                return List.of();
+            return bind(json, type, filePath, arrayField, reader, registry);
+        } finally {
+            if (registry != null) {
+                registry.timer(PARSE_TIME_METRIC, "reviewer", String.valueOf(type))
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             }
+        }
+    }
 
-            // Convert each JSON finding object to a Finding record
-            List<Finding> out = new ArrayList<>();
-            for (JsonNode n : arr) {
-                // Parse severity with fallback to INFO for invalid values
-                String sevText = n.path("severity").asText("INFO").toUpperCase();
-                Severity sev;
-                try {
-                    sev = Severity.valueOf(sevText);
-                } catch (Exception e) {
-                    sev = Severity.INFO;
-                }
+    private static List<Finding> bind(String json, ReviewerType type, String filePath,
+                                      String arrayField, FindingReader reader, MeterRegistry registry) {
+        List<Finding> out = new ArrayList<>();
+        int start = json == null ? -1 : findJsonStart(json);
+        if (start < 0) {
+            record(registry, type, "invalid", json, null);
+            return out;
+        }
 
-                // Use the provided filePath if the AI returned an empty one
-                // This handles cases where AI responses don't include file paths
-                String findingFilePath = n.path("filePath").asText("");
-                if (findingFilePath.isEmpty() && filePath != null && !filePath.isEmpty()) {
-                    findingFilePath = filePath;
+        try (StringReader in = new StringReader(json)) {
+            in.skip(start);
+            try (JsonParser p = FACTORY.createParser(in)) {
+                if (!toFindingsArray(p, arrayField)) {
+                    record(registry, type, "no_findings", json, null);
+                    return out;
                 }
-                
-                out.add(new Finding(
-                        findingFilePath,
-                        n.path("lineStart").asInt(0),
-                        n.path("lineEnd").asInt(0),
-                        n.path("title").asText(""),
-                        n.path("rationale").asText(""),
-                        n.path("suggestion").asText(""),
-                        sev,
-                        type
-                ));
+                JsonToken t;
+                while ((t = p.nextToken()) != JsonToken.END_ARRAY) {
+                    if (t == null) {
+                        throw new IOException("Unexpected end of findings array");
+                    }
+                    if (t == JsonToken.START_OBJECT) {
+                        out.add(reader.read(p, type, filePath));
+                    } else {
+                        p.skipChildren();
+                    }
+                }
+                record(registry, type, "ok", json, null);
+                return out;
             }
+        } catch (IOException e) {
+            record(registry, type, out.isEmpty() ? "invalid" : "truncated", json, e);
             return out;
-        } catch (Exception e) {
-            System.err.println("Failed to parse JSON: " + json);
-            System.err.println("Error: " + e.getMessage());
-            e.printStackTrace();
-            return List.of();
         }
     }
 
     /**
      * Backward-compatible method for parsing findings without a filePath fallback.
-     * 
+     *
      * <p>This method is provided for compatibility with existing code that doesn't
      * need filePath fallback functionality. It delegates to the main parsing method
      * with a null filePath parameter.</p>
-     * 
+     *
      * @param json the JSON response from the AI model
      * @param type the type of reviewer that generated this response
      * @return a list of Finding objects, or an empty list if parsing fails
-     * 
+     *
      * @see #parseFindings(String, ReviewerType, String)
      */
     public static List<Finding> parseFindings(String json, ReviewerType type) {
         return parseFindings(json, type, null);
     }
+
+    /**
+     * Advances the parser into the findings array: the top-level field {@code arrayField} of an
+     * object, or a top-level array. Other fields are skipped without being bound.
+     *
+     * @return {@code true} if the parser now stands on the array's START_ARRAY token
+     */
+    private static boolean toFindingsArray(JsonParser p, String arrayField) throws IOException {
+        JsonToken root = p.nextToken();
+        if (root == JsonToken.START_ARRAY) {
+            return true;
+        }
+        if (root != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if (arrayField.equals(field)) {
+                return value == JsonToken.START_ARRAY;
+            }
+            p.skipChildren();
+        }
+        return false;
+    }
+
+    /**
+     * Binds the object the parser stands on to a Finding, consuming it up to its END_OBJECT.
+     */
+    private static Finding readFinding(JsonParser p, ReviewerType type, String fallbackFilePath) throws IOException {
+        String findingFilePath = "";
+        int lineStart = 0;
+        int lineEnd = 0;
+        String title = "";
+        String rationale = "";
+        String suggestion = "";
+        String sevText = "INFO";
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "filePath" -> findingFilePath = text(p);
+                case "lineStart" -> lineStart = p.getValueAsInt(0);
+                case "lineEnd" -> lineEnd = p.getValueAsInt(0);
+                case "title" -> title = text(p);
+                case "rationale" -> rationale = text(p);
+                case "suggestion" -> suggestion = text(p);
+                case "severity" -> sevText = text(p);
+                default -> p.skipChildren();
+            }
+        }
+        if (p.currentToken() != JsonToken.END_OBJECT) {
+            // Only reachable on malformed input that the parser did not reject itself
+            throw new IOException("Finding object not closed");
+        }
+
+        // Parse severity with fallback to INFO for invalid values
+        Severity sev;
+        try {
+            sev = Severity.valueOf(sevText.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            sev = Severity.INFO;
+        }
+
+        // Use the provided filePath if the AI returned an empty one
+        // This handles cases where AI responses don't include file paths
+        if (findingFilePath.isEmpty() && fallbackFilePath != null && !fallbackFilePath.isEmpty()) {
+            findingFilePath = fallbackFilePath;
+        }
+        return new Finding(findingFilePath, lineStart, lineEnd, title, rationale, suggestion, sev, type);
+    }
+
+    /**
+     * Binds a compact finding object; see {@link #parseCompactFindings}.
+     */
+    private static Finding readCompactFinding(JsonParser p, ReviewerType type, String fallbackFilePath) throws IOException {
+        String findingFilePath = "";
+        int lineStart = 0;
+        int lineEnd = 0;
+        String title = "";
+        String rationale = "";
+        String suggestion = "";
+        Severity sev = Severity.INFO;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field.length() == 1 ? field.charAt(0) : '\0') {
+                case 't' -> title = text(p);
+                case 'r' -> rationale = text(p);
+                case 's' -> suggestion = text(p);
+                case 'v' -> sev = severityInitial(text(p));
+                case 'p' -> findingFilePath = text(p);
+                case 'l' -> lineStart = p.getValueAsInt(0);
+                case 'e' -> lineEnd = p.getValueAsInt(0);
+                default -> p.skipChildren();
+            }
+        }
+        if (p.currentToken() != JsonToken.END_OBJECT) {
+            throw new IOException("Finding object not closed");
+        }
+        if (findingFilePath.isEmpty() && fallbackFilePath != null) {
+            findingFilePath = fallbackFilePath;
+        }
+        return new Finding(findingFilePath, lineStart, lineEnd, title, rationale, suggestion, sev, type);
+    }
+
+    /**
+     * Severity from its initial (full names work too), falling back to INFO.
+     */
+    private static Severity severityInitial(String s) {
+        if (s.isEmpty()) {
+            return Severity.INFO;
+        }
+        return switch (Character.toUpperCase(s.charAt(0))) {
+            case 'B' -> Severity.BLOCKER;
+            case 'H' -> Severity.HIGH;
+            case 'M' -> Severity.MEDIUM;
+            case 'L' -> Severity.LOW;
+            default -> Severity.INFO;
+        };
+    }
+
+    /**
+     * Scalar value as text; objects and arrays are skipped and read as empty.
+     */
+    private static String text(JsonParser p) throws IOException {
+        if (p.currentToken().isStructStart()) {
+            p.skipChildren();
+            return "";
+        }
+        String s = p.getValueAsString();
+        return s == null ? "" : s;
+    }
+
+    private static void record(MeterRegistry registry, ReviewerType type, String outcome, String json,
+                               IOException e) {
+        if (registry != null) {
+            registry.counter(PARSE_METRIC, "reviewer", String.valueOf(type), "outcome", outcome).increment();
+        }
+        if (!"ok".equals(outcome)) {
+            log.warn("⚠️ {} response parsed as {}{} ({} chars)", type, outcome,
+                    e == null ? "" : ": " + message(e), json == null ? 0 : json.length());
+            log.debug("Unparsed {} response: {}", type, json);
+        }
+    }
+
+    private static String message(IOException e) {
+        return e instanceof JsonProcessingException jpe ? jpe.getOriginalMessage() : e.getMessage();
+    }
+
+    private static int skipWhitespace(String s, int i) {
+        while (i < s.length() && Character.isWhitespace(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isJsonOpener(char c) {
+        return c == '{' || c == '[';
+    }
 }
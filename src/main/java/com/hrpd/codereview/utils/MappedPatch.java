@@ -0,0 +1,131 @@
+package com.hrpd.codereview.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * A patch spooled to a temporary file and memory-mapped, exposed as a {@link CharSequence}.
+ *
+ * <p>The sequence is a byte-per-char view of the UTF-8 file: {@link #charAt(int)} returns the
+ * raw byte, which is exact for the ASCII structure a diff parser looks at (headers, line
+ * prefixes, newlines) and never matches an ASCII character inside a multi-byte sequence.
+ * Offsets are therefore byte offsets. {@link #toString()} decodes the range as UTF-8, so text
+ * handed to a prompt or used as a file path is correct.</p>
+ *
+ * <p>The patch bytes live in the page cache, not on the heap, so heap usage does not grow with
+ * patch size. {@link #subSequence(int, int)} returns another view over the same mapping.
+ * {@link #close()} deletes the file; the mapping itself stays readable until it is
+ * garbage-collected, so views that outlive the close are still safe.</p>
+ */
+@Slf4j
+public final class MappedPatch implements CharSequence, Closeable {
+
+    private final ByteBuffer bytes;
+    private final int offset;
+    private final int length;
+    private final Path file;
+
+    private MappedPatch(ByteBuffer bytes, int offset, int length, Path file) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+        this.file = file;
+    }
+
+    /**
+     * Copies {@code in} into a new temporary file in {@code dir} and maps it read-only.
+     *
+     * @param in the patch bytes, UTF-8 encoded; not closed by this method
+     * @param dir directory for the temporary file
+     * @param maxBytes upper bound on the patch size, at most {@link Integer#MAX_VALUE}
+     * @return the mapped patch, owning the temporary file
+     * @throws PatchTooLargeException if the input exceeds {@code maxBytes}
+     * @throws IOException if spooling or mapping fails
+     */
+    public static MappedPatch spool(InputStream in, Path dir, long maxBytes) throws IOException {
+        long limit = Math.min(maxBytes, Integer.MAX_VALUE);
+        Files.createDirectories(dir);
+        Path file = Files.createTempFile(dir, "patch-", ".diff");
+        try {
+            long size = copy(in, file, limit);
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer mapped = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                log.debug("🗺️ Spooled and mapped {} byte patch at {}", size, file);
+                return new MappedPatch(mapped, 0, (int) size, file);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    private static long copy(InputStream in, Path file, long limit) throws IOException {
+        long total = 0;
+        byte[] buf = new byte[64 * 1024];
+        try (OutputStream out = Files.newOutputStream(file)) {
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                total += n;
+                if (total > limit) {
+                    throw new PatchTooLargeException(limit);
+                }
+                out.write(buf, 0, n);
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        Objects.checkIndex(index, length);
+        return (char) (bytes.get(offset + index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        Objects.checkFromToIndex(start, end, length);
+        return new MappedPatch(bytes, offset + start, end - start, null);
+    }
+
+    /**
+     * Decodes this range as UTF-8. This is the only place the patch text is copied onto the heap.
+     */
+    @Override
+    public String toString() {
+        byte[] out = new byte[length];
+        bytes.get(offset, out);
+        return new String(out, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Deletes the backing temporary file. Has no effect on views returned by {@link #subSequence}.
+     */
+    @Override
+    public void close() {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("⚠️ Could not delete spooled patch {}: {}", file, e.getMessage());
+            file.toFile().deleteOnExit();
+        }
+    }
+}
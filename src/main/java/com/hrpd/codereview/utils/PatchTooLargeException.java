@@ -0,0 +1,22 @@
+package com.hrpd.codereview.utils;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a patch exceeds the configured size limit while it is being read.
+ *
+ * <p>Reaching a controller, it is rendered as {@code 413 Payload Too Large}.</p>
+ */
+@ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+public class PatchTooLargeException extends IOException {
+
+    /**
+     * @param limit the configured limit in bytes
+     */
+    public PatchTooLargeException(long limit) {
+        super("Patch exceeds the limit of " + limit + " bytes");
+    }
+}
@@ -0,0 +1,57 @@
+package com.hrpd.codereview.utils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * Verifies the {@code X-Hub-Signature-256} header GitHub sends with webhook deliveries.
+ *
+ * <p>Without a secret no delivery is accepted, so an unconfigured deployment cannot be made to
+ * review arbitrary PRs by anyone who can reach it.</p>
+ */
+public class WebhookSignature {
+
+    private static final String PREFIX = "sha256=";
+
+    private final byte[] secret;
+
+    public WebhookSignature(String secret) {
+        this.secret = secret == null || secret.isBlank() ? null : secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public boolean isEnabled() {
+        return secret != null;
+    }
+
+    /**
+     * Returns {@code true} if the header carries the HMAC-SHA256 of the body, compared in
+     * constant time; always {@code false} without a secret.
+     */
+    public boolean matches(byte[] body, String header) {
+        if (secret == null || header == null || !header.startsWith(PREFIX)) {
+            return false;
+        }
+        byte[] expected = sign(body);
+        byte[] actual;
+        try {
+            actual = HexFormat.of().parseHex(header.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    private byte[] sign(byte[] body) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            return mac.doFinal(body);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
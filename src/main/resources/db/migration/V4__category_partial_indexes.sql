@@ -0,0 +1,46 @@
+-- Category-aware ANN indexes for filtered similarity search.
+--
+-- pgvector applies a WHERE filter after the index scan, so a selective
+-- metadata.category filter on a single global index returns fewer than
+-- topK rows. A partial HNSW index per category lets the planner scan only
+-- the vectors of that category. StandardsRetrieverServiceImpl routes each
+-- query to these indexes by repeating the exact predicate below as a literal.
+
+-- The IVFFlat index from V1 was built on an empty table, which leaves its
+-- list centroids meaningless. HNSW needs no training and supports iterative
+-- scans (pgvector >= 0.8) for categories without a dedicated index.
+DROP INDEX IF EXISTS ai_documents_embedding_idx;
+
+CREATE INDEX IF NOT EXISTS ai_documents_embedding_hnsw_idx
+  ON ai_documents
+  USING hnsw (embedding vector_cosine_ops);
+
+-- One partial index per category produced by StandardsIngestorServiceImpl.inferCategory
+CREATE INDEX IF NOT EXISTS ai_documents_embedding_security_idx
+  ON ai_documents
+  USING hnsw (embedding vector_cosine_ops)
+  WHERE (metadata->>'category') = 'security';
+
+CREATE INDEX IF NOT EXISTS ai_documents_embedding_performance_idx
+  ON ai_documents
+  USING hnsw (embedding vector_cosine_ops)
+  WHERE (metadata->>'category') = 'performance';
+
+CREATE INDEX IF NOT EXISTS ai_documents_embedding_testing_idx
+  ON ai_documents
+  USING hnsw (embedding vector_cosine_ops)
+  WHERE (metadata->>'category') = 'testing';
+
+CREATE INDEX IF NOT EXISTS ai_documents_embedding_concurrency_idx
+  ON ai_documents
+  USING hnsw (embedding vector_cosine_ops)
+  WHERE (metadata->>'category') = 'concurrency';
+
+CREATE INDEX IF NOT EXISTS ai_documents_embedding_general_idx
+  ON ai_documents
+  USING hnsw (embedding vector_cosine_ops)
+  WHERE (metadata->>'category') = 'general';
+
+-- Supports the exact-filter fallback for categories without a partial index
+CREATE INDEX IF NOT EXISTS ai_documents_category_idx
+  ON ai_documents ((metadata->>'category'));
@@ -0,0 +1,25 @@
+-- State of the last completed review per pull request, for incremental re-reviews.
+--
+-- A hunk is identified by a hash of its file path and body (without the @@ header,
+-- so hunks that only moved still match). On a re-review, hunks whose hash is
+-- already recorded keep their findings (line numbers shifted to the new position)
+-- and only new or changed hunks are sent to the reviewers.
+
+CREATE TABLE IF NOT EXISTS pr_review_state (
+  repo        TEXT        NOT NULL,
+  pr_number   INTEGER     NOT NULL,
+  head_sha    TEXT,
+  reviewed_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+  PRIMARY KEY (repo, pr_number)
+);
+
+CREATE TABLE IF NOT EXISTS pr_review_hunk (
+  repo       TEXT    NOT NULL,
+  pr_number  INTEGER NOT NULL,
+  hunk_hash  VARCHAR(64) NOT NULL,
+  file_path  TEXT    NOT NULL,
+  line_start INTEGER NOT NULL,
+  findings   JSONB   NOT NULL DEFAULT '[]'::jsonb,
+  PRIMARY KEY (repo, pr_number, hunk_hash),
+  FOREIGN KEY (repo, pr_number) REFERENCES pr_review_state (repo, pr_number) ON DELETE CASCADE
+);
@@ -0,0 +1,19 @@
+-- Per-call results of reviews in progress, so a review interrupted by a crash or
+-- redeploy (or retried by its client) only runs the (reviewer, hunk) pairs still missing.
+--
+-- A row is written as soon as one reviewer call on one hunk completes. Hunks are
+-- identified as in pr_review_hunk (hash of file path and body) plus their start line,
+-- so identical hunks at different positions keep their own line numbers. Rows are
+-- kept for a configurable time after they were written and then purged.
+
+CREATE TABLE IF NOT EXISTS review_checkpoint (
+  review_id  TEXT        NOT NULL,
+  reviewer   TEXT        NOT NULL,
+  hunk_hash  VARCHAR(64) NOT NULL,
+  line_start INTEGER     NOT NULL,
+  findings   JSONB       NOT NULL DEFAULT '[]'::jsonb,
+  created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+  PRIMARY KEY (review_id, reviewer, hunk_hash, line_start)
+);
+
+CREATE INDEX IF NOT EXISTS review_checkpoint_created_at_idx ON review_checkpoint (created_at);
@@ -0,0 +1,129 @@
+package com.hrpd.codereview.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.hrpd.codereview.model.Finding;
+import com.hrpd.codereview.model.ReviewResult;
+import com.hrpd.codereview.model.ReviewerType;
+import com.hrpd.codereview.model.Severity;
+import com.hrpd.codereview.service.AggregatorServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of merging reviewer results on large synthetic finding sets.
+ *
+ * <p>{@code exactKeyBaseline} is the previous exact-key dedupe, kept here verbatim (minus
+ * logging) as the point of comparison; {@code merge} adds range-aware clustering on top. Each
+ * reviewer reports most issues, reworded and on slightly shifted lines, the way models do.</p>
+ *
+ * <pre>
+ * ./mvnw -q test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main AggregatorBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AggregatorBenchmark {
+
+    private static final String[][] WORDINGS = {
+            {"SQL injection in query", "Possible SQL injection", "Unsanitized input reaches SQL"},
+            {"Hardcoded password", "Hard-coded password in source", "Credential committed in code"},
+            {"N+1 query in loop", "Database query inside loop", "Repeated query per item"},
+            {"Null pointer dereference", "Possible NPE on null dereference", "Missing null check"},
+            {"Method too long", "Long method should be split", "Function does too much"},
+    };
+
+    /**
+     * Distinct issues in the synthetic PR; each is reported by up to three reviewers.
+     */
+    @Param({"1000", "10000"})
+    public int issues;
+
+    private List<ReviewResult> parts;
+    private AggregatorServiceImpl aggregator;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        aggregator = new AggregatorServiceImpl();
+        parts = syntheticResults(issues, new Random(42));
+    }
+
+    @Benchmark
+    public List<Finding> exactKeyBaseline() {
+        var all = parts.stream().flatMap(r -> r.findings().stream()).toList();
+        Map<String, Finding> byKey = new HashMap<>();
+        for (var f : all) {
+            var key = f.filePath() + "#" + f.lineStart() + "-" + f.lineEnd() + "#" + normalize(f.title());
+            byKey.merge(key, f, AggregatorBenchmark::preferHigherSeverity);
+        }
+        return new ArrayList<>(byKey.values());
+    }
+
+    @Benchmark
+    public ReviewResult merge() {
+        return aggregator.merge(parts);
+    }
+
+    /**
+     * One result per reviewer; issues are spread over files of about 50 issues each.
+     */
+    static List<ReviewResult> syntheticResults(int issues, Random random) {
+        ReviewerType[] reviewers = ReviewerType.values();
+        Severity[] severities = Severity.values();
+        List<List<Finding>> perReviewer = new ArrayList<>();
+        for (int r = 0; r < reviewers.length; r++) {
+            perReviewer.add(new ArrayList<>());
+        }
+        for (int i = 0; i < issues; i++) {
+            String file = "src/main/java/com/example/module" + (i % 37) + "/Generated" + (i / 50) + ".java";
+            int line = (i % 50) * 12 + 1;
+            String[] wordings = WORDINGS[i % WORDINGS.length];
+            for (int r = 0; r < reviewers.length; r++) {
+                if (random.nextInt(4) == 0) {
+                    continue;
+                }
+                int start = line + random.nextInt(3);
+                perReviewer.get(r).add(new Finding(file, start, start + random.nextInt(4),
+                        wordings[r % wordings.length], "Rationale " + i + " from " + reviewers[r],
+                        "Suggestion", severities[random.nextInt(severities.length)], reviewers[r]));
+            }
+        }
+        List<ReviewResult> results = new ArrayList<>();
+        for (int r = 0; r < reviewers.length; r++) {
+            results.add(new ReviewResult(perReviewer.get(r), reviewers[r] + " review complete"));
+        }
+        return results;
+    }
+
+    private static Finding preferHigherSeverity(Finding a, Finding b) {
+        var order = List.of(Severity.BLOCKER, Severity.HIGH, Severity.MEDIUM, Severity.LOW, Severity.INFO);
+        return order.indexOf(a.severity()) <= order.indexOf(b.severity()) ? a : b;
+    }
+
+    private static String normalize(String s) {
+        return s == null ? "" : s.toLowerCase().replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,156 @@
+package com.hrpd.codereview.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.hrpd.codereview.model.DiffHunk;
+import com.hrpd.codereview.service.DiffServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Throughput and allocation of the unified diff parser on multi-megabyte patches.
+ *
+ * <p>{@code regexBaseline} is the previous two-pass regex implementation, kept here verbatim
+ * (minus logging) as the point of comparison. Run with the GC profiler to see allocation:</p>
+ *
+ * <pre>
+ * ./mvnw -q test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main DiffParserBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DiffParserBenchmark {
+
+    private static final Pattern FILE_HEADER =
+            Pattern.compile("^\\+\\+\\+\\s+b/(.+)$", Pattern.MULTILINE);
+    private static final Pattern HUNK_HEADER =
+            Pattern.compile("^@@\\s+\\-(\\d+),(\\d+)\\s+\\+(\\d+),(\\d+)\\s+@@.*$", Pattern.MULTILINE);
+
+    /**
+     * Number of files in the synthetic patch; 2000 files is roughly 4 MB.
+     */
+    @Param({"500", "2000"})
+    public int files;
+
+    private String patch;
+    private DiffServiceImpl diffService;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        diffService = new DiffServiceImpl();
+        patch = syntheticPatch(files, 4, 12);
+    }
+
+    @Benchmark
+    public List<DiffHunk> regexBaseline() {
+        return regexParse(patch);
+    }
+
+    @Benchmark
+    public List<DiffHunk> singlePass() {
+        return diffService.parseUnifiedPatch(patch);
+    }
+
+    /**
+     * Single pass plus materializing every hunk once, as building one prompt per hunk would.
+     */
+    @Benchmark
+    public void singlePassMaterialized(Blackhole bh) {
+        for (DiffHunk h : diffService.parseUnifiedPatch(patch)) {
+            bh.consume(h.patch());
+        }
+    }
+
+    @Benchmark
+    public int streamingReader(Blackhole bh) throws IOException {
+        return diffService.streamUnifiedPatch(new StringReader(patch), bh::consume);
+    }
+
+    /**
+     * Builds a git-style patch with {@code files} files of {@code hunks} hunks each.
+     */
+    static String syntheticPatch(int files, int hunks, int linesPerHunk) {
+        StringBuilder sb = new StringBuilder(files * hunks * linesPerHunk * 48);
+        for (int f = 0; f < files; f++) {
+            String path = "src/main/java/com/example/module" + (f % 37) + "/Generated" + f + ".java";
+            sb.append("diff --git a/").append(path).append(" b/").append(path).append('\n')
+              .append("index 1234567..89abcde 100644\n")
+              .append("--- a/").append(path).append('\n')
+              .append("+++ b/").append(path).append('\n');
+            int line = 1;
+            for (int h = 0; h < hunks; h++) {
+                int added = linesPerHunk / 3;
+                int context = linesPerHunk - added;
+                sb.append("@@ -").append(line).append(',').append(context)
+                  .append(" +").append(line).append(',').append(linesPerHunk)
+                  .append(" @@ public class Generated").append(f).append(" {\n");
+                for (int i = 0; i < linesPerHunk; i++) {
+                    if (i % 3 == 1) {
+                        sb.append("+        String value").append(i).append(" = repository.find(id, \"")
+                          .append(h).append("\");\n");
+                    } else {
+                        sb.append("         int counter").append(i).append(" = compute(counter").append(i)
+                          .append(", ").append(f).append(");\n");
+                    }
+                }
+                line += linesPerHunk + 20;
+            }
+        }
+        return sb.toString();
+    }
+
+    private static List<DiffHunk> regexParse(String patch) {
+        List<DiffHunk> hunks = new ArrayList<>();
+        Matcher fileM = FILE_HEADER.matcher(patch);
+        List<int[]> fileSpans = new ArrayList<>();
+        while (fileM.find()) fileSpans.add(new int[]{fileM.start(), fileM.end()});
+
+        for (int i = 0; i < fileSpans.size(); i++) {
+            int start = fileSpans.get(i)[0];
+            int end = (i + 1 < fileSpans.size()) ? fileSpans.get(i + 1)[0] : patch.length();
+            String fileBlock = patch.substring(start, end);
+
+            Matcher fileNameM = FILE_HEADER.matcher(fileBlock);
+            String fileName = fileNameM.find() ? fileNameM.group(1) : "unknown";
+
+            Matcher hunksM = HUNK_HEADER.matcher(fileBlock);
+            List<int[]> hSpans = new ArrayList<>();
+            while (hunksM.find()) hSpans.add(new int[]{hunksM.start(), hunksM.end()});
+
+            for (int j = 0; j < hSpans.size(); j++) {
+                int hs = hSpans.get(j)[0];
+                int he = (j + 1 < hSpans.size()) ? hSpans.get(j + 1)[0] : fileBlock.length();
+                hunks.add(new DiffHunk(fileName, 0, 0, fileBlock.substring(hs, he)));
+            }
+        }
+        if (hunks.isEmpty()) {
+            hunks.add(new DiffHunk("all", 0, 0, patch));
+        }
+        return hunks;
+    }
+}
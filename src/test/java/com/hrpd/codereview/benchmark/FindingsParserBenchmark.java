@@ -0,0 +1,199 @@
+package com.hrpd.codereview.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hrpd.codereview.model.Finding;
+import com.hrpd.codereview.model.ReviewerType;
+import com.hrpd.codereview.model.Severity;
+import com.hrpd.codereview.utils.JsonUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a model response into findings, for typical and pathological outputs.
+ *
+ * <p>{@code treeBaseline} is the previous extract-then-{@code readTree} implementation, kept here
+ * verbatim (minus logging) as the point of comparison. Shapes:</p>
+ * <ul>
+ *   <li>{@code typical}: a fenced JSON block with three findings between two sentences</li>
+ *   <li>{@code large}: two hundred findings, unfenced</li>
+ *   <li>{@code chatty}: 64 KB of prose before and after a small unfenced object</li>
+ *   <li>{@code truncated}: the large response cut off half way</li>
+ * </ul>
+ *
+ * <pre>
+ * ./mvnw -q test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main FindingsParserBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FindingsParserBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Param({"typical", "large", "chatty", "truncated"})
+    public String shape;
+
+    private String response;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.ERROR);
+        response = switch (shape) {
+            case "typical" -> "Here is my review of the hunk.\n\n```json\n" + findingsJson(3)
+                    + "\n```\n\nLet me know if you need more detail.";
+            case "large" -> findingsJson(200);
+            case "chatty" -> prose(64 * 1024) + findingsJson(2) + prose(64 * 1024);
+            case "truncated" -> {
+                String full = findingsJson(200);
+                yield full.substring(0, full.length() / 2);
+            }
+            default -> throw new IllegalArgumentException(shape);
+        };
+    }
+
+    @Benchmark
+    public List<Finding> streaming() {
+        return JsonUtils.parseFindings(response, ReviewerType.SECURITY, "Fallback.java");
+    }
+
+    @Benchmark
+    public List<Finding> treeBaseline() {
+        try {
+            JsonNode root = MAPPER.readTree(extractJsonFromResponse(response));
+            JsonNode arr = root.path("findings");
+            if (!arr.isArray()) {
+                return List.of();
+            }
+            List<Finding> out = new ArrayList<>();
+            for (JsonNode n : arr) {
+                String sevText = n.path("severity").asText("INFO").toUpperCase();
+                Severity sev;
+                try {
+                    sev = Severity.valueOf(sevText);
+                } catch (Exception e) {
+                    sev = Severity.INFO;
+                }
+                String findingFilePath = n.path("filePath").asText("");
+                if (findingFilePath.isEmpty()) {
+                    findingFilePath = "Fallback.java";
+                }
+                out.add(new Finding(findingFilePath, n.path("lineStart").asInt(0), n.path("lineEnd").asInt(0),
+                        n.path("title").asText(""), n.path("rationale").asText(""), n.path("suggestion").asText(""),
+                        sev, ReviewerType.SECURITY));
+            }
+            return out;
+        } catch (Exception e) {
+            return List.of();
+        }
+    }
+
+    private static String extractJsonFromResponse(String response) {
+        String cleaned = response.trim();
+        if (cleaned.contains("```json")) {
+            int start = cleaned.indexOf("```json") + 7;
+            int end = cleaned.indexOf("```", start);
+            if (end > start) {
+                return cleaned.substring(start, end).trim();
+            }
+        }
+        if (cleaned.contains("```")) {
+            int start = cleaned.indexOf("```") + 3;
+            int end = cleaned.indexOf("```", start);
+            if (end > start) {
+                String content = cleaned.substring(start, end).trim();
+                if (content.startsWith("{") || content.startsWith("[")) {
+                    return content;
+                }
+            }
+        }
+        int jsonStart = -1;
+        int jsonEnd = -1;
+        for (int i = 0; i < cleaned.length(); i++) {
+            char c = cleaned.charAt(i);
+            if (c == '{' || c == '[') {
+                jsonStart = i;
+                break;
+            }
+        }
+        if (jsonStart >= 0) {
+            int braceCount = 0;
+            boolean inString = false;
+            boolean escaped = false;
+            for (int i = jsonStart; i < cleaned.length(); i++) {
+                char c = cleaned.charAt(i);
+                if (escaped) {
+                    escaped = false;
+                    continue;
+                }
+                if (c == '\\') {
+                    escaped = true;
+                    continue;
+                }
+                if (c == '"' && !escaped) {
+                    inString = !inString;
+                    continue;
+                }
+                if (!inString) {
+                    if (c == '{' || c == '[') {
+                        braceCount++;
+                    } else if (c == '}' || c == ']') {
+                        braceCount--;
+                        if (braceCount == 0) {
+                            jsonEnd = i + 1;
+                            break;
+                        }
+                    }
+                }
+            }
+            if (jsonEnd > jsonStart) {
+                return cleaned.substring(jsonStart, jsonEnd).trim();
+            }
+        }
+        return cleaned;
+    }
+
+    static String findingsJson(int findings) {
+        StringBuilder sb = new StringBuilder("{\n  \"findings\": [\n");
+        for (int i = 0; i < findings; i++) {
+            sb.append(i == 0 ? "" : ",\n")
+              .append("    {\"title\": \"Unvalidated input reaches query ").append(i)
+              .append("\", \"rationale\": \"The \\\"id\\\" parameter is concatenated into SQL without binding, ")
+              .append("so a crafted value can change the statement.\", \"suggestion\": \"Use a PreparedStatement ")
+              .append("with ? placeholders.\", \"severity\": \"HIGH\", \"filePath\": \"src/main/java/Repo")
+              .append(i % 7).append(".java\", \"lineStart\": ").append(10 + i).append(", \"lineEnd\": ")
+              .append(12 + i).append('}');
+        }
+        return sb.append("\n  ],\n  \"summary\": \"").append(findings).append(" findings\"\n}").toString();
+    }
+
+    private static String prose(int chars) {
+        String sentence = "The change looks reasonable overall, although the naming could be clearer. ";
+        StringBuilder sb = new StringBuilder(chars + sentence.length());
+        while (sb.length() < chars) {
+            sb.append(sentence);
+        }
+        return sb.append('\n').toString();
+    }
+}
@@ -0,0 +1,127 @@
+package com.hrpd.codereview.reviewer;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ChatCircuitBreaker.
+ */
+class ChatCircuitBreakerTest {
+
+    private static final long FAST = Duration.ofSeconds(1).toNanos();
+    private static final long SLOW = Duration.ofSeconds(60).toNanos();
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private ChatCircuitBreaker breaker(boolean localFallback) {
+        return new ChatCircuitBreaker(10, 4, 0.5, 0.8, Duration.ofSeconds(30), Duration.ofSeconds(30),
+                2, localFallback, clock::get);
+    }
+
+    private static void calls(ChatCircuitBreaker breaker, int n, boolean failed, long nanos) {
+        for (int i = 0; i < n; i++) {
+            breaker.record(breaker.acquire(), failed, nanos);
+        }
+    }
+
+    @Test
+    void testRecord_opensWhenFailureRateReachesThreshold() {
+        // Arrange
+        ChatCircuitBreaker breaker = breaker(true);
+
+        // Act
+        calls(breaker, 2, false, FAST);
+        calls(breaker, 1, true, FAST);
+        ChatCircuitBreaker.State belowThreshold = breaker.snapshot().state();
+        calls(breaker, 1, true, FAST);
+
+        // Assert
+        assertEquals(ChatCircuitBreaker.State.CLOSED, belowThreshold);
+        assertEquals(ChatCircuitBreaker.State.OPEN, breaker.snapshot().state());
+        ChatUnavailableException e = assertThrows(ChatUnavailableException.class, breaker::acquire);
+        assertTrue(e.localFallback());
+    }
+
+    @Test
+    void testRecord_waitsForMinimumCalls() {
+        // Arrange
+        ChatCircuitBreaker breaker = breaker(true);
+
+        // Act
+        calls(breaker, 3, true, FAST);
+
+        // Assert
+        assertEquals(ChatCircuitBreaker.State.CLOSED, breaker.snapshot().state());
+        assertEquals(1.0, breaker.snapshot().failureRate());
+    }
+
+    @Test
+    void testRecord_opensWhenSlowCallRateReachesThreshold() {
+        // Arrange
+        ChatCircuitBreaker breaker = breaker(false);
+
+        // Act
+        calls(breaker, 1, false, FAST);
+        calls(breaker, 4, false, SLOW);
+
+        // Assert
+        assertEquals(ChatCircuitBreaker.State.OPEN, breaker.snapshot().state());
+        assertFalse(assertThrows(ChatUnavailableException.class, breaker::acquire).localFallback());
+    }
+
+    @Test
+    void testAcquire_halfOpenProbesCloseTheCircuit() {
+        // Arrange
+        ChatCircuitBreaker breaker = breaker(true);
+        calls(breaker, 4, true, FAST);
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        // Act
+        long first = breaker.acquire();
+        long second = breaker.acquire();
+        assertThrows(ChatUnavailableException.class, breaker::acquire);
+        breaker.record(first, false, FAST);
+        breaker.record(second, false, FAST);
+
+        // Assert
+        assertEquals(ChatCircuitBreaker.State.CLOSED, breaker.snapshot().state());
+        assertEquals(0, breaker.snapshot().calls());
+    }
+
+    @Test
+    void testAcquire_failedProbeReopensTheCircuit() {
+        // Arrange
+        ChatCircuitBreaker breaker = breaker(true);
+        calls(breaker, 4, true, FAST);
+        assertThrows(ChatUnavailableException.class, breaker::acquire);
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        // Act
+        breaker.record(breaker.acquire(), true, FAST);
+
+        // Assert
+        assertEquals(ChatCircuitBreaker.State.OPEN, breaker.snapshot().state());
+        assertThrows(ChatUnavailableException.class, breaker::acquire);
+    }
+
+    @Test
+    void testRecord_ignoresCallsStartedBeforeTheLastTransition() {
+        // Arrange
+        ChatCircuitBreaker breaker = breaker(true);
+        long stale = breaker.acquire();
+        calls(breaker, 4, true, FAST);
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        long probe = breaker.acquire();
+
+        // Act
+        breaker.record(stale, true, SLOW);
+        breaker.record(probe, false, FAST);
+
+        // Assert
+        assertEquals(ChatCircuitBreaker.State.HALF_OPEN, breaker.snapshot().state());
+    }
+}
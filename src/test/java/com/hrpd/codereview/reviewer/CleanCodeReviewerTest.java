@@ -75,11 +75,14 @@ class CleanCodeReviewerTest {
         when(standardsRetrieverService.retrieveContext(anyString(), anyInt(), anyString()))
                 .thenReturn(standardsContext);
 
-        // Act & Assert - This will fail due to ChatClient mocking complexity
-        // but we can verify the standards retrieval was called
-        assertThrows(Exception.class, () -> {
-            reviewer.review(hunks);
-        });
+        // Act - the mocked ChatClient cannot answer, so the hunk fails without failing the review
+        ReviewResult result = reviewer.review(hunks);
+
+        // Assert
+        assertTrue(result.findings().isEmpty());
+        assertEquals(1, result.failedHunks().size());
+        assertEquals(ReviewerType.CLEAN_CODE, result.failedHunks().get(0).reviewer());
+        assertEquals("TestFile.java", result.failedHunks().get(0).filePath());
 
         // Verify interactions
         verify(standardsRetrieverService).retrieveContext(
@@ -96,11 +99,14 @@ class CleanCodeReviewerTest {
         when(standardsRetrieverService.retrieveContext(anyString(), anyInt(), anyString()))
                 .thenReturn(""); // Empty standards
 
-        // Act & Assert - This will fail due to ChatClient mocking complexity
-        // but we can verify the standards retrieval was called
-        assertThrows(Exception.class, () -> {
-            reviewer.review(hunks);
-        });
+        // Act - the mocked ChatClient cannot answer, so the hunk fails without failing the review
+        ReviewResult result = reviewer.review(hunks);
+
+        // Assert
+        assertTrue(result.findings().isEmpty());
+        assertEquals(1, result.failedHunks().size());
+        assertEquals(ReviewerType.CLEAN_CODE, result.failedHunks().get(0).reviewer());
+        assertEquals("TestFile.java", result.failedHunks().get(0).filePath());
 
         // Verify interactions
         verify(standardsRetrieverService).retrieveContext(
@@ -0,0 +1,111 @@
+package com.hrpd.codereview.reviewer;
+
+import com.hrpd.codereview.model.DiffHunk;
+import com.hrpd.codereview.model.ReviewerType;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HunkRetry.
+ */
+class HunkRetryTest {
+
+    private static final DiffHunk HUNK = new DiffHunk("A.java", 1, 5, "@@ -1,1 +1,5 @@\n+x");
+
+    @Test
+    void testCall_retriesTransientFailuresUntilSuccess() {
+        // Arrange
+        HunkRetry retry = new HunkRetry(3, Duration.ZERO, Duration.ZERO, 0.2, 20);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act
+        List<String> result = retry.call(ReviewerType.SECURITY, HUNK, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new TransientAiException("503 Service Unavailable");
+            }
+            return List.of("ok");
+        });
+
+        // Assert
+        assertEquals(List.of("ok"), result);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void testCall_givesUpAfterMaxAttempts() {
+        // Arrange
+        HunkRetry retry = new HunkRetry(2, Duration.ZERO, Duration.ZERO, 0.2, 20);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act & Assert
+        assertThrows(ResourceAccessException.class, () -> retry.call(ReviewerType.SECURITY, HUNK, () -> {
+            attempts.incrementAndGet();
+            throw new ResourceAccessException("Read timed out");
+        }));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void testCall_doesNotRetryPermanentFailures() {
+        // Arrange
+        HunkRetry retry = new HunkRetry(3, Duration.ZERO, Duration.ZERO, 0.2, 20);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act & Assert
+        assertThrows(NonTransientAiException.class, () -> retry.call(ReviewerType.SECURITY, HUNK, () -> {
+            attempts.incrementAndGet();
+            throw new NonTransientAiException("HTTP 400 - invalid request");
+        }));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void testCall_stopsRetryingWhenBudgetIsSpent() {
+        // Arrange: a reserve of two retries, refilled by a tenth of a retry per call
+        HunkRetry retry = new HunkRetry(5, Duration.ZERO, Duration.ZERO, 0.1, 2);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act
+        assertThrows(TransientAiException.class, () -> retry.call(ReviewerType.SECURITY, HUNK, () -> {
+            attempts.incrementAndGet();
+            throw new TransientAiException("overloaded");
+        }));
+
+        // Assert: the first attempt plus the two retries of the reserve
+        assertEquals(3, attempts.get());
+        assertTrue(retry.budget() < 1);
+    }
+
+    @Test
+    void testIsTransient() {
+        assertTrue(HunkRetry.isTransient(new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS)));
+        assertTrue(HunkRetry.isTransient(new HttpServerErrorException(HttpStatus.BAD_GATEWAY)));
+        assertTrue(HunkRetry.isTransient(new IllegalStateException(new SocketTimeoutException("timeout"))));
+        assertTrue(HunkRetry.isTransient(new NonTransientAiException("HTTP 429 - rate limit reached")));
+        assertFalse(HunkRetry.isTransient(new HttpClientErrorException(HttpStatus.UNAUTHORIZED)));
+        assertFalse(HunkRetry.isTransient(new NullPointerException()));
+    }
+
+    @Test
+    void testNone_callsOnce() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(TransientAiException.class, () -> HunkRetry.NONE.call(ReviewerType.SECURITY, HUNK, () -> {
+            attempts.incrementAndGet();
+            throw new TransientAiException("overloaded");
+        }));
+        assertEquals(1, attempts.get());
+    }
+}
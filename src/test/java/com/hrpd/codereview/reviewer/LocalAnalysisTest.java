@@ -0,0 +1,87 @@
+package com.hrpd.codereview.reviewer;
+
+import com.hrpd.codereview.model.DiffHunk;
+import com.hrpd.codereview.model.FailedHunk;
+import com.hrpd.codereview.model.Finding;
+import com.hrpd.codereview.model.ReviewerType;
+import com.hrpd.codereview.model.Severity;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LocalAnalysis.
+ */
+class LocalAnalysisTest {
+
+    private static final DiffHunk HUNK = new DiffHunk("src/Repo.java", 10, 14, """
+            @@ -10,3 +10,4 @@
+             class Repo {
+            -    String password = getPassword();
+            +    String password = "hunter22";
+            +    String sql = "SELECT * FROM users WHERE id = " + id;
+            +    try { run(); } catch (Exception e) {}
+             }""");
+
+    @Test
+    void testAnalyze_reportsMatchingAddedLinesWithNewFileLineNumbers() {
+        // Act
+        List<Finding> findings = LocalAnalysis.analyze(HUNK, ReviewerType.SECURITY);
+
+        // Assert
+        assertEquals(2, findings.size());
+        assertEquals("Hardcoded secret", findings.get(0).title());
+        assertEquals(11, findings.get(0).lineStart());
+        assertEquals(Severity.HIGH, findings.get(0).severity());
+        assertEquals("SQL built by string concatenation", findings.get(1).title());
+        assertEquals(12, findings.get(1).lineStart());
+        assertEquals(ReviewerType.SECURITY, findings.get(1).reviewer());
+    }
+
+    @Test
+    void testAnalyze_onlyAppliesTheReviewersRules() {
+        // Act
+        List<Finding> findings = LocalAnalysis.analyze(HUNK, ReviewerType.CLEAN_CODE);
+
+        // Assert
+        assertEquals(1, findings.size());
+        assertEquals("Empty catch block", findings.get(0).title());
+        assertEquals(13, findings.get(0).lineStart());
+    }
+
+    @Test
+    void testOnFailure_openCircuitWithFallbackIsDegraded() {
+        // Arrange
+        List<Finding> sink = new ArrayList<>();
+
+        // Act
+        FailedHunk failed = LocalAnalysis.onFailure(HUNK, ReviewerType.SECURITY,
+                new ChatUnavailableException("Chat model circuit OPEN", true), sink::addAll);
+
+        // Assert
+        assertTrue(failed.degraded());
+        assertTrue(failed.matches(HUNK));
+        assertEquals(2, sink.size());
+    }
+
+    @Test
+    void testOnFailure_otherFailuresAreOnlyListed() {
+        // Arrange
+        List<Finding> sink = new ArrayList<>();
+
+        // Act
+        FailedHunk open = LocalAnalysis.onFailure(HUNK, ReviewerType.SECURITY,
+                new ChatUnavailableException("Chat model circuit OPEN", false), sink::addAll);
+        FailedHunk error = LocalAnalysis.onFailure(HUNK, ReviewerType.SECURITY,
+                new IllegalStateException("boom"), sink::addAll);
+
+        // Assert
+        assertFalse(open.degraded());
+        assertFalse(error.degraded());
+        assertEquals("boom", error.error());
+        assertTrue(sink.isEmpty());
+    }
+}
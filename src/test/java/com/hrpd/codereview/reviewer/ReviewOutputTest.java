@@ -0,0 +1,91 @@
+package com.hrpd.codereview.reviewer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hrpd.codereview.model.Finding;
+import com.hrpd.codereview.model.ReviewerType;
+import com.hrpd.codereview.model.Severity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.ResponseFormat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ReviewOutput.
+ */
+class ReviewOutputTest {
+
+    @Test
+    void testSchema_isStrictAndMirrorsFinding() throws Exception {
+        // Act
+        JsonNode schema = new ObjectMapper().readTree(ReviewOutput.STRUCTURED.schema());
+        JsonNode finding = schema.at("/properties/findings/items");
+
+        // Assert: strict mode needs every property required and no additional ones
+        assertFalse(schema.get("additionalProperties").asBoolean(true));
+        assertFalse(finding.get("additionalProperties").asBoolean(true));
+        List<String> required = new ArrayList<>();
+        finding.get("required").forEach(n -> required.add(n.asText()));
+        assertEquals(List.of("filePath", "lineEnd", "lineStart", "rationale", "severity", "suggestion", "title"),
+                required.stream().sorted().toList());
+        assertFalse(finding.at("/properties").has("reviewer"));
+        assertEquals(Severity.values().length, finding.at("/properties/severity/enum").size());
+    }
+
+    @Test
+    void testOptions_requestJsonSchemaResponseFormat() {
+        // Act
+        OpenAiChatOptions options = (OpenAiChatOptions) ReviewOutput.STRUCTURED.options();
+
+        // Assert
+        assertEquals(ResponseFormat.Type.JSON_SCHEMA, options.getResponseFormat().getType());
+        assertNull(options.getModel(), "model and temperature come from the configured defaults");
+    }
+
+    @Test
+    void testCompact_usesShortKeysAndMaxTokens() throws Exception {
+        // Act
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ReviewOutput compact = ReviewOutput.of(ReviewOutput.COMPACT_FORMAT, 512, registry);
+        JsonNode finding = new ObjectMapper().readTree(compact.schema()).at("/properties/f/items");
+
+        // Assert
+        List<String> levels = new ArrayList<>();
+        finding.at("/properties/v/enum").forEach(n -> levels.add(n.asText()));
+        assertEquals(List.of("B", "H", "M", "L", "I"), levels);
+        assertEquals(7, finding.get("required").size());
+        assertEquals(512, ((OpenAiChatOptions) compact.options()).getMaxTokens());
+        assertEquals(List.of(new Finding("App.java", 3, 3, "Slow loop", "r", "s", Severity.HIGH, ReviewerType.PERFORMANCE)),
+                compact.parse("{\"f\":[{\"t\":\"Slow loop\",\"r\":\"r\",\"s\":\"s\",\"v\":\"H\",\"p\":\"\",\"l\":3,\"e\":3}]}",
+                        ReviewerType.PERFORMANCE, "App.java"));
+        assertEquals(1.0, registry.counter("codereview.findings.parse", "reviewer", "PERFORMANCE", "outcome", "ok")
+                .count());
+    }
+
+    @Test
+    void testOf_rejectsUnknownFormat() {
+        assertEquals(ReviewOutput.STRUCTURED.schema(),
+                ReviewOutput.of(ReviewOutput.STRUCTURED_FORMAT, null, new SimpleMeterRegistry()).schema());
+        assertThrows(IllegalArgumentException.class, () -> ReviewOutput.of("xml", null, new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void testParse_bindsSchemaConformingResponse() {
+        // Arrange
+        String content = """
+                {"findings":[{"title":"Hardcoded secret","rationale":"r","suggestion":"s","severity":"BLOCKER",
+                "filePath":"","lineStart":3,"lineEnd":4}],"summary":"One issue"}""";
+
+        // Act
+        List<Finding> findings = ReviewOutput.STRUCTURED.parse(content, ReviewerType.SECURITY, "App.java");
+
+        // Assert
+        assertEquals(List.of(new Finding("App.java", 3, 4, "Hardcoded secret", "r", "s",
+                Severity.BLOCKER, ReviewerType.SECURITY)), findings);
+    }
+}
@@ -3,6 +3,8 @@ package com.hrpd.codereview.reviewer;
 import com.hrpd.codereview.model.DiffHunk;
 import com.hrpd.codereview.model.ReviewResult;
 import com.hrpd.codereview.model.ReviewerType;
+import com.hrpd.codereview.model.TimedPhase;
+import com.hrpd.codereview.service.ReviewTimer;
 import com.hrpd.codereview.service.StandardsRetrieverService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -75,11 +77,14 @@ class SecurityReviewerTest {
         when(standardsRetrieverService.retrieveContext(anyString(), anyInt(), anyString()))
                 .thenReturn(standardsContext);
 
-        // Act & Assert - This will fail due to ChatClient mocking complexity
-        // but we can verify the standards retrieval was called
-        assertThrows(Exception.class, () -> {
-            reviewer.review(hunks);
-        });
+        // Act - the mocked ChatClient cannot answer, so the hunk fails without failing the review
+        ReviewResult result = reviewer.review(hunks);
+
+        // Assert
+        assertTrue(result.findings().isEmpty());
+        assertEquals(1, result.failedHunks().size());
+        assertEquals(ReviewerType.SECURITY, result.failedHunks().get(0).reviewer());
+        assertEquals("TestFile.java", result.failedHunks().get(0).filePath());
 
         // Verify interactions
         verify(standardsRetrieverService).retrieveContext(
@@ -97,14 +102,60 @@ class SecurityReviewerTest {
         when(standardsRetrieverService.retrieveContext(anyString(), anyInt(), anyString()))
                 .thenReturn(standardsContext);
 
-        // Act & Assert - This will fail due to ChatClient mocking complexity
-        // but we can verify the standards retrieval was called
-        assertThrows(Exception.class, () -> {
-            reviewer.review(hunks);
-        });
+        // Act - the mocked ChatClient cannot answer, so the hunk fails without failing the review
+        ReviewResult result = reviewer.review(hunks);
+
+        // Assert
+        assertTrue(result.findings().isEmpty());
+        assertEquals(1, result.failedHunks().size());
+        assertEquals(ReviewerType.SECURITY, result.failedHunks().get(0).reviewer());
+        assertEquals("TestFile.java", result.failedHunks().get(0).filePath());
 
         // Verify interactions
         verify(standardsRetrieverService).retrieveContext(
                 "java security review; injection; SSRF; XXE; secrets; crypto; authz; PII logging", 6, "security");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testReview_interruptedThreadMakesNoCalls() {
+        // Arrange: the review was superseded before it reached its first hunk
+        List<DiffHunk> hunks = List.of(
+                new DiffHunk("TestFile.java", 1, 10, "diff content")
+        );
+        when(standardsRetrieverService.retrieveContext(anyString(), anyInt(), anyString()))
+                .thenReturn("Security standards content");
+        Thread.currentThread().interrupt();
+
+        // Act & Assert
+        try {
+            assertThrows(IllegalStateException.class, () -> reviewer.review(hunks));
+        } finally {
+            assertTrue(Thread.interrupted());
+        }
+        verify(chatClient, never()).prompt();
+    }
+
+    @Test
+    void testReview_recordsOneCallStepPerHunk() {
+        // Arrange
+        List<DiffHunk> hunks = List.of(
+                new DiffHunk("A.java", 1, 10, "diff a"),
+                new DiffHunk("B.java", 5, 8, "diff b")
+        );
+        when(standardsRetrieverService.retrieveContext(anyString(), anyInt(), anyString()))
+                .thenReturn("Security standards content");
+        ReviewTimer timer = new ReviewTimer();
+
+        // Act - the mocked ChatClient cannot answer, but the failed calls are timed too
+        try (ReviewTimer.Scope ignored = timer.bind()) {
+            reviewer.review(hunks);
+        }
+
+        // Assert
+        List<TimedPhase> calls = timer.timings().phases().stream()
+                .filter(p -> p.phase().equals("call"))
+                .toList();
+        assertEquals(List.of("A.java:1-10", "B.java:5-8"), calls.stream().map(TimedPhase::target).toList());
+        assertTrue(calls.stream().allMatch(p -> p.reviewer() == ReviewerType.SECURITY));
+    }
+}
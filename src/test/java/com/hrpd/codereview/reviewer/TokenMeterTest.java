@@ -0,0 +1,62 @@
+package com.hrpd.codereview.reviewer;
+
+import com.hrpd.codereview.model.TokenUsage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.openai.api.OpenAiApi;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TokenMeter.
+ */
+class TokenMeterTest {
+
+    @Test
+    void testRecord_chargesOnlyTheBoundMeter() {
+        // Arrange
+        TokenMeter meter = new TokenMeter(0);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        // Act
+        meter.call(() -> {
+            TokenMeter.record("SECURITY", new DefaultUsage(100, 20), registry);
+            return null;
+        });
+        TokenMeter.record("SECURITY", new DefaultUsage(5, 5), registry);
+
+        // Assert
+        assertEquals(new TokenUsage(100, 20, 0), meter.usage());
+        assertEquals(105.0, registry.counter(TokenMeter.TOKENS_METRIC, "source", "SECURITY", "type", "prompt").count());
+    }
+
+    @Test
+    void testOf_readsCachedPromptTokensOfOpenAi() {
+        // Arrange
+        var openAi = new OpenAiApi.Usage(20, 100, 120, new OpenAiApi.Usage.PromptTokensDetails(null, 64), null);
+
+        // Act
+        TokenUsage usage = TokenMeter.of(new DefaultUsage(100, 20, 120, openAi));
+
+        // Assert
+        assertEquals(new TokenUsage(100, 20, 64), usage);
+        assertEquals(TokenUsage.NONE, TokenMeter.of(null));
+    }
+
+    @Test
+    void testCheckBudget_failsOnceBudgetIsUsed() {
+        // Arrange
+        TokenMeter meter = new TokenMeter(100);
+
+        // Act & Assert
+        meter.call(() -> {
+            TokenMeter.checkBudget();
+            TokenMeter.record("PERFORMANCE", new DefaultUsage(90, 10), new SimpleMeterRegistry());
+            assertThrows(TokenBudgetExceededException.class, TokenMeter::checkBudget);
+            return null;
+        });
+        assertTrue(meter.exhausted());
+        TokenMeter.checkBudget();
+    }
+}
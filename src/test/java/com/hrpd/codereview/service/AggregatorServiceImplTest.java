@@ -1,5 +1,6 @@
 package com.hrpd.codereview.service;
 
+import com.hrpd.codereview.model.FailedHunk;
 import com.hrpd.codereview.model.Finding;
 import com.hrpd.codereview.model.ReviewResult;
 import com.hrpd.codereview.model.ReviewerType;
@@ -226,6 +227,30 @@ class AggregatorServiceImplTest {
         assertTrue(result.findings().contains(finding2));
     }
 
+    @Test
+    void testMerge_withOverlappingRewordedFindings() {
+        // Arrange: the same flaw reported on slightly different lines with different wording
+        Finding security = new Finding("Repo.java", 11, 12, "Possible SQL injection",
+                                     "Query is built by string concatenation", "Use a PreparedStatement",
+                                     Severity.HIGH, ReviewerType.SECURITY);
+        Finding cleanCode = new Finding("Repo.java", 10, 12, "SQL injection in query",
+                                      "User input flows into the SQL string", "Bind parameters",
+                                      Severity.MEDIUM, ReviewerType.CLEAN_CODE);
+        Finding elsewhere = new Finding("Repo.java", 40, 41, "SQL injection in query",
+                                      "User input flows into the SQL string", "Bind parameters",
+                                      Severity.MEDIUM, ReviewerType.CLEAN_CODE);
+        List<ReviewResult> parts = List.of(
+                new ReviewResult(List.of(security), "Security review complete"),
+                new ReviewResult(List.of(cleanCode, elsewhere), "Clean code review complete"));
+
+        // Act
+        ReviewResult result = aggregatorService.merge(parts);
+
+        // Assert: the overlapping pair keeps the higher severity; the disjoint one stays
+        assertEquals(List.of(security, elsewhere), result.findings());
+        assertEquals("Findings: 2 (BLOCKER=0, HIGH=1)", result.summary());
+    }
+
     @Test
     void testMerge_withNullResults() {
         // Arrange
@@ -242,4 +267,22 @@ class AggregatorServiceImplTest {
         assertTrue(result.findings().isEmpty());
         assertEquals("Findings: 0 (BLOCKER=0, HIGH=0)", result.summary());
     }
+
+    @Test
+    void testMerge_keepsFailedHunksOfAllParts() {
+        // Arrange
+        FailedHunk security = new FailedHunk("A.java", 1, 4, ReviewerType.SECURITY, "timeout");
+        FailedHunk performance = new FailedHunk("B.java", 7, 9, ReviewerType.PERFORMANCE, "HTTP 503");
+        List<ReviewResult> parts = List.of(
+                new ReviewResult(List.of(), "Security", List.of(security)),
+                new ReviewResult(List.of(), "Performance", List.of(performance)),
+                new ReviewResult(List.of(), "Clean code"));
+
+        // Act
+        ReviewResult result = aggregatorService.merge(parts);
+
+        // Assert
+        assertEquals(List.of(security, performance), result.failedHunks());
+        assertEquals("Findings: 0 (BLOCKER=0, HIGH=0); 2 hunk reviews failed", result.summary());
+    }
 }
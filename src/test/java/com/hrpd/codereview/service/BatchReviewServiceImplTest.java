@@ -0,0 +1,89 @@
+package com.hrpd.codereview.service;
+
+import com.hrpd.codereview.model.BatchReviewItem;
+import com.hrpd.codereview.model.ReviewResult;
+import com.hrpd.codereview.model.request.ReviewPRRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BatchReviewServiceImpl.
+ */
+@ExtendWith(MockitoExtension.class)
+class BatchReviewServiceImplTest {
+
+    private static final ReviewResult RESULT = new ReviewResult(List.of(), "Findings: 0");
+
+    @Mock
+    private PullRequestReviewService reviews;
+
+    private ExecutorService pool;
+    private BatchReviewServiceImpl batch;
+
+    @BeforeEach
+    void setUp() {
+        pool = Executors.newFixedThreadPool(4);
+        batch = new BatchReviewServiceImpl(reviews, pool, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void testReviewAll_reportsEachPrInCompletionOrder() throws Exception {
+        // Arrange: PR 1 is slow, so PR 2 finishes first
+        when(reviews.review("owner/a", 1, true)).thenAnswer(_ -> {
+            Thread.sleep(200);
+            return RESULT;
+        });
+        when(reviews.review("owner/b", 2, true)).thenReturn(RESULT);
+        when(reviews.review("owner/c", 3, false)).thenThrow(new IOException("GitHub API 404"));
+        List<BatchReviewItem> items = new ArrayList<>();
+
+        // Act
+        batch.reviewAll(List.of(
+                new ReviewPRRequest("owner/a", 1, true),
+                new ReviewPRRequest("owner/b", 2, true),
+                new ReviewPRRequest("owner/c", 3, false)), items::add);
+
+        // Assert
+        assertEquals(3, items.size());
+        assertEquals("owner/b", items.get(0).repo());
+        assertEquals("owner/a", items.get(items.size() - 1).repo());
+        BatchReviewItem failed = items.stream().filter(i -> i.prNumber() == 3).findFirst().orElseThrow();
+        assertNull(failed.result());
+        assertEquals("GitHub API 404", failed.error());
+    }
+
+    @Test
+    void testReviewAll_sinkFailureStopsBatch() throws Exception {
+        // Arrange
+        batch = new BatchReviewServiceImpl(reviews, pool, 1);
+        when(reviews.review(anyString(), anyInt(), anyBoolean())).thenReturn(RESULT);
+
+        // Act & Assert
+        assertThrows(UncheckedIOException.class, () -> batch.reviewAll(List.of(
+                new ReviewPRRequest("owner/a", 1, true),
+                new ReviewPRRequest("owner/b", 2, true),
+                new ReviewPRRequest("owner/c", 3, true)), _ -> {
+            throw new UncheckedIOException(new IOException("Broken pipe"));
+        }));
+        verify(reviews, times(1)).review(anyString(), anyInt(), anyBoolean());
+    }
+}
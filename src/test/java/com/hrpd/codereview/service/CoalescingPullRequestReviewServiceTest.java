@@ -0,0 +1,145 @@
+package com.hrpd.codereview.service;
+
+import com.hrpd.codereview.model.FailedHunk;
+import com.hrpd.codereview.model.ReviewResult;
+import com.hrpd.codereview.model.ReviewerType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CoalescingPullRequestReviewService.
+ */
+@ExtendWith(MockitoExtension.class)
+class CoalescingPullRequestReviewServiceTest {
+
+    private static final ReviewResult RESULT = new ReviewResult(List.of(), "Findings: 0");
+
+    @Mock
+    private PullRequestReviewService delegate;
+
+    @Mock
+    private GithubClientService githubClient;
+
+    private CoalescingPullRequestReviewService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CoalescingPullRequestReviewService(delegate, githubClient, "CLEAN_CODE|gpt-4o|0.1", 2);
+    }
+
+    @Test
+    void testReview_memoizesPerHeadSha() throws Exception {
+        // Arrange
+        when(githubClient.fetchPrHeadSha("owner/repo", 1)).thenReturn("aaa", "aaa", "aaa", "bbb");
+        when(delegate.review("owner/repo", 1, true)).thenReturn(RESULT);
+
+        // Act
+        ReviewResult first = service.review("owner/repo", 1, true);
+        ReviewResult second = service.review("owner/repo", 1, true);
+        service.review("owner/repo", 1, true);
+
+        // Assert
+        assertSame(first, second);
+        verify(delegate, times(2)).review("owner/repo", 1, true);
+    }
+
+    @Test
+    void testReview_concurrentRequestsShareOneReview() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(githubClient.fetchPrHeadSha("owner/repo", 2)).thenReturn("aaa");
+        when(delegate.review("owner/repo", 2, true)).thenAnswer(_ -> {
+            started.countDown();
+            release.await();
+            return RESULT;
+        });
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        try {
+            // Act
+            Future<ReviewResult> leader = pool.submit(() -> service.review("owner/repo", 2, true));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<ReviewResult> joiner = pool.submit(() -> service.review("owner/repo", 2, true));
+            Thread.sleep(100);
+            release.countDown();
+
+            // Assert
+            assertSame(RESULT, leader.get(5, TimeUnit.SECONDS));
+            assertSame(RESULT, joiner.get(5, TimeUnit.SECONDS));
+            verify(delegate, times(1)).review("owner/repo", 2, true);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testInvalidate_dropsMemo() throws Exception {
+        // Arrange
+        when(githubClient.fetchPrHeadSha("owner/repo", 3)).thenReturn("aaa");
+        when(delegate.review("owner/repo", 3, false)).thenReturn(RESULT);
+        service.review("owner/repo", 3, false);
+
+        // Act
+        service.invalidateCachedResults();
+        service.review("owner/repo", 3, false);
+
+        // Assert
+        verify(delegate, times(2)).review("owner/repo", 3, false);
+        verify(delegate).invalidateCachedResults();
+    }
+
+    @Test
+    void testReview_headMovedDuringReviewIsNotMemoized() throws Exception {
+        // Arrange: a push lands while the review of aaa runs, so the delegate may have seen bbb's diff
+        when(githubClient.fetchPrHeadSha("owner/repo", 6)).thenReturn("aaa", "bbb", "aaa", "aaa");
+        when(delegate.review("owner/repo", 6, true)).thenReturn(RESULT);
+
+        // Act
+        service.review("owner/repo", 6, true);
+        service.review("owner/repo", 6, true);
+        service.review("owner/repo", 6, true);
+
+        // Assert: the first result was not kept under aaa; the second was
+        verify(delegate, times(2)).review("owner/repo", 6, true);
+    }
+
+    @Test
+    void testReview_failuresAreNotMemoized() throws Exception {
+        // Arrange
+        when(githubClient.fetchPrHeadSha("owner/repo", 4)).thenReturn("aaa");
+        when(delegate.review("owner/repo", 4, true)).thenThrow(new IOException("GitHub API 502")).thenReturn(RESULT);
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> service.review("owner/repo", 4, true));
+        assertSame(RESULT, service.review("owner/repo", 4, true));
+    }
+
+    @Test
+    void testReview_partialResultsAreNotMemoized() throws Exception {
+        // Arrange
+        ReviewResult partial = new ReviewResult(List.of(), "Findings: 0; 1 hunk reviews failed",
+                List.of(new FailedHunk("A.java", 1, 4, ReviewerType.SECURITY, "timeout")));
+        when(githubClient.fetchPrHeadSha("owner/repo", 5)).thenReturn("aaa");
+        when(delegate.review("owner/repo", 5, true)).thenReturn(partial).thenReturn(RESULT);
+
+        // Act & Assert
+        assertSame(partial, service.review("owner/repo", 5, true));
+        assertSame(RESULT, service.review("owner/repo", 5, true));
+        verify(delegate, times(2)).review("owner/repo", 5, true);
+    }
+}
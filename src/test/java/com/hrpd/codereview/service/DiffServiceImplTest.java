@@ -1,9 +1,13 @@
 package com.hrpd.codereview.service;
 
 import com.hrpd.codereview.model.DiffHunk;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -50,15 +54,15 @@ class DiffServiceImplTest {
         
         DiffHunk firstHunk = result.get(0);
         assertEquals("src/main/java/TestFile.java", firstHunk.filePath());
-        assertEquals(0, firstHunk.start());
-        assertEquals(0, firstHunk.end());
+        assertEquals(1, firstHunk.start());
+        assertEquals(4, firstHunk.end());
         assertTrue(firstHunk.patch().contains("@@ -1,3 +1,4 @@"));
         assertTrue(firstHunk.patch().contains("+import java.util.List;"));
         
         DiffHunk secondHunk = result.get(1);
         assertEquals("src/main/java/TestFile.java", secondHunk.filePath());
-        assertEquals(0, secondHunk.start());
-        assertEquals(0, secondHunk.end());
+        assertEquals(6, secondHunk.start());
+        assertEquals(13, secondHunk.end());
         assertTrue(secondHunk.patch().contains("@@ -5,7 +6,8 @@"));
         assertTrue(secondHunk.patch().contains("+        // New comment"));
     }
@@ -218,4 +222,188 @@ class DiffServiceImplTest {
             diffService.parseUnifiedPatch(patch);
         });
     }
+
+    @Test
+    void testParseUnifiedPatch_withHeaderWithoutCounts() {
+        // Arrange
+        String patch = """
+                diff --git a/README.md b/README.md
+                --- a/README.md
+                +++ b/README.md
+                @@ -1 +1 @@
+                -Old title
+                +New title
+                """;
+
+        // Act
+        List<DiffHunk> result = diffService.parseUnifiedPatch(patch);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals("README.md", result.get(0).filePath());
+        assertEquals(1, result.get(0).start());
+        assertEquals(1, result.get(0).end());
+        assertTrue(result.get(0).patch().contains("+New title"));
+    }
+
+    @Test
+    void testParseUnifiedPatch_withDeletedAndRenamedFiles() {
+        // Arrange
+        String patch = """
+                diff --git a/src/Old.java b/src/Old.java
+                deleted file mode 100644
+                --- a/src/Old.java
+                +++ /dev/null
+                @@ -1,2 +0,0 @@
+                -class Old {
+                -}
+                diff --git a/src/Before.java b/src/After.java
+                similarity index 90%
+                rename from src/Before.java
+                rename to src/After.java
+                --- a/src/Before.java
+                +++ b/src/After.java
+                @@ -3,0 +4,2 @@
+                +    int a;
+                +    int b;
+                """;
+
+        // Act
+        List<DiffHunk> result = diffService.parseUnifiedPatch(patch);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals("src/Old.java", result.get(0).filePath());
+        assertEquals(0, result.get(0).start());
+        assertEquals(0, result.get(0).end());
+        assertFalse(result.get(0).patch().contains("diff --git"));
+        assertEquals("src/After.java", result.get(1).filePath());
+        assertEquals(4, result.get(1).start());
+        assertEquals(5, result.get(1).end());
+    }
+
+    @Test
+    void testParseUnifiedPatch_withBodyLinesLookingLikeHeaders() {
+        // Arrange
+        String patch = """
+                diff --git a/notes.txt b/notes.txt
+                --- a/notes.txt
+                +++ b/notes.txt
+                @@ -1,2 +1,2 @@
+                --- removed dashes
+                ++++ added plus
+                 unchanged
+                """;
+
+        // Act
+        List<DiffHunk> result = diffService.parseUnifiedPatch(patch);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals("notes.txt", result.get(0).filePath());
+        assertTrue(result.get(0).patch().contains("--- removed dashes"));
+        assertTrue(result.get(0).patch().contains("++++ added plus"));
+    }
+
+    @Test
+    void testParseUnifiedPatch_withMboxPatchExcludesCommitTrailers() {
+        // Arrange
+        String patch = """
+                From 1111111111111111111111111111111111111111 Mon Sep 17 00:00:00 2001
+                Subject: [PATCH 1/2] First
+
+                ---
+                 A.java | 1 +
+                diff --git a/A.java b/A.java
+                --- a/A.java
+                +++ b/A.java
+                @@ -1 +1,2 @@
+                 class A {}
+                +// one
+                --\s
+                2.39.0
+
+                From 2222222222222222222222222222222222222222 Mon Sep 17 00:00:00 2001
+                Subject: [PATCH 2/2] Second
+
+                ---
+                diff --git a/A.java b/A.java
+                --- a/A.java
+                +++ b/A.java
+                @@ -1,2 +1,3 @@
+                 class A {}
+                 // one
+                +// two
+                --\s
+                2.39.0
+                """;
+
+        // Act
+        List<DiffHunk> result = diffService.parseUnifiedPatch(patch);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertFalse(result.get(0).patch().contains("2.39.0"));
+        assertFalse(result.get(0).patch().contains("From "));
+        assertEquals(1, result.get(1).start());
+        assertEquals(3, result.get(1).end());
+        assertTrue(result.get(1).patch().endsWith("+// two\n"));
+    }
+
+    @Test
+    void testStreamUnifiedPatch_matchesInMemoryParsing() throws IOException {
+        // Arrange
+        String patch = """
+                diff --git a/src/main/java/File1.java b/src/main/java/File1.java
+                --- a/src/main/java/File1.java
+                +++ b/src/main/java/File1.java
+                @@ -1,3 +1,4 @@
+                 package com.example;
+                +import java.util.List;
+                 class File1 {}
+                diff --git a/src/main/java/File2.java b/src/main/java/File2.java
+                --- a/src/main/java/File2.java
+                +++ b/src/main/java/File2.java
+                @@ -7,2 +7,3 @@
+                 class File2 {
+                +    int x;
+                 }
+                """;
+        List<DiffHunk> streamed = new ArrayList<>();
+
+        // Act
+        int count = diffService.streamUnifiedPatch(new StringReader(patch), streamed::add);
+        List<DiffHunk> parsed = diffService.parseUnifiedPatch(patch);
+
+        // Assert
+        assertEquals(2, count);
+        assertEquals(parsed.size(), streamed.size());
+        for (int i = 0; i < parsed.size(); i++) {
+            assertEquals(parsed.get(i).filePath(), streamed.get(i).filePath());
+            assertEquals(parsed.get(i).start(), streamed.get(i).start());
+            assertEquals(parsed.get(i).end(), streamed.get(i).end());
+            assertEquals(parsed.get(i).patch(), streamed.get(i).patch());
+        }
+    }
+
+    @Test
+    void testParseUnifiedPatch_recordsParseMetrics() {
+        // Arrange
+        String patch = """
+                diff --git a/src/main/java/File1.java b/src/main/java/File1.java
+                --- a/src/main/java/File1.java
+                +++ b/src/main/java/File1.java
+                @@ -1,1 +1,2 @@
+                +import java.util.List;
+                 class File1 {}
+                """;
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        // Act
+        new DiffServiceImpl(registry).parseUnifiedPatch(patch);
+
+        // Assert
+        assertEquals(1, registry.timer(DiffServiceImpl.PARSE_METRIC, "mode", "buffered").count());
+        assertEquals(1.0, registry.summary(DiffServiceImpl.HUNKS_METRIC, "mode", "buffered").totalAmount());
+    }
 }
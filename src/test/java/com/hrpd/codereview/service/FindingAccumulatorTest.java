@@ -0,0 +1,94 @@
+package com.hrpd.codereview.service;
+
+import com.hrpd.codereview.model.Finding;
+import com.hrpd.codereview.model.ReviewResult;
+import com.hrpd.codereview.model.ReviewerType;
+import com.hrpd.codereview.model.Severity;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FindingAccumulator.
+ */
+class FindingAccumulatorTest {
+
+    @Test
+    void testAdd_higherSeverityDuplicateReplacesAndRecounts() {
+        // Arrange
+        FindingAccumulator accumulator = new FindingAccumulator();
+        Finding medium = new Finding("Service.java", 3, 4, "SQL  Injection",
+                "r", "s", Severity.MEDIUM, ReviewerType.CLEAN_CODE);
+        Finding blocker = new Finding("Service.java", 3, 4, "sql injection",
+                "r", "s", Severity.BLOCKER, ReviewerType.SECURITY);
+
+        // Act
+        accumulator.add(medium);
+        accumulator.add(blocker);
+        ReviewResult result = accumulator.snapshot();
+
+        // Assert
+        assertEquals(List.of(blocker), result.findings());
+        assertEquals("Findings: 1 (BLOCKER=1, HIGH=0)", result.summary());
+        assertEquals(2, accumulator.received());
+        assertEquals(0, accumulator.count(Severity.MEDIUM));
+        assertEquals(0, accumulator.count(ReviewerType.CLEAN_CODE));
+        assertEquals(1, accumulator.count(ReviewerType.SECURITY));
+    }
+
+    @Test
+    void testAdd_lowerSeverityDuplicateIsDropped() {
+        // Arrange
+        FindingAccumulator accumulator = new FindingAccumulator();
+        Finding high = new Finding("A.java", 1, 1, "Issue", "r", "s", Severity.HIGH, ReviewerType.SECURITY);
+        Finding low = new Finding("A.java", 1, 1, "Issue", "r", "s", Severity.LOW, ReviewerType.PERFORMANCE);
+
+        // Act
+        accumulator.addAll(List.of(high, low));
+
+        // Assert
+        assertEquals(List.of(high), accumulator.snapshot().findings());
+        assertEquals(0, accumulator.count(Severity.LOW));
+        assertEquals(0, accumulator.count(ReviewerType.PERFORMANCE));
+    }
+
+    @Test
+    void testAdd_concurrentReviewersAgreeWithSerialMerge() throws Exception {
+        // Arrange: every thread reports the same 200 findings, each at its own severity
+        FindingAccumulator accumulator = new FindingAccumulator();
+        Severity[] severities = Severity.values();
+        ExecutorService pool = Executors.newFixedThreadPool(severities.length);
+        List<Future<?>> tasks = new ArrayList<>();
+
+        // Act
+        for (Severity severity : severities) {
+            tasks.add(pool.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    accumulator.add(new Finding("F" + (i % 20) + ".java", i, i, "Issue " + i,
+                            "r", "s", severity, ReviewerType.SECURITY));
+                    if (i % 50 == 0) {
+                        accumulator.snapshot();
+                    }
+                }
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+        pool.shutdown();
+        ReviewResult result = accumulator.snapshot();
+
+        // Assert
+        assertEquals(200, result.findings().size());
+        assertTrue(result.findings().stream().allMatch(f -> f.severity() == Severity.BLOCKER));
+        assertEquals("Findings: 200 (BLOCKER=200, HIGH=0)", result.summary());
+        assertEquals(200L * severities.length, accumulator.received());
+        assertEquals(200, accumulator.count(ReviewerType.SECURITY));
+    }
+}
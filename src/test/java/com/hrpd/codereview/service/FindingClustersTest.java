@@ -0,0 +1,121 @@
+package com.hrpd.codereview.service;
+
+import com.hrpd.codereview.model.Finding;
+import com.hrpd.codereview.model.ReviewerType;
+import com.hrpd.codereview.model.Severity;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FindingClusters.
+ */
+class FindingClustersTest {
+
+    @Test
+    void testCluster_mergesByRationaleWhenTitlesDiffer() {
+        // Arrange
+        Finding a = finding("A.java", 5, 9, "Resource leak", "The input stream is never closed on the error path",
+                Severity.LOW);
+        Finding b = finding("A.java", 8, 8, "Stream not closed", "The input stream is never closed on the error path",
+                Severity.HIGH);
+
+        // Act
+        List<Finding> result = FindingClusters.cluster(List.of(a, b));
+
+        // Assert
+        assertEquals(List.of(b), result);
+    }
+
+    @Test
+    void testCluster_keepsUnrelatedOverlappingFindings() {
+        // Arrange
+        Finding a = finding("A.java", 1, 20, "Unused variable", "counter is assigned but never read", Severity.LOW);
+        Finding b = finding("A.java", 3, 4, "Unused import", "java.util.Map is not used", Severity.LOW);
+
+        // Act
+        List<Finding> result = FindingClusters.cluster(List.of(b, a));
+
+        // Assert: ordered by file and start line
+        assertEquals(List.of(a, b), result);
+    }
+
+    @Test
+    void testCluster_rangeGrowsWithMembersAndFilesStaySeparate() {
+        // Arrange: c overlaps b but not a; b extended a's cluster to line 20
+        Finding a = finding("A.java", 1, 5, "Hardcoded password", "r1", Severity.MEDIUM);
+        Finding b = finding("A.java", 4, 20, "Hard-coded password in source", "r2", Severity.MEDIUM);
+        Finding c = finding("A.java", 18, 19, "Hardcoded password", "r3", Severity.BLOCKER);
+        Finding other = finding("B.java", 1, 5, "Hardcoded password", "r1", Severity.MEDIUM);
+
+        // Act
+        List<Finding> result = FindingClusters.cluster(List.of(other, c, b, a));
+
+        // Assert
+        assertEquals(List.of(c, other), result);
+    }
+
+    @Test
+    void testCluster_keepsDistinctIssuesWithSimilarTitles() {
+        // Arrange: same lines, titles that share a qualifier but not the issue
+        Finding npe = finding("A.java", 10, 12, "Potential NPE", "user may be null", Severity.MEDIUM);
+        Finding sql = finding("A.java", 10, 12, "Potential SQL injection", "name is concatenated into the query",
+                Severity.HIGH);
+        Finding password = finding("A.java", 20, 20, "Hardcoded password", "the password is a literal",
+                Severity.HIGH);
+        Finding url = finding("A.java", 20, 20, "Hardcoded URL", "the endpoint should be configurable",
+                Severity.LOW);
+
+        // Act
+        List<Finding> result = FindingClusters.cluster(List.of(npe, sql, password, url));
+
+        // Assert
+        assertEquals(List.of(npe, sql, password, url), result);
+    }
+
+    @Test
+    void testCluster_mergesRewordedTitles() {
+        // Arrange
+        Finding a = finding("A.java", 10, 12, "SQL injection in query", "r1", Severity.MEDIUM);
+        Finding b = finding("A.java", 11, 12, "Possible SQL injection", "r2", Severity.HIGH);
+
+        // Act
+        List<Finding> result = FindingClusters.cluster(List.of(a, b));
+
+        // Assert
+        assertEquals(List.of(b), result);
+    }
+
+    @Test
+    void testCluster_closedClustersDoNotAbsorbLaterFindings() {
+        // Arrange: many short, similar findings, each on its own line
+        List<Finding> findings = new ArrayList<>();
+        for (int line = 1; line <= 1000; line++) {
+            findings.add(finding("A.java", line, line, "Magic number", "Extract a constant", Severity.INFO));
+        }
+
+        // Act
+        List<Finding> result = FindingClusters.cluster(findings);
+
+        // Assert
+        assertEquals(findings, result);
+    }
+
+    @Test
+    void testTitleWordsAndJaccard() {
+        assertEquals(1.0, FindingClusters.jaccard(FindingClusters.titleWords("SQL injection"),
+                FindingClusters.titleWords("Possible SQL injection!")));
+        assertEquals(Set.of("hardcoded", "password"), FindingClusters.titleWords("Hard-coded password"));
+        assertEquals(0.0, FindingClusters.jaccard(FindingClusters.shingles(null), FindingClusters.shingles("x")));
+        assertTrue(FindingClusters.jaccard(FindingClusters.titleWords("Hardcoded password"),
+                FindingClusters.titleWords("Hardcoded URL")) < FindingClusters.TITLE_SIMILARITY);
+    }
+
+    private static Finding finding(String file, int start, int end, String title, String rationale, Severity severity) {
+        return new Finding(file, start, end, title, rationale, "s", severity, ReviewerType.SECURITY);
+    }
+}
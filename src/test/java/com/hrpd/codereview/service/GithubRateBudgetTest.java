@@ -0,0 +1,86 @@
+package com.hrpd.codereview.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GithubRateBudget.
+ */
+class GithubRateBudgetTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    @Test
+    void testReserve_unknownBudgetDoesNotWait() {
+        // Arrange
+        GithubRateBudget budget = new GithubRateBudget(10, Duration.ofMinutes(5), now::get);
+
+        // Act & Assert
+        assertEquals(0, budget.reserve());
+    }
+
+    @Test
+    void testReserve_waitsForResetBelowReserve() {
+        // Arrange
+        GithubRateBudget budget = new GithubRateBudget(10, Duration.ofMinutes(5), now::get);
+        budget.update(200, headers(Map.of("X-RateLimit-Remaining", "11", "X-RateLimit-Reset", "1060")));
+
+        // Act
+        long first = budget.reserve();
+        long second = budget.reserve();
+
+        // Assert - 11 left: one more request, then wait for the reset at t=1060s
+        assertEquals(0, first);
+        assertEquals(60_000, second);
+    }
+
+    @Test
+    void testReserve_newWindowRestoresBudget() {
+        // Arrange
+        GithubRateBudget budget = new GithubRateBudget(10, Duration.ofMinutes(5), now::get);
+        budget.update(200, headers(Map.of("X-RateLimit-Remaining", "5", "X-RateLimit-Reset", "1060")));
+
+        // Act
+        now.set(1_061_000L);
+
+        // Assert
+        assertEquals(0, budget.reserve());
+    }
+
+    @Test
+    void testUpdate_retryAfterPausesAllCallers() {
+        // Arrange
+        GithubRateBudget budget = new GithubRateBudget(10, Duration.ofMinutes(5), now::get);
+
+        // Act
+        budget.update(403, headers(Map.of("Retry-After", "30")));
+
+        // Assert
+        assertEquals(30_000, budget.reserve());
+        assertEquals(30_000, budget.reserve());
+    }
+
+    @Test
+    void testAcquire_failsWhenWaitExceedsMaximum() {
+        // Arrange
+        GithubRateBudget budget = new GithubRateBudget(10, Duration.ofSeconds(1), now::get);
+        budget.update(403, headers(Map.of("X-RateLimit-Remaining", "0", "X-RateLimit-Reset", "4600")));
+
+        // Act & Assert
+        assertThrows(IOException.class, budget::acquire);
+    }
+
+    private static HttpHeaders headers(Map<String, String> values) {
+        return HttpHeaders.of(values.entrySet().stream()
+                        .collect(java.util.stream.Collectors.toMap(Map.Entry::getKey, e -> List.of(e.getValue()))),
+                (k, v) -> true);
+    }
+}
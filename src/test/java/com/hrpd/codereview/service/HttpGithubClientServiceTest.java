@@ -1,10 +1,23 @@
 package com.hrpd.codereview.service;
 
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -160,4 +173,209 @@ class HttpGithubClientServiceTest {
             githubService.fetchPrDiff("owner/repo", 123);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFetchPrDiff_revalidatesCachedResponse(@TempDir Path cacheDir) throws Exception {
+        // Arrange
+        String diff = "diff --git a/A.java b/A.java\n";
+        List<String> conditions = new CopyOnWriteArrayList<>();
+        HttpServer server = etagServer(diff, "\"v1\"", conditions);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GithubResponseCache cache = new GithubResponseCache(cacheDir, 1024 * 1024, registry);
+        HttpGithubClientService service = new HttpGithubClientService(
+                "http://localhost:" + server.getAddress().getPort(), "", 1024 * 1024, cache);
+
+        try {
+            // Act
+            String first = service.fetchPrDiff("owner/repo", 7);
+            String second = service.fetchPrDiff("owner/repo", 7);
+
+            // Assert
+            assertEquals(diff, first);
+            assertEquals(diff, second);
+            assertEquals(List.of("", "\"v1\""), conditions);
+            assertEquals(1.0, registry.counter("codereview.github.cache.requests", "result", "hit").count());
+            assertEquals(1, cache.entries());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testFetchPrDiff_refetchesBodyEvictedBeforeItsNotModified(@TempDir Path cacheDir) throws Exception {
+        // Arrange - the body is deleted between the lookup and the 304, as a concurrent eviction would
+        String diff = "diff --git a/C.java b/C.java\n";
+        List<String> conditions = new CopyOnWriteArrayList<>();
+        HttpServer server = etagServer(diff, "\"v3\"", conditions);
+        GithubResponseCache cache = new GithubResponseCache(cacheDir, 1024 * 1024, new SimpleMeterRegistry());
+        HttpGithubClientService service = new HttpGithubClientService(
+                "http://localhost:" + server.getAddress().getPort(), "", 1024 * 1024, cache);
+
+        try {
+            service.fetchPrDiff("owner/repo", 9);
+            String key = GithubResponseCache.key("owner/repo", 9, "application/vnd.github.v3.diff");
+            java.nio.file.Files.delete(cache.lookup(key).body());
+
+            // Act
+            String refetched = service.fetchPrDiff("owner/repo", 9);
+
+            // Assert - the 304 is followed by a request without validators, whose body is cached again
+            assertEquals(diff, refetched);
+            assertEquals(List.of("", "\"v3\"", ""), conditions);
+            assertEquals(1, cache.entries());
+            assertEquals(diff, cache.readHit(cache.lookup(key)));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testStreamPrDiff_cachesOnlyFullyReadBodies(@TempDir Path cacheDir) throws Exception {
+        // Arrange
+        String diff = "diff --git a/B.java b/B.java\n".repeat(100);
+        List<String> conditions = new CopyOnWriteArrayList<>();
+        HttpServer server = etagServer(diff, "\"v2\"", conditions);
+        GithubResponseCache cache = new GithubResponseCache(cacheDir, 1024 * 1024, new SimpleMeterRegistry());
+        HttpGithubClientService service = new HttpGithubClientService(
+                "http://localhost:" + server.getAddress().getPort(), "", 1024 * 1024, cache);
+
+        try {
+            // Act - an abandoned stream is not cached, a complete one is
+            try (InputStream partial = service.streamPrDiff("owner/repo", 8)) {
+                partial.readNBytes(10);
+            }
+            assertEquals(0, cache.entries());
+            try (InputStream full = service.streamPrDiff("owner/repo", 8)) {
+                full.readAllBytes();
+            }
+            String cached;
+            try (InputStream again = service.streamPrDiff("owner/repo", 8)) {
+                cached = new String(again.readAllBytes(), StandardCharsets.UTF_8);
+            }
+
+            // Assert
+            assertEquals(diff, cached);
+            assertEquals(List.of("", "", "\"v2\""), conditions);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testCache_evictsLeastRecentlyUsed(@TempDir Path cacheDir) throws Exception {
+        // Arrange
+        GithubResponseCache cache = new GithubResponseCache(cacheDir, 10, new SimpleMeterRegistry());
+
+        // Act
+        cache.store("a", "\"a\"", null, "123456");
+        cache.store("b", "\"b\"", null, "123456");
+
+        // Assert
+        assertNull(cache.lookup("a"));
+        assertNotNull(cache.lookup("b"));
+        assertEquals(6, cache.sizeBytes());
+        assertEquals(1, new GithubResponseCache(cacheDir, 10, new SimpleMeterRegistry()).entries());
+    }
+
+    @Test
+    void testFetchPrDiff_retriesServerErrors() throws Exception {
+        // Arrange - two 502s, then the diff
+        AtomicInteger calls = new AtomicInteger();
+        HttpServer server = statusServer(calls, 502, 502, 200);
+        HttpGithubClientService service = new HttpGithubClientService(
+                "http://localhost:" + server.getAddress().getPort(), "", 1024, null, fastRetries(3));
+
+        try {
+            // Act
+            String diff = service.fetchPrDiff("owner/repo", 9);
+
+            // Assert
+            assertEquals("ok", diff);
+            assertEquals(3, calls.get());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testFetchPrDiff_doesNotRetryPlainForbidden() throws Exception {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        HttpServer server = statusServer(calls, 403, 200);
+        HttpGithubClientService service = new HttpGithubClientService(
+                "http://localhost:" + server.getAddress().getPort(), "", 1024, null, fastRetries(3));
+
+        try {
+            // Act & Assert
+            assertThrows(java.io.IOException.class, () -> service.fetchPrDiff("owner/repo", 9));
+            assertEquals(1, calls.get());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testSubmitReview_doesNotRetryServerErrors() throws Exception {
+        // Arrange - GitHub may have created the review before answering 502
+        AtomicInteger calls = new AtomicInteger();
+        HttpServer server = statusServer(calls, 502, 200);
+        HttpGithubClientService service = new HttpGithubClientService(
+                "http://localhost:" + server.getAddress().getPort(), "", 1024, null, fastRetries(3));
+
+        try {
+            // Act & Assert
+            assertThrows(java.io.IOException.class, () -> service.submitReview("owner/repo", 9, "{}"));
+            assertEquals(1, calls.get());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static GithubClientOptions fastRetries(int attempts) {
+        return new GithubClientOptions(Duration.ofSeconds(1), Duration.ofSeconds(5), attempts,
+                Duration.ofMillis(1), Duration.ofMillis(5), 0, Duration.ofSeconds(1));
+    }
+
+    /**
+     * Answers successive requests with the given statuses; a 200 carries the body {@code ok}.
+     */
+    private static HttpServer statusServer(AtomicInteger calls, int... statuses) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/repos/owner/repo/pulls/", exchange -> {
+            int status = statuses[Math.min(calls.getAndIncrement(), statuses.length - 1)];
+            byte[] bytes = (status == 200 ? "ok" : "error " + status).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+
+    /**
+     * Serves {@code body} with {@code etag}, answering 304 when the request carries it, and
+     * records each request's If-None-Match header (empty if absent).
+     */
+    private static HttpServer etagServer(String body, String etag, List<String> conditions) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/repos/owner/repo/pulls/", exchange -> {
+            String condition = exchange.getRequestHeaders().getFirst("If-None-Match");
+            conditions.add(condition == null ? "" : condition);
+            exchange.getResponseHeaders().add("ETag", etag);
+            if (etag.equals(condition)) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+}
@@ -1,22 +1,47 @@
 package com.hrpd.codereview.service;
 
+import com.hrpd.codereview.jfr.AggregationEvent;
+import com.hrpd.codereview.jfr.ReviewEvent;
+import com.hrpd.codereview.model.CheckpointedCall;
 import com.hrpd.codereview.model.DiffHunk;
+import com.hrpd.codereview.model.FailedHunk;
 import com.hrpd.codereview.model.Finding;
 import com.hrpd.codereview.model.ReviewResult;
 import com.hrpd.codereview.model.ReviewerType;
 import com.hrpd.codereview.model.Severity;
+import com.hrpd.codereview.model.TokenUsage;
+import com.hrpd.codereview.reviewer.HunkRetry;
 import com.hrpd.codereview.reviewer.Reviewer;
+import com.hrpd.codereview.reviewer.TokenMeter;
+import com.hrpd.codereview.utils.HunkQueue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.retry.TransientAiException;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -160,6 +185,44 @@ class ParallelWorkflowServiceImplTest {
         verify(aggregatorService).merge(any());
     }
 
+    @Test
+    void testRun_emitsFlightRecorderEvents(@TempDir Path tmp) throws Exception {
+        // Arrange: a real aggregator, so the merge is recorded too
+        ParallelWorkflowServiceImpl recorded = new ParallelWorkflowServiceImpl(List.of(securityReviewer),
+                new AggregatorServiceImpl(), executorService);
+        List<DiffHunk> hunks = List.of(new DiffHunk("TestFile.java", 1, 10, "diff content"));
+        Finding finding = new Finding("TestFile.java", 1, 5, "Security Issue", "r", "s",
+                Severity.HIGH, ReviewerType.SECURITY);
+        when(securityReviewer.type()).thenReturn(ReviewerType.SECURITY);
+        when(securityReviewer.review(hunks)).thenReturn(new ReviewResult(List.of(finding), "Security review complete"));
+        Path file = tmp.resolve("review.jfr");
+
+        // Act
+        try (Recording recording = new Recording()) {
+            recording.enable(ReviewEvent.NAME);
+            recording.enable(AggregationEvent.NAME);
+            recording.start();
+            recorded.run(hunks, false);
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+        // Assert
+        RecordedEvent review = events.stream()
+                .filter(e -> e.getEventType().getName().equals(ReviewEvent.NAME)).findFirst().orElseThrow();
+        RecordedEvent merge = events.stream()
+                .filter(e -> e.getEventType().getName().equals(AggregationEvent.NAME)).findFirst().orElseThrow();
+        assertEquals("sequential", review.getString("mode"));
+        assertEquals(1, review.getInt("hunks"));
+        assertEquals(1, review.getInt("hunksScheduled"));
+        assertEquals(1, review.getInt("findings"));
+        assertEquals("merge", merge.getString("mode"));
+        assertEquals(1, merge.getInt("unique"));
+        assertTrue(review.getLong("reviewId") > 0);
+        assertEquals(review.getLong("reviewId"), merge.getLong("reviewId"));
+    }
+
     @Test
     void testRun_withNullHunks() {
         // Act & Assert
@@ -236,4 +299,415 @@ class ParallelWorkflowServiceImplTest {
         assertTrue(duration >= 0); // Basic performance check
         assertEquals("Aggregated review complete", result.summary());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testRunGate_eventCountsScheduledHunksSeparately(@TempDir Path tmp) throws Exception {
+        // Arrange: a known finding fails the gate before any hunk is scheduled
+        List<DiffHunk> hunks = List.of(new DiffHunk("A.java", 1, 10, "diff a"), new DiffHunk("B.java", 1, 10, "diff b"));
+        Finding known = new Finding("A.java", 2, 2, "Hardcoded secret", "r", "s", Severity.BLOCKER,
+                ReviewerType.SECURITY);
+        Path file = tmp.resolve("gate.jfr");
+
+        // Act
+        try (Recording recording = new Recording()) {
+            recording.enable(ReviewEvent.NAME);
+            recording.start();
+            workflowService.runGate(hunks, List.of(known));
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // Assert
+        RecordedEvent review = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals(ReviewEvent.NAME)).findFirst().orElseThrow();
+        assertEquals("failed", review.getString("verdict"));
+        assertEquals(2, review.getInt("hunks"));
+        assertEquals(0, review.getInt("hunksScheduled"));
+    }
+
+    @Test
+    void testRunStreaming_reviewsHunksAsTheyArrive() throws Exception {
+        // Arrange
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        ParallelWorkflowServiceImpl streaming =
+                new ParallelWorkflowServiceImpl(List.of(securityReviewer), aggregatorService, pool, 2);
+        DiffHunk first = new DiffHunk("File1.java", 1, 10, "diff1");
+        DiffHunk second = new DiffHunk("File2.java", 1, 10, "diff2");
+        Finding finding = new Finding("File1.java", 1, 5, "Security Issue",
+                "Security rationale", "Security suggestion", Severity.HIGH, ReviewerType.SECURITY);
+
+        when(securityReviewer.retrieveGrounding()).thenReturn("standards");
+        when(securityReviewer.reviewHunk(first, "standards")).thenReturn(List.of(finding));
+        when(securityReviewer.reviewHunk(second, "standards")).thenReturn(List.of());
+
+        HunkQueue queue = new HunkQueue(1, new SimpleMeterRegistry());
+        Thread producer = Thread.ofVirtual().start(() -> {
+            queue.accept(first);
+            queue.accept(second);
+            queue.complete();
+        });
+
+        // Act
+        ReviewResult result = streaming.runStreaming(queue);
+        producer.join();
+        pool.shutdown();
+
+        // Assert
+        assertEquals(List.of(finding), result.findings());
+        assertEquals("Findings: 1 (BLOCKER=0, HIGH=1)", result.summary());
+        verify(securityReviewer, times(1)).retrieveGrounding();
+        verify(securityReviewer).reviewHunk(second, "standards");
+        verify(aggregatorService, never()).merge(any());
+    }
+
+    @Test
+    void testRunStreaming_interruptedRunStopsMakingCalls() throws Exception {
+        // Arrange: one call at a time, and the first call blocks until interrupted, then until released
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ParallelWorkflowServiceImpl streaming = new ParallelWorkflowServiceImpl(
+                List.of(securityReviewer), aggregatorService, pool, 1, Severity.HIGH, HunkRetry.NONE, 0, registry);
+        List<DiffHunk> hunks = IntStream.rangeClosed(1, 10)
+                .mapToObj(i -> new DiffHunk("File" + i + ".java", 1, 10, "diff" + i))
+                .toList();
+        CountDownLatch calling = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(securityReviewer.retrieveGrounding()).thenReturn("standards");
+        when(securityReviewer.reviewHunk(any(), eq("standards"))).thenAnswer(invocation -> {
+            calling.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            release.await();
+            return List.of();
+        });
+
+        CompletableFuture<Throwable> outcome = new CompletableFuture<>();
+        Thread run = Thread.ofVirtual().start(() -> {
+            try {
+                streaming.runStreaming(hunks);
+                outcome.complete(null);
+            } catch (RuntimeException e) {
+                outcome.complete(e);
+            }
+        });
+        assertTrue(calling.await(5, TimeUnit.SECONDS));
+
+        // Act: supersede the run the way the scheduler does, by interrupting it
+        run.interrupt();
+        Throwable thrown = outcome.get(5, TimeUnit.SECONDS);
+
+        // Assert: the call in flight was interrupted and holds its permit until it has exited
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertEquals(1.0, registry.get(ParallelWorkflowServiceImpl.IN_FLIGHT_METRIC).gauge().value());
+        release.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(0.0, registry.get(ParallelWorkflowServiceImpl.IN_FLIGHT_METRIC).gauge().value());
+
+        // Assert: the run was abandoned and no call was started after the one in flight
+        assertInstanceOf(IllegalStateException.class, thrown);
+        verify(securityReviewer, times(1)).reviewHunk(any(), any());
+    }
+
+    @Test
+    void testRun_parallelInterruptedRunInterruptsReviewers() throws Exception {
+        // Arrange: the reviewer blocks until it is interrupted
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        ParallelWorkflowServiceImpl parallel =
+                new ParallelWorkflowServiceImpl(List.of(securityReviewer), aggregatorService, pool);
+        List<DiffHunk> hunks = List.of(new DiffHunk("File1.java", 1, 10, "diff1"));
+        CountDownLatch reviewing = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        when(securityReviewer.review(hunks)).thenAnswer(invocation -> {
+            reviewing.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return new ReviewResult(List.of(), "");
+        });
+
+        CompletableFuture<Throwable> outcome = new CompletableFuture<>();
+        Thread run = Thread.ofVirtual().start(() -> {
+            try {
+                parallel.run(hunks, true);
+                outcome.complete(null);
+            } catch (RuntimeException e) {
+                outcome.complete(e);
+            }
+        });
+        assertTrue(reviewing.await(5, TimeUnit.SECONDS));
+
+        // Act
+        run.interrupt();
+        Throwable thrown = outcome.get(5, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        // Assert: the interrupt reached the reviewer, which stops before its next hunk
+        assertInstanceOf(IllegalStateException.class, thrown);
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        verify(aggregatorService, never()).merge(any());
+    }
+
+    @Test
+    void testRunStreaming_retriesTransientFailuresAndListsFailedHunks() {
+        // Arrange
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        ParallelWorkflowServiceImpl streaming = new ParallelWorkflowServiceImpl(List.of(securityReviewer),
+                aggregatorService, pool, 2, Severity.HIGH, new HunkRetry(3, Duration.ZERO, Duration.ZERO, 0.2, 20));
+        DiffHunk flaky = new DiffHunk("File1.java", 1, 10, "diff1");
+        DiffHunk broken = new DiffHunk("File2.java", 3, 8, "diff2");
+        Finding finding = new Finding("File1.java", 1, 5, "Security Issue",
+                "Security rationale", "Security suggestion", Severity.HIGH, ReviewerType.SECURITY);
+
+        when(securityReviewer.type()).thenReturn(ReviewerType.SECURITY);
+        when(securityReviewer.retrieveGrounding()).thenReturn("standards");
+        when(securityReviewer.reviewHunk(flaky, "standards"))
+                .thenThrow(new TransientAiException("503 Service Unavailable"))
+                .thenReturn(List.of(finding));
+        when(securityReviewer.reviewHunk(broken, "standards")).thenThrow(new IllegalArgumentException("bad request"));
+
+        HunkQueue queue = new HunkQueue(4, new SimpleMeterRegistry());
+        queue.accept(flaky);
+        queue.accept(broken);
+        queue.complete();
+
+        // Act
+        ReviewResult result = streaming.runStreaming(queue);
+        pool.shutdown();
+
+        // Assert: the flaky hunk succeeded on retry, the broken one failed once and is listed
+        assertEquals(List.of(finding), result.findings());
+        assertEquals(List.of(new FailedHunk("File2.java", 3, 8, ReviewerType.SECURITY, "bad request")),
+                result.failedHunks());
+        assertEquals("Findings: 1 (BLOCKER=0, HIGH=1); 1 hunk reviews failed", result.summary());
+        verify(securityReviewer, times(2)).reviewHunk(flaky, "standards");
+        verify(securityReviewer, times(1)).reviewHunk(broken, "standards");
+    }
+
+    @Test
+    void testRunStreaming_resumesFromCheckpoint() {
+        // Arrange: the first hunk was reviewed before the interruption, the second was not
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        ParallelWorkflowServiceImpl streaming =
+                new ParallelWorkflowServiceImpl(List.of(securityReviewer), aggregatorService, pool, 2);
+        DiffHunk done = new DiffHunk("File1.java", 1, 10, "@@ -1,9 +1,10 @@\n+done");
+        DiffHunk missing = new DiffHunk("File2.java", 3, 8, "@@ -3,5 +3,6 @@\n+missing");
+        Finding before = new Finding("File1.java", 2, 2, "Recorded", "r", "s", Severity.LOW, ReviewerType.SECURITY);
+        Finding now = new Finding("File2.java", 4, 4, "Fresh", "r", "s", Severity.HIGH, ReviewerType.SECURITY);
+        List<CheckpointedCall> saved = new CopyOnWriteArrayList<>(List.of(new CheckpointedCall(
+                ReviewerType.SECURITY, IncrementalReview.hash(done), 1, List.of(before))));
+        ReviewCheckpointService store = new ReviewCheckpointService() {
+            @Override
+            public List<CheckpointedCall> load(String reviewId) {
+                return List.copyOf(saved);
+            }
+
+            @Override
+            public void save(String reviewId, CheckpointedCall call) {
+                saved.add(call);
+            }
+
+            @Override
+            public void delete(String reviewId) {
+            }
+
+            @Override
+            public void deleteAll() {
+            }
+        };
+
+        when(securityReviewer.type()).thenReturn(ReviewerType.SECURITY);
+        when(securityReviewer.retrieveGrounding()).thenReturn("standards");
+        when(securityReviewer.reviewHunk(missing, "standards")).thenReturn(List.of(now));
+
+        // Act
+        ReviewResult result = streaming.runStreaming(List.of(done, missing), new ReviewCheckpoint(store, "r1"));
+        pool.shutdown();
+
+        // Assert: only the missing pair was called, and its result is now recorded too
+        assertEquals(2, result.findings().size());
+        assertTrue(result.findings().containsAll(List.of(before, now)));
+        assertTrue(result.summary().endsWith("; resumed 1 reviewer calls from checkpoint"));
+        verify(securityReviewer, never()).reviewHunk(eq(done), any());
+        assertEquals(new CheckpointedCall(ReviewerType.SECURITY, IncrementalReview.hash(missing), 3, List.of(now)),
+                saved.get(1));
+    }
+
+    @Test
+    void testRunStreaming_degradesRemainingHunksOnceTokenBudgetIsUsed() {
+        // Arrange: one call at a time, and the first call alone uses up the budget
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        ParallelWorkflowServiceImpl streaming = new ParallelWorkflowServiceImpl(List.of(securityReviewer),
+                aggregatorService, pool, 1, Severity.HIGH, HunkRetry.NONE, 100);
+        DiffHunk first = new DiffHunk("A.java", 1, 2, "+int a;\n");
+        DiffHunk second = new DiffHunk("B.java", 1, 2, "+String password = \"hunter22\";\n");
+        when(securityReviewer.type()).thenReturn(ReviewerType.SECURITY);
+        when(securityReviewer.retrieveGrounding()).thenReturn("standards");
+        when(securityReviewer.reviewHunk(first, "standards")).thenAnswer(invocation -> {
+            TokenMeter.record("SECURITY", new DefaultUsage(80, 30), new SimpleMeterRegistry());
+            return List.of();
+        });
+
+        // Act
+        ReviewResult result = streaming.runStreaming(List.of(first, second));
+        pool.shutdown();
+
+        // Assert: the second hunk got local analysis instead of a call, and the usage is reported
+        assertEquals(new TokenUsage(80, 30, 0), result.usage());
+        assertEquals(List.of("Hardcoded secret"), result.findings().stream().map(Finding::title).toList());
+        assertEquals(1, result.failedHunks().size());
+        assertTrue(result.failedHunks().get(0).degraded());
+        assertTrue(result.summary().endsWith("; token budget exhausted"), result.summary());
+        verify(securityReviewer, never()).reviewHunk(eq(second), any());
+    }
+
+    @Test
+    void testRunStreaming_producerFailureIsRethrown() {
+        // Arrange
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        ParallelWorkflowServiceImpl streaming =
+                new ParallelWorkflowServiceImpl(List.of(securityReviewer), aggregatorService, pool, 2);
+        HunkQueue queue = new HunkQueue(4, new SimpleMeterRegistry());
+        queue.fail(new java.io.IOException("connection reset"));
+
+        // Act & Assert
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> streaming.runStreaming(queue));
+        assertEquals("connection reset", e.getCause().getMessage());
+        verify(aggregatorService, never()).merge(any());
+        pool.shutdown();
+    }
+
+    @Test
+    void testRunGate_stopsAtFirstFindingOverThreshold() {
+        // Arrange: one call at a time, so nothing is scheduled after the risky hunk's result
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ParallelWorkflowServiceImpl gate = new ParallelWorkflowServiceImpl(
+                List.of(securityReviewer), aggregatorService, pool, 1, Severity.HIGH, HunkRetry.NONE, 0, registry);
+        DiffHunk docs = new DiffHunk("README.md", 1, 2, "+Some docs\n");
+        DiffHunk risky = new DiffHunk("Login.java", 1, 3, "+String password = \"x\";\n+run(sql + id);\n");
+        Finding high = new Finding("Login.java", 1, 1, "Hardcoded password", "r", "s", Severity.HIGH, ReviewerType.SECURITY);
+        when(securityReviewer.retrieveGrounding()).thenReturn("standards");
+        when(securityReviewer.reviewHunk(risky, "standards")).thenReturn(List.of(high));
+
+        // Act
+        ReviewResult result = gate.runGate(List.of(docs, risky), List.of());
+        pool.shutdown();
+
+        // Assert
+        assertEquals(List.of(high), result.findings());
+        assertTrue(result.summary().endsWith("; gate FAILED at HIGH after scheduling 1 of 2 hunks"), result.summary());
+        verify(securityReviewer, never()).reviewHunk(eq(docs), any());
+        assertEquals(1, registry.timer(ParallelWorkflowServiceImpl.REVIEW_METRIC,
+                "mode", "gate", "verdict", "failed").count());
+        assertEquals(1.0, registry.counter(ParallelWorkflowServiceImpl.SKIPPED_METRIC, "reason", "gate").count());
+    }
+
+    @Test
+    void testRunGate_trippedGateInterruptsCallsInFlight() throws Exception {
+        // Arrange: the risky hunk trips the gate while the docs call is talking to the model
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ParallelWorkflowServiceImpl gate = new ParallelWorkflowServiceImpl(
+                List.of(securityReviewer), aggregatorService, pool, 2, Severity.HIGH, HunkRetry.NONE, 0, registry);
+        DiffHunk docs = new DiffHunk("README.md", 1, 2, "+Some docs\n");
+        DiffHunk risky = new DiffHunk("Login.java", 1, 3, "+String password = \"x\";\n+run(sql + id);\n");
+        Finding high = new Finding("Login.java", 1, 1, "Hardcoded password", "r", "s", Severity.HIGH, ReviewerType.SECURITY);
+        CountDownLatch calling = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(securityReviewer.retrieveGrounding()).thenReturn("standards");
+        when(securityReviewer.reviewHunk(risky, "standards")).thenAnswer(invocation -> {
+            calling.await();
+            return List.of(high);
+        });
+        when(securityReviewer.reviewHunk(docs, "standards")).thenAnswer(invocation -> {
+            calling.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            release.await();
+            return List.of();
+        });
+
+        // Act
+        ReviewResult result = gate.runGate(List.of(docs, risky), List.of());
+
+        // Assert: the docs call was interrupted and holds its permit until it has exited
+        assertEquals(List.of(high), result.findings());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertEquals(1.0, registry.get(ParallelWorkflowServiceImpl.IN_FLIGHT_METRIC).gauge().value());
+        release.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(0.0, registry.get(ParallelWorkflowServiceImpl.IN_FLIGHT_METRIC).gauge().value());
+    }
+
+    @Test
+    void testRunGate_reviewsEverythingWhenGatePasses() {
+        // Arrange
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        ParallelWorkflowServiceImpl gate = new ParallelWorkflowServiceImpl(
+                List.of(securityReviewer), aggregatorService, pool, 2, Severity.HIGH);
+        DiffHunk first = new DiffHunk("A.java", 1, 2, "+int a;\n");
+        DiffHunk second = new DiffHunk("B.java", 1, 2, "+int b;\n");
+        Finding medium = new Finding("A.java", 1, 1, "Naming", "r", "s", Severity.MEDIUM, ReviewerType.SECURITY);
+        when(securityReviewer.retrieveGrounding()).thenReturn("standards");
+        when(securityReviewer.reviewHunk(first, "standards")).thenReturn(List.of(medium));
+        when(securityReviewer.reviewHunk(second, "standards")).thenReturn(List.of());
+
+        // Act
+        ReviewResult result = gate.runGate(List.of(first, second), List.of());
+        pool.shutdown();
+
+        // Assert
+        assertEquals(List.of(medium), result.findings());
+        assertEquals("Findings: 1 (BLOCKER=0, HIGH=0); gate passed", result.summary());
+    }
+
+    @Test
+    void testRunGate_failedCallMakesVerdictInconclusive() {
+        // Arrange
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        ParallelWorkflowServiceImpl gate = new ParallelWorkflowServiceImpl(
+                List.of(securityReviewer), aggregatorService, pool, 2, Severity.HIGH);
+        DiffHunk first = new DiffHunk("A.java", 1, 2, "+int a;\n");
+        DiffHunk second = new DiffHunk("B.java", 1, 2, "+int b;\n");
+        when(securityReviewer.type()).thenReturn(ReviewerType.SECURITY);
+        when(securityReviewer.retrieveGrounding()).thenReturn("standards");
+        when(securityReviewer.reviewHunk(first, "standards")).thenReturn(List.of());
+        when(securityReviewer.reviewHunk(second, "standards")).thenThrow(new TransientAiException("503"));
+
+        // Act
+        ReviewResult result = gate.runGate(List.of(first, second), List.of());
+        pool.shutdown();
+
+        // Assert: an unreviewed hunk must not let the gate pass
+        assertEquals(1, result.failedHunks().size());
+        assertTrue(result.summary().endsWith("; gate INCONCLUSIVE"), result.summary());
+    }
+
+    @Test
+    void testRunGate_knownFindingFailsWithoutCalls() {
+        // Arrange
+        Finding blocker = new Finding("A.java", 1, 1, "Secret", "r", "s", Severity.BLOCKER, ReviewerType.SECURITY);
+
+        // Act
+        ReviewResult result = workflowService.runGate(List.of(new DiffHunk("A.java", 1, 2, "+x\n")), List.of(blocker));
+
+        // Assert
+        assertEquals(List.of(blocker), result.findings());
+        assertTrue(result.summary().endsWith("gate FAILED at HIGH after scheduling 0 of 1 hunks"));
+        verifyNoInteractions(securityReviewer, executorService);
+    }
+}
@@ -0,0 +1,260 @@
+package com.hrpd.codereview.service;
+
+import com.hrpd.codereview.model.DiffHunk;
+import com.hrpd.codereview.model.FailedHunk;
+import com.hrpd.codereview.model.Finding;
+import com.hrpd.codereview.model.PrReviewState;
+import com.hrpd.codereview.model.ReviewResult;
+import com.hrpd.codereview.model.ReviewedHunk;
+import com.hrpd.codereview.model.ReviewerType;
+import com.hrpd.codereview.model.Severity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PullRequestReviewServiceImpl.
+ */
+@ExtendWith(MockitoExtension.class)
+class PullRequestReviewServiceImplTest {
+
+    private static final String SINGLE_COMMIT = """
+            From 1111111111111111111111111111111111111111 Mon Sep 17 00:00:00 2001
+            Subject: [PATCH] Add service
+
+            ---
+            diff --git a/Service.java b/Service.java
+            --- a/Service.java
+            +++ b/Service.java
+            @@ -1,2 +1,3 @@
+             class Service {
+            +    int a;
+             }
+            --\s
+            2.43.0
+            """;
+
+    private static final String TWO_COMMITS_SAME_FILE = """
+            From 1111111111111111111111111111111111111111 Mon Sep 17 00:00:00 2001
+            Subject: [PATCH 1/2] Add field
+
+            ---
+            diff --git a/Service.java b/Service.java
+            --- a/Service.java
+            +++ b/Service.java
+            @@ -1,2 +1,3 @@
+             class Service {
+            +    int a;
+             }
+            --\s
+            2.43.0
+
+            From 2222222222222222222222222222222222222222 Mon Sep 17 00:00:00 2001
+            Subject: [PATCH 2/2] Rename field
+
+            ---
+            diff --git a/Service.java b/Service.java
+            --- a/Service.java
+            +++ b/Service.java
+            @@ -1,3 +1,3 @@
+             class Service {
+            -    int a;
+            +    int b;
+             }
+            --\s
+            2.43.0
+            """;
+
+    private static final String NET_DIFF = """
+            diff --git a/Service.java b/Service.java
+            --- a/Service.java
+            +++ b/Service.java
+            @@ -1,2 +1,3 @@
+             class Service {
+            +    int b;
+             }
+            """;
+
+    @Mock
+    private GithubClientService githubClient;
+
+    @Mock
+    private ParallelWorkflowService workflow;
+
+    @Mock
+    private ReviewStateService reviewState;
+
+    private PullRequestReviewServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PullRequestReviewServiceImpl(githubClient, new DiffServiceImpl(), workflow);
+    }
+
+    @Test
+    void testReview_singleCommitUsesPatch() throws Exception {
+        // Arrange
+        when(githubClient.fetchPrPatch("owner/repo", 1)).thenReturn(SINGLE_COMMIT);
+        when(workflow.run(anyList(), anyBoolean())).thenReturn(new ReviewResult(List.of(), "Findings: 0"));
+
+        // Act
+        ReviewResult result = service.review("owner/repo", 1, true);
+
+        // Assert
+        assertEquals("Findings: 0", result.summary());
+        verify(githubClient, never()).fetchPrDiff(anyString(), anyInt());
+        verify(workflow).run(argThat(h -> h.size() == 1), eq(true));
+    }
+
+    @Test
+    void testReview_fileInSeveralCommitsUsesNetDiff() throws Exception {
+        // Arrange
+        when(githubClient.fetchPrPatch("owner/repo", 2)).thenReturn(TWO_COMMITS_SAME_FILE);
+        when(githubClient.fetchPrDiff("owner/repo", 2)).thenReturn(NET_DIFF);
+        when(workflow.run(anyList(), anyBoolean())).thenReturn(new ReviewResult(List.of(), "Findings: 0"));
+
+        // Act
+        ReviewResult result = service.review("owner/repo", 2, false);
+
+        // Assert
+        verify(workflow).run(argThat(h -> h.size() == 1 && h.get(0).patch().contains("int b;")), eq(false));
+        assertEquals("Findings: 0; net diff avoided 1 redundant hunks", result.summary());
+    }
+
+    @Test
+    void testTouchesFileRepeatedly() {
+        assertFalse(PullRequestReviewServiceImpl.touchesFileRepeatedly(SINGLE_COMMIT));
+        assertTrue(PullRequestReviewServiceImpl.touchesFileRepeatedly(TWO_COMMITS_SAME_FILE));
+        assertFalse(PullRequestReviewServiceImpl.touchesFileRepeatedly(NET_DIFF));
+    }
+
+    @Test
+    void testReview_incrementalCarriesUnchangedHunks() throws Exception {
+        // Arrange: the hunk was reviewed before at line 1; it now sits 10 lines lower
+        String moved = SINGLE_COMMIT.replace("@@ -1,2 +1,3 @@", "@@ -11,2 +11,3 @@");
+        DiffHunk before = new DiffServiceImpl().parseUnifiedPatch(SINGLE_COMMIT).get(0);
+        Finding old = new Finding("Service.java", 2, 2, "Unused field", "r", "s", Severity.LOW, ReviewerType.CLEAN_CODE);
+        String hash = IncrementalReview.hash(before);
+        when(reviewState.load("owner/repo", 3)).thenReturn(Optional.of(new PrReviewState("aaa",
+                Map.of(hash, new ReviewedHunk(hash, "Service.java", before.start(), List.of(old))))));
+        when(githubClient.fetchPrHeadSha("owner/repo", 3)).thenReturn("bbb");
+        when(githubClient.fetchPrPatch("owner/repo", 3)).thenReturn(moved);
+        service = new PullRequestReviewServiceImpl(githubClient, new DiffServiceImpl(), workflow, null, 0,
+                new AggregatorServiceImpl(), reviewState);
+
+        // Act
+        ReviewResult result = service.review("owner/repo", 3, false);
+
+        // Assert
+        verify(workflow, never()).run(anyList(), anyBoolean());
+        assertEquals(1, result.findings().size());
+        assertEquals(12, result.findings().get(0).lineStart());
+        assertTrue(result.summary().endsWith("; carried forward 1 findings from 1 unchanged hunks"));
+        verify(reviewState).save(eq("owner/repo"), eq(3), eq("bbb"), argThat((Collection<ReviewedHunk> hs) ->
+                hs.size() == 1 && hs.iterator().next().hash().equals(hash)
+                        && hs.iterator().next().findings().get(0).lineStart() == 12));
+    }
+
+    @Test
+    void testReview_incrementalReviewsNewHunksAndSavesState() throws Exception {
+        // Arrange: no prior review, head SHA lookup fails
+        when(reviewState.load("owner/repo", 4)).thenReturn(Optional.empty());
+        when(githubClient.fetchPrHeadSha("owner/repo", 4)).thenThrow(new IOException("boom"));
+        when(githubClient.fetchPrPatch("owner/repo", 4)).thenReturn(SINGLE_COMMIT);
+        Finding fresh = new Finding("Service.java", 2, 2, "Field name", "r", "s", Severity.INFO, ReviewerType.CLEAN_CODE);
+        when(workflow.run(anyList(), anyBoolean())).thenReturn(new ReviewResult(List.of(fresh), "Findings: 1"));
+        service = new PullRequestReviewServiceImpl(githubClient, new DiffServiceImpl(), workflow, null, 0,
+                new AggregatorServiceImpl(), reviewState);
+
+        // Act
+        ReviewResult result = service.review("owner/repo", 4, false);
+
+        // Assert
+        assertEquals("Findings: 1", result.summary());
+        verify(workflow).run(argThat(h -> h.size() == 1), eq(false));
+        verify(reviewState).save(eq("owner/repo"), eq(4), isNull(), argThat((Collection<ReviewedHunk> hs) ->
+                hs.size() == 1 && hs.iterator().next().findings().equals(List.of(fresh))));
+    }
+
+    @Test
+    void testReview_failedHunksAreListedButNotSaved() throws Exception {
+        // Arrange: the only hunk could not be reviewed by one reviewer
+        when(reviewState.load("owner/repo", 6)).thenReturn(Optional.empty());
+        when(githubClient.fetchPrHeadSha("owner/repo", 6)).thenReturn("ccc");
+        when(githubClient.fetchPrPatch("owner/repo", 6)).thenReturn(SINGLE_COMMIT);
+        DiffHunk hunk = new DiffServiceImpl().parseUnifiedPatch(SINGLE_COMMIT).get(0);
+        FailedHunk failed = FailedHunk.of(hunk, ReviewerType.SECURITY, new IllegalStateException("503"));
+        when(workflow.run(anyList(), anyBoolean()))
+                .thenReturn(new ReviewResult(List.of(), "Findings: 0; 1 hunk reviews failed", List.of(failed)));
+        service = new PullRequestReviewServiceImpl(githubClient, new DiffServiceImpl(), workflow, null, 0,
+                new AggregatorServiceImpl(), reviewState);
+
+        // Act
+        ReviewResult result = service.review("owner/repo", 6, false);
+
+        // Assert
+        assertEquals(List.of(failed), result.failedHunks());
+        verify(reviewState).save(eq("owner/repo"), eq(6), eq("ccc"), argThat((Collection<ReviewedHunk> hs) -> hs.isEmpty()));
+    }
+
+    @Test
+    void testGate_passesCarriedFindingsAndKeepsState() throws Exception {
+        // Arrange: the only hunk was reviewed before and had a blocker
+        DiffHunk before = new DiffServiceImpl().parseUnifiedPatch(NET_DIFF).get(0);
+        Finding blocker = new Finding("Service.java", 2, 2, "Secret", "r", "s", Severity.BLOCKER, ReviewerType.SECURITY);
+        String hash = IncrementalReview.hash(before);
+        when(reviewState.load("owner/repo", 5)).thenReturn(Optional.of(new PrReviewState("aaa",
+                Map.of(hash, new ReviewedHunk(hash, "Service.java", before.start(), List.of(blocker))))));
+        when(githubClient.fetchPrDiff("owner/repo", 5)).thenReturn(NET_DIFF);
+        ReviewResult gated = new ReviewResult(List.of(blocker), "Findings: 1 (BLOCKER=1, HIGH=0); gate FAILED");
+        when(workflow.runGate(List.of(), List.of(blocker))).thenReturn(gated);
+        service = new PullRequestReviewServiceImpl(githubClient, new DiffServiceImpl(), workflow, null, 0,
+                new AggregatorServiceImpl(), reviewState);
+
+        // Act
+        ReviewResult result = service.gate("owner/repo", 5);
+
+        // Assert
+        assertSame(gated, result);
+        verify(reviewState, never()).save(any(), anyInt(), any(), any());
+    }
+
+    @Test
+    void testReview_checkpointIsKeyedByConfigAndDroppedOnCompletion() throws Exception {
+        // Arrange
+        ReviewCheckpointService checkpoints = mock(ReviewCheckpointService.class);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        when(githubClient.fetchPrHeadSha("owner/repo", 7)).thenReturn("abc");
+        when(githubClient.streamPrDiff("owner/repo", 7))
+                .thenReturn(new ByteArrayInputStream(NET_DIFF.getBytes(StandardCharsets.UTF_8)));
+        when(workflow.runStreaming(any(), any(ReviewCheckpoint.class)))
+                .thenReturn(new ReviewResult(List.of(), "Findings: 0"));
+        service = new PullRequestReviewServiceImpl(githubClient, new DiffServiceImpl(), workflow, pool, 4,
+                null, null, checkpoints, "SECURITY|gpt-4o");
+
+        // Act
+        service.review("owner/repo", 7, true);
+        service.invalidateCachedResults();
+        pool.shutdown();
+
+        // Assert
+        verify(checkpoints).load("owner/repo#7@abc|SECURITY|gpt-4o");
+        verify(checkpoints).delete("owner/repo#7@abc|SECURITY|gpt-4o");
+        verify(checkpoints).deleteAll();
+    }
+}
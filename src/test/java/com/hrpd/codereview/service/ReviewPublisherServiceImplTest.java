@@ -0,0 +1,173 @@
+package com.hrpd.codereview.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hrpd.codereview.model.Finding;
+import com.hrpd.codereview.model.ReviewResult;
+import com.hrpd.codereview.model.ReviewerType;
+import com.hrpd.codereview.model.Severity;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ReviewPublisherServiceImpl against a local stand-in for the GitHub API.
+ */
+class ReviewPublisherServiceImplTest {
+
+    private static final String DIFF = """
+            diff --git a/Service.java b/Service.java
+            --- a/Service.java
+            +++ b/Service.java
+            @@ -10,2 +10,4 @@
+             class Service {
+            +    String password = "secret";
+            +    int unused;
+             }
+            """;
+
+    private static final Finding INLINE = new Finding("Service.java", 11, 11, "Hardcoded password",
+            "Secrets belong in the environment", "Read it from config", Severity.HIGH, ReviewerType.SECURITY);
+    private static final Finding MULTI_LINE = new Finding("Service.java", 11, 12, "Field naming",
+            "r", "s", Severity.LOW, ReviewerType.CLEAN_CODE);
+    private static final Finding OUTSIDE = new Finding("Service.java", 40, 40, "Long method",
+            "r", "s", Severity.MEDIUM, ReviewerType.CLEAN_CODE);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final List<String> submitted = new CopyOnWriteArrayList<>();
+    private volatile String postedComment = "";
+    private HttpServer server;
+    private HttpGithubClientService github;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        String base = "http://localhost:" + server.getAddress().getPort();
+        server.createContext("/repos/owner/repo/pulls/5", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            String query = exchange.getRequestURI().getQuery();
+            if (path.endsWith("/comments") && query.contains("page=2")) {
+                respond(exchange, 200, "[{\"body\": \"" + postedComment + "\"}]");
+            } else if (path.endsWith("/comments")) {
+                exchange.getResponseHeaders().add("Link",
+                        "<" + base + "/repos/owner/repo/pulls/5/comments?per_page=100&page=2>; rel=\"next\"");
+                respond(exchange, 200, "[]");
+            } else if (path.endsWith("/reviews") && "POST".equals(exchange.getRequestMethod())) {
+                submitted.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                respond(exchange, 200, "{\"id\": 1}");
+            } else if (path.endsWith("/reviews")) {
+                respond(exchange, 200, "[]");
+            } else if (exchange.getRequestHeaders().getFirst("Accept").contains("diff")) {
+                respond(exchange, 200, DIFF);
+            } else {
+                respond(exchange, 200, "{\"head\": {\"sha\": \"abc123\"}}");
+            }
+        });
+        server.start();
+        github = new HttpGithubClientService(base, "token");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testPublish_postsOneReviewWithInlineComments() throws Exception {
+        // Arrange
+        ReviewPublisherServiceImpl publisher = new ReviewPublisherServiceImpl(github, new DiffServiceImpl(), 50);
+
+        // Act
+        int posted = publisher.publish("owner/repo", 5,
+                new ReviewResult(List.of(INLINE, MULTI_LINE, OUTSIDE), "Findings: 3"));
+
+        // Assert
+        assertEquals(3, posted);
+        assertEquals(1, submitted.size());
+        JsonNode review = mapper.readTree(submitted.get(0));
+        assertEquals("abc123", review.get("commit_id").asText());
+        assertEquals("COMMENT", review.get("event").asText());
+        assertTrue(review.get("body").asText().contains("Service.java:40"));
+        JsonNode comments = review.get("comments");
+        assertEquals(2, comments.size());
+        assertEquals(11, comments.get(0).get("line").asInt());
+        assertFalse(comments.get(0).has("start_line"));
+        assertEquals(11, comments.get(1).get("start_line").asInt());
+        assertEquals(12, comments.get(1).get("line").asInt());
+    }
+
+    @Test
+    void testPublish_skipsFindingsPostedBefore() throws Exception {
+        // Arrange: the inline finding is already on the PR (found on the second page)
+        postedComment = "<!-- codereview:fp=" + ReviewPublisherServiceImpl.fingerprint(INLINE) + " -->";
+        ReviewPublisherServiceImpl publisher = new ReviewPublisherServiceImpl(github, new DiffServiceImpl(), 50);
+
+        // Act
+        int posted = publisher.publish("owner/repo", 5, new ReviewResult(List.of(INLINE), "Findings: 1"));
+
+        // Assert
+        assertEquals(0, posted);
+        assertTrue(submitted.isEmpty());
+    }
+
+    @Test
+    void testPublish_postsSameIssueOnAnotherLine() throws Exception {
+        // Arrange: the password on line 11 was posted before; a second one turned up on line 12
+        postedComment = "<!-- codereview:fp=" + ReviewPublisherServiceImpl.fingerprint(INLINE) + " -->";
+        Finding again = new Finding("Service.java", 12, 12, "Hardcoded password",
+                "Secrets belong in the environment", "Read it from config", Severity.HIGH, ReviewerType.SECURITY);
+        ReviewPublisherServiceImpl publisher = new ReviewPublisherServiceImpl(github, new DiffServiceImpl(), 50);
+
+        // Act
+        int posted = publisher.publish("owner/repo", 5, new ReviewResult(List.of(again, INLINE), "Findings: 2"));
+
+        // Assert: only the second occurrence is new
+        assertEquals(1, posted);
+        JsonNode comments = mapper.readTree(submitted.get(0)).get("comments");
+        assertEquals(1, comments.size());
+        assertEquals(12, comments.get(0).get("line").asInt());
+        assertTrue(comments.get(0).get("body").asText()
+                .contains(ReviewPublisherServiceImpl.fingerprint(again, 1)));
+    }
+
+    @Test
+    void testPublish_splitsOnlyAboveCommentLimit() throws Exception {
+        // Arrange
+        ReviewPublisherServiceImpl publisher = new ReviewPublisherServiceImpl(github, new DiffServiceImpl(), 1);
+
+        // Act
+        publisher.publish("owner/repo", 5, new ReviewResult(List.of(INLINE, MULTI_LINE), "Findings: 2"));
+
+        // Assert
+        assertEquals(2, submitted.size());
+        assertEquals(1, mapper.readTree(submitted.get(1)).get("comments").size());
+    }
+
+    @Test
+    void testNextLink() {
+        assertEquals("https://api.github.com/x?page=2", HttpGithubClientService.nextLink(
+                "<https://api.github.com/x?page=2>; rel=\"next\", <https://api.github.com/x?page=5>; rel=\"last\""));
+        assertNull(HttpGithubClientService.nextLink("<https://api.github.com/x?page=1>; rel=\"prev\""));
+        assertNull(HttpGithubClientService.nextLink(null));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+        exchange.close();
+    }
+}
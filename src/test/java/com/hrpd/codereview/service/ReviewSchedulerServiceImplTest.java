@@ -0,0 +1,107 @@
+package com.hrpd.codereview.service;
+
+import com.hrpd.codereview.model.ReviewResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReviewSchedulerServiceImpl.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReviewSchedulerServiceImplTest {
+
+    private static final ReviewResult RESULT = new ReviewResult(List.of(), "Findings: 0");
+
+    @Mock
+    private PullRequestReviewService reviews;
+
+    @Mock
+    private GithubClientService githubClient;
+
+    private ExecutorService pool;
+    private ReviewSchedulerServiceImpl scheduler;
+
+    @BeforeEach
+    void setUp() {
+        pool = Executors.newCachedThreadPool();
+        scheduler = new ReviewSchedulerServiceImpl(reviews, githubClient, pool, Duration.ofMillis(200), true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.close();
+        pool.shutdownNow();
+    }
+
+    @Test
+    void testSchedule_burstOfEventsIsReviewedOnce() throws Exception {
+        // Arrange
+        when(reviews.review("owner/repo", 1, true)).thenReturn(RESULT);
+
+        // Act
+        scheduler.schedule("owner/repo", 1, "aaa");
+        scheduler.schedule("owner/repo", 1, "bbb");
+        scheduler.schedule("owner/repo", 1, "ccc");
+
+        // Assert
+        verify(reviews, timeout(2000)).review("owner/repo", 1, true);
+        Thread.sleep(400);
+        verify(reviews, times(1)).review("owner/repo", 1, true);
+        verify(githubClient, timeout(2000).atLeastOnce()).fetchPrDiff("owner/repo", 1);
+        assertEquals(RESULT, scheduler.latest("owner/repo", 1).orElseThrow());
+    }
+
+    @Test
+    void testSchedule_newHeadCancelsRunningReview() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(reviews.review("owner/repo", 2, true))
+                .thenAnswer(_ -> {
+                    started.countDown();
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                        throw e;
+                    }
+                    return RESULT;
+                })
+                .thenReturn(RESULT);
+        scheduler.schedule("owner/repo", 2, "aaa");
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+
+        // Act
+        scheduler.schedule("owner/repo", 2, "bbb");
+
+        // Assert
+        assertTrue(interrupted.await(2, TimeUnit.SECONDS));
+        verify(reviews, timeout(2000).times(2)).review("owner/repo", 2, true);
+    }
+
+    @Test
+    void testCancel_dropsPendingReview() throws Exception {
+        // Act
+        scheduler.schedule("owner/repo", 3, "aaa");
+        scheduler.cancel("owner/repo", 3);
+        Thread.sleep(400);
+
+        // Assert
+        verify(reviews, never()).review(anyString(), anyInt(), anyBoolean());
+        assertTrue(scheduler.latest("owner/repo", 3).isEmpty());
+    }
+}
@@ -0,0 +1,80 @@
+package com.hrpd.codereview.service;
+
+import com.hrpd.codereview.model.ReviewTimings;
+import com.hrpd.codereview.model.ReviewerType;
+import com.hrpd.codereview.model.TimedPhase;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ReviewTimer.
+ */
+class ReviewTimerTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void testTimings_marksCriticalPathAndQueueWait() {
+        // Arrange
+        ReviewTimer timer = new ReviewTimer();
+        long t0 = System.nanoTime();
+        timer.record("parse", null, t0, t0 + 2 * MS);
+        timer.record("call", ReviewerType.SECURITY, "A.java:1-5", t0 + 2 * MS, t0 + 2 * MS, t0 + 10 * MS);
+        timer.record("call", ReviewerType.PERFORMANCE, "A.java:1-5", t0 + 2 * MS, t0 + 10 * MS, t0 + 30 * MS);
+        timer.record("call", ReviewerType.CLEAN_CODE, "A.java:1-5", t0 + 2 * MS, t0 + 3 * MS, t0 + 8 * MS);
+        timer.record("aggregation", "snapshot", t0 + 30 * MS, t0 + 31 * MS);
+
+        // Act
+        ReviewTimings timings = timer.timings();
+
+        // Assert
+        List<TimedPhase> phases = timings.phases();
+        assertEquals(5, phases.size());
+        assertEquals(List.of("parse", "call", "call", "call", "aggregation"),
+                phases.stream().map(TimedPhase::phase).toList());
+        TimedPhase performance = phases.stream()
+                .filter(p -> p.reviewer() == ReviewerType.PERFORMANCE).findFirst().orElseThrow();
+        assertEquals(8.0, performance.queuedMs(), 0.01);
+        assertEquals(20.0, performance.durationMs(), 0.01);
+        assertEquals(List.of("parse", "SECURITY", "PERFORMANCE", "aggregation"), phases.stream()
+                .filter(TimedPhase::critical)
+                .map(p -> p.reviewer() == null ? p.phase() : p.reviewer().name())
+                .toList());
+        assertTrue(timings.totalMs() >= 0);
+    }
+
+    @Test
+    void testCurrent_followsBindingAndOffRecordsNothing() {
+        // Arrange
+        ReviewTimer timer = new ReviewTimer();
+
+        // Act
+        try (var scope = timer.bind()) {
+            assertSame(timer, ReviewTimer.current());
+            ReviewTimer.current().record("fetch", "diff", 0, MS);
+        }
+        ReviewTimer.current().record("fetch", "diff", 0, MS);
+
+        // Assert
+        assertSame(ReviewTimer.OFF, ReviewTimer.current());
+        assertFalse(ReviewTimer.OFF.enabled());
+        assertEquals(1, timer.timings().phases().size());
+        assertTrue(ReviewTimer.OFF.timings().phases().isEmpty());
+    }
+
+    @Test
+    void testCall_bindsTimerForTask() {
+        // Arrange
+        ReviewTimer timer = new ReviewTimer();
+
+        // Act
+        ReviewTimer seen = timer.call(ReviewTimer::current);
+
+        // Assert
+        assertSame(timer, seen);
+        assertSame(ReviewTimer.OFF, ReviewTimer.current());
+    }
+}
@@ -1,19 +1,34 @@
 package com.hrpd.codereview.service;
 
+import com.hrpd.codereview.model.TokenUsage;
+import com.hrpd.codereview.reviewer.TokenMeter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.metadata.DefaultUsage;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.embedding.EmbeddingResponseMetadata;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -25,6 +40,12 @@ class StandardsRetrieverServiceImplTest {
     @Mock
     private VectorStore vectorStore;
 
+    @Mock
+    private EmbeddingModel embeddingModel;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
     private StandardsRetrieverServiceImpl retrieverService;
 
     @BeforeEach
@@ -226,21 +247,97 @@ class StandardsRetrieverServiceImplTest {
     }
 
     @Test
-    void testRetrieveContext_withEmptyQuery() {
+    void testRetrieveContext_routesIndexedCategoryToPartialIndex() {
         // Arrange
-        String query = "";
-        int topK = 5;
-        String categoryHint = "general";
+        StandardsRetrieverServiceImpl routed =
+                new StandardsRetrieverServiceImpl(vectorStore, embeddingModel, jdbcTemplate);
+        when(embeddingModel.call(argThat(req -> req.getInstructions().equals(List.of("java security")))))
+                .thenReturn(embedding(new float[]{0.5f, -1.0f}, 0));
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(), any()))
+                .thenReturn(List.of("Security standard 1", "Security standard 2"));
 
-        when(vectorStore.similaritySearch(any(SearchRequest.class))).thenReturn(List.of());
+        // Act
+        String result = routed.retrieveContext("java security", 2, "security");
+
+        // Assert
+        assertEquals("- Security standard 1\n- Security standard 2", result);
+        verify(jdbcTemplate).queryForList(
+                StandardsRetrieverServiceImpl.partialIndexSql("security"), String.class, "[0.5,-1.0]", 2);
+        verify(vectorStore, never()).similaritySearch(any(SearchRequest.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRetrieveContext_unindexedCategoryUsesIterativeScan() {
+        // Arrange
+        StandardsRetrieverServiceImpl routed =
+                new StandardsRetrieverServiceImpl(vectorStore, embeddingModel, jdbcTemplate);
+        when(embeddingModel.call(any(EmbeddingRequest.class))).thenReturn(embedding(new float[]{0.1f}, 0));
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(List.of("Docs standard"));
 
         // Act
-        String result = retrieverService.retrieveContext(query, topK, categoryHint);
+        String result = routed.retrieveContext("java docs", 3, "docs");
 
         // Assert
-        assertNotNull(result);
-        assertEquals("", result);
-        
+        assertEquals("- Docs standard", result);
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class), any(), any());
+        verify(vectorStore, never()).similaritySearch(any(SearchRequest.class));
+    }
+
+    @Test
+    void testRetrieveContext_fallsBackToVectorStoreWhenDatabaseFails() {
+        // Arrange
+        StandardsRetrieverServiceImpl routed =
+                new StandardsRetrieverServiceImpl(vectorStore, embeddingModel, jdbcTemplate);
+        when(embeddingModel.call(any(EmbeddingRequest.class))).thenReturn(embedding(new float[]{0.1f}, 0));
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(), any()))
+                .thenThrow(new BadSqlGrammarException("search", "SELECT", new SQLException("no index")));
+        when(vectorStore.similaritySearch(any(SearchRequest.class)))
+                .thenReturn(List.of(new Document("Performance standard", Map.of("category", "performance"))));
+
+        // Act
+        String result = routed.retrieveContext("java performance", 3, "performance");
+
+        // Assert
+        assertEquals("- Performance standard", result);
         verify(vectorStore).similaritySearch(any(SearchRequest.class));
     }
+
+    @Test
+    void testRetrieveContext_withoutCategoryIgnoresPartialIndexes() {
+        // Arrange
+        StandardsRetrieverServiceImpl routed =
+                new StandardsRetrieverServiceImpl(vectorStore, embeddingModel, jdbcTemplate);
+        when(vectorStore.similaritySearch(any(SearchRequest.class)))
+                .thenReturn(List.of(new Document("Any standard", Map.of("category", "general"))));
+
+        // Act
+        String result = routed.retrieveContext("java", 1, null);
+
+        // Assert
+        assertEquals("- Any standard", result);
+        verifyNoInteractions(embeddingModel, jdbcTemplate);
+    }
+
+    @Test
+    void testRetrieveContext_chargesQueryEmbeddingToTokenMeter() {
+        // Arrange
+        StandardsRetrieverServiceImpl routed =
+                new StandardsRetrieverServiceImpl(vectorStore, embeddingModel, jdbcTemplate);
+        when(embeddingModel.call(any(EmbeddingRequest.class))).thenReturn(embedding(new float[]{0.1f}, 7));
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(), any()))
+                .thenReturn(List.of("Security standard"));
+        TokenMeter meter = new TokenMeter(0);
+
+        // Act
+        meter.call(() -> routed.retrieveContext("java security", 1, "security"));
+
+        // Assert
+        assertEquals(new TokenUsage(7, 0, 0), meter.usage());
+    }
+
+    private static EmbeddingResponse embedding(float[] vector, int promptTokens) {
+        return new EmbeddingResponse(List.of(new Embedding(vector, 0)),
+                new EmbeddingResponseMetadata("text-embedding-3-small", new DefaultUsage(promptTokens, 0)));
+    }
 }
@@ -0,0 +1,98 @@
+package com.hrpd.codereview.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FairPermits.
+ */
+class FairPermitsTest {
+
+    @Test
+    void testRelease_servesLanesRoundRobin() throws Exception {
+        // Arrange: the only permit is taken, lane A queues three waiters before lane B queues one
+        FairPermits permits = new FairPermits(1);
+        permits.acquire("A");
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        for (String lane : List.of("A", "A", "A", "B")) {
+            Thread t = new Thread(() -> {
+                try {
+                    permits.acquire(lane);
+                    order.add(lane);
+                    permits.release();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads.add(t);
+            t.start();
+            awaitWaiters(permits, lane.equals("B") ? 2 : 1);
+            Thread.sleep(20);
+        }
+
+        // Act
+        permits.release();
+        for (Thread t : threads) {
+            t.join(2000);
+        }
+
+        // Assert: B gets the second permit instead of waiting behind all of A
+        assertEquals(List.of("A", "B", "A", "A"), order);
+    }
+
+    @Test
+    void testAcquire_interruptedWaiterLeavesQueue() throws Exception {
+        // Arrange
+        FairPermits permits = new FairPermits(1);
+        permits.acquire("A");
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            try {
+                permits.acquire("B");
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        waiter.start();
+        awaitWaiters(permits, 1);
+
+        // Act
+        waiter.interrupt();
+
+        // Assert
+        assertTrue(interrupted.await(2, TimeUnit.SECONDS));
+        assertEquals(0, permits.waitingLanes());
+        permits.release();
+        permits.acquire("C");
+    }
+
+    @Test
+    void testInUse_countsTakenPermits() throws Exception {
+        // Arrange
+        FairPermits permits = new FairPermits(3);
+
+        // Act
+        permits.acquire("A");
+        permits.acquire("B");
+
+        // Assert
+        assertEquals(2, permits.inUse());
+        permits.release();
+        assertEquals(1, permits.inUse());
+    }
+
+    private static void awaitWaiters(FairPermits permits, int lanes) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (permits.waitingLanes() < lanes && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
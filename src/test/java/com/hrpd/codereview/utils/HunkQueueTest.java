@@ -0,0 +1,33 @@
+package com.hrpd.codereview.utils;
+
+import com.hrpd.codereview.model.DiffHunk;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HunkQueue.
+ */
+class HunkQueueTest {
+
+    @Test
+    void testDepth_countsOnlyTheQueuesOfItsRegistry() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SimpleMeterRegistry other = new SimpleMeterRegistry();
+        HunkQueue first = new HunkQueue(4, registry);
+        HunkQueue second = new HunkQueue(4, registry);
+        HunkQueue elsewhere = new HunkQueue(4, other);
+
+        // Act
+        first.accept(new DiffHunk("A.java", 1, 2, "+a"));
+        second.accept(new DiffHunk("B.java", 1, 2, "+b"));
+        second.complete();
+        elsewhere.accept(new DiffHunk("C.java", 1, 2, "+c"));
+
+        // Assert: the end marker is not a hunk
+        assertEquals(2.0, registry.get(HunkQueue.DEPTH_METRIC).gauge().value());
+        assertEquals(1.0, other.get(HunkQueue.DEPTH_METRIC).gauge().value());
+    }
+}
@@ -0,0 +1,48 @@
+package com.hrpd.codereview.utils;
+
+import com.hrpd.codereview.model.DiffHunk;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HunkRisk.
+ */
+class HunkRiskTest {
+
+    @Test
+    void testRiskiestFirst() {
+        // Arrange
+        DiffHunk plain = new DiffHunk("src/main/java/Util.java", 1, 4, " ctx\n+int a;\n+int b;\n-int c;\n");
+        DiffHunk sensitive = new DiffHunk("src/main/java/Login.java", 1, 2, "+String password = read();\n");
+        DiffHunk test = new DiffHunk("src/test/java/LoginTest.java", 1, 2, "+String password = \"x\";\n");
+        DiffHunk docs = new DiffHunk("README.md", 1, 3, "+Use a token\n+to log in\n");
+        DiffHunk alsoPlain = new DiffHunk("src/main/java/Other.java", 1, 4, "+int x;\n+int y;\n");
+
+        // Act
+        List<DiffHunk> ordered = HunkRisk.riskiestFirst(List.of(docs, test, plain, alsoPlain, sensitive));
+
+        // Assert: equal scores keep diff order
+        assertEquals(List.of(sensitive, test, plain, alsoPlain, docs), ordered);
+    }
+
+    @Test
+    void testScore_scalesDownTestsButNotFilesMerelyContainingTest() {
+        String patch = "+int a;\n+int b;\n+int c;\n+int d;\n";
+        for (String test : List.of("src/test/java/A.java", "LoginTest.java", "LoginTests.kt", "TestLogin.java",
+                "pkg/login_test.go", "tests/test_login.py", "web/login.spec.ts", "web/__tests__/a.js")) {
+            assertEquals(1, HunkRisk.score(new DiffHunk(test, 1, 4, patch)), test);
+        }
+        for (String production : List.of("src/main/java/Latest.java", "latest.java", "contest.py", "attest.go",
+                "src/main/java/Contest.java")) {
+            assertEquals(4, HunkRisk.score(new DiffHunk(production, 1, 4, patch)), production);
+        }
+    }
+
+    @Test
+    void testScore_ignoresFileHeadersAndRemovedLines() {
+        assertEquals(1, HunkRisk.score(new DiffHunk("A.java", 1, 2, "+++ b/A.java\n-String secret;\n+int a;\n")));
+    }
+}
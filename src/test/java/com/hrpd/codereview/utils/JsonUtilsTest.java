@@ -3,6 +3,7 @@ package com.hrpd.codereview.utils;
 import com.hrpd.codereview.model.Finding;
 import com.hrpd.codereview.model.ReviewerType;
 import com.hrpd.codereview.model.Severity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -261,4 +262,76 @@ class JsonUtilsTest {
         assertEquals("Second Issue", secondFinding.title());
         assertEquals(Severity.LOW, secondFinding.severity());
     }
+
+    @Test
+    void testParseFindings_salvagesCompleteFindingsFromTruncatedResponse() {
+        // Test case: the model hit its token limit inside the second finding
+        String truncated = """
+            ```json
+            {
+              "findings": [
+                {"title": "Complete", "severity": "HIGH", "lineStart": 4, "lineEnd": 5},
+                {"title": "Cut off", "rationale": "The response ends in the middle of this str""";
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        List<Finding> findings = JsonUtils.parseFindings(truncated, ReviewerType.SECURITY, "TestFile.java",
+                registry);
+
+        assertEquals(1, findings.size());
+        assertEquals("Complete", findings.get(0).title());
+        assertEquals("TestFile.java", findings.get(0).filePath());
+        assertEquals(1.0, registry.counter(JsonUtils.PARSE_METRIC,
+                "reviewer", "SECURITY", "outcome", "truncated").count());
+    }
+
+    @Test
+    void testParseFindings_stopsAtEndOfFindingsArray() {
+        // Test case: unknown fields are skipped and text after the array is never parsed
+        String response = """
+            Here you go: {"summary": {"text": "[not findings]"}, "findings": [
+              {"title": "Only", "severity": "medium", "extra": {"nested": [1, 2]}, "lineStart": "7"}
+            ], "summary2": } and some {broken text
+            """;
+
+        List<Finding> findings = JsonUtils.parseFindings(response, ReviewerType.PERFORMANCE, "TestFile.java");
+
+        assertEquals(1, findings.size());
+        assertEquals(Severity.MEDIUM, findings.get(0).severity());
+        assertEquals(7, findings.get(0).lineStart());
+    }
+
+    @Test
+    void testParseFindings_withBareArray() {
+        List<Finding> findings = JsonUtils.parseFindings("[{\"title\": \"A\"}, {\"title\": \"B\"}]",
+                ReviewerType.CLEAN_CODE);
+
+        assertEquals(List.of("A", "B"), findings.stream().map(Finding::title).toList());
+    }
+
+    @Test
+    void testParseCompactFindings() {
+        // Test case: one-letter keys, severity initials, and the hunk path when "p" is empty or missing
+        String response = """
+            {"f":[{"t":"SQL injection","r":"Concatenated id","s":"Bind it","v":"B","p":"","l":12,"e":14},
+            {"t":"Slow loop","r":"r","s":"s","v":"m","p":"Other.java","l":3,"e":3,"x":[1]},
+            {"t":"Naming","v":"?"}]}
+            """;
+
+        List<Finding> findings = JsonUtils.parseCompactFindings(response, ReviewerType.SECURITY, "TestFile.java");
+
+        assertEquals(List.of(
+                new Finding("TestFile.java", 12, 14, "SQL injection", "Concatenated id", "Bind it",
+                        Severity.BLOCKER, ReviewerType.SECURITY),
+                new Finding("Other.java", 3, 3, "Slow loop", "r", "s", Severity.MEDIUM, ReviewerType.SECURITY),
+                new Finding("TestFile.java", 0, 0, "Naming", "", "", Severity.INFO, ReviewerType.SECURITY)),
+                findings);
+    }
+
+    @Test
+    void testFindJsonStart() {
+        assertEquals(-1, JsonUtils.findJsonStart("No JSON here"));
+        assertEquals(7, JsonUtils.findJsonStart("```json\n{}"));
+        // A generic block that is not JSON falls back to the first brace
+        assertEquals(24, JsonUtils.findJsonStart("```java\nint x;\n``` then {}"));
+    }
 }
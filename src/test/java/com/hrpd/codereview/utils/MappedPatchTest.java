@@ -0,0 +1,94 @@
+package com.hrpd.codereview.utils;
+
+import com.hrpd.codereview.model.DiffHunk;
+import com.hrpd.codereview.service.DiffServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MappedPatch.
+ */
+class MappedPatchTest {
+
+    @TempDir
+    Path spoolDir;
+
+    private static final String PATCH = """
+            diff --git a/src/Grüße.java b/src/Grüße.java
+            --- a/src/Grüße.java
+            +++ b/src/Grüße.java
+            @@ -1,2 +1,3 @@
+             class Grüße {
+            +    String greeting = "¡Hola, señor! 👋";
+             }
+            """;
+
+    @Test
+    void testSpool_parsesHunksAsViewsAndDecodesUtf8() throws IOException {
+        // Arrange
+        byte[] bytes = PATCH.getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        try (MappedPatch patch = MappedPatch.spool(new ByteArrayInputStream(bytes), spoolDir, 1024)) {
+            List<DiffHunk> hunks = new DiffServiceImpl().parseUnifiedPatch(patch);
+
+            // Assert
+            assertEquals(bytes.length, patch.length());
+            assertEquals(1, hunks.size());
+            assertEquals("src/Grüße.java", hunks.get(0).filePath());
+            assertEquals(1, hunks.get(0).start());
+            assertEquals(3, hunks.get(0).end());
+            assertTrue(hunks.get(0).patch().contains("\"¡Hola, señor! 👋\""));
+            assertEquals(PATCH, patch.toString());
+        }
+    }
+
+    @Test
+    void testClose_deletesSpooledFile() throws IOException {
+        // Arrange
+        MappedPatch patch = MappedPatch.spool(
+                new ByteArrayInputStream(PATCH.getBytes(StandardCharsets.UTF_8)), spoolDir, 1024);
+        CharSequence view = patch.subSequence(0, 10);
+
+        // Act
+        patch.close();
+
+        // Assert
+        try (var files = Files.list(spoolDir)) {
+            assertEquals(0, files.count());
+        }
+        assertEquals("diff --git", view.toString());
+    }
+
+    @Test
+    void testSpool_rejectsPatchOverLimitAndCleansUp() throws IOException {
+        // Arrange
+        byte[] bytes = PATCH.getBytes(StandardCharsets.UTF_8);
+
+        // Act & Assert
+        assertThrows(PatchTooLargeException.class,
+                () -> MappedPatch.spool(new ByteArrayInputStream(bytes), spoolDir, 16));
+        try (var files = Files.list(spoolDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void testSubSequence_isBoundsChecked() throws IOException {
+        try (MappedPatch patch = MappedPatch.spool(
+                new ByteArrayInputStream("abc".getBytes(StandardCharsets.UTF_8)), spoolDir, 16)) {
+            assertEquals("bc", patch.subSequence(1, 3).toString());
+            assertThrows(IndexOutOfBoundsException.class, () -> patch.subSequence(2, 4));
+            assertThrows(IndexOutOfBoundsException.class, () -> patch.charAt(3));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.hrpd.codereview.utils;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for WebhookSignature.
+ */
+class WebhookSignatureTest {
+
+    private static final byte[] BODY = "{\"action\":\"opened\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void testMatches_validSignature() throws Exception {
+        // Arrange
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec("s3cret".getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        String header = "sha256=" + HexFormat.of().formatHex(mac.doFinal(BODY));
+        WebhookSignature signature = new WebhookSignature("s3cret");
+
+        // Act & Assert
+        assertTrue(signature.matches(BODY, header));
+        assertFalse(signature.matches("{}".getBytes(StandardCharsets.UTF_8), header));
+    }
+
+    @Test
+    void testMatches_missingOrMalformedHeader() {
+        WebhookSignature signature = new WebhookSignature("s3cret");
+
+        assertFalse(signature.matches(BODY, null));
+        assertFalse(signature.matches(BODY, "sha1=abc"));
+        assertFalse(signature.matches(BODY, "sha256=not-hex"));
+    }
+
+    @Test
+    void testMatches_withoutSecretRejectsAll() {
+        WebhookSignature signature = new WebhookSignature("");
+
+        assertFalse(signature.isEnabled());
+        assertFalse(signature.matches(BODY, null));
+        assertFalse(signature.matches(BODY, "sha256=" + "00".repeat(32)));
+    }
+}